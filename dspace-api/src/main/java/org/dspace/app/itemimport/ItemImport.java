@@ -39,6 +39,8 @@ import org.dspace.eperson.service.EPersonService;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
 import org.dspace.scripts.DSpaceRunnable;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.utils.DSpace;
 
 /**
@@ -83,6 +85,8 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
     protected boolean help = false;
     protected File workDir = null;
     protected File workFile = null;
+    protected int threads = 1;
+    protected File streamedZip = null;
 
     protected static final CollectionService collectionService =
             ContentServiceFactory.getInstance().getCollectionService();
@@ -147,6 +151,28 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             isQuiet = true;
         }
 
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        if (commandLine.hasOption('t')) {
+            try {
+                threads = Integer.parseInt(commandLine.getOptionValue('t'));
+            } catch (NumberFormatException e) {
+                throw new ParseException("The number of threads must be an integer: "
+                                             + commandLine.getOptionValue('t'));
+            }
+        } else {
+            threads = configurationService.getIntProperty("org.dspace.app.batchitemimport.threads", 1);
+        }
+        if (threads < 1) {
+            throw new ParseException("The number of threads must be at least 1: " + threads);
+        }
+        // each thread holds a database connection
+        int maxThreads = configurationService.getIntProperty("org.dspace.app.batchitemimport.max-threads", 4);
+        if (threads > maxThreads) {
+            handler.logWarning("Using " + maxThreads + " threads instead of " + threads
+                                   + " (org.dspace.app.batchitemimport.max-threads)");
+            threads = maxThreads;
+        }
+
         setZip();
     }
 
@@ -217,6 +243,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             itemImportService.setUseWorkflow(useWorkflow);
             itemImportService.setUseWorkflowSendEmail(useWorkflowSendEmail);
             itemImportService.setQuiet(isQuiet);
+            itemImportService.setThreads(threads);
             itemImportService.setHandler(handler);
 
             try {
@@ -309,7 +336,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
         readMapfile(context);
 
         if ("add".equals(command)) {
-            itemImportService.addItems(context, collections, sourcedir, mapfile, template);
+            addItems(context, itemImportService, collections);
         } else if ("replace".equals(command)) {
             itemImportService.replaceItems(context, collections, sourcedir, mapfile, template);
         } else if ("delete".equals(command)) {
@@ -360,7 +387,43 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
 
         workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                            + File.separator + context.getCurrentUser().getID());
-        sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath());
+        unzip(itemImportService, workFile);
+    }
+
+    /**
+     * Unzip the SAF archive into the work directory, or, if it can be
+     * extracted while the items are imported, only set the source directory
+     * to its extraction directory
+     * @param itemImportService
+     * @param zipFile
+     * @throws IOException
+     */
+    protected void unzip(ItemImportService itemImportService, File zipFile) throws IOException {
+        if (threads > 1 && "add".equals(command)) {
+            streamedZip = zipFile;
+            sourcedir = workDir.getAbsolutePath() + File.separator + zipFile.getName();
+        } else {
+            sourcedir = itemImportService.unzip(zipFile, workDir.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Add the items of the source directory, or of the zip archive while it is
+     * extracted
+     * @param context
+     * @param itemImportService
+     * @param collections
+     * @throws Exception
+     */
+    protected void addItems(Context context, ItemImportService itemImportService,
+            List<Collection> collections) throws Exception {
+        if (streamedZip != null) {
+            try (InputStream zipStream = new FileInputStream(streamedZip)) {
+                sourcedir = itemImportService.addItems(context, collections, zipStream, sourcedir, mapfile, template);
+            }
+        } else {
+            itemImportService.addItems(context, collections, sourcedir, mapfile, template);
+        }
     }
 
     /**
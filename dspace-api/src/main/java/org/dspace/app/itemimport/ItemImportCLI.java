@@ -89,7 +89,7 @@ public class ItemImportCLI extends ItemImport {
     protected void process(Context context, ItemImportService itemImportService,
             List<Collection> collections) throws Exception {
         if ("add".equals(command)) {
-            itemImportService.addItems(context, collections, sourcedir, mapfile, template);
+            addItems(context, itemImportService, collections);
         } else if ("replace".equals(command)) {
             itemImportService.replaceItems(context, collections, sourcedir, mapfile, template);
         } else if ("delete".equals(command)) {
@@ -115,8 +115,7 @@ public class ItemImportCLI extends ItemImport {
 
                 workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                         + File.separator + context.getCurrentUser().getID());
-                sourcedir = itemImportService.unzip(
-                        new File(sourcedir + File.separator + zipfilename), workDir.getAbsolutePath());
+                unzip(itemImportService, new File(sourcedir + File.separator + zipfilename));
             } else {
                 // manage zip via remote url
                 Optional<InputStream> optionalFileStream = Optional.ofNullable(new URL(zipfilename).openStream());
@@ -132,7 +131,7 @@ public class ItemImportCLI extends ItemImport {
                     FileUtils.copyInputStreamToFile(optionalFileStream.get(), workFile);
                     workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                                        + File.separator + context.getCurrentUser().getID());
-                    sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath());
+                    unzip(itemImportService, workFile);
                 } else {
                     throw new IllegalArgumentException(
                             "Error reading file, the file couldn't be found for filename: " + zipfilename);
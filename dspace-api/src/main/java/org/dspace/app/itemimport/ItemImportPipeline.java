@@ -0,0 +1,525 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemimport;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Context;
+import org.w3c.dom.Document;
+
+/**
+ * Pipelined import of Simple Archive Format items, used by {@link ItemImportServiceImpl} when it is given more
+ * than one thread.
+ * <P>
+ * A reader thread lists the item directories to import, or extracts the entries of a zip archive as they are
+ * read from a stream, handing over each item directory as soon as all its files are on disk. A pool of workers
+ * then prepares the items in parallel, each in its own {@link Context}: they parse and validate the metadata
+ * files and store the content files into the assetstore, as bitstreams committed without any bundle. The calling
+ * thread finally installs the prepared items one at a time in its own context, which is committed every
+ * {@code batchSize} items. The lines of the map file are only written once the items they describe are
+ * committed, so that an interrupted import can be resumed from the map file.
+ * <P>
+ * The bitstreams of the items which the installer skips (e.g. for lack of a collection) are deleted with the
+ * next commit. An error preparing or installing an item stops the import: the items installed since the last
+ * commit are rolled back, and the bitstreams stored for the items which were not committed are deleted.
+ */
+class ItemImportPipeline {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Marks the end of the item directories, put back by each worker which reads it for the next one
+     */
+    private static final ItemDirectory END_OF_DIRECTORIES = new ItemDirectory(null, null);
+
+    /**
+     * Marks the end of the prepared items of a worker
+     */
+    private static final PreparedItem END_OF_ITEMS = new PreparedItem(null, Map.of(), Map.of());
+
+    /**
+     * An item directory to import.
+     *
+     * @param path     the source directory
+     * @param itemName the name of the item directory in the source directory
+     */
+    record ItemDirectory(String path, String itemName) {
+    }
+
+    /**
+     * An item prepared by a worker, ready to be installed.
+     *
+     * @param directory  the item directory
+     * @param metadata   the parsed metadata files, by file name, dublin_core.xml first
+     * @param bitstreams the bitstreams already stored, by file name in the contents file
+     */
+    record PreparedItem(ItemDirectory directory, Map<String, Document> metadata, Map<String, UUID> bitstreams) {
+    }
+
+    /**
+     * Receives the item directories read by a {@link DirectoryReader}.
+     */
+    interface DirectoryConsumer {
+        /**
+         * @param directory an item directory whose files are all on disk
+         * @return false if the import was aborted and the reader must stop
+         * @throws InterruptedException if interrupted while waiting for the workers
+         */
+        boolean accept(ItemDirectory directory) throws InterruptedException;
+    }
+
+    /**
+     * Source of the item directories to import.
+     */
+    interface DirectoryReader {
+        /**
+         * Read the item directories, in the reader thread.
+         *
+         * @param consumer receives the item directories
+         * @throws IOException          if the directories can't be read
+         * @throws InterruptedException if interrupted while waiting for the workers
+         */
+        void read(DirectoryConsumer consumer) throws IOException, InterruptedException;
+
+        /**
+         * @return the source directory of the items, once they have been read
+         */
+        String getSourceDir();
+    }
+
+    /**
+     * Prepares the items, called concurrently by the workers.
+     */
+    interface ItemPreparer {
+        /**
+         * @param context the context of the calling worker, committed once the item is prepared
+         * @param directory the item directory
+         * @return the prepared item
+         * @throws Exception if the item can't be prepared
+         */
+        PreparedItem prepare(Context context, ItemDirectory directory) throws Exception;
+    }
+
+    /**
+     * Installs the prepared items, called by the calling thread only.
+     */
+    interface ItemInstaller {
+        /**
+         * @param item   the prepared item
+         * @param mapOut receives the line of the item in the map file
+         * @return false if the item was skipped, its bitstreams are then deleted
+         * @throws Exception if the item can't be installed
+         */
+        boolean install(PreparedItem item, PrintWriter mapOut) throws Exception;
+
+        /**
+         * Called after each commit of the context of the calling thread, e.g. to reload its entities.
+         *
+         * @param installed the number of items committed so far
+         * @throws SQLException if database error
+         */
+        void committed(int installed) throws SQLException;
+    }
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private final ItemPreparer preparer;
+    private final ItemInstaller installer;
+    private final int threads;
+    private final int batchSize;
+
+    /**
+     * Bitstreams stored by the workers, whose items are not committed yet
+     */
+    private final Set<UUID> pendingBitstreams = ConcurrentHashMap.newKeySet();
+
+    /**
+     * First error of the reader or of a worker
+     */
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * Set when the import can't complete, to stop the reader and the workers waiting on a full queue
+     */
+    private volatile boolean aborted = false;
+
+    /**
+     * @param preparer  prepares the items, called concurrently by the workers
+     * @param installer installs the items, called by the calling thread
+     * @param threads   number of workers
+     * @param batchSize number of items installed in each transaction
+     */
+    ItemImportPipeline(ItemPreparer preparer, ItemInstaller installer, int threads, int batchSize) {
+        this.preparer = preparer;
+        this.installer = installer;
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Import the items of the given reader.
+     *
+     * @param context context of the calling thread, committed after each batch of items
+     * @param reader  source of the item directories
+     * @param skipped names of the item directories not to import, already listed in the map file
+     * @param mapOut  map file, null not to write one
+     * @return the number of items installed
+     * @throws Exception if an item can't be read, prepared or installed
+     */
+    int run(Context context, DirectoryReader reader, Set<String> skipped, PrintWriter mapOut) throws Exception {
+        BlockingQueue<ItemDirectory> directories = new ArrayBlockingQueue<>(threads * 2);
+        BlockingQueue<PreparedItem> prepared = new ArrayBlockingQueue<>(threads * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        StringWriter batchLines = new StringWriter();
+        PrintWriter batchOut = new PrintWriter(batchLines);
+        List<UUID> batchBitstreams = new ArrayList<>();
+        int installed = 0;
+        boolean completed = false;
+        try {
+            executor.submit(() -> read(reader, skipped, directories));
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> prepare(directories, prepared));
+            }
+
+            int finishedWorkers = 0;
+            int inBatch = 0;
+            while (finishedWorkers < threads) {
+                PreparedItem item = prepared.poll(1, TimeUnit.SECONDS);
+                checkFailure();
+                if (item == END_OF_ITEMS) {
+                    finishedWorkers++;
+                } else if (item != null) {
+                    if (installer.install(item, batchOut)) {
+                        installed++;
+                    } else {
+                        deleteBitstreams(context, item.bitstreams().values());
+                    }
+                    batchBitstreams.addAll(item.bitstreams().values());
+                    if (++inBatch >= batchSize) {
+                        commit(context, batchLines, mapOut, batchBitstreams, installed);
+                        inBatch = 0;
+                    }
+                }
+            }
+            checkFailure();
+            commit(context, batchLines, mapOut, batchBitstreams, installed);
+            completed = true;
+            return installed;
+        } finally {
+            aborted = true;
+            executor.shutdownNow();
+            if (!completed) {
+                rollback(context, executor);
+            }
+        }
+    }
+
+    /**
+     * Commit the items installed since the last commit, then write their lines in the map file.
+     */
+    private void commit(Context context, StringWriter batchLines, PrintWriter mapOut, List<UUID> batchBitstreams,
+                        int installed) throws SQLException {
+        context.commit();
+        if (mapOut != null) {
+            mapOut.print(batchLines);
+            mapOut.flush();
+        }
+        batchLines.getBuffer().setLength(0);
+        pendingBitstreams.removeAll(batchBitstreams);
+        batchBitstreams.clear();
+        installer.committed(installed);
+    }
+
+    /**
+     * Delete the bitstreams stored for a skipped item, with the items installed since the last commit.
+     */
+    private void deleteBitstreams(Context context, Collection<UUID> bitstreams) throws Exception {
+        context.turnOffAuthorisationSystem();
+        try {
+            for (UUID id : bitstreams) {
+                Bitstream bitstream = bitstreamService.find(context, id);
+                if (bitstream != null) {
+                    bitstreamService.delete(context, bitstream);
+                }
+            }
+        } finally {
+            context.restoreAuthSystemState();
+        }
+    }
+
+    /**
+     * Roll back the items installed since the last commit, then delete the bitstreams stored for the items which
+     * were not committed, once the workers are stopped.
+     */
+    private void rollback(Context context, ExecutorService executor) {
+        try {
+            context.rollback();
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Workers still running, their bitstreams may not be deleted");
+            }
+        } catch (SQLException e) {
+            log.error("Unable to roll back the last items", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pendingBitstreams.isEmpty()) {
+            return;
+        }
+        Context cleanupContext = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            cleanupContext.turnOffAuthorisationSystem();
+            for (UUID id : pendingBitstreams) {
+                Bitstream bitstream = bitstreamService.find(cleanupContext, id);
+                if (bitstream != null) {
+                    bitstreamService.delete(cleanupContext, bitstream);
+                }
+            }
+            cleanupContext.complete();
+        } catch (Exception e) {
+            log.error("Unable to delete the bitstreams " + pendingBitstreams + " of the items not imported", e);
+        } finally {
+            cleanupContext.abort();
+        }
+    }
+
+    private void checkFailure() throws Exception {
+        Exception exception = failure.get();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void fail(Exception exception) {
+        failure.compareAndSet(null, exception);
+        aborted = true;
+    }
+
+    /**
+     * Reader loop: queue the item directories which are not skipped, then the end marker.
+     */
+    private Void read(DirectoryReader reader, Set<String> skipped, BlockingQueue<ItemDirectory> directories)
+        throws InterruptedException {
+        try {
+            reader.read(directory -> skipped.contains(directory.itemName()) || put(directories, directory));
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        } finally {
+            put(directories, END_OF_DIRECTORIES);
+        }
+        return null;
+    }
+
+    /**
+     * Worker loop: prepare the items of the directories read from the queue until the end marker.
+     */
+    private Void prepare(BlockingQueue<ItemDirectory> directories, BlockingQueue<PreparedItem> prepared)
+        throws InterruptedException {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            context.turnOffAuthorisationSystem();
+            for (ItemDirectory directory = take(directories); directory != null && !aborted;
+                 directory = take(directories)) {
+                if (directory == END_OF_DIRECTORIES) {
+                    // for the other workers
+                    put(directories, END_OF_DIRECTORIES);
+                    break;
+                }
+                PreparedItem item = preparer.prepare(context, directory);
+                pendingBitstreams.addAll(item.bitstreams().values());
+                context.commit();
+                // Keep the memory consumption of the worker low
+                context.uncacheEntities();
+                if (!put(prepared, item)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            context.abort();
+            put(prepared, END_OF_ITEMS);
+        }
+        return null;
+    }
+
+    /**
+     * Put an element into a bounded queue, waiting for space unless the import is aborted.
+     *
+     * @return false if the import was aborted before the element could be queued
+     */
+    private <T> boolean put(BlockingQueue<T> queue, T element) throws InterruptedException {
+        while (!queue.offer(element, 1, TimeUnit.SECONDS)) {
+            if (aborted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take an element from a queue, waiting for one unless the import is aborted.
+     *
+     * @return null if the import was aborted before an element was available
+     */
+    private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+        T element = queue.poll(1, TimeUnit.SECONDS);
+        while (element == null && !aborted) {
+            element = queue.poll(1, TimeUnit.SECONDS);
+        }
+        return element;
+    }
+
+    /**
+     * Reads the item directories of a source directory, in the given order.
+     */
+    static class SourceDirectoryReader implements DirectoryReader {
+        private final String sourceDir;
+        private final List<String> itemNames;
+
+        /**
+         * @param sourceDir the source directory
+         * @param itemNames names of the item directories in the source directory
+         */
+        SourceDirectoryReader(String sourceDir, List<String> itemNames) {
+            this.sourceDir = sourceDir;
+            this.itemNames = itemNames;
+        }
+
+        @Override
+        public void read(DirectoryConsumer consumer) throws InterruptedException {
+            for (String itemName : itemNames) {
+                if (!consumer.accept(new ItemDirectory(sourceDir, itemName))) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public String getSourceDir() {
+            return sourceDir;
+        }
+    }
+
+    /**
+     * Extracts a zip archive in the Simple Archive Format as it is read from a stream, handing over each item
+     * directory once all its entries are extracted. As in {@link ItemImportServiceImpl#unzip(File, String)}, the
+     * items may be at the root of the archive or in a single top level directory, which is detected from the
+     * first file of the archive. The entries of each item must be contiguous in the archive, as they are in the
+     * archives written by zip tools.
+     */
+    static class ZipDirectoryReader implements DirectoryReader {
+        private final InputStream zip;
+        private final String zipDir;
+        private volatile String sourceDir;
+
+        /**
+         * @param zip     the zip archive, which is not closed
+         * @param destDir directory to extract the archive into
+         */
+        ZipDirectoryReader(InputStream zip, String destDir) {
+            this.zip = zip;
+            this.zipDir = new File(destDir).getAbsolutePath() + File.separator;
+            this.sourceDir = new File(destDir).getAbsolutePath();
+        }
+
+        @Override
+        public void read(DirectoryConsumer consumer) throws IOException, InterruptedException {
+            ZipInputStream zis = new ZipInputStream(zip);
+            Set<String> extracted = new HashSet<>();
+            String currentItem = null;
+            // Top level directory of the items, if any, known once the first file is read
+            String topDir = null;
+            int depth = -1;
+            byte[] buffer = new byte[8192];
+            for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+                String entryName = entry.getName();
+                File outFile = new File(zipDir + entryName);
+                // Verify that this file/directory will be extracted into our zipDir (and not somewhere else!)
+                if (!outFile.toPath().normalize().startsWith(zipDir)) {
+                    throw new IOException("Bad zip entry: '" + entryName + "'!"
+                                              + " Cannot process this file or directory.");
+                }
+                if (entry.isDirectory()) {
+                    outFile.mkdirs();
+                    continue;
+                }
+                outFile.getParentFile().mkdirs();
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+                    for (int len = zis.read(buffer); len >= 0; len = zis.read(buffer)) {
+                        out.write(buffer, 0, len);
+                    }
+                }
+                log.debug("Extracted file: {}", entryName);
+
+                //regex supports either windows or *nix file paths
+                String[] entryChunks = entryName.split("/|\\\\");
+                if (depth < 0) {
+                    depth = entryChunks.length > 2 ? 1 : 0;
+                    if (depth > 0) {
+                        topDir = entryChunks[0];
+                        sourceDir = zipDir + topDir;
+                    }
+                }
+                if (entryChunks.length <= depth + 1 || (topDir != null && !topDir.equals(entryChunks[0]))) {
+                    // not in an item directory
+                    continue;
+                }
+                String itemName = entryChunks[depth];
+                if (!itemName.equals(currentItem)) {
+                    if (currentItem != null && !consumer.accept(new ItemDirectory(sourceDir, currentItem))) {
+                        return;
+                    }
+                    if (!extracted.add(itemName)) {
+                        throw new IOException("The entries of the item directory " + itemName
+                                                  + " are not contiguous in the zip archive");
+                    }
+                    currentItem = itemName;
+                }
+            }
+            if (currentItem != null) {
+                consumer.accept(new ItemDirectory(sourceDir, currentItem));
+            }
+        }
+
+        @Override
+        public String getSourceDir() {
+            return sourceDir;
+        }
+    }
+}
@@ -75,11 +75,16 @@ public class ItemImportScriptConfiguration<T extends ItemImport> extends ScriptC
                 .desc("apply template")
                 .hasArg(false).required(false).build());
         options.addOption(Option.builder("R").longOpt("resume")
-                .desc("resume a failed import (add only)")
+                .desc("resume a failed import (add only). Bitstreams stored by a killed import using threads are "
+                        + "left without bundle, see org.dspace.app.batchitemimport.threads")
                 .hasArg(false).required(false).build());
         options.addOption(Option.builder("q").longOpt("quiet")
                 .desc("don't display metadata")
                 .hasArg(false).required(false).build());
+        options.addOption(Option.builder("t").longOpt("threads")
+                .desc("number of threads preparing the items to add in parallel, committed by batches, at most "
+                        + "org.dspace.app.batchitemimport.max-threads")
+                .hasArg().required(false).build());
 
         options.addOption(Option.builder("h").longOpt("help")
                 .desc("help")
@@ -39,6 +39,7 @@ import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -188,6 +189,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int threads = 1;
 
     //remember which folder item was imported from
     Map<String, Item> itemFolderMap = null;
@@ -242,6 +244,19 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     @Override
     public void addItems(Context c, List<Collection> mycollections,
                          String sourceDir, String mapFile, boolean template) throws Exception {
+        if (threads > 1) {
+            File d = new File(sourceDir);
+            if (!d.isDirectory()) {
+                throw new Exception("Error, cannot open source directory " + sourceDir);
+            }
+            String[] dircontents = d.list(directoryFilter);
+            Arrays.sort(dircontents, ComparatorUtils.naturalComparator());
+            addItemsPipelined(c, mycollections,
+                              new ItemImportPipeline.SourceDirectoryReader(sourceDir, Arrays.asList(dircontents)),
+                              mapFile, template);
+            return;
+        }
+
         // create the mapfile
         File outFile = null;
         PrintWriter mapOut = null;
@@ -255,11 +270,6 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             logDebug("Adding items from directory: " + sourceDir);
             logDebug("Generating mapfile: " + mapFile);
 
-            boolean directoryFileCollections = false;
-            if (mycollections == null) {
-                directoryFileCollections = true;
-            }
-
             if (!isTest) {
                 // get the directory names of items to skip (will be in keys of
                 // hash)
@@ -293,22 +303,9 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     itemFolderMap.put(dircontents[i], skippedItem);
 
                 } else {
-                    List<Collection> clist;
-                    if (directoryFileCollections) {
-                        String path = sourceDir + File.separatorChar + dircontents[i];
-                        try {
-                            List<Collection> cols = processCollectionFile(c, path, "collections");
-                            if (cols == null) {
-                                logError("No collections specified for item " + dircontents[i] + ". Skipping.");
-                                continue;
-                            }
-                            clist = cols;
-                        } catch (IllegalArgumentException e) {
-                            logError(e.getMessage() + " Skipping.");
-                            continue;
-                        }
-                    } else {
-                        clist = mycollections;
+                    List<Collection> clist = getItemCollections(c, mycollections, sourceDir, dircontents[i]);
+                    if (clist == null) {
+                        continue;
                     }
 
                     Item item = addItem(c, clist, sourceDir, dircontents[i], mapOut, template);
@@ -331,6 +328,158 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    @Override
+    public String addItems(Context c, List<Collection> mycollections, InputStream zip, String destDir,
+                           String mapFile, boolean template) throws Exception {
+        ItemImportPipeline.ZipDirectoryReader reader = new ItemImportPipeline.ZipDirectoryReader(zip, destDir);
+        addItemsPipelined(c, mycollections, reader, mapFile, template);
+        return reader.getSourceDir();
+    }
+
+    /**
+     * Add items with an {@link ItemImportPipeline}: the items are prepared by {@link #threads} workers, then
+     * installed in the given context, which is committed every
+     * {@code org.dspace.app.batchitemimport.commit.size} items.
+     *
+     * @param c             DSpace Context
+     * @param mycollections List of Collections, null to read the collections file of each item
+     * @param reader        source of the item directories
+     * @param mapFile       map file
+     * @param template      whether to use collection template item as starting point
+     * @throws Exception if error occurs
+     */
+    protected void addItemsPipelined(Context c, List<Collection> mycollections,
+                                     ItemImportPipeline.DirectoryReader reader, String mapFile, boolean template)
+        throws Exception {
+        PrintWriter mapOut = null;
+        try {
+            Map<String, String> skipItems = new HashMap<>();
+            itemFolderMap = new HashMap<>();
+
+            logDebug("Adding items with " + threads + " threads");
+            logDebug("Generating mapfile: " + mapFile);
+
+            if (!isTest) {
+                if (isResume) {
+                    skipItems = readMapFile(mapFile);
+                    for (Map.Entry<String, String> skipItem : skipItems.entrySet()) {
+                        logInfo("Skipping import of " + skipItem.getKey());
+                        //we still need the item in the map for relationship linking
+                        itemFolderMap.put(skipItem.getKey(),
+                                          (Item) handleService.resolveToObject(c, skipItem.getValue()));
+                    }
+                }
+                mapOut = new PrintWriter(new FileWriter(mapFile, isResume));
+            }
+
+            // reloaded after each commit
+            List<Collection> collections = mycollections == null ? null : new ArrayList<>(mycollections);
+            int batchSize = configurationService.getIntProperty("org.dspace.app.batchitemimport.commit.size", 100);
+            long start = System.currentTimeMillis();
+            ItemImportPipeline pipeline = new ItemImportPipeline(this::prepareItem,
+                new ItemImportPipeline.ItemInstaller() {
+                    private int count = 0;
+
+                    @Override
+                    public boolean install(ItemImportPipeline.PreparedItem prepared, PrintWriter out)
+                        throws Exception {
+                        ItemImportPipeline.ItemDirectory directory = prepared.directory();
+                        List<Collection> clist = getItemCollections(c, collections, directory.path(),
+                                                                    directory.itemName());
+                        if (clist == null) {
+                            return false;
+                        }
+                        Item item = addItem(c, clist, directory.path(), directory.itemName(), out, template,
+                                            prepared);
+                        itemFolderMap.put(directory.itemName(), item);
+                        c.uncacheEntity(item);
+                        logInfo(count++ + " " + directory.itemName());
+                        return true;
+                    }
+
+                    @Override
+                    public void committed(int installed) throws SQLException {
+                        if (collections != null) {
+                            for (int i = 0; i < collections.size(); i++) {
+                                collections.set(i, c.reloadEntity(collections.get(i)));
+                            }
+                        }
+                        long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+                        logInfo(installed + " items committed so far (" + installed / seconds + " items/s)");
+                    }
+                }, threads, batchSize);
+            pipeline.run(c, reader, skipItems.keySet(), mapOut);
+
+            //now that all items are imported, iterate again to link relationships
+            addRelationships(c, reader.getSourceDir());
+        } finally {
+            if (mapOut != null) {
+                mapOut.flush();
+                mapOut.close();
+            }
+        }
+    }
+
+    /**
+     * Prepare an item for {@link #addItemsPipelined}, in a worker thread: parse and validate its metadata files,
+     * and store the files of its contents file as bitstreams without bundle. The files listed several times in
+     * the contents file are stored when the item is installed, as before.
+     *
+     * @param c         the context of the worker
+     * @param directory the item directory
+     * @return the prepared item
+     * @throws Exception if the metadata is invalid or a file can't be stored
+     */
+    protected ItemImportPipeline.PreparedItem prepareItem(Context c, ItemImportPipeline.ItemDirectory directory)
+        throws Exception {
+        String itemPath = directory.path() + File.separatorChar + directory.itemName();
+        Map<String, Document> metadata = parseMetadata(c, itemPath + File.separatorChar);
+
+        Map<String, UUID> bitstreams = new HashMap<>();
+        if (!isTest && !isExcludeContent) {
+            List<String> fileNames = getContentFileNames(itemPath, "contents");
+            for (String fileName : fileNames) {
+                if (fileNames.indexOf(fileName) != fileNames.lastIndexOf(fileName)) {
+                    continue;
+                }
+                try (InputStream is = new BufferedInputStream(
+                    new FileInputStream(itemPath + File.separatorChar + fileName))) {
+                    bitstreams.put(fileName, bitstreamService.create(c, is).getID());
+                }
+            }
+        }
+        return new ItemImportPipeline.PreparedItem(directory, metadata, bitstreams);
+    }
+
+    /**
+     * Get the collections of an item: the given ones, or the ones of the collections file of the item.
+     *
+     * @param c             DSpace Context
+     * @param mycollections List of Collections, null to read the collections file of the item
+     * @param sourceDir     the source directory
+     * @param itemName      the item directory name
+     * @return the collections of the item, null if the item must be skipped
+     * @throws IOException  if IO error
+     * @throws SQLException if database error
+     */
+    protected List<Collection> getItemCollections(Context c, List<Collection> mycollections, String sourceDir,
+                                                  String itemName) throws IOException, SQLException {
+        if (mycollections != null) {
+            return mycollections;
+        }
+        String path = sourceDir + File.separatorChar + itemName;
+        try {
+            List<Collection> cols = processCollectionFile(c, path, "collections");
+            if (cols == null) {
+                logError("No collections specified for item " + itemName + ". Skipping.");
+            }
+            return cols;
+        } catch (IllegalArgumentException e) {
+            logError(e.getMessage() + " Skipping.");
+            return null;
+        }
+    }
+
      /**
       * Add relationships from a 'relationships' manifest file.
       * 
@@ -729,6 +878,26 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
      */
     protected Item addItem(Context c, List<Collection> mycollections, String path,
                            String itemname, PrintWriter mapOut, boolean template) throws Exception {
+        return addItem(c, mycollections, path, itemname, mapOut, template, null);
+    }
+
+    /**
+     * item? try and add it to the archive.
+     *
+     * @param c             current Context
+     * @param mycollections - add item to these Collections.
+     * @param path          - directory containing the item directories.
+     * @param itemname      handle - non-null means we have a pre-defined handle already
+     * @param mapOut        - mapfile we're writing
+     * @param template      whether to use collection template item as starting point
+     * @param prepared      the metadata and bitstreams already prepared by {@link #prepareItem}, null to read
+     *                      them from the item directory
+     * @return Item
+     * @throws Exception if error occurs
+     */
+    protected Item addItem(Context c, List<Collection> mycollections, String path, String itemname,
+                           PrintWriter mapOut, boolean template, ItemImportPipeline.PreparedItem prepared)
+        throws Exception {
         String mapOutputString = null;
 
         logDebug("adding item from directory " + itemname);
@@ -744,14 +913,18 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
 
         // now fill out dublin core for item
-        loadMetadata(c, myitem, path + File.separatorChar + itemname
-            + File.separatorChar);
+        if (prepared != null) {
+            loadMetadata(c, myitem, prepared.metadata());
+        } else {
+            loadMetadata(c, myitem, path + File.separatorChar + itemname
+                + File.separatorChar);
+        }
 
         // and the bitstreams from the contents file
         // process contents file, add bistreams and bundles, return any
         // non-standard permissions
         List<String> options = processContentsFile(c, myitem, path
-            + File.separatorChar + itemname, "contents");
+            + File.separatorChar + itemname, "contents", prepared != null ? prepared.bitstreams() : Map.of());
 
         if (useWorkflow) {
             // don't process handle file
@@ -910,24 +1083,86 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    // Load the metadata files already parsed by parseMetadata() into the item.
+    protected void loadMetadata(Context c, Item myitem, Map<String, Document> metadata)
+        throws SQLException, TransformerException, AuthorizeException, XPathExpressionException {
+        for (Map.Entry<String, Document> file : metadata.entrySet()) {
+            loadDublinCore(c, myitem, file.getKey(), file.getValue());
+        }
+    }
+
+    /**
+     * Parse the metadata files of an item directory and, unless this is a
+     * test run, check that their fields exist in the registry.
+     *
+     * @param c    DSpace Context
+     * @param path the item directory, with a trailing separator
+     * @return the parsed files by file name, dublin_core.xml first
+     * @throws Exception if a file can't be parsed or has unknown fields
+     */
+    protected Map<String, Document> parseMetadata(Context c, String path) throws Exception {
+        Map<String, Document> metadata = new LinkedHashMap<>();
+        metadata.put(path + "dublin_core.xml", loadXML(path + "dublin_core.xml"));
+        File folder = new File(path);
+        for (File file : folder.listFiles(metadataFileFilter)) {
+            metadata.put(file.getAbsolutePath(), loadXML(file.getAbsolutePath()));
+        }
+
+        if (!isTest) {
+            for (Map.Entry<String, Document> file : metadata.entrySet()) {
+                validateMetadata(c, file.getKey(), file.getValue());
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Check that the fields of the non empty values of a metadata file exist
+     * in the registry. Values of the relation schema are relationships, which
+     * are checked when they are added.
+     *
+     * @param c        DSpace Context
+     * @param filename the metadata file
+     * @param document the parsed metadata file
+     * @throws SQLException             if database error
+     * @throws XPathExpressionException if XPath error
+     * @throws IllegalArgumentException if a field doesn't exist
+     */
+    protected void validateMetadata(Context c, String filename, Document document)
+        throws SQLException, XPathExpressionException {
+        XPath xPath = XPathFactory.newInstance().newXPath();
+        String schema = getMetadataSchema(xPath, document);
+        if (StringUtils.equals(schema, MetadataSchemaEnum.RELATION.getName())) {
+            return;
+        }
+        NodeList dcNodes = (NodeList) xPath.compile("/dublin_core/dcvalue").evaluate(document, XPathConstants.NODESET);
+        for (int i = 0; i < dcNodes.getLength(); i++) {
+            Node n = dcNodes.item(i);
+            if (StringUtils.isBlank(getStringValue(n))) {
+                continue;
+            }
+            String element = getAttributeValue(n, "element");
+            String qualifier = getAttributeValue(n, "qualifier");
+            if ("none".equals(qualifier) || "".equals(qualifier)) {
+                qualifier = null;
+            }
+            if (metadataFieldService.findByElement(c, schema, element, qualifier) == null) {
+                throw new IllegalArgumentException("Metadata field: '" + schema + "." + element + "." + qualifier
+                                                       + "' of " + filename + " was not found in the registry.");
+            }
+        }
+    }
+
     protected void loadDublinCore(Context c, Item myitem, String filename)
         throws SQLException, IOException, ParserConfigurationException,
         SAXException, TransformerException, AuthorizeException, XPathExpressionException {
-        Document document = loadXML(filename);
+        loadDublinCore(c, myitem, filename, loadXML(filename));
+    }
 
-        // Get the schema, for backward compatibility we will default to the
-        // dublin core schema if the schema name is not available in the import
-        // file
-        String schema;
+    protected void loadDublinCore(Context c, Item myitem, String filename, Document document)
+        throws SQLException, TransformerException, AuthorizeException, XPathExpressionException {
         XPath xPath = XPathFactory.newInstance().newXPath();
-        NodeList metadata = (NodeList) xPath.compile("/dublin_core").evaluate(document, XPathConstants.NODESET);
-        Node schemaAttr = metadata.item(0).getAttributes().getNamedItem(
-            "schema");
-        if (schemaAttr == null) {
-            schema = MetadataSchemaEnum.DC.getName();
-        } else {
-            schema = schemaAttr.getNodeValue();
-        }
+        String schema = getMetadataSchema(xPath, document);
 
         // Get the nodes corresponding to formats
         NodeList dcNodes = (NodeList) xPath.compile("/dublin_core/dcvalue").evaluate(document, XPathConstants.NODESET);
@@ -943,6 +1178,22 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Get the schema of a metadata file, for backward compatibility we will
+     * default to the dublin core schema if the schema name is not available
+     * in the import file
+     */
+    private String getMetadataSchema(XPath xPath, Document document) throws XPathExpressionException {
+        NodeList metadata = (NodeList) xPath.compile("/dublin_core").evaluate(document, XPathConstants.NODESET);
+        Node schemaAttr = metadata.item(0).getAttributes().getNamedItem(
+            "schema");
+        if (schemaAttr == null) {
+            return MetadataSchemaEnum.DC.getName();
+        } else {
+            return schemaAttr.getNodeValue();
+        }
+    }
+
     protected void addDCValue(Context c, Item i, String schema, Node n)
         throws TransformerException, SQLException, AuthorizeException {
         String value = getStringValue(n); //n.getNodeValue();
@@ -1127,6 +1378,28 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected List<String> processContentsFile(Context c, Item i, String path,
                                                String filename) throws SQLException, IOException,
         AuthorizeException {
+        return processContentsFile(c, i, path, filename, Map.of());
+    }
+
+    /**
+     * Given a contents file and an item, stuffing it with bitstreams from the
+     * contents file, some of them possibly already stored by
+     * {@link #prepareItem}. Returns a List of Strings with lines from the
+     * contents file that request non-default bitstream permission
+     *
+     * @param c                 DSpace Context
+     * @param i                 DSpace item
+     * @param path              path as string
+     * @param filename          file name
+     * @param storedBitstreams  bitstreams already stored, by file name
+     * @return List of Strings
+     * @throws SQLException       if database error
+     * @throws IOException        if IO error
+     * @throws AuthorizeException if authorization error
+     */
+    protected List<String> processContentsFile(Context c, Item i, String path, String filename,
+                                               Map<String, UUID> storedBitstreams)
+        throws SQLException, IOException, AuthorizeException {
         File contentsFile = new File(path + File.separatorChar + filename);
         String line = "";
         List<String> options = new ArrayList<>();
@@ -1214,7 +1487,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
                     if (bitstreamEndIndex == -1) {
                         // no extra info
-                        processContentFileEntry(c, i, path, line, null, false);
+                        processContentFileEntry(c, i, path, line, null, false, storedBitstreams.get(line));
                         logInfo("\tBitstream: " + line);
                     } else {
 
@@ -1326,12 +1599,14 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                             String bundleName = line.substring(bMarkerIndex
                                 + bundleMarker.length(), bEndIndex).trim();
 
-                            processContentFileEntry(c, i, path, bitstreamName, bundleName, primary);
+                            processContentFileEntry(c, i, path, bitstreamName, bundleName, primary,
+                                                    storedBitstreams.get(bitstreamName));
                             logInfo("\tBitstream: " + bitstreamName +
                                 "\tBundle: " + bundleName +
                                 primaryStr);
                         } else {
-                            processContentFileEntry(c, i, path, bitstreamName, null, primary);
+                            processContentFileEntry(c, i, path, bitstreamName, null, primary,
+                                                    storedBitstreams.get(bitstreamName));
                             logInfo("\tBitstream: " + bitstreamName + primaryStr);
                         }
 
@@ -1411,15 +1686,38 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected void processContentFileEntry(Context c, Item i, String path,
                                            String fileName, String bundleName, boolean primary) throws SQLException,
         IOException, AuthorizeException {
+        processContentFileEntry(c, i, path, fileName, bundleName, primary, null);
+    }
+
+    /**
+     * each entry represents a bitstream, possibly already stored by
+     * {@link #prepareItem}....
+     *
+     * @param c               DSpace Context
+     * @param i               Dspace Item
+     * @param path            path to file
+     * @param fileName        file name
+     * @param bundleName      bundle name
+     * @param primary         if primary bitstream
+     * @param storedBitstream the bitstream already stored, null to store the file
+     * @throws SQLException       if database error
+     * @throws IOException        if IO error
+     * @throws AuthorizeException if authorization error
+     */
+    protected void processContentFileEntry(Context c, Item i, String path, String fileName, String bundleName,
+                                           boolean primary, UUID storedBitstream)
+        throws SQLException, IOException, AuthorizeException {
         if (isExcludeContent) {
             return;
         }
 
         String fullpath = path + File.separatorChar + fileName;
 
-        // get an input stream
-        BufferedInputStream bis = new BufferedInputStream(new FileInputStream(
-            fullpath));
+        // get an input stream, unless the file is already stored
+        BufferedInputStream bis = null;
+        if (storedBitstream == null) {
+            bis = new BufferedInputStream(new FileInputStream(fullpath));
+        }
 
         Bitstream bs = null;
         String newBundleName = bundleName;
@@ -1448,7 +1746,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             }
 
             // now add the bitstream
-            bs = bitstreamService.create(c, targetBundle, bis);
+            if (storedBitstream == null) {
+                bs = bitstreamService.create(c, targetBundle, bis);
+            } else {
+                bs = bitstreamService.find(c, storedBitstream);
+                bundleService.addBitstream(c, targetBundle, bs);
+            }
 
             bs.setName(c, fileName);
 
@@ -1467,7 +1770,36 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             bitstreamService.update(c, bs);
         }
 
-        bis.close();
+        if (bis != null) {
+            bis.close();
+        }
+    }
+
+    /**
+     * Get the names of the files of a contents file which are imported
+     * conventionally, i.e. not registered, as processContentsFile() reads them.
+     *
+     * @param path     path to the item directory
+     * @param filename the contents file name
+     * @return the file names, in the order of the contents file
+     * @throws IOException if IO error
+     */
+    protected List<String> getContentFileNames(String path, String filename) throws IOException {
+        File contentsFile = new File(path + File.separatorChar + filename);
+        List<String> fileNames = new ArrayList<>();
+        if (contentsFile.exists()) {
+            try (BufferedReader is = new BufferedReader(new FileReader(contentsFile))) {
+                String line;
+                while ((line = is.readLine()) != null) {
+                    if ("".equals(line.trim()) || line.trim().startsWith("-r ")) {
+                        continue;
+                    }
+                    int bitstreamEndIndex = line.indexOf('\t');
+                    fileNames.add(bitstreamEndIndex == -1 ? line : line.substring(0, bitstreamEndIndex));
+                }
+            }
+        }
+        return fileNames;
     }
 
     /**
@@ -2379,6 +2711,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         this.isQuiet = isQuiet;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public void setHandler(DSpaceRunnableHandler handler) {
         this.handler = handler;
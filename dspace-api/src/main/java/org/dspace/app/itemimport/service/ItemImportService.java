@@ -9,6 +9,7 @@ package org.dspace.app.itemimport.service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import jakarta.mail.MessagingException;
@@ -61,6 +62,25 @@ public interface ItemImportService {
     public void addItems(Context c, List<Collection> mycollections,
                          String sourceDir, String mapFile, boolean template) throws Exception;
 
+    /**
+     * Add the items of a zip archive in the Simple Archive Format, extracting
+     * its entries as they are read from the stream while the items already
+     * extracted are imported. The items are imported as by
+     * {@link #addItems(Context, List, String, String, boolean)} with more
+     * than one thread, see {@link #setThreads(int)}.
+     *
+     * @param c             DSpace Context
+     * @param mycollections List of Collections
+     * @param zip           the zip archive, which is not closed
+     * @param destDir       directory to extract the archive into
+     * @param mapFile       map file
+     * @param template      whether to use template item
+     * @return the source directory of the extracted items
+     * @throws Exception if error
+     */
+    public String addItems(Context c, List<Collection> mycollections, InputStream zip, String destDir,
+                           String mapFile, boolean template) throws Exception;
+
     /**
      * Unzip a file
      *
@@ -244,6 +264,19 @@ public interface ItemImportService {
      */
     public void setQuiet(boolean isQuiet);
 
+    /**
+     * Set the number of threads preparing the items to add in parallel. With
+     * more than one thread, the metadata files are parsed and the bitstreams
+     * stored by these threads, while the items are installed one at a time
+     * in the given context, which is committed every
+     * {@code org.dspace.app.batchitemimport.commit.size} items. The map file
+     * only lists committed items, so that a failed import can be resumed.
+     *
+     * @param threads number of threads, 1 (the default) to add the items one
+     *                at a time in a single transaction
+     */
+    public void setThreads(int threads);
+
     /**
      * Set the DSpace Runnable Handler
      * @param handler
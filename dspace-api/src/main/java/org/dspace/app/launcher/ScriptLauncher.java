@@ -20,6 +20,7 @@ import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
+import org.dspace.event.AsynchronousConsumerQueue;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.DSpaceRunnable.StepResult;
 import org.dspace.scripts.configuration.ScriptConfiguration;
@@ -30,6 +31,7 @@ import org.dspace.scripts.service.ScriptService;
 import org.dspace.servicemanager.DSpaceKernelImpl;
 import org.dspace.servicemanager.DSpaceKernelInit;
 import org.dspace.services.RequestService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.input.SAXBuilder;
@@ -98,6 +100,10 @@ public class ScriptLauncher {
         CommandLineDSpaceRunnableHandler commandLineDSpaceRunnableHandler = new CommandLineDSpaceRunnableHandler();
         int status = handleScript(args, commandConfigs, commandLineDSpaceRunnableHandler, kernelImpl);
 
+        // Deliver the events still queued for asynchronous consumers while the services are available
+        AsynchronousConsumerQueue.shutdownAll(DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                  .getLongProperty("event.async.shutdown-timeout", 300) * 1000);
+
         // Destroy the service kernel if it is still alive
         if (kernelImpl != null) {
             kernelImpl.destroy();
@@ -9,11 +9,13 @@ package org.dspace.app.util;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.FactoryConfigurationError;
@@ -48,6 +50,10 @@ import org.xml.sax.SAXException;
  * supply the value stored in the database if its sibling display value gets
  * selected from a choice list.
  *
+ * The parsed definitions, including the {@link DCInputSet} of each form, are
+ * shared by all the readers of the same file and only parsed again when the
+ * file is modified.
+ *
  * @author Brian S. Hughes
  * @version $Revision$
  */
@@ -82,10 +88,14 @@ public class DCInputsReader {
     private Map<String, List<String>> valuePairs = null;    // Holds display/storage pairs
 
     /**
-     * Mini-cache of last DCInputSet requested. If submissions are not typically
-     * form-interleaved, there will be a modest win.
+     * The DCInputSet of each form, built once per parse of the forms definition file
+     */
+    private Map<String, DCInputSet> inputSets = null;
+
+    /**
+     * Parsed forms definition files, by absolute path
      */
-    private DCInputSet lastInputSet = null;
+    private static final Map<String, FormDefinitions> definitionsCache = new ConcurrentHashMap<>();
 
     /**
      * Parse an XML encoded submission forms template file, and create a hashmap
@@ -114,11 +124,28 @@ public class DCInputsReader {
 
 
     private void buildInputs(String fileName)
+        throws DCInputsReaderException {
+        File file = new File(fileName);
+        String path = file.getAbsolutePath();
+        // read before parsing, so that a change made while parsing triggers a new parse
+        long lastModified = file.lastModified();
+        FormDefinitions definitions = definitionsCache.get(path);
+        if (definitions == null || definitions.lastModified != lastModified) {
+            parseInputs(path);
+            definitions = new FormDefinitions(lastModified, formDefns, valuePairs);
+            definitionsCache.put(path, definitions);
+        }
+        formDefns = definitions.formDefns;
+        valuePairs = definitions.valuePairs;
+        inputSets = definitions.inputSets;
+    }
+
+    private void parseInputs(String path)
         throws DCInputsReaderException {
         formDefns = new HashMap<String, List<List<Map<String, String>>>>();
         valuePairs = new HashMap<String, List<String>>();
 
-        String uri = "file:" + new File(fileName).getAbsolutePath();
+        String uri = "file:" + path;
 
         try {
             DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -208,18 +235,11 @@ public class DCInputsReader {
      */
     public DCInputSet getInputsByFormName(String formName)
         throws DCInputsReaderException {
-        // check mini-cache, and return if match
-        if (lastInputSet != null && lastInputSet.getFormName().equals(formName)) {
-            return lastInputSet;
-        }
-        // cache miss - construct new DCInputSet
-        List<List<Map<String, String>>> pages = formDefns.get(formName);
-        if (pages == null) {
+        DCInputSet inputSet = inputSets.get(formName);
+        if (inputSet == null) {
             throw new DCInputsReaderException("Missing the " + formName + " form");
         }
-        lastInputSet = new DCInputSet(formName,
-                                      pages, valuePairs);
-        return lastInputSet;
+        return inputSet;
     }
 
     /**
@@ -706,4 +726,27 @@ public class DCInputsReader {
         throw new DCInputsReaderException("No field configuration found!");
     }
 
+
+    /**
+     * The definitions parsed from a forms definition file. Never modified once
+     * built, so that they can be shared by concurrent readers.
+     */
+    private static class FormDefinitions {
+        private final long lastModified;
+        private final Map<String, List<List<Map<String, String>>>> formDefns;
+        private final Map<String, List<String>> valuePairs;
+        private final Map<String, DCInputSet> inputSets;
+
+        FormDefinitions(long lastModified, Map<String, List<List<Map<String, String>>>> formDefns,
+                        Map<String, List<String>> valuePairs) {
+            this.lastModified = lastModified;
+            this.formDefns = Collections.unmodifiableMap(formDefns);
+            Map<String, List<String>> pairs = new HashMap<>();
+            valuePairs.forEach((name, values) -> pairs.put(name, Collections.unmodifiableList(values)));
+            this.valuePairs = Collections.unmodifiableMap(pairs);
+            Map<String, DCInputSet> sets = new HashMap<>();
+            formDefns.forEach((name, rows) -> sets.put(name, new DCInputSet(name, rows, this.valuePairs)));
+            this.inputSets = Collections.unmodifiableMap(sets);
+        }
+    }
 }
@@ -10,6 +10,7 @@ package org.dspace.app.util;
 import java.io.File;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -49,6 +50,10 @@ import org.xml.sax.SAXException;
  * placeholder collection # to the distinguished submission process 'default'.
  * Any collections that use a custom submission process are listed paired with
  * the name of the item submission process they use.
+ * <P>
+ * The parsed configuration, including a {@link SubmissionConfig} per
+ * submission process, is kept in an immutable snapshot which {@link #reload()}
+ * replaces as a whole, so that the reader can be shared by concurrent threads.
  *
  * @author Tim Donohue based on DCInputsReader by Brian S. Hughes
  * @version $Revision$
@@ -86,43 +91,9 @@ public class SubmissionConfigReader {
         + File.separator + "config" + File.separator;
 
     /**
-     * Hashmap which stores which submission process configuration is used by
-     * which collection, computed from the item submission config file
-     * (specifically, the 'submission-map' tag)
+     * The current configuration, replaced as a whole on reload
      */
-    private Map<String, String> collectionToSubmissionConfig = null;
-
-    /**
-     * Hashmap which stores which submission process configuration is used by
-     * which community, computed from the item submission config file
-     * (specifically, the 'submission-map' tag)
-     */
-    private Map<String, String> communityToSubmissionConfig = null;
-
-    /**
-     * Hashmap which stores which submission process configuration is used by
-     * which entityType, computed from the item submission config file
-     * (specifically, the 'submission-map' tag)
-     */
-    private Map<String, String> entityTypeToSubmissionConfig = null;
-
-    /**
-     * Reference to the global submission step definitions defined in the
-     * "step-definitions" section
-     */
-    private Map<String, Map<String, String>> stepDefns = null;
-
-    /**
-     * Reference to the item submission definitions defined in the
-     * "submission-definitions" section
-     */
-    private Map<String, List<Map<String, String>>> submitDefns = null;
-
-    /**
-     * Mini-cache of last SubmissionConfig object requested (so that we don't
-     * always reload from scratch)
-     */
-    private SubmissionConfig lastSubmissionConfig = null;
+    private volatile Definitions definitions;
 
     /**
      * Collection Service instance, needed to interact with collection's
@@ -141,12 +112,14 @@ public class SubmissionConfigReader {
         buildInputs(configDir + SUBMIT_DEF_FILE_PREFIX + SUBMIT_DEF_FILE_SUFFIX);
     }
 
+    /**
+     * Parse the configuration file again. The new configuration replaces the
+     * current one only once completely parsed, the current one is kept if the
+     * file can't be parsed.
+     *
+     * @throws SubmissionConfigReaderException if the file can't be parsed
+     */
     public void reload() throws SubmissionConfigReaderException {
-        collectionToSubmissionConfig = null;
-        communityToSubmissionConfig = null;
-        entityTypeToSubmissionConfig = null;
-        stepDefns = null;
-        submitDefns = null;
         buildInputs(configDir + SUBMIT_DEF_FILE_PREFIX + SUBMIT_DEF_FILE_SUFFIX);
     }
 
@@ -162,10 +135,7 @@ public class SubmissionConfigReader {
      * </ul>
      */
     private void buildInputs(String fileName) throws SubmissionConfigReaderException {
-        collectionToSubmissionConfig = new HashMap<String, String>();
-        communityToSubmissionConfig = new HashMap<String, String>();
-        entityTypeToSubmissionConfig = new HashMap<String, String>();
-        submitDefns = new LinkedHashMap<String, List<Map<String, String>>>();
+        Definitions defs = new Definitions();
 
         String uri = "file:" + new File(fileName).getAbsolutePath();
 
@@ -178,7 +148,7 @@ public class SubmissionConfigReader {
 
             DocumentBuilder db = factory.newDocumentBuilder();
             Document doc = db.parse(uri);
-            doNodes(doc);
+            doNodes(doc, defs);
         } catch (FactoryConfigurationError fe) {
             throw new SubmissionConfigReaderException(
                 "Cannot create Item Submission Configuration parser", fe);
@@ -186,13 +156,16 @@ public class SubmissionConfigReader {
             throw new SubmissionConfigReaderException(
                 "Error creating Item Submission Configuration: " + e);
         }
+        defs.complete();
+        definitions = defs;
+        log.debug("Loaded {} item submission process configs", defs.submissionConfigs.size());
     }
 
     /**
      * @return the name of the default submission configuration
      */
     public String getDefaultSubmissionConfigName() {
-        return collectionToSubmissionConfig.get(DEFAULT_COLLECTION);
+        return definitions.collectionToSubmissionConfig.get(DEFAULT_COLLECTION);
     }
 
     /**
@@ -206,10 +179,10 @@ public class SubmissionConfigReader {
         int idx = 0;
         int count = 0;
         List<SubmissionConfig> subConfigs = new LinkedList<SubmissionConfig>();
-        for (String key : submitDefns.keySet()) {
+        for (SubmissionConfig config : definitions.submissionConfigs.values()) {
             if (offset == null || idx >= offset) {
                 count++;
-                subConfigs.add(getSubmissionConfigByName(key));
+                subConfigs.add(config);
             }
             idx++;
             if (count >= limit) {
@@ -220,7 +193,7 @@ public class SubmissionConfigReader {
     }
 
     public int countSubmissionConfigs() {
-        return submitDefns.size();
+        return definitions.submissionConfigs.size();
     }
 
     /**
@@ -232,35 +205,39 @@ public class SubmissionConfigReader {
      * @throws IllegalStateException if no default submission process configuration defined
      */
     public SubmissionConfig getSubmissionConfigByCollection(Collection col) {
-
+        Definitions defs = definitions;
         String submitName;
 
         if (col != null) {
 
-            // get the name of the submission process config for this collection
-            submitName = collectionToSubmissionConfig
-                .get(col.getHandle());
+            // get the submission process config mapped to the handle of this collection
+            SubmissionConfig config = defs.collectionConfigs.get(col.getHandle());
+            if (config != null) {
+                return config;
+            }
+            submitName = defs.collectionToSubmissionConfig.get(col.getHandle());
             if (submitName != null) {
-                return getSubmissionConfigByName(submitName);
+                // mapped to an undefined submission process
+                return getSubmissionConfigByName(defs, submitName);
             }
 
             // get the name of the submission process based on the entity type of this collections
-            if (!entityTypeToSubmissionConfig.isEmpty()) {
+            if (!defs.entityTypeToSubmissionConfig.isEmpty()) {
                 String entityType = collectionService.getMetadataFirstValue(col, "dspace", "entity", "type", Item.ANY);
-                submitName = entityTypeToSubmissionConfig
+                submitName = defs.entityTypeToSubmissionConfig
                     .get(entityType);
                 if (submitName != null) {
-                    return getSubmissionConfigByName(submitName);
+                    return getSubmissionConfigByName(defs, submitName);
                 }
             }
 
-            if (!communityToSubmissionConfig.isEmpty()) {
+            if (!defs.communityToSubmissionConfig.isEmpty()) {
                 try {
                     List<Community> communities = col.getCommunities();
                     for (Community com : communities) {
-                        submitName = getSubmissionConfigByCommunity(com);
+                        submitName = getSubmissionConfigByCommunity(defs, com);
                         if (submitName != null) {
-                            return getSubmissionConfigByName(submitName);
+                            return getSubmissionConfigByName(defs, submitName);
                         }
                     }
                 } catch (SQLException sqle) {
@@ -270,14 +247,14 @@ public class SubmissionConfigReader {
             }
         }
 
-        submitName = collectionToSubmissionConfig.get(DEFAULT_COLLECTION);
+        submitName = defs.collectionToSubmissionConfig.get(DEFAULT_COLLECTION);
 
         if (submitName == null) {
             throw new IllegalStateException(
                 "No item submission process configuration designated as 'default' in 'submission-map' section of " +
                     "'item-submission.xml'.");
         }
-        return getSubmissionConfigByName(submitName);
+        return getSubmissionConfigByName(defs, submitName);
     }
 
     /**
@@ -285,18 +262,19 @@ public class SubmissionConfigReader {
      * used for a community or the closest community parent, or null
      * if none is defined
      *
+     * @param defs the configuration
      * @param com community for which search Submission process config
      * @return the SubmissionConfig representing the item submission config
      */
-    private String getSubmissionConfigByCommunity(Community com) {
-        String submitName = communityToSubmissionConfig
+    private String getSubmissionConfigByCommunity(Definitions defs, Community com) {
+        String submitName = defs.communityToSubmissionConfig
                 .get(com.getHandle());
         if (submitName != null) {
             return submitName;
         }
         List<Community> communities = com.getParentCommunities();
         for (Community parentCom : communities) {
-            submitName = getSubmissionConfigByCommunity(parentCom);
+            submitName = getSubmissionConfigByCommunity(defs, parentCom);
             if (submitName != null) {
                 return submitName;
             }
@@ -311,37 +289,18 @@ public class SubmissionConfigReader {
      * @return the SubmissionConfig representing the item submission config
      */
     public SubmissionConfig getSubmissionConfigByName(String submitName) {
-        log.debug("Loading submission process config named '" + submitName
-                      + "'");
-
-        // check mini-cache, and return if match
-        if (lastSubmissionConfig != null
-            && lastSubmissionConfig.getSubmissionName().equals(submitName)) {
-            log.debug("Found submission process config '" + submitName
-                          + "' in cache.");
-
-            return lastSubmissionConfig;
-        }
+        return getSubmissionConfigByName(definitions, submitName);
+    }
 
-        // cache miss - construct new SubmissionConfig
-        List<Map<String, String>> steps = submitDefns.get(submitName);
+    private SubmissionConfig getSubmissionConfigByName(Definitions defs, String submitName) {
+        SubmissionConfig config = defs.submissionConfigs.get(submitName);
 
-        if (steps == null) {
+        if (config == null) {
             throw new IllegalStateException(
                 "Missing the Item Submission process config '" + submitName
                     + "' (or unable to load) from 'item-submission.xml'.");
         }
-
-        log.debug("Submission process config '" + submitName
-                      + "' not in cache. Reloading from scratch.");
-
-        lastSubmissionConfig = new SubmissionConfig(StringUtils.equals(getDefaultSubmissionConfigName(), submitName),
-                                                    submitName, steps);
-
-        log.debug("Submission process config has "
-                      + lastSubmissionConfig.getNumberOfSteps() + " steps listed.");
-
-        return lastSubmissionConfig;
+        return config;
     }
 
     /**
@@ -356,17 +315,7 @@ public class SubmissionConfigReader {
      */
     public SubmissionStepConfig getStepConfig(String stepID)
         throws SubmissionConfigReaderException {
-        // We should already have the step definitions loaded
-        if (stepDefns != null) {
-            // retrieve step info
-            Map<String, String> stepInfo = stepDefns.get(stepID);
-
-            if (stepInfo != null) {
-                return new SubmissionStepConfig(stepInfo);
-            }
-        }
-
-        return null;
+        return definitions.stepConfigs.get(stepID);
     }
 
     /**
@@ -374,7 +323,7 @@ public class SubmissionConfigReader {
      * should correspond to the collection-form maps, the form definitions, and
      * the display/storage word pairs.
      */
-    private void doNodes(Node n) throws SAXException, SubmissionConfigReaderException {
+    private void doNodes(Node n, Definitions defs) throws SAXException, SubmissionConfigReaderException {
         if (n == null) {
             return;
         }
@@ -391,13 +340,13 @@ public class SubmissionConfigReader {
             }
             String tagName = nd.getNodeName();
             if (tagName.equals("submission-map")) {
-                processMap(nd);
+                processMap(nd, defs);
                 foundMap = true;
             } else if (tagName.equals("step-definitions")) {
-                processStepDefinition(nd);
+                processStepDefinition(nd, defs);
                 foundStepDefs = true;
             } else if (tagName.equals("submission-definitions")) {
-                processSubmissionDefinition(nd);
+                processSubmissionDefinition(nd, defs);
                 foundSubmitDefs = true;
             }
             // Ignore unknown nodes
@@ -421,7 +370,7 @@ public class SubmissionConfigReader {
      * the collection handle and item submission name, put name in hashmap keyed
      * by the collection handle.
      */
-    private void processMap(Node e) throws SAXException {
+    private void processMap(Node e, Definitions defs) throws SAXException {
 
         NodeList nl = e.getChildNodes();
         int len = nl.getLength();
@@ -447,11 +396,11 @@ public class SubmissionConfigReader {
                         "name-map element has content in 'item-submission.xml', it should be empty.");
                 }
                 if (id != null) {
-                    collectionToSubmissionConfig.put(id, value);
+                    defs.collectionToSubmissionConfig.put(id, value);
                 } else if (communityId != null) {
-                    communityToSubmissionConfig.put(communityId, value);
+                    defs.communityToSubmissionConfig.put(communityId, value);
                 } else {
-                    entityTypeToSubmissionConfig.put(entityType, value);
+                    defs.entityTypeToSubmissionConfig.put(entityType, value);
                 }
             } // ignore any child node that isn't a "name-map"
         }
@@ -465,9 +414,9 @@ public class SubmissionConfigReader {
      * Extract the step information (from the step_fields) and place in a
      * HashMap whose key is the step's unique id.
      */
-    private void processStepDefinition(Node e) throws SAXException,
+    private void processStepDefinition(Node e, Definitions defs) throws SAXException,
         SubmissionConfigReaderException {
-        stepDefns = new HashMap<String, Map<String, String>>();
+        Map<String, Map<String, String>> stepDefns = defs.stepDefns;
 
         NodeList nl = e.getChildNodes();
         int len = nl.getLength();
@@ -510,8 +459,9 @@ public class SubmissionConfigReader {
      * Extract the submission-process name and steps and place in a HashMap
      * whose key is the submission-process's unique name.
      */
-    private void processSubmissionDefinition(Node e) throws SAXException,
+    private void processSubmissionDefinition(Node e, Definitions defs) throws SAXException,
         SubmissionConfigReaderException {
+        Map<String, Map<String, String>> stepDefns = defs.stepDefns;
         int numSubmitProcesses = 0;
         List<String> submitNames = new ArrayList<String>();
 
@@ -538,7 +488,7 @@ public class SubmissionConfigReader {
 
                 // the 'submission-process' definition contains steps
                 List<Map<String, String>> steps = new ArrayList<Map<String, String>>();
-                submitDefns.put(submitName, steps);
+                defs.submitDefns.put(submitName, steps);
 
                 // loop through all the 'step' nodes of the 'submission-process'
                 NodeList pl = nd.getChildNodes();
@@ -717,6 +667,7 @@ public class SubmissionConfigReader {
 
     public List<Collection> getCollectionsBySubmissionConfig(Context context, String submitName)
         throws IllegalStateException, SQLException {
+        Map<String, String> collectionToSubmissionConfig = definitions.collectionToSubmissionConfig;
         List<Collection> results = new ArrayList<>();
         // get the submission-map keys
         for (String handle : collectionToSubmissionConfig.keySet()) {
@@ -732,4 +683,59 @@ public class SubmissionConfigReader {
         }
         return results;
     }
-}
\ No newline at end of file
+
+    /**
+     * A parsed configuration file. Filled while parsing, then never modified
+     * once published by {@link #buildInputs(String)}.
+     */
+    private static class Definitions {
+        /**
+         * Which submission process configuration is used by which collection handle, community handle and
+         * collection entity type (the 'submission-map' tag)
+         */
+        private final Map<String, String> collectionToSubmissionConfig = new HashMap<>();
+        private final Map<String, String> communityToSubmissionConfig = new HashMap<>();
+        private final Map<String, String> entityTypeToSubmissionConfig = new HashMap<>();
+
+        /**
+         * The global submission step definitions defined in the "step-definitions" section
+         */
+        private final Map<String, Map<String, String>> stepDefns = new HashMap<>();
+
+        /**
+         * The item submission definitions defined in the "submission-definitions" section
+         */
+        private final Map<String, List<Map<String, String>>> submitDefns = new LinkedHashMap<>();
+
+        /**
+         * Built by {@link #complete()}: the SubmissionConfig of each submission process, in definition order, the
+         * SubmissionConfig used by each mapped collection handle and the global steps
+         */
+        private Map<String, SubmissionConfig> submissionConfigs;
+        private Map<String, SubmissionConfig> collectionConfigs;
+        private Map<String, SubmissionStepConfig> stepConfigs;
+
+        void complete() {
+            String defaultName = collectionToSubmissionConfig.get(DEFAULT_COLLECTION);
+            Map<String, SubmissionConfig> configs = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Map<String, String>>> entry : submitDefns.entrySet()) {
+                configs.put(entry.getKey(), new SubmissionConfig(StringUtils.equals(defaultName, entry.getKey()),
+                                                                 entry.getKey(), entry.getValue()));
+            }
+            submissionConfigs = Collections.unmodifiableMap(configs);
+
+            // Handles mapped to an undefined submission process are left out, their lookup by name fails
+            Map<String, SubmissionConfig> byHandle = new HashMap<>();
+            collectionToSubmissionConfig.forEach((handle, name) -> {
+                if (!DEFAULT_COLLECTION.equals(handle) && configs.containsKey(name)) {
+                    byHandle.put(handle, configs.get(name));
+                }
+            });
+            collectionConfigs = Collections.unmodifiableMap(byHandle);
+
+            Map<String, SubmissionStepConfig> steps = new HashMap<>();
+            stepDefns.forEach((id, stepInfo) -> steps.put(id, new SubmissionStepConfig(stepInfo)));
+            stepConfigs = Collections.unmodifiableMap(steps);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Consumer evicting entries of the {@link AuthorizationDecisionCache} which
+ * may be affected by the events of a transaction. Group membership changes
+ * (including the Group2GroupCache hierarchy) fire events on the group.
+ * Changes to resource policies are evicted by the
+ * {@link ResourcePolicyServiceImpl} itself, as not all the objects fire an
+ * event when their policies change.
+ * <P>
+ * Item, bundle and bitstream events only evict the decisions of the
+ * objects involved. Group and EPerson events as well as community and
+ * collection changes evict everything, as they can affect decisions on any
+ * object (group membership, inherited ADMIN rights).
+ * <P>
+ * The eviction runs after the transaction is committed, see
+ * {@link Context#addPostCommitTask(Runnable)}.
+ */
+public class AuthorizationCacheConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /** Pending eviction of the transaction being dispatched, null if none yet. */
+    private AuthorizationDecisionCache.Invalidation invalidation = null;
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        AuthorizationDecisionCache cache = getCache();
+        if (cache == null || !cache.isEnabled()) {
+            return;
+        }
+
+        int st = event.getSubjectType();
+        int et = event.getEventType();
+        if (et == Event.MODIFY_METADATA || et == Event.CREATE) {
+            // Neither metadata nor new objects (which have no cached decisions yet) affect authorization
+            return;
+        }
+
+        if (invalidation == null) {
+            invalidation = new AuthorizationDecisionCache.Invalidation(cache);
+            // Registering the task also keeps the context away from the shared cache until its commit
+            ctx.addPostCommitTask(invalidation);
+        }
+
+        switch (st) {
+            case Constants.ITEM:
+            case Constants.BUNDLE:
+            case Constants.BITSTREAM:
+                invalidation.add(event.getSubjectID());
+                invalidation.add(event.getObjectID());
+                DSpaceObject subject = event.getSubject(ctx);
+                if (subject != null) {
+                    invalidation.add(subject);
+                }
+                break;
+            default:
+                // Site, Community, Collection, Group, EPerson
+                invalidation.clearAll();
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        invalidation = null;
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+
+    }
+
+    private AuthorizationDecisionCache getCache() {
+        try {
+            return AuthorizeServiceFactory.getInstance().getAuthorizationDecisionCache();
+        } catch (RuntimeException e) {
+            log.warn("Unable to find the authorization decision cache", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.AbstractSharedCache;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+
+/**
+ * Application wide cache of authorization decisions, shared by all contexts
+ * (and thus all requests), complementing the per-context cache of
+ * {@link org.dspace.core.ContextReadOnlyCache}. A decision is keyed by the
+ * object, the action, the inheritance flag and the principal: the EPerson
+ * (null for anonymous) plus the special groups of the context. Anonymous READ
+ * checks on public objects, which are identical for every visitor, are
+ * therefore answered from memory.
+ * <P>
+ * Entries are invalidated by the {@link AuthorizationCacheConsumer} once the
+ * transaction changing group memberships or the object hierarchy has been
+ * committed, and by the {@link ResourcePolicyServiceImpl} once the one
+ * changing resource policies has, see {@link AbstractSharedCache}.
+ * <P>
+ * The cache is disabled by default, see {@code authorize.decision-cache.*}
+ * in dspace.cfg.
+ */
+public class AuthorizationDecisionCache
+    extends AbstractSharedCache<ConcurrentMap<AuthorizationDecisionCache.DecisionKey, Boolean>> {
+
+    private static final Logger log = LogManager.getLogger();
+
+    protected AuthorizationDecisionCache() {
+        super("authorize.decision-cache", AuthorizationCacheConsumer.class, 20000, 600);
+    }
+
+    /**
+     * Look up a previous decision.
+     *
+     * @param context        current context
+     * @param dso            object the action is attempted on
+     * @param action         action ID, from {@link org.dspace.core.Constants}
+     * @param ePerson        user attempting the action, null for anonymous
+     * @param useInheritance whether ADMIN rights on parent objects were considered
+     * @return the cached decision or null if unknown or the context can't use the cache
+     */
+    public Boolean get(Context context, DSpaceObject dso, int action, EPerson ePerson, boolean useInheritance) {
+        if (!canUse(context, dso)) {
+            return null;
+        }
+        ConcurrentMap<DecisionKey, Boolean> decisions = cache.getIfPresent(dso.getID());
+        if (decisions == null) {
+            return null;
+        }
+        return decisions.get(new DecisionKey(context, action, ePerson, useInheritance));
+    }
+
+    /**
+     * Store a decision, unless the cache was invalidated since {@code startGeneration}.
+     *
+     * @param context         current context
+     * @param dso             object the action is attempted on
+     * @param action          action ID, from {@link org.dspace.core.Constants}
+     * @param ePerson         user attempting the action, null for anonymous
+     * @param useInheritance  whether ADMIN rights on parent objects were considered
+     * @param result          the decision
+     * @param startGeneration value of {@link #getGeneration()} before the decision was computed
+     */
+    public void put(Context context, DSpaceObject dso, int action, EPerson ePerson, boolean useInheritance,
+                    boolean result, long startGeneration) {
+        if (!canUse(context, dso) || !isCurrent(startGeneration)) {
+            return;
+        }
+        try {
+            cache.get(dso.getID(), ConcurrentHashMap::new)
+                 .put(new DecisionKey(context, action, ePerson, useInheritance), result);
+        } catch (Exception e) {
+            log.warn("Unable to cache authorization decision for {}", dso.getID(), e);
+        }
+        // An invalidation may have removed the map while we were writing to it
+        if (!isCurrent(startGeneration)) {
+            cache.invalidate(dso.getID());
+        }
+    }
+
+    /**
+     * Evict, once the transaction of the given context is committed, the
+     * decisions which may depend on the resource policies of the given
+     * object. The objects whose policies are changed don't always fire an
+     * event the {@link AuthorizationCacheConsumer} could act on: e.g. the
+     * last modification date of bundles, groups and the site isn't tracked.
+     * <P>
+     * Registering the eviction also keeps the context away from this cache
+     * until it is committed.
+     *
+     * @param context the context changing the policies
+     * @param dso     the object whose policies are changed, null if the
+     *                changed policies may belong to any object
+     */
+    public void invalidateAfterCommit(Context context, DSpaceObject dso) {
+        if (!isEnabled()) {
+            return;
+        }
+        Invalidation invalidation = new Invalidation(this);
+        if (dso == null) {
+            invalidation.clearAll();
+        } else {
+            invalidation.add(dso);
+        }
+        context.addPostCommitTask(invalidation);
+    }
+
+    private boolean canUse(Context context, DSpaceObject dso) {
+        return dso.getID() != null && canUse(context);
+    }
+
+    /**
+     * Eviction of the decisions of the objects touched by one transaction, run
+     * after it is committed.
+     */
+    static class Invalidation extends AbstractSharedCache.Invalidation {
+
+        Invalidation(AuthorizationDecisionCache cache) {
+            super(cache);
+        }
+
+        /**
+         * Evict the decisions which depend on the given object: bundles and
+         * bitstreams inherit ADMIN rights and the "installed" state from their
+         * item, while changes to other objects may affect the decisions on
+         * any object (group membership, inherited ADMIN rights).
+         */
+        void add(DSpaceObject dso) {
+            switch (dso.getType()) {
+                case Constants.ITEM:
+                    add(dso.getID());
+                    for (Bundle bundle : ((Item) dso).getBundles()) {
+                        add(bundle);
+                    }
+                    break;
+                case Constants.BUNDLE:
+                    add(dso.getID());
+                    for (Bitstream bitstream : ((Bundle) dso).getBitstreams()) {
+                        add(bitstream.getID());
+                    }
+                    break;
+                case Constants.BITSTREAM:
+                    add(dso.getID());
+                    break;
+                default:
+                    clearAll();
+            }
+        }
+    }
+
+    /**
+     * Key of a decision within the decisions of a single object.
+     */
+    static final class DecisionKey {
+        private final int action;
+        private final boolean useInheritance;
+        private final UUID ePerson;
+        private final Set<UUID> specialGroups;
+
+        DecisionKey(Context context, int action, EPerson ePerson, boolean useInheritance) {
+            this.action = action;
+            this.useInheritance = useInheritance;
+            this.ePerson = ePerson == null ? null : ePerson.getID();
+            // Special groups only apply to the user of the context, see GroupService.isMember
+            if (Objects.equals(context.getCurrentUser(), ePerson)) {
+                this.specialGroups = new HashSet<>(context.getSpecialGroupUuids());
+            } else {
+                this.specialGroups = Set.of();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return action == other.action && useInheritance == other.useInheritance
+                && Objects.equals(ePerson, other.ePerson) && specialGroups.equals(other.specialGroups);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(action, useInheritance, ePerson, specialGroups);
+        }
+    }
+}
@@ -14,7 +14,11 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -83,6 +87,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     protected WorkflowItemService workflowItemService;
     @Autowired(required = true)
     private SearchService searchService;
+    @Autowired(required = true)
+    protected AuthorizationDecisionCache authorizationDecisionCache;
 
 
     protected AuthorizeServiceImpl() {
@@ -216,6 +222,130 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         return isAuthorized;
     }
 
+    @Override
+    public <T extends DSpaceObject> Map<T, Boolean> bulkAuthorizeActionBoolean(Context c, List<T> dsos, int a)
+        throws SQLException {
+        return bulkAuthorizeActionBoolean(c, c.getCurrentUser(), dsos, a, true);
+    }
+
+    @Override
+    public <T extends DSpaceObject> Map<T, Boolean> bulkAuthorizeActionBoolean(Context c, EPerson e, List<T> dsos,
+                                                                              int a, boolean useInheritance)
+        throws SQLException {
+        Map<T, Boolean> results = new LinkedHashMap<>();
+        List<T> toCheck = new ArrayList<>();
+        for (T dso : dsos) {
+            if (dso == null || results.containsKey(dso)) {
+                continue;
+            }
+            if (c.ignoreAuthorization()) {
+                results.put(dso, true);
+                continue;
+            }
+            Boolean cachedResult = c.getCachedAuthorizationResult(dso, a, e);
+            if (cachedResult == null) {
+                cachedResult = authorizationDecisionCache.get(c, dso, a, e, useInheritance);
+            }
+            if (cachedResult != null) {
+                results.put(dso, cachedResult);
+            } else {
+                // keep the order of the list, the decision is filled in below
+                results.put(dso, null);
+                toCheck.add(dso);
+            }
+        }
+        if (toCheck.isEmpty()) {
+            return results;
+        }
+
+        if (e != null && isAdmin(c, e)) {
+            for (T dso : toCheck) {
+                results.put(dso, true);
+            }
+            return results;
+        }
+
+        // Special groups of the context are only considered by GroupService.isMember when the
+        // user to check is the current user (or both are anonymous), but allMemberGroupsSet also
+        // includes them when nobody is logged in: fall back to the single checks in that case.
+        if (c.getCurrentUser() == null && e != null) {
+            for (T dso : toCheck) {
+                results.put(dso, authorize(c, dso, a, e, useInheritance));
+            }
+            return results;
+        }
+
+        long cacheGeneration = authorizationDecisionCache.getGeneration();
+        Set<UUID> memberGroups = groupService.allMemberGroupIds(c, e);
+        Map<UUID, List<ResourcePolicy>> policiesByObject = new HashMap<>();
+        for (ResourcePolicy rp : resourcePolicyService.findByDSOsAndAction(c, toCheck, a)) {
+            policiesByObject.computeIfAbsent(rp.getdSpaceObject().getID(), id -> new ArrayList<>()).add(rp);
+        }
+        // Objects of a page often share their admin object (e.g. the owning collection)
+        Map<DSpaceObject, Boolean> adminDecisions = new HashMap<>();
+
+        for (T dso : toCheck) {
+            boolean ignoreCustomPolicies = isIgnoringCustomPolicies(c, dso);
+            boolean timeDependent = false;
+            Boolean result = null;
+            for (ResourcePolicy rp : policiesByObject.getOrDefault(dso.getID(), List.of())) {
+                if (ignoreCustomPolicies && ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType())) {
+                    continue;
+                }
+                boolean datedPolicy = rp.getStartDate() != null || rp.getEndDate() != null;
+                timeDependent |= datedPolicy;
+                if (resourcePolicyService.isDateValid(rp)
+                    && ((rp.getEPerson() != null && rp.getEPerson().equals(e))
+                        || (rp.getGroup() != null && memberGroups.contains(rp.getGroup().getID())))) {
+                    result = true;
+                    c.cachePrefetchedAuthorization(dso, a, e, true);
+                    if (!datedPolicy) {
+                        authorizationDecisionCache.put(c, dso, a, e, useInheritance, true, cacheGeneration);
+                    }
+                    break;
+                }
+            }
+
+            if (result == null && e != null) {
+                DSpaceObject adminObject = useInheritance ? serviceFactory.getDSpaceObjectService(dso)
+                                                                          .getAdminObject(c, dso, a) : null;
+                if (adminObject != null) {
+                    Boolean admin = adminDecisions.get(adminObject);
+                    if (admin == null) {
+                        admin = isAdmin(c, e, adminObject);
+                        adminDecisions.put(adminObject, admin);
+                    }
+                    if (admin) {
+                        // not cached in the context, whose cache doesn't tell inherited decisions apart
+                        result = true;
+                        authorizationDecisionCache.put(c, dso, a, e, useInheritance, true, cacheGeneration);
+                    }
+                }
+            }
+
+            if (result == null) {
+                result = false;
+                if (useInheritance || e == null) {
+                    c.cachePrefetchedAuthorization(dso, a, e, false);
+                }
+                if (!timeDependent) {
+                    authorizationDecisionCache.put(c, dso, a, e, useInheritance, false, cacheGeneration);
+                }
+            }
+            results.put(dso, result);
+        }
+
+        if (c.isReadOnly()) {
+            // as in authorize(), the policies are not kept in the session once the decisions are cached
+            for (List<ResourcePolicy> policies : policiesByObject.values()) {
+                for (ResourcePolicy rp : policies) {
+                    c.uncacheEntity(rp);
+                }
+            }
+        }
+        return results;
+    }
+
     /**
      * Check to see if the given user can perform the given action on the given
      * object. Always returns true if the ignore authorization flat is set in
@@ -251,6 +381,13 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return cachedResult;
         }
 
+        // If the same decision was taken before by another context
+        Boolean sharedResult = authorizationDecisionCache.get(c, o, action, e, useInheritance);
+        if (sharedResult != null) {
+            return sharedResult;
+        }
+        long cacheGeneration = authorizationDecisionCache.getGeneration();
+
         // is eperson set? if not, userToCheck = null (anonymous)
         EPerson userToCheck = null;
         if (e != null) {
@@ -262,34 +399,11 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             }
         }
 
-        // In case the dso is an bundle or bitstream we must ignore custom
-        // policies if it does not belong to at least one installed item (see
-        // DS-2614).
-        // In case the dso is an item and a corresponding workspace or workflow
-        // item exist, we have to ignore custom policies (see DS-2614).
-        boolean ignoreCustomPolicies = false;
-        if (o instanceof Bitstream) {
-            Bitstream b = (Bitstream) o;
-
-            // Ensure that this is not a collection or community logo
-            DSpaceObject parent = bitstreamService.getParentObject(c, b);
-            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
-                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
-            }
-        }
-        if (o instanceof Bundle) {
-            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
-        }
-        if (o instanceof Item) {
-            // the isArchived check is fast and would exclude the possibility that the item
-            // is a workspace or workflow without further queries
-            if (!((Item) o).isArchived() &&
-                    (workspaceItemService.findByItem(c, (Item) o) != null ||
-                    workflowItemService.findByItem(c, (Item) o) != null)) {
-                ignoreCustomPolicies = true;
-            }
-        }
+        boolean ignoreCustomPolicies = isIgnoringCustomPolicies(c, o);
 
+        // Decisions depending on policies with start or end dates may change
+        // over time, so they are not shared with other contexts
+        boolean timeDependent = false;
         for (ResourcePolicy rp : getPoliciesActionFilter(c, o, action)) {
 
             if (ignoreCustomPolicies
@@ -302,10 +416,16 @@ public class AuthorizeServiceImpl implements AuthorizeService {
                 continue;
             }
 
+            boolean datedPolicy = rp.getStartDate() != null || rp.getEndDate() != null;
+            timeDependent |= datedPolicy;
+
             // check policies for date validity
             if (resourcePolicyService.isDateValid(rp)) {
                 if (rp.getEPerson() != null && rp.getEPerson().equals(userToCheck)) {
                     c.cacheAuthorizedAction(o, action, e, true, rp);
+                    if (!datedPolicy) {
+                        authorizationDecisionCache.put(c, o, action, e, useInheritance, true, cacheGeneration);
+                    }
                     return true; // match
                 }
 
@@ -314,6 +434,9 @@ public class AuthorizeServiceImpl implements AuthorizeService {
                     // group was set, and eperson is a member
                     // of that group
                     c.cacheAuthorizedAction(o, action, e, true, rp);
+                    if (!datedPolicy) {
+                        authorizationDecisionCache.put(c, o, action, e, useInheritance, true, cacheGeneration);
+                    }
                     return true;
                 }
             }
@@ -332,14 +455,56 @@ public class AuthorizeServiceImpl implements AuthorizeService {
 
             if (isAdmin(c, e, adminObject)) {
                 c.cacheAuthorizedAction(o, action, e, true, null);
+                authorizationDecisionCache.put(c, o, action, e, useInheritance, true, cacheGeneration);
                 return true;
             }
         }
         // default authorization is denial
         c.cacheAuthorizedAction(o, action, e, false, null);
+        if (!timeDependent) {
+            authorizationDecisionCache.put(c, o, action, e, useInheritance, false, cacheGeneration);
+        }
         return false;
     }
 
+    /**
+     * In case the dso is an bundle or bitstream we must ignore custom
+     * policies if it does not belong to at least one installed item (see
+     * DS-2614).
+     * In case the dso is an item and a corresponding workspace or workflow
+     * item exist, we have to ignore custom policies (see DS-2614).
+     *
+     * @param c current context
+     * @param o object action is being attempted on
+     * @return true if the custom policies of the object must be ignored
+     * @throws SQLException if database error
+     */
+    protected boolean isIgnoringCustomPolicies(Context c, DSpaceObject o) throws SQLException {
+        boolean ignoreCustomPolicies = false;
+        if (o instanceof Bitstream) {
+            Bitstream b = (Bitstream) o;
+
+            // Ensure that this is not a collection or community logo
+            DSpaceObject parent = bitstreamService.getParentObject(c, b);
+            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
+                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
+            }
+        }
+        if (o instanceof Bundle) {
+            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
+        }
+        if (o instanceof Item) {
+            // the isArchived check is fast and would exclude the possibility that the item
+            // is a workspace or workflow without further queries
+            if (!((Item) o).isArchived() &&
+                    (workspaceItemService.findByItem(c, (Item) o) != null ||
+                    workflowItemService.findByItem(c, (Item) o) != null)) {
+                ignoreCustomPolicies = true;
+            }
+        }
+        return ignoreCustomPolicies;
+    }
+
     // check whether any bundle belongs to any item that passed submission
     // and workflow process
     protected boolean isAnyItemInstalled(Context ctx, List<Bundle> bundles)
@@ -9,6 +9,8 @@ package org.dspace.authorize;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.dao.ResourcePolicyDAO;
@@ -42,6 +45,11 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
      */
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ResourcePolicyServiceImpl.class);
 
+    /**
+     * Maximum number of objects passed in a single IN clause
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
     @Autowired(required = true)
     protected ContentServiceFactory contentServiceFactory;
 
@@ -51,6 +59,9 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Autowired
     private GroupService groupService;
 
+    @Autowired(required = true)
+    protected AuthorizationDecisionCache authorizationDecisionCache;
+
     protected ResourcePolicyServiceImpl() {
     }
 
@@ -111,6 +122,16 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         return resourcePolicyDAO.findByDSoAndAction(c, o, actionId);
     }
 
+    @Override
+    public List<ResourcePolicy> findByDSOsAndAction(Context c, Collection<? extends DSpaceObject> dsos, int actionId)
+        throws SQLException {
+        List<ResourcePolicy> policies = new ArrayList<>();
+        for (List<? extends DSpaceObject> chunk : ListUtils.partition(new ArrayList<>(dsos), IN_CLAUSE_CHUNK_SIZE)) {
+            policies.addAll(resourcePolicyDAO.findByDSOsAndAction(c, chunk, actionId));
+        }
+        return policies;
+    }
+
     @Override
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException {
         return resourcePolicyDAO.findByTypeGroupAction(c, dso, group, action);
@@ -148,6 +169,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: authorizations
         // Remove ourself
         resourcePolicyDAO.delete(context, resourcePolicy);
+        authorizationDecisionCache.invalidateAfterCommit(context, resourcePolicy.getdSpaceObject());
 
         context.turnOffAuthorisationSystem();
         if (resourcePolicy.getdSpaceObject() != null) {
@@ -225,6 +247,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDso(c, o);
+        authorizationDecisionCache.invalidateAfterCommit(c, o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -233,6 +256,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndType(c, o, type);
+        authorizationDecisionCache.invalidateAfterCommit(c, o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -242,6 +266,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removePolicies(Context c, DSpaceObject o, String type, int action)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeAndAction(c, o, type, action);
+        authorizationDecisionCache.invalidateAfterCommit(c, o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -251,6 +276,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoGroupPolicies(Context context, DSpaceObject dso, Group group)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoGroupPolicies(context, dso, group);
+        authorizationDecisionCache.invalidateAfterCommit(context, dso);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -260,6 +286,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoEPersonPolicies(Context context, DSpaceObject dso, EPerson ePerson)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoEPersonPolicies(context, dso, ePerson);
+        authorizationDecisionCache.invalidateAfterCommit(context, dso);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -269,11 +296,13 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllEPersonPolicies(Context context, EPerson ePerson) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByEPerson(context, ePerson);
+        authorizationDecisionCache.invalidateAfterCommit(context, null);
     }
 
     @Override
     public void removeGroupPolicies(Context c, Group group) throws SQLException {
         resourcePolicyDAO.deleteByGroup(c, group);
+        authorizationDecisionCache.invalidateAfterCommit(c, null);
     }
 
     @Override
@@ -282,6 +311,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             removeAllPolicies(c, o);
         } else {
             resourcePolicyDAO.deleteByDsoAndAction(c, o, actionId);
+            authorizationDecisionCache.invalidateAfterCommit(c, o);
             c.turnOffAuthorisationSystem();
             contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
             c.restoreAuthSystemState();
@@ -292,6 +322,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoAndTypeNotEqualsToPolicies(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeNotEqualsTo(c, o, type);
+        authorizationDecisionCache.invalidateAfterCommit(c, o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -328,6 +359,12 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
                 resourcePolicyDAO.save(context, resourcePolicy);
             }
 
+            // Not all the objects fire an event the authorization cache consumer could act on, and a policy
+            // without object doesn't grant anything yet
+            for (DSpaceObject dSpaceObject : relatedDSpaceObjects) {
+                authorizationDecisionCache.invalidateAfterCommit(context, dSpaceObject);
+            }
+
             //Update the last modified timestamp of all related DSpace Objects
             context.turnOffAuthorisationSystem();
             for (DSpaceObject dSpaceObject : relatedDSpaceObjects) {
@@ -8,6 +8,7 @@
 package org.dspace.authorize.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,6 +40,19 @@ public interface ResourcePolicyDAO extends GenericDAO<ResourcePolicy> {
 
     public List<ResourcePolicy> findByDSoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException;
 
+    /**
+     * Return the policies of all the given DSpace objects for the given action,
+     * with a single query.
+     *
+     * @param context  DSpace context object
+     * @param dsos     DSpace objects
+     * @param actionId action ID
+     * @return list of policies
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> findByDSOsAndAction(Context context, Collection<? extends DSpaceObject> dsos,
+                                                    int actionId) throws SQLException;
+
     public void deleteByDsoAndTypeAndAction(Context context, DSpaceObject dSpaceObject, String type, int action)
         throws SQLException;
 
@@ -10,6 +10,7 @@ package org.dspace.authorize.service;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
@@ -151,6 +152,43 @@ public interface AuthorizeService {
     public boolean authorizeActionBoolean(Context c, EPerson e, DSpaceObject o, int a, boolean useInheritance)
         throws SQLException;
 
+    /**
+     * Bulk version of {@link #authorizeActionBoolean(Context, DSpaceObject, int)}, checking
+     * the same action on a list of objects (e.g. a page of search results) for the current
+     * user. The resource policies of all the objects and the groups of the user are loaded
+     * at once instead of object per object. The decisions are also cached in the context,
+     * so that subsequent checks of the same action on these objects don't hit the database.
+     *
+     * @param <T> the type of the objects
+     * @param c   DSpace context, containing current user
+     * @param dsos objects to check
+     * @param a   action being attempted, from
+     *            <code>org.dspace.core.Constants</code>
+     * @return the decision for each object, in the order of the list
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    public <T extends DSpaceObject> Map<T, Boolean> bulkAuthorizeActionBoolean(Context c, List<T> dsos, int a)
+        throws SQLException;
+
+    /**
+     * Bulk version of {@link #authorizeActionBoolean(Context, EPerson, DSpaceObject, int, boolean)},
+     * see {@link #bulkAuthorizeActionBoolean(Context, List, int)}.
+     *
+     * @param <T>            the type of the objects
+     * @param c              DSpace context
+     * @param e              EPerson to use in the check
+     * @param dsos           objects to check
+     * @param a              action being attempted, from
+     *                       <code>org.dspace.core.Constants</code>
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @return the decision for each object, in the order of the list
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    public <T extends DSpaceObject> Map<T, Boolean> bulkAuthorizeActionBoolean(Context c, EPerson e, List<T> dsos,
+                                                                              int a, boolean useInheritance)
+        throws SQLException;
+
     ///////////////////////////////////////////////
     // admin check methods
     ///////////////////////////////////////////////
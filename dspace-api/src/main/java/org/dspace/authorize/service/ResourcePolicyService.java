@@ -8,6 +8,7 @@
 package org.dspace.authorize.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -61,6 +62,19 @@ public interface ResourcePolicyService {
 
     public List<ResourcePolicy> find(Context c, DSpaceObject o, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of all the given objects for the given action, with a
+     * single query. Large collections are split in chunks.
+     *
+     * @param c        context
+     * @param dsos     DSpace objects
+     * @param actionId action ID
+     * @return the policies of all the objects, in no particular order
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> findByDSOsAndAction(Context c, Collection<? extends DSpaceObject> dsos, int actionId)
+        throws SQLException;
+
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException;
 
     public List<ResourcePolicy> find(Context context, Group group) throws SQLException;
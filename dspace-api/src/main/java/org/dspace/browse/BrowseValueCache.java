@@ -0,0 +1,374 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.discovery.DiscoverQuery;
+import org.dspace.discovery.DiscoverResult;
+import org.dspace.discovery.DiscoverResult.FacetResult;
+import org.dspace.discovery.IndexCommitListener;
+import org.dspace.discovery.SearchService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Application wide cache of the distinct values of the metadata browse
+ * indexes, as seen by anonymous users: for each browse index field and scope
+ * (whole repository, community or collection), the sorted array of all the
+ * distinct values with their authority keys and frequencies. Value browsing,
+ * "starts with" requests and the offsets of "jump to" values are then answered
+ * by binary searches in memory, at any offset, instead of facet queries over
+ * the whole index.
+ * <P>
+ * Solr commits don't tell which values changed, so each commit of the index
+ * by this JVM marks all the arrays as outdated. An outdated array keeps being
+ * served while it is rebuilt in the background on its next use, no more than
+ * once every {@code browse.value-cache.min-refresh} seconds: only the browse
+ * indexes and scopes actually in use are rebuilt. Arrays of a given field and
+ * scope are also rebuilt after {@code browse.value-cache.ttl} seconds, which
+ * bounds staleness in multi-node setups and for commits done by command line
+ * tools.
+ * <P>
+ * Only contexts without a current user, special groups or ignored
+ * authorizations use this cache, as the values visible to other users depend
+ * on their permissions. A browse index and scope having more distinct values
+ * than {@code browse.value-cache.max-values} can't be cached, and keeps being
+ * browsed by paged Solr queries. The cache is disabled by default, see
+ * {@code browse.value-cache.*} in dspace.cfg.
+ */
+public class BrowseValueCache implements IndexCommitListener, InitializingBean, DisposableBean {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Identifies the values of a browse index in a scope.
+     *
+     * @param field          the browse index field
+     * @param filterQueries  the scope and default filter queries
+     */
+    public record Key(String field, List<String> filterQueries) {
+    }
+
+    /**
+     * Immutable sorted distinct values of a browse index in a scope, in the
+     * order of the index.
+     */
+    public static final class Values {
+        private final String[] sortValues;
+        private final String[] displayedValues;
+        private final String[] authorityKeys;
+        private final long[] counts;
+        private final long generation;
+        private final long loaded;
+
+        private Values(List<FacetResult> facets, long generation) {
+            int size = facets.size();
+            sortValues = new String[size];
+            displayedValues = new String[size];
+            authorityKeys = new String[size];
+            counts = new long[size];
+            for (int i = 0; i < size; i++) {
+                FacetResult facet = facets.get(i);
+                sortValues[i] = facet.getSortValue() != null ? facet.getSortValue() : "";
+                displayedValues[i] = facet.getDisplayedValue();
+                authorityKeys[i] = facet.getAuthorityKey();
+                counts[i] = facet.getCount();
+            }
+            this.generation = generation;
+            this.loaded = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the number of distinct values
+         */
+        public int size() {
+            return sortValues.length;
+        }
+
+        /**
+         * @param prefix prefix of the sort values, null or empty for all values
+         * @return the first index of the values whose sort value starts with the prefix
+         */
+        public int fromIndex(String prefix) {
+            return prefix == null || prefix.isEmpty() ? 0 : lowerBound(prefix, false);
+        }
+
+        /**
+         * @param prefix prefix of the sort values, null or empty for all values
+         * @return the index following the last value whose sort value starts with the prefix
+         */
+        public int toIndex(String prefix) {
+            return prefix == null || prefix.isEmpty() ? size() : lowerBound(prefix, true);
+        }
+
+        /**
+         * Position of a "jump to" value among the values starting with a prefix, in ascending order. Sort values
+         * are compared as Strings, like the facet values of the Solr implementation of
+         * {@link BrowseDAO#doDistinctOffsetQuery(String, String, boolean)}.
+         *
+         * @param value  the sort value to jump to
+         * @param prefix prefix of the sort values, null or empty for all values
+         * @return the number of values starting with the prefix whose sort value is lower than the given value
+         */
+        public int offsetOf(String value, String prefix) {
+            int from = fromIndex(prefix);
+            int to = toIndex(prefix);
+            return Math.min(Math.max(lowerBound(value, false), from), to) - from;
+        }
+
+        /**
+         * @param index           index of a value
+         * @param showFrequencies whether to include the frequency of the value
+         * @return the value in the format of {@link BrowseDAO#doValueQuery()}
+         */
+        public String[] get(int index, boolean showFrequencies) {
+            return new String[] {displayedValues[index], authorityKeys[index],
+                showFrequencies ? String.valueOf(counts[index]) : ""};
+        }
+
+        /**
+         * Binary search of the first index whose sort value is greater than or equal to the given value, or,
+         * if {@code afterPrefix}, greater than the given value and not starting with it.
+         */
+        private int lowerBound(String value, boolean afterPrefix) {
+            int low = 0;
+            int high = sortValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                String sortValue = sortValues[mid];
+                boolean before = afterPrefix
+                    ? sortValue.startsWith(value) || sortValue.compareTo(value) < 0
+                    : sortValue.compareTo(value) < 0;
+                if (before) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private Cache<Key, Values> cache;
+
+    /**
+     * Maximum number of values in the cache, for all keys
+     */
+    private long maxValues;
+
+    /**
+     * Keys having too many values to be cached, remembered so as not to load their values on every request
+     */
+    private Cache<Key, Boolean> oversized;
+
+    /**
+     * Incremented on every commit of the index
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Keys whose values are being rebuilt in the background
+     */
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService refresher;
+
+    protected BrowseValueCache() {
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        maxValues = configurationService.getLongProperty("browse.value-cache.max-values", 2000000);
+        cache = CacheBuilder.newBuilder()
+                            // A single segment, so that an entry may use the whole weight: Guava splits the
+                            // maximum weight between the segments and evicts any entry heavier than its segment
+                            .concurrencyLevel(1)
+                            .maximumWeight(maxValues)
+                            .weigher((Key key, Values values) -> values.size() + 1)
+                            .recordStats()
+                            .build();
+        oversized = CacheBuilder.newBuilder()
+                                .maximumSize(1000)
+                                .expireAfterWrite(configurationService.getLongProperty("browse.value-cache.ttl",
+                                                                                       3600), TimeUnit.SECONDS)
+                                .build();
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "browse-value-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @param context current context
+     * @return true if the given context may use the shared values
+     * @throws SQLException if database error
+     */
+    public boolean canUse(Context context) throws SQLException {
+        return configurationService.getBooleanProperty("browse.value-cache.enabled", false)
+            && context.getCurrentUser() == null && !context.ignoreAuthorization()
+            && context.getSpecialGroups().isEmpty();
+    }
+
+    /**
+     * Get the values of a browse index in a scope, loading them if they are not cached yet. Concurrent requests
+     * for values not cached yet wait for a single load. Outdated values are returned while they are rebuilt in
+     * the background.
+     *
+     * @param context current context, which must be allowed to use this cache
+     * @param key     browse index field and scope
+     * @return the values, null if there are too many values to be cached
+     * @throws SearchServiceException if the values can't be loaded
+     */
+    public Values get(Context context, Key key) throws SearchServiceException {
+        if (oversized.getIfPresent(key) != null) {
+            return null;
+        }
+        Values values;
+        try {
+            values = cache.get(key, () -> load(context, key));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof SearchServiceException) {
+                throw (SearchServiceException) e.getCause();
+            }
+            throw new SearchServiceException(e.getCause().getMessage(), e.getCause());
+        }
+        if (checkOversized(key, values)) {
+            return null;
+        }
+        if (isOutdated(values) && refreshing.add(key)) {
+            try {
+                refresher.submit(() -> refresh(key));
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Mark all the cached values as outdated.
+     */
+    @Override
+    public void indexCommitted() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Discard all the cached values.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        oversized.invalidateAll();
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of this cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private boolean isOutdated(Values values) {
+        long age = System.currentTimeMillis() - values.loaded;
+        return age >= configurationService.getLongProperty("browse.value-cache.ttl", 3600) * 1000
+            || (values.generation != generation.get()
+                && age >= configurationService.getLongProperty("browse.value-cache.min-refresh", 60) * 1000);
+    }
+
+    private void refresh(Key key) {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            Values values = load(context, key);
+            if (!checkOversized(key, values)) {
+                cache.put(key, values);
+            }
+        } catch (SearchServiceException | RuntimeException e) {
+            log.error("Could not refresh the browse values of " + key, e);
+        } finally {
+            refreshing.remove(key);
+            context.abort();
+        }
+    }
+
+    /**
+     * Check whether values loaded by {@link #load} may have been truncated, or can't fit in the cache. These are
+     * discarded and their key remembered, until the time to live of the values.
+     *
+     * @return true if the values can't be cached
+     */
+    private boolean checkOversized(Key key, Values values) {
+        if (values.size() < maxValues) {
+            return false;
+        }
+        log.warn("The browse values of {} can't be cached, there are more than browse.value-cache.max-values", key);
+        cache.invalidate(key);
+        oversized.put(key, true);
+        return true;
+    }
+
+    /**
+     * Load the distinct values of a browse index in a scope with a single facet query, at most
+     * {@code browse.value-cache.max-values} of them.
+     */
+    private Values load(Context context, Key key) throws SearchServiceException {
+        long startGeneration = generation.get();
+        DiscoverQuery query = new DiscoverQuery();
+        key.filterQueries().forEach(query::addFilterQueries);
+        ObjectNode jsonFacet = JsonNodeFactory.instance.objectNode();
+        ObjectNode entriesFacet = JsonNodeFactory.instance.objectNode();
+        entriesFacet.put("type", "terms");
+        entriesFacet.put("field", key.field() + "_filter");
+        entriesFacet.put("limit", maxValues);
+        entriesFacet.put("sort", "index");
+        jsonFacet.set(key.field(), entriesFacet);
+        query.setMaxResults(0);
+        query.addProperty("json.facet", jsonFacet.toString());
+
+        // Not autowired, the search service notifies this bean of its commits
+        SearchService searchService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                           .getServiceByName(SearchService.class.getName(),
+                                                                             SearchService.class);
+        DiscoverResult result = searchService.search(context, query);
+        List<FacetResult> facets = ListUtils.emptyIfNull(result.getFacetResult(key.field()));
+        log.debug("Loaded {} browse values of {}", facets.size(), key);
+        return new Values(facets, startGeneration);
+    }
+}
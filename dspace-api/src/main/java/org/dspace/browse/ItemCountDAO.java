@@ -26,4 +26,24 @@ public interface ItemCountDAO {
      * @return count
      */
     int getCount(Context context, DSpaceObject dso);
+
+    /**
+     * Get the number of withdrawn items in the given DSpaceObject container.
+     *
+     * @param context DSpace context
+     * @param dso Dspace Object
+     * @return count
+     */
+    int getWithdrawnCount(Context context, DSpaceObject dso);
+
+    /**
+     * Get the number of items of the given entity type in the given
+     * DSpaceObject container.
+     *
+     * @param context DSpace context
+     * @param dso Dspace Object
+     * @param entityType the entity type (dspace.entity.type) of the items
+     * @return count
+     */
+    int getCount(Context context, DSpaceObject dso, String entityType);
 }
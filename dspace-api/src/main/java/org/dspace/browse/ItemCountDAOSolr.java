@@ -7,55 +7,112 @@
  */
 package org.dspace.browse;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.logging.log4j.Logger;
-import org.dspace.content.Collection;
-import org.dspace.content.Community;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.PivotField;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.util.NamedList;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
-import org.dspace.discovery.DiscoverFacetField;
 import org.dspace.discovery.DiscoverQuery;
-import org.dspace.discovery.DiscoverResult;
-import org.dspace.discovery.DiscoverResult.FacetResult;
-import org.dspace.discovery.SearchService;
-import org.dspace.discovery.SearchServiceException;
-import org.dspace.discovery.configuration.DiscoveryConfigurationParameters;
+import org.dspace.discovery.IndexCommitListener;
+import org.dspace.discovery.SearchUtils;
+import org.dspace.discovery.SolrSearchCore;
+import org.dspace.discovery.SolrServiceResourceRestrictionPlugin;
 import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Discovery (Solr) driver implementing ItemCountDAO interface to look up item
- * count information in communities and collections. Caching operations are
- * intentionally not implemented because Solr already is our cache.
+ * count information in communities and collections.
+ * <P>
+ * The counts of all the communities and collections are loaded at once, by a
+ * single Solr query pivoting the discoverable items on their withdrawn flag,
+ * entity type and locations. Like any search, the query only counts the items
+ * the user may read, see {@link SolrServiceResourceRestrictionPlugin}.
+ * <P>
+ * The counts seen by anonymous users are kept in an immutable snapshot shared
+ * by the whole application and read without locking. The snapshot is loaded
+ * on first use, then replaced in the background every
+ * {@code webui.strengths.cache.refresh} seconds and shortly after each commit
+ * of the index by this JVM. The counts seen by other users are loaded on
+ * demand and shared by the users having the same read permissions, until the
+ * next commit of the index or for {@code webui.strengths.cache.refresh}
+ * seconds at most.
  */
-public class ItemCountDAOSolr implements ItemCountDAO {
+public class ItemCountDAOSolr implements ItemCountDAO, IndexCommitListener, InitializingBean, DisposableBean {
     /**
      * Log4j logger
      */
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemCountDAOSolr.class);
 
+    private static final String WITHDRAWN_FIELD = "withdrawn";
+    private static final String ENTITY_TYPE_FIELD = "search.entitytype";
+    private static final String[] LOCATION_FIELDS = {"location.comm", "location.coll"};
+
     /**
-     * Hold the communities item count obtained from SOLR after the first query. This only works
-     * well if the ItemCountDAO lifecycle is bound to the request lifecycle as
-     * it is now. If we switch to a Spring-based instantiation we should mark
-     * this bean as prototype
-     **/
-    private Map<String, Integer> communitiesCount = null;
+     * Item counts of all the containers, by container UUID. The UUIDs of
+     * communities and collections never collide, so they share the same maps.
+     *
+     * @param archived     counts of the archived (not withdrawn) items
+     * @param withdrawn    counts of the withdrawn items
+     * @param byEntityType counts of the archived items by entity type
+     */
+    private record ItemCounts(Map<String, Integer> archived, Map<String, Integer> withdrawn,
+                              Map<String, Map<String, Integer>> byEntityType) {
+        private static final ItemCounts EMPTY = new ItemCounts(Map.of(), Map.of(), Map.of());
+    }
 
     /**
-     * Hold the collection item count obtained from SOLR after the first query
-     **/
-    private Map<String, Integer> collectionsCount = null;
+     * Solr core
+     */
+    @Autowired
+    protected SolrSearchCore solrSearchCore;
 
+    @Autowired
+    protected ConfigurationService configurationService;
 
     /**
-     * Solr search service
+     * Adds the read permissions of the user to the queries
      */
     @Autowired
-    protected SearchService searchService;
+    protected SolrServiceResourceRestrictionPlugin resourceRestrictionPlugin;
+
+    /**
+     * Current snapshot of the counts seen by anonymous users, null until the counts are first used
+     */
+    private volatile ItemCounts counts = null;
+
+    /**
+     * Counts seen by other users, by the read filter queries of their permissions
+     */
+    private Cache<List<String>, ItemCounts> restrictedCounts;
+
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Set while a refresh following an index commit is scheduled, so that
+     * commits in quick succession only trigger one refresh
+     */
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
 
     /**
      * Get the count of the items in the given container.
@@ -66,62 +123,189 @@ public class ItemCountDAOSolr implements ItemCountDAO {
      */
     @Override
     public int getCount(Context context, DSpaceObject dso) {
-        loadCount(context);
-        Integer val = null;
-        if (dso instanceof Collection) {
-            val = collectionsCount.get(dso.getID().toString());
-        } else if (dso instanceof Community) {
-            val = communitiesCount.get(dso.getID().toString());
-        }
+        return getCounts(context).archived().getOrDefault(dso.getID().toString(), 0);
+    }
+
+    @Override
+    public int getWithdrawnCount(Context context, DSpaceObject dso) {
+        return getCounts(context).withdrawn().getOrDefault(dso.getID().toString(), 0);
+    }
+
+    @Override
+    public int getCount(Context context, DSpaceObject dso, String entityType) {
+        return getCounts(context).byEntityType().getOrDefault(entityType, Map.of())
+                                 .getOrDefault(dso.getID().toString(), 0);
+    }
 
-        if (val != null) {
-            return val;
-        } else {
-            return 0;
+    @Override
+    public void afterPropertiesSet() {
+        restrictedCounts = CacheBuilder.newBuilder()
+                                       .maximumSize(1000)
+                                       .expireAfterWrite(configurationService.getLongProperty(
+                                           "webui.strengths.cache.refresh", 300), TimeUnit.SECONDS)
+                                       .build();
+    }
+
+    /**
+     * Refresh the counts shortly, unless they are not used by this JVM.
+     */
+    @Override
+    public void indexCommitted() {
+        restrictedCounts.invalidateAll();
+        if (counts == null || !refreshScheduled.compareAndSet(false, true)) {
+            return;
         }
+        long delay = configurationService.getLongProperty("webui.strengths.cache.commit-delay", 10);
+        refresher.schedule(() -> {
+            refreshScheduled.set(false);
+            refresh();
+        }, delay, TimeUnit.SECONDS);
     }
 
     /**
-     * make sure that the counts are actually fetched from Solr (if haven't been
-     * cached in a Map yet)
-     *
-     * @param context DSpace Context
+     * Replace the snapshot with counts loaded from Solr. The current snapshot
+     * is kept if they can't be loaded.
      */
-    private void loadCount(Context context) {
-        if (communitiesCount != null || collectionsCount != null) {
+    public void refresh() {
+        if (counts == null) {
+            initialize();
             return;
         }
+        try {
+            counts = loadAnonymousCounts();
+        } catch (SolrServerException | IOException | RuntimeException e) {
+            log.error("Could not refresh Community/Collection Item Counts from Solr: ", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            if (refresher != null) {
+                refresher.shutdownNow();
+            }
+        }
+    }
+
+    private ItemCounts getCounts(Context context) {
+        if (context == null || (context.getCurrentUser() == null && context.getSpecialGroupUuids().isEmpty())) {
+            ItemCounts current = counts;
+            return current != null ? current : initialize();
+        }
+        List<String> readFilters = getReadFilters(context);
+        try {
+            return restrictedCounts.get(readFilters, () -> loadCounts(readFilters));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            log.error("Could not load Community/Collection Item Counts from Solr: ", e);
+            return ItemCounts.EMPTY;
+        }
+    }
 
-        communitiesCount = new HashMap<>();
-        collectionsCount = new HashMap<>();
+    /**
+     * @return the filter queries restricting the results to the items the user of the context may read
+     */
+    private List<String> getReadFilters(Context context) {
+        SolrQuery query = new SolrQuery();
+        resourceRestrictionPlugin.additionalSearchParameters(context, new DiscoverQuery(), query);
+        return query.getFilterQueries() == null ? List.of() : List.of(query.getFilterQueries());
+    }
 
-        DiscoverQuery query = new DiscoverQuery();
-        query.setFacetMinCount(1);
-        query.addFacetField(new DiscoverFacetField("location.comm",
-                                                   DiscoveryConfigurationParameters.TYPE_STANDARD, -1,
-                                                   DiscoveryConfigurationParameters.SORT.COUNT));
-        query.addFacetField(new DiscoverFacetField("location.coll",
-                                                   DiscoveryConfigurationParameters.TYPE_STANDARD, -1,
-                                                   DiscoveryConfigurationParameters.SORT.COUNT));
-        query.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);    // count only items
-        query.addFilterQueries("NOT(discoverable:false)");  // only discoverable
-        query.addFilterQueries("withdrawn:false");  // only not withdrawn
-        query.addFilterQueries("archived:true");  // only archived
-        query.setMaxResults(0);
-
-        DiscoverResult sResponse;
+    /**
+     * Load the counts seen by anonymous users.
+     */
+    private ItemCounts loadAnonymousCounts() throws SolrServerException, IOException {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            return loadCounts(getReadFilters(context));
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Load the first snapshot and start refreshing it in the background.
+     */
+    private synchronized ItemCounts initialize() {
+        if (counts != null) {
+            return counts;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-count-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = configurationService.getLongProperty("webui.strengths.cache.refresh", 300);
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+
+        ItemCounts loaded;
         try {
-            sResponse = searchService.search(context, query);
-            List<FacetResult> commCount = sResponse.getFacetResult("location.comm");
-            List<FacetResult> collCount = sResponse.getFacetResult("location.coll");
-            for (FacetResult c : commCount) {
-                communitiesCount.put(c.getAsFilterQuery(), (int) c.getCount());
+            loaded = loadAnonymousCounts();
+        } catch (SolrServerException | IOException | RuntimeException e) {
+            // Don't query Solr again on every request, the background refresh will retry
+            log.error("Could not initialize Community/Collection Item Counts from Solr: ", e);
+            loaded = ItemCounts.EMPTY;
+        }
+        counts = loaded;
+        return loaded;
+    }
+
+    /**
+     * Load the counts of the items matching the given read filter queries.
+     */
+    private ItemCounts loadCounts(List<String> readFilters) throws SolrServerException, IOException {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":" + IndexableItem.TYPE);    // count only items
+        query.addFilterQuery("NOT(discoverable:false)");  // only discoverable
+        query.addFilterQuery("archived:true OR withdrawn:true");  // only archived or withdrawn
+        readFilters.forEach(query::addFilterQuery);  // only readable
+        query.setRows(0);
+        query.setFacet(true);
+        query.setFacetMinCount(1);
+        query.setFacetLimit(-1);
+        for (String location : LOCATION_FIELDS) {
+            query.addFacetPivotField(WITHDRAWN_FIELD + "," + location,
+                                     WITHDRAWN_FIELD + "," + ENTITY_TYPE_FIELD + "," + location);
+        }
+        QueryResponse response = solrSearchCore.getSolr().query(query, solrSearchCore.REQUEST_METHOD);
+
+        Map<String, Integer> archived = new HashMap<>();
+        Map<String, Integer> withdrawn = new HashMap<>();
+        Map<String, Map<String, Integer>> byEntityType = new HashMap<>();
+        NamedList<List<PivotField>> pivots = response.getFacetPivot();
+        for (String location : LOCATION_FIELDS) {
+            for (PivotField status : getPivot(pivots, WITHDRAWN_FIELD + "," + location)) {
+                putCounts(isWithdrawn(status) ? withdrawn : archived, status);
             }
-            for (FacetResult c : collCount) {
-                collectionsCount.put(c.getAsFilterQuery(), (int) c.getCount());
+            for (PivotField status : getPivot(pivots, WITHDRAWN_FIELD + "," + ENTITY_TYPE_FIELD + "," + location)) {
+                if (isWithdrawn(status)) {
+                    continue;
+                }
+                for (PivotField entityType : ListUtils.emptyIfNull(status.getPivot())) {
+                    putCounts(byEntityType.computeIfAbsent(String.valueOf(entityType.getValue()),
+                                                           type -> new HashMap<>()), entityType);
+                }
             }
-        } catch (SearchServiceException e) {
-            log.error("Could not initialize Community/Collection Item Counts from Solr: ", e);
+        }
+
+        Map<String, Map<String, Integer>> entityTypeCounts = new HashMap<>();
+        byEntityType.forEach((type, typeCounts) -> entityTypeCounts.put(type, Map.copyOf(typeCounts)));
+        return new ItemCounts(Map.copyOf(archived), Map.copyOf(withdrawn), Map.copyOf(entityTypeCounts));
+    }
+
+    private static List<PivotField> getPivot(NamedList<List<PivotField>> pivots, String name) {
+        return pivots == null ? List.of() : ListUtils.emptyIfNull(pivots.get(name));
+    }
+
+    private static boolean isWithdrawn(PivotField status) {
+        return Boolean.parseBoolean(String.valueOf(status.getValue()));
+    }
+
+    /**
+     * Add the counts of the locations below the given pivot to the given map.
+     */
+    private static void putCounts(Map<String, Integer> target, PivotField parent) {
+        for (PivotField location : ListUtils.emptyIfNull(parent.getPivot())) {
+            target.put(String.valueOf(location.getValue()), location.getCount());
         }
     }
 }
@@ -16,7 +16,6 @@ import org.dspace.content.DSpaceObject;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
 import org.dspace.services.ConfigurationService;
-import org.dspace.services.factory.DSpaceServicesFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -36,6 +35,8 @@ public class ItemCounter {
     protected ItemService itemService;
     @Autowired
     protected ConfigurationService configurationService;
+    @Autowired
+    protected ItemCountDAO itemCountDAO;
 
     /**
      * Construct a new item counter
@@ -65,12 +66,7 @@ public class ItemCounter {
         }
 
         if (useCache) {
-            // NOTE: This bean is NOT Autowired above because it's a "prototype" bean which we want to reload
-            // occasionally. Each time the bean reloads it will update the cached item counts.
-            ItemCountDAO dao =
-                DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName("itemCountDAO",
-                                                                                         ItemCountDAO.class);
-            return dao.getCount(context, dso);
+            return itemCountDAO.getCount(context, dso);
         }
 
         // if we make it this far, we need to manually count
@@ -94,4 +90,37 @@ public class ItemCounter {
 
         return 0;
     }
+
+    /**
+     * Get the count of the withdrawn items in the given container, from the
+     * cached counts. If the configuration value webui.strengths.show is equal
+     * to 'false' this method will return -1.
+     *
+     * @param context DSpace Context
+     * @param dso DSpaceObject
+     * @return count (-1 is returned if counts are disabled)
+     */
+    public int getWithdrawnCount(Context context, DSpaceObject dso) {
+        if (!configurationService.getBooleanProperty("webui.strengths.show", false)) {
+            return -1;
+        }
+        return itemCountDAO.getWithdrawnCount(context, dso);
+    }
+
+    /**
+     * Get the count of the archived items of the given entity type in the
+     * given container, from the cached counts. If the configuration value
+     * webui.strengths.show is equal to 'false' this method will return -1.
+     *
+     * @param context DSpace Context
+     * @param dso DSpaceObject
+     * @param entityType the entity type of the items
+     * @return count (-1 is returned if counts are disabled)
+     */
+    public int getCount(Context context, DSpaceObject dso, String entityType) {
+        if (!configurationService.getBooleanProperty("webui.strengths.show", false)) {
+            return -1;
+        }
+        return itemCountDAO.getCount(context, dso, entityType);
+    }
 }
@@ -8,6 +8,7 @@
 package org.dspace.browse;
 
 import java.io.Serializable;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -169,6 +170,9 @@ public class SolrBrowseDAO implements BrowseDAO {
     SearchService searcher = DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName(
         SearchService.class.getName(), SearchService.class);
 
+    BrowseValueCache browseValueCache = DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName(
+        null, BrowseValueCache.class);
+
     private DiscoverResult sResponse = null;
 
     private boolean showFrequencies;
@@ -239,6 +243,31 @@ public class SolrBrowseDAO implements BrowseDAO {
         return sResponse;
     }
 
+    /**
+     * Get the distinct values of this browse in its scope from the shared
+     * {@link BrowseValueCache}, if possible.
+     *
+     * @return the values, null if this is not a distinct browse or the context can't use the cache
+     * @throws BrowseException if the values can't be loaded
+     */
+    private BrowseValueCache.Values getCachedValues() throws BrowseException {
+        if (!distinct || browseValueCache == null) {
+            return null;
+        }
+        try {
+            if (!browseValueCache.canUse(context)) {
+                return null;
+            }
+            DiscoverQuery query = new DiscoverQuery();
+            addLocationScopeFilter(query);
+            addDefaultFilterQueries(query);
+            return browseValueCache.get(context,
+                                        new BrowseValueCache.Key(facetField, List.copyOf(query.getFilterQueries())));
+        } catch (SQLException | SearchServiceException e) {
+            throw new BrowseException(e);
+        }
+    }
+
     private void addLocationScopeFilter(DiscoverQuery query) {
         if (container != null) {
             if (containerIDField.startsWith("collection")) {
@@ -256,6 +285,10 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public int doCountQuery() throws BrowseException {
+        BrowseValueCache.Values values = getCachedValues();
+        if (values != null) {
+            return values.toIndex(startsWith) - values.fromIndex(startsWith);
+        }
         DiscoverResult resp = getSolrResponse();
         int count = 0;
         if (distinct) {
@@ -273,6 +306,17 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public List doValueQuery() throws BrowseException {
+        BrowseValueCache.Values values = getCachedValues();
+        if (values != null) {
+            int from = values.fromIndex(startsWith);
+            int count = values.toIndex(startsWith) - from;
+            int max = limit < 0 ? count : limit;
+            List<String[]> result = new ArrayList<>();
+            for (int i = Math.max(0, offset); i < count && result.size() < max; i++) {
+                result.add(values.get(ascending ? from + i : from + count - 1 - i, showFrequencies));
+            }
+            return result;
+        }
         DiscoverResult resp = getSolrResponse();
         List<FacetResult> facet = resp.getFacetResult(facetField);
         int count = doCountQuery();
@@ -362,6 +406,11 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public int doDistinctOffsetQuery(String column, String value,
                                      boolean isAscending) throws BrowseException {
+        BrowseValueCache.Values values = getCachedValues();
+        if (values != null) {
+            int ascValue = values.offsetOf(value, startsWith);
+            return isAscending ? ascValue : values.toIndex(startsWith) - values.fromIndex(startsWith) - ascValue;
+        }
         DiscoverResult resp = getSolrResponse();
         List<FacetResult> facets = resp.getFacetResult(facetField);
         Comparator comparator = new SolrBrowseDAO.FacetValueComparator();
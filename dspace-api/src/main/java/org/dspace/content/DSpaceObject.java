@@ -76,6 +76,12 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
     @Transient
     private boolean modifiedMetadata = false;
 
+    /**
+     * Index of the metadata by field, built on demand, see {@link #getMetadataIndex()}
+     */
+    @Transient
+    private MetadataIndex metadataIndex = null;
+
     /**
      * Flag set when data is modified, for events
      */
@@ -176,6 +182,32 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
 
     public void setMetadata(List<MetadataValue> metadata) {
         this.metadata = metadata;
+        clearMetadataIndex();
+    }
+
+    /**
+     * Get the index of the metadata of this object by metadata field, building it if needed.
+     * The index is only available as long as the metadata hasn't been modified: modified
+     * metadata has to be sorted on each lookup to preserve the default order.
+     *
+     * @return the index, or null if the metadata has been modified
+     */
+    MetadataIndex getMetadataIndex() {
+        if (modifiedMetadata) {
+            return null;
+        }
+        List<MetadataValue> current = getMetadata();
+        if (metadataIndex == null || !metadataIndex.isIndexOf(current)) {
+            metadataIndex = new MetadataIndex(current);
+        }
+        return metadataIndex;
+    }
+
+    /**
+     * Discard the index of the metadata, e.g. after the field of one of the values has changed.
+     */
+    protected void clearMetadataIndex() {
+        metadataIndex = null;
     }
 
     protected void removeMetadata(MetadataValue metadataValue) {
@@ -205,6 +237,7 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
 
     protected void setMetadataModified() {
         this.modifiedMetadata = true;
+        clearMetadataIndex();
     }
 
     public boolean isModified() {
@@ -118,6 +118,12 @@ public abstract class DSpaceObjectServiceImpl<T extends DSpaceObject> implements
 
     @Override
     public List<MetadataValue> getMetadata(T dso, String schema, String element, String qualifier, String lang) {
+        // Unmodified metadata is in its default order, and can be looked up by field
+        MetadataIndex index = dso.getMetadataIndex();
+        if (index != null) {
+            return findMetadata(index, schema, element, qualifier, lang);
+        }
+
         // Build up list of matching values
         List<MetadataValue> values = new ArrayList<>();
         for (MetadataValue dcv : dso.getMetadata()) {
@@ -135,6 +141,22 @@ public abstract class DSpaceObjectServiceImpl<T extends DSpaceObject> implements
         return values;
     }
 
+    /**
+     * Look up the matching values in an index of metadata, see {@link #match}.
+     *
+     * @param index     the index
+     * @param schema    the schema to match, or <code>Item.ANY</code>
+     * @param element   the element to match, or <code>Item.ANY</code>
+     * @param qualifier the qualifier to match, or <code>Item.ANY</code>
+     * @param lang      the language to match, or <code>Item.ANY</code>
+     * @return the matching values, in the order of the indexed list
+     */
+    protected List<MetadataValue> findMetadata(MetadataIndex index, String schema, String element, String qualifier,
+                                               String lang) {
+        return index.find(value -> match(schema, element, qualifier, Item.ANY, value),
+                          value -> match(schema, element, qualifier, lang, value));
+    }
+
     @Override
     public List<MetadataValue> getMetadataByMetadataString(T dso, String mdString) {
         StringTokenizer dcf = new StringTokenizer(mdString, ".");
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.requestitem.RequestItem;
@@ -104,6 +105,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
      */
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger();
 
+    /**
+     * Maximum number of items whose associations are prefetched by a single query
+     */
+    private static final int PREFETCH_CHUNK_SIZE = 100;
+
     @Autowired(required = true)
     protected ItemDAO itemDAO;
 
@@ -217,6 +223,20 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return null;
     }
 
+    @Override
+    public void prefetchBundles(Context context, List<Item> items) throws SQLException {
+        for (List<Item> chunk : ListUtils.partition(items, PREFETCH_CHUNK_SIZE)) {
+            itemDAO.prefetchBundles(context, chunk);
+        }
+    }
+
+    @Override
+    public void prefetchOwningCollections(Context context, List<Item> items) throws SQLException {
+        for (List<Item> chunk : ListUtils.partition(items, PREFETCH_CHUNK_SIZE)) {
+            itemDAO.prefetchOwningCollections(context, chunk);
+        }
+    }
+
     @Override
     public Item find(Context context, UUID id) throws SQLException {
         Item item = itemDAO.findByID(context, Item.class, id);
@@ -1783,16 +1803,8 @@ prevent the generation of resource policy entry values with null dspace_object a
         }
 
         log.debug("Called getMetadata for " + item.getID() + " based on cache");
-        // Build up list of matching values based on the cache
-        List<MetadataValue> values = new ArrayList<>();
-        for (MetadataValue dcv : item.getCachedMetadata()) {
-            if (match(schema, element, qualifier, lang, dcv)) {
-                values.add(dcv);
-            }
-        }
-
-        // Create an array of matching values
-        return values;
+        // Look up the matching values in the cache, by field
+        return findMetadata(item.getCachedMetadataIndex(), schema, element, qualifier, lang);
     }
 
     /**
@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of a list of metadata values by metadata field, so that looking up
+ * the values of a field only visits the values of the matching fields
+ * instead of all the values of the object. Lookups return the values in the
+ * order of the indexed list.
+ * <P>
+ * An index is a snapshot: it must be discarded when the indexed list is
+ * modified, see {@link #isIndexOf(List)}.
+ */
+public final class MetadataIndex {
+
+    private final List<MetadataValue> source;
+    private final MetadataValue[] values;
+    private final Map<Integer, List<Integer>> positionsByField = new LinkedHashMap<>();
+
+    /**
+     * @param source the metadata values to index
+     */
+    MetadataIndex(List<MetadataValue> source) {
+        this.source = source;
+        this.values = source.toArray(new MetadataValue[0]);
+        for (int i = 0; i < values.length; i++) {
+            MetadataField field = values[i].getMetadataField();
+            positionsByField.computeIfAbsent(field == null ? null : field.getID(), id -> new ArrayList<>()).add(i);
+        }
+    }
+
+    /**
+     * @param metadata a metadata list
+     * @return true if this index was built from the given list and is still consistent with its size
+     */
+    boolean isIndexOf(List<MetadataValue> metadata) {
+        return metadata == source && metadata.size() == values.length;
+    }
+
+    /**
+     * Find the matching values.
+     *
+     * @param fieldMatcher tells if the field of a value matches, evaluated once per field
+     * @param valueMatcher tells if a value of a matching field matches
+     * @return the matching values, in the order of the indexed list
+     */
+    public List<MetadataValue> find(Predicate<MetadataValue> fieldMatcher, Predicate<MetadataValue> valueMatcher) {
+        List<Integer> positions = new ArrayList<>();
+        int matchingFields = 0;
+        for (List<Integer> fieldPositions : positionsByField.values()) {
+            if (!fieldMatcher.test(values[fieldPositions.get(0)])) {
+                continue;
+            }
+            matchingFields++;
+            for (Integer position : fieldPositions) {
+                if (valueMatcher.test(values[position])) {
+                    positions.add(position);
+                }
+            }
+        }
+        if (matchingFields > 1) {
+            // Values of several fields, restore the order of the list
+            Collections.sort(positions);
+        }
+        List<MetadataValue> result = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            result.add(values[position]);
+        }
+        return result;
+    }
+}
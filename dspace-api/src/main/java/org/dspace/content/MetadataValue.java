@@ -170,6 +170,10 @@ public class MetadataValue implements ReloadableEntity<Integer> {
 
     public void setMetadataField(MetadataField metadataField) {
         this.metadataField = metadataField;
+        if (dSpaceObject != null) {
+            // the value moves to another field of the index
+            dSpaceObject.clearMetadataIndex();
+        }
     }
 
     /**
@@ -14,11 +14,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -26,9 +22,6 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.core.SelfNamedPlugin;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
 /**
  * ChoiceAuthority source that reads the hierarchical vocabularies
@@ -54,29 +47,29 @@ import org.xml.sax.InputSource;
  * # Delimiter to use when building hierarchy strings. Default: "::"
  * }
  *
+ * The XML file is loaded once into a {@link VocabularyNodeIndex}, shared by
+ * all the instances using the same file and rebuilt when the file changes,
+ * which answers all the lookups. Searches match the labels containing a word
+ * starting with the searched text, ignoring case and diacritics.
+ *
  * @author Michael B. Klein
  */
 
 public class DSpaceControlledVocabulary extends SelfNamedPlugin implements HierarchicalAuthority {
 
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(DSpaceControlledVocabulary.class);
-    protected static String xpathTemplate = "//node[contains(translate(@label,'ABCDEFGHIJKLMNOPQRSTUVWXYZ'," +
-        "'abcdefghijklmnopqrstuvwxyz'),'%s')]";
-    protected static String idTemplate = "//node[@id = '%s']";
-    protected static String labelTemplate = "//node[@label = '%s']";
-    protected static String idParentTemplate = "//node[@id = '%s']/parent::isComposedBy/parent::node";
-    protected static String rootTemplate = "/node";
     protected static String idAttribute = "id";
     protected static String labelAttribute = "label";
     protected static String pluginNames[] = null;
+    /** Indexes of the vocabulary files loaded so far, by file name */
+    private static final Map<String, VocabularyNodeIndex> indexes = new ConcurrentHashMap<>();
     protected String vocabularyName = null;
-    protected InputSource vocabulary = null;
+    protected volatile VocabularyNodeIndex vocabulary = null;
     protected Boolean suggestHierarchy = false;
     protected Boolean storeHierarchy = true;
     protected String hierarchyDelimiter = "::";
     protected Integer preloadLevel = 1;
     protected String valueAttribute = labelAttribute;
-    protected String valueTemplate = labelTemplate;
 
     public DSpaceControlledVocabulary() {
         super();
@@ -138,7 +131,6 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
             }
             if (storeIDs) {
                 valueAttribute = idAttribute;
-                valueTemplate = idTemplate;
             }
 
             String filename = vocabulariesPath + vocabularyName + ".xml";
@@ -148,53 +140,38 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
                     filename = localizedFilename;
                 }
             }
-            log.info("Loading " + filename);
-            vocabulary = new InputSource(filename);
+            vocabulary = loadIndex(filename);
         }
     }
 
-    protected String buildString(Node node) {
-        if (node.getNodeType() == Node.DOCUMENT_NODE || (
-            node.getParentNode() != null &&
-            node.getParentNode().getNodeType() == Node.DOCUMENT_NODE)) {
-            return ("");
-        } else {
-            String parentValue = buildString(node.getParentNode());
-            Node currentNodeValue = node.getAttributes().getNamedItem(valueAttribute);
-            if (currentNodeValue != null) {
-                String currentValue = currentNodeValue.getNodeValue();
-                if (parentValue.equals("")) {
-                    return currentValue;
-                } else {
-                    return (parentValue + this.hierarchyDelimiter + currentValue);
-                }
-            } else {
-                return (parentValue);
-            }
+    /**
+     * Get the index of a vocabulary file, loading it if it wasn't loaded yet or changed since.
+     *
+     * @param filename the vocabulary file name
+     * @return the index of the file
+     */
+    protected static VocabularyNodeIndex loadIndex(String filename) {
+        File file = new File(filename);
+        VocabularyNodeIndex index = indexes.get(filename);
+        if (index == null || index.getLastModified() != file.lastModified()) {
+            log.info("Loading " + filename);
+            index = VocabularyNodeIndex.load(file);
+            indexes.put(filename, index);
         }
+        return index;
+    }
+
+    protected String buildString(int node) {
+        return vocabulary.getHierarchy(node, idAttribute.equals(valueAttribute), hierarchyDelimiter);
     }
 
     @Override
     public Choices getMatches(String text, int start, int limit, String locale) {
         init(locale);
         log.debug("Getting matches for '" + text + "'");
-        String xpathExpression = "";
-        String[] textHierarchy = text.split(hierarchyDelimiter, -1);
-        for (int i = 0; i < textHierarchy.length; i++) {
-            xpathExpression +=
-                String.format(xpathTemplate, textHierarchy[i].replaceAll("'", "&apos;").toLowerCase());
-        }
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        int total = 0;
-        List<Choice> choices = new ArrayList<Choice>();
-        try {
-            NodeList results = (NodeList) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODESET);
-            total = results.getLength();
-            choices = getChoicesFromNodeList(results, start, limit);
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
-        }
+        int[] results = vocabulary.search(text.split(hierarchyDelimiter, -1));
+        int total = results.length;
+        List<Choice> choices = getChoicesFromNodes(results, start, limit);
         return new Choices(choices.toArray(new Choice[choices.size()]), start, total, Choices.CF_AMBIGUOUS,
                 total > start + limit);
     }
@@ -203,20 +180,10 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     public Choices getBestMatch(String text, String locale) {
         init(locale);
         log.debug("Getting best matches for '" + text + "'");
-        String xpathExpression = "";
-        String[] textHierarchy = text.split(hierarchyDelimiter, -1);
-        for (int i = 0; i < textHierarchy.length; i++) {
-            xpathExpression +=
-                String.format(valueTemplate, textHierarchy[i].replaceAll("'", "&apos;"));
-        }
-        XPath xpath = XPathFactory.newInstance().newXPath();
+        int node = vocabulary.findFirst(text.split(hierarchyDelimiter, -1), idAttribute.equals(valueAttribute));
         List<Choice> choices = new ArrayList<Choice>();
-        try {
-            NodeList results = (NodeList) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODESET);
-            choices = getChoicesFromNodeList(results, 0, 1);
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
+        if (node != VocabularyNodeIndex.NONE) {
+            choices = getChoicesFromNodes(new int[] {node}, 0, 1);
         }
         return new Choices(choices.toArray(new Choice[choices.size()]), 0, choices.size(), Choices.CF_AMBIGUOUS, false);
     }
@@ -233,13 +200,7 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
 
     @Override
     public Choice getChoice(String authKey, String locale) {
-        Node node;
-        try {
-            node = getNode(authKey, locale);
-        } catch (XPathExpressionException e) {
-            return null;
-        }
-        return createChoiceFromNode(node);
+        return createChoiceFromNode(getNode(authKey, locale));
     }
 
     @Override
@@ -251,28 +212,22 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     @Override
     public Choices getTopChoices(String authorityName, int start, int limit, String locale) {
         init(locale);
-        String xpathExpression = rootTemplate;
-        return getChoicesByXpath(xpathExpression, start, limit);
+        return getChildChoices(vocabulary.getRoot(), start, limit);
     }
 
     @Override
     public Choices getChoicesByParent(String authorityName, String parentId, int start, int limit, String locale) {
         init(locale);
-        String xpathExpression = String.format(idTemplate, parentId);
-        return getChoicesByXpath(xpathExpression, start, limit);
+        return getChildChoices(vocabulary.findById(parentId), start, limit);
     }
 
     @Override
     public Choice getParentChoice(String authorityName, String childId, String locale) {
-        init(locale);
-        try {
-            String xpathExpression = String.format(idParentTemplate, childId);
-            Choice choice = createChoiceFromNode(getNodeFromXPath(xpathExpression));
-            return choice;
-        } catch (XPathExpressionException e) {
-            log.error(e.getMessage(), e);
+        int node = getNode(childId, locale);
+        if (node == VocabularyNodeIndex.NONE) {
             return null;
         }
+        return createChoiceFromNode(vocabulary.getParent(node));
     }
 
     @Override
@@ -281,46 +236,25 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
         return preloadLevel;
     }
 
-    private boolean isRootElement(Node node) {
-        if (node != null && node.getOwnerDocument().getDocumentElement().equals(node)) {
-            return true;
-        }
-        return false;
+    private boolean isRootElement(int node) {
+        return node != VocabularyNodeIndex.NONE && node == vocabulary.getRoot();
     }
 
-    private Node getNode(String key, String locale) throws XPathExpressionException {
+    private int getNode(String key, String locale) {
         init(locale);
-        String xpathExpression = String.format(idTemplate, key);
-        Node node = getNodeFromXPath(xpathExpression);
-        return node;
-    }
-
-    private Node getNodeFromXPath(String xpathExpression) throws XPathExpressionException {
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        Node node = (Node) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODE);
-        return node;
+        return vocabulary.findById(key);
     }
 
-    private List<Choice> getChoicesFromNodeList(NodeList results, int start, int limit) {
+    private List<Choice> getChoicesFromNodes(int[] results, int start, int limit) {
         List<Choice> choices = new ArrayList<Choice>();
-        for (int i = 0; i < results.getLength(); i++) {
-            if (i < start) {
-                continue;
-            }
-            if (choices.size() == limit) {
-                break;
-            }
-            Node node = results.item(i);
-            Choice choice = new Choice(getAuthority(node), getLabel(node), getValue(node),
-                    isSelectable(node));
-            choice.extras = addOtherInformation(getParent(node), getNote(node), getChildren(node), getAuthority(node));
-            choices.add(choice);
+        for (int i = Math.max(start, 0); i < results.length && choices.size() < limit; i++) {
+            choices.add(createChoice(results[i]));
         }
         return choices;
     }
 
     private Map<String, String> addOtherInformation(String parentCurr, String noteCurr,
-            List<String> childrenCurr, String authorityCurr) {
+            boolean hasChildren, String authorityCurr) {
         Map<String, String> extras = new HashMap<String, String>();
         if (StringUtils.isNotBlank(parentCurr)) {
             extras.put("parent", parentCurr);
@@ -328,7 +262,7 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
         if (StringUtils.isNotBlank(noteCurr)) {
             extras.put("note", noteCurr);
         }
-        if (childrenCurr.size() > 0) {
+        if (hasChildren) {
             extras.put("hasChildren", "true");
         } else {
             extras.put("hasChildren", "false");
@@ -338,140 +272,69 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     }
 
     private String getNodeValue(String key, String locale, boolean useHierarchy) {
-        try {
-            Node node = getNode(key, locale);
-            if (Objects.isNull(node)) {
-                return null;
-            }
-            if (useHierarchy) {
-                return this.buildString(node);
-            } else {
-                return node.getAttributes().getNamedItem(valueAttribute).getNodeValue();
-            }
-        } catch (XPathExpressionException e) {
-            return ("");
+        int node = getNode(key, locale);
+        if (node == VocabularyNodeIndex.NONE) {
+            return null;
         }
+        if (useHierarchy) {
+            return this.buildString(node);
+        } else {
+            return getAttributeValue(node);
+        }
+    }
+
+    private String getAttributeValue(int node) {
+        return idAttribute.equals(valueAttribute) ? vocabulary.getId(node) : vocabulary.getLabel(node);
     }
 
-    private String getLabel(Node node) {
-        String hierarchy = this.buildString(node);
+    private String getLabel(int node) {
         if (this.suggestHierarchy) {
-            return hierarchy;
+            return this.buildString(node);
         } else {
-            return node.getAttributes().getNamedItem("label").getNodeValue();
+            return vocabulary.getLabel(node);
         }
     }
 
-    private String getValue(Node node) {
-        String hierarchy = this.buildString(node);
+    private String getValue(int node) {
         if (this.storeHierarchy) {
-            return hierarchy;
+            return this.buildString(node);
         } else {
-            return node.getAttributes().getNamedItem(valueAttribute).getNodeValue();
+            return getAttributeValue(node);
         }
     }
 
-    private String getNote(Node node) {
-        NodeList childNodes = node.getChildNodes();
-        for (int ci = 0; ci < childNodes.getLength(); ci++) {
-            Node firstChild = childNodes.item(ci);
-            if (firstChild != null && "hasNote".equals(firstChild.getNodeName())) {
-                String nodeValue = firstChild.getTextContent();
-                if (StringUtils.isNotBlank(nodeValue)) {
-                    return nodeValue;
-                }
-            }
+    private String getParent(int node) {
+        int parent = vocabulary.getParent(node);
+        if (parent != VocabularyNodeIndex.NONE && !isRootElement(parent)) {
+            return buildString(parent);
         }
         return null;
     }
 
-    private List<String> getChildren(Node node) {
-        List<String> children = new ArrayList<String>();
-        NodeList childNodes = node.getChildNodes();
-        for (int ci = 0; ci < childNodes.getLength(); ci++) {
-            Node firstChild = childNodes.item(ci);
-            if (firstChild != null && "isComposedBy".equals(firstChild.getNodeName())) {
-                for (int cii = 0; cii < firstChild.getChildNodes().getLength(); cii++) {
-                    Node childN = firstChild.getChildNodes().item(cii);
-                    if (childN != null && "node".equals(childN.getNodeName())) {
-                        Node childIdAttr = childN.getAttributes().getNamedItem("id");
-                        if (null != childIdAttr) {
-                            children.add(childIdAttr.getNodeValue());
-                        }
-                    }
-                }
-                break;
-            }
-        }
-        return children;
-    }
-
-    private boolean isSelectable(Node node) {
-        Node selectableAttr = node.getAttributes().getNamedItem("selectable");
-        if (null != selectableAttr) {
-            return Boolean.valueOf(selectableAttr.getNodeValue());
-        } else { // Default is true
-            return true;
-        }
-    }
-
-    private String getParent(Node node) {
-        Node parentN = node.getParentNode();
-        if (parentN != null) {
-            parentN = parentN.getParentNode();
-            if (parentN != null && !isRootElement(parentN)) {
-                return buildString(parentN);
-            }
+    private Choices getChildChoices(int parentNode, int start, int limit) {
+        if (parentNode == VocabularyNodeIndex.NONE) {
+            return new Choices(false);
         }
-        return null;
-    }
-
-    private String getAuthority(Node node) {
-        Node idAttr = node.getAttributes().getNamedItem("id");
-        if (null != idAttr) { // 'id' is optional
-            return idAttr.getNodeValue();
-        } else {
-            return null;
+        int[] children = vocabulary.getChildren(parentNode);
+        List<Choice> choices = new ArrayList<Choice>();
+        for (int i = Math.max(start, 0); i < children.length && choices.size() < limit; i++) {
+            choices.add(createChoiceFromNode(children[i]));
         }
+        return new Choices(choices.toArray(new Choice[choices.size()]), start, children.length,
+                Choices.CF_AMBIGUOUS, false);
     }
 
-    private Choices getChoicesByXpath(String xpathExpression, int start, int limit) {
-        List<Choice> choices = new ArrayList<Choice>();
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        try {
-            Node parentNode = (Node) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODE);
-            int count = 0;
-            if (parentNode != null) {
-                NodeList childNodes = (NodeList) xpath.evaluate(".//isComposedBy", parentNode, XPathConstants.NODE);
-                if (null != childNodes) {
-                    for (int i = 0; i < childNodes.getLength(); i++) {
-                        Node childNode = childNodes.item(i);
-                        if (childNode != null && "node".equals(childNode.getNodeName())) {
-                            if (count < start || choices.size() >= limit) {
-                                count++;
-                                continue;
-                            }
-                            count++;
-                            choices.add(createChoiceFromNode(childNode));
-                        }
-                    }
-                }
-                return new Choices(choices.toArray(new Choice[choices.size()]), start, count,
-                        Choices.CF_AMBIGUOUS, false);
-            }
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
-        }
-        return new Choices(false);
+    private Choice createChoice(int node) {
+        String authority = vocabulary.getId(node);
+        Choice choice = new Choice(authority, getLabel(node), getValue(node), vocabulary.isSelectable(node));
+        choice.extras = addOtherInformation(getParent(node), vocabulary.getNote(node),
+                vocabulary.hasChildrenWithId(node), authority);
+        return choice;
     }
 
-    private Choice createChoiceFromNode(Node node) {
-        if (node != null && !isRootElement(node)) {
-            Choice choice = new Choice(getAuthority(node), getLabel(node), getValue(node),
-                    isSelectable(node));
-            choice.extras = addOtherInformation(getParent(node), getNote(node),getChildren(node), getAuthority(node));
-            return choice;
+    private Choice createChoiceFromNode(int node) {
+        if (node != VocabularyNodeIndex.NONE && !isRootElement(node)) {
+            return createChoice(node);
         }
         return null;
     }
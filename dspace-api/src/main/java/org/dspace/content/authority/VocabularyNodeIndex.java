@@ -0,0 +1,495 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.authority;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Immutable in-memory index of the nodes of a controlled vocabulary XML file,
+ * used by {@link DSpaceControlledVocabulary} to answer all its lookups
+ * without going back to the XML.
+ * <P>
+ * The {@code node} elements are numbered in document order. For each of them
+ * the index keeps its attributes, its note, its parent node and the nodes of
+ * its (first) {@code isComposedBy} element, plus maps from the ids and labels
+ * to the nodes. Label searches use a sorted array of the label suffixes which
+ * start a word, folded to lower case and without diacritics: all the labels
+ * containing a word starting with the searched text are found by a binary
+ * search, like in a prefix trie.
+ */
+public final class VocabularyNodeIndex {
+
+    /**
+     * Index of a missing node
+     */
+    public static final int NONE = -1;
+
+    private static final String NODE = "node";
+    private static final String COMPOSED_BY = "isComposedBy";
+    private static final String NOTE = "hasNote";
+
+    /** Last modification time of the file the index was built from */
+    private final long lastModified;
+
+    /** The document element, if it is a node (the node returned by "/node"), NONE otherwise */
+    private final int root;
+
+    private final String[] ids;
+    private final String[] labels;
+    private final String[] notes;
+    private final boolean[] selectable;
+
+    /** Nearest node ancestor of each node, NONE for the top of the tree */
+    private final int[] parents;
+
+    /** Nodes of the first isComposedBy element of each node */
+    private final int[][] children;
+
+    private final Map<String, int[]> byId;
+    private final Map<String, int[]> byLabel;
+
+    /** Labels folded with {@link #fold(String)} */
+    private final String[] foldedLabels;
+
+    /** Word starting suffixes of the folded labels (node and offset in its label), sorted */
+    private final int[] suffixNodes;
+    private final int[] suffixOffsets;
+
+    private VocabularyNodeIndex(long lastModified, Builder builder) {
+        this.lastModified = lastModified;
+        this.root = builder.root;
+        int size = builder.ids.size();
+        this.ids = builder.ids.toArray(new String[size]);
+        this.labels = builder.labels.toArray(new String[size]);
+        this.notes = builder.notes.toArray(new String[size]);
+        this.selectable = new boolean[size];
+        this.parents = new int[size];
+        this.children = builder.children.toArray(new int[size][]);
+        this.foldedLabels = new String[size];
+        for (int i = 0; i < size; i++) {
+            selectable[i] = builder.selectable.get(i);
+            parents[i] = builder.parents.get(i);
+            foldedLabels[i] = labels[i] != null ? fold(labels[i]) : "";
+        }
+        this.byId = groupByValue(ids);
+        this.byLabel = groupByValue(labels);
+
+        // Each suffix is encoded as node << 32 | offset
+        List<Long> suffixes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String label = foldedLabels[i];
+            for (int offset = 0; offset < label.length(); offset++) {
+                if (isWordStart(label, offset)) {
+                    suffixes.add(((long) i << 32) | offset);
+                }
+            }
+        }
+        suffixes.sort((a, b) -> compareSuffixes((int) (a >>> 32), a.intValue(), (int) (b >>> 32), b.intValue()));
+        this.suffixNodes = new int[suffixes.size()];
+        this.suffixOffsets = new int[suffixes.size()];
+        for (int i = 0; i < suffixes.size(); i++) {
+            suffixNodes[i] = (int) (suffixes.get(i) >>> 32);
+            suffixOffsets[i] = suffixes.get(i).intValue();
+        }
+    }
+
+    /**
+     * Parse a controlled vocabulary XML file and index its nodes.
+     *
+     * @param file the vocabulary file
+     * @return the index of the vocabulary
+     * @throws IllegalStateException if the file can't be read or parsed
+     */
+    public static VocabularyNodeIndex load(File file) {
+        long lastModified = file.lastModified();
+        Document document;
+        try {
+            DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            document = documentBuilder.parse(file);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to read the controlled vocabulary " + file, e);
+        }
+        Builder builder = new Builder();
+        Element documentElement = document.getDocumentElement();
+        builder.visit(documentElement, NONE, null);
+        if (NODE.equals(documentElement.getNodeName())) {
+            builder.root = 0;
+        }
+        return new VocabularyNodeIndex(lastModified, builder);
+    }
+
+    /**
+     * Fold a text for label searches: lower case, without diacritics.
+     *
+     * @param text the text to fold
+     * @return the folded text
+     */
+    public static String fold(String text) {
+        return StringUtils.stripAccents(text).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return last modification time of the file the index was built from
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return the document element if it is a node, {@link #NONE} otherwise
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    public String getId(int node) {
+        return ids[node];
+    }
+
+    public String getLabel(int node) {
+        return labels[node];
+    }
+
+    /**
+     * @param node the node
+     * @return the first non blank note of the node, or null
+     */
+    public String getNote(int node) {
+        return notes[node];
+    }
+
+    /**
+     * @param node the node
+     * @return whether the node can be selected (the default) or is only used to structure the vocabulary
+     */
+    public boolean isSelectable(int node) {
+        return selectable[node];
+    }
+
+    /**
+     * @param node the node
+     * @return the nearest node ancestor of the node, or {@link #NONE}
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @param node the node
+     * @return the nodes of the first isComposedBy element of the node, in document order
+     */
+    public int[] getChildren(int node) {
+        return children[node].clone();
+    }
+
+    /**
+     * @param node the node
+     * @return whether the node has children with an id
+     */
+    public boolean hasChildrenWithId(int node) {
+        for (int child : children[node]) {
+            if (ids[child] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param id a node id
+     * @return the first node with this id, or {@link #NONE}
+     */
+    public int findById(String id) {
+        int[] nodes = id != null ? byId.get(id) : null;
+        return nodes != null ? nodes[0] : NONE;
+    }
+
+    /**
+     * Build the hierarchical value of a node: the ids or labels of the node and
+     * its ancestors (except the document element) separated by a delimiter.
+     *
+     * @param node      the node
+     * @param useIds    true to use the ids, false to use the labels
+     * @param delimiter the delimiter
+     * @return the hierarchical value, empty for the document element
+     */
+    public String getHierarchy(int node, boolean useIds, String delimiter) {
+        List<String> values = new ArrayList<>();
+        for (int n = node; n != NONE && n != root; n = parents[n]) {
+            values.add(useIds ? ids[n] : labels[n]);
+        }
+        StringBuilder hierarchy = new StringBuilder();
+        for (int i = values.size() - 1; i >= 0; i--) {
+            String value = values.get(i);
+            if (value != null) {
+                if (hierarchy.length() > 0) {
+                    hierarchy.append(delimiter);
+                }
+                hierarchy.append(value);
+            }
+        }
+        return hierarchy.toString();
+    }
+
+    /**
+     * Find the nodes whose label contains a word starting with the last of the
+     * given texts, and which have ancestors matching the previous texts the same
+     * way, from the nearest to the farthest. The texts are compared after
+     * {@link #fold(String) folding}, an empty text matches all the nodes.
+     *
+     * @param texts the texts to search, from the top of the hierarchy
+     * @return the matching nodes, in document order
+     */
+    public int[] search(String... texts) {
+        String[] folded = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            folded[i] = fold(StringUtils.stripStart(texts[i], null));
+        }
+        int[] candidates = searchLabels(folded[folded.length - 1]);
+        if (folded.length == 1) {
+            return candidates;
+        }
+        return Arrays.stream(candidates)
+                     .filter(node -> hasAncestors(node, folded.length - 1, (n, part) -> labelMatches(n, folded[part])))
+                     .toArray();
+    }
+
+    /**
+     * Find the first node whose id or label is the last of the given values, and
+     * which has ancestors with the previous values, from the nearest to the farthest.
+     *
+     * @param values the values, from the top of the hierarchy
+     * @param useIds true to compare the ids, false to compare the labels
+     * @return the first matching node in document order, or {@link #NONE}
+     */
+    public int findFirst(String[] values, boolean useIds) {
+        String[] attribute = useIds ? ids : labels;
+        int[] candidates = (useIds ? byId : byLabel).get(values[values.length - 1]);
+        if (candidates == null) {
+            return NONE;
+        }
+        for (int node : candidates) {
+            if (hasAncestors(node, values.length - 1, (n, part) -> values[part].equals(attribute[n]))) {
+                return node;
+            }
+        }
+        return NONE;
+    }
+
+    private boolean hasAncestors(int node, int parts, NodeMatcher matcher) {
+        int n = parents[node];
+        for (int part = parts - 1; part >= 0; part--) {
+            while (n != NONE && !matcher.matches(n, part)) {
+                n = parents[n];
+            }
+            if (n == NONE) {
+                return false;
+            }
+            n = parents[n];
+        }
+        return true;
+    }
+
+    private boolean labelMatches(int node, String folded) {
+        if (folded.isEmpty()) {
+            return true;
+        }
+        String label = foldedLabels[node];
+        for (int offset = 0; offset <= label.length() - folded.length(); offset++) {
+            if (isWordStart(label, offset) && label.startsWith(folded, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] searchLabels(String folded) {
+        if (folded.isEmpty()) {
+            int[] all = new int[ids.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        // First suffix starting with the text, then first suffix after them
+        int from = binarySearch(folded, false);
+        int to = binarySearch(folded, true);
+        BitSet nodes = new BitSet(ids.length);
+        for (int i = from; i < to; i++) {
+            nodes.set(suffixNodes[i]);
+        }
+        return nodes.stream().toArray();
+    }
+
+    /**
+     * @param folded the folded text
+     * @param after  false to find the first suffix starting with or greater than the text, true to find the first
+     *               suffix greater than the text and not starting with it
+     * @return position in the sorted suffixes
+     */
+    private int binarySearch(String folded, boolean after) {
+        int low = 0;
+        int high = suffixNodes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareToPrefix(suffixNodes[middle], suffixOffsets[middle], folded);
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param node   node of the suffix
+     * @param offset offset of the suffix in the folded label of the node
+     * @param folded the folded text
+     * @return 0 if the suffix starts with the text, otherwise the order of the suffix compared to the text
+     */
+    private int compareToPrefix(int node, int offset, String folded) {
+        String label = foldedLabels[node];
+        for (int i = 0; i < folded.length(); i++) {
+            if (offset + i == label.length()) {
+                return -1;
+            }
+            int difference = label.charAt(offset + i) - folded.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private int compareSuffixes(int node1, int offset1, int node2, int offset2) {
+        String label1 = foldedLabels[node1];
+        String label2 = foldedLabels[node2];
+        int length1 = label1.length() - offset1;
+        int length2 = label2.length() - offset2;
+        for (int i = 0; i < Math.min(length1, length2); i++) {
+            int difference = label1.charAt(offset1 + i) - label2.charAt(offset2 + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length1 - length2;
+    }
+
+    private static boolean isWordStart(String text, int offset) {
+        return offset == 0
+            || (Character.isLetterOrDigit(text.charAt(offset)) && !Character.isLetterOrDigit(text.charAt(offset - 1)));
+    }
+
+    private static Map<String, int[]> groupByValue(String[] values) {
+        Map<String, List<Integer>> grouped = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                grouped.computeIfAbsent(values[i], value -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> result = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((value, nodes) -> result.put(value, nodes.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface NodeMatcher {
+        boolean matches(int node, int part);
+    }
+
+    /**
+     * Collects the nodes of the parsed document, in document order.
+     */
+    private static class Builder {
+        private int root = NONE;
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<String> notes = new ArrayList<>();
+        private final List<Boolean> selectable = new ArrayList<>();
+        private final List<Integer> parents = new ArrayList<>();
+        private final List<int[]> children = new ArrayList<>();
+
+        /**
+         * @param element  the element to visit
+         * @param parent   the nearest node ancestor of the element, or NONE
+         * @param siblings where to add the element if it is a node, or null
+         */
+        void visit(Element element, int parent, List<Integer> siblings) {
+            boolean isNode = NODE.equals(element.getNodeName());
+            int current = parent;
+            if (isNode) {
+                current = ids.size();
+                ids.add(attribute(element, "id"));
+                labels.add(attribute(element, "label"));
+                String selectableValue = attribute(element, "selectable");
+                selectable.add(selectableValue == null || Boolean.parseBoolean(selectableValue));
+                parents.add(parent);
+                notes.add(null);
+                children.add(new int[0]);
+                if (siblings != null) {
+                    siblings.add(current);
+                }
+            }
+
+            boolean composedBySeen = false;
+            NodeList childNodes = element.getChildNodes();
+            for (int i = 0; i < childNodes.getLength(); i++) {
+                if (childNodes.item(i).getNodeType() != Node.ELEMENT_NODE) {
+                    continue;
+                }
+                Element child = (Element) childNodes.item(i);
+                if (isNode && COMPOSED_BY.equals(child.getNodeName()) && !composedBySeen) {
+                    composedBySeen = true;
+                    List<Integer> nodeChildren = new ArrayList<>();
+                    visitChildren(child, current, nodeChildren);
+                    children.set(current, nodeChildren.stream().mapToInt(Integer::intValue).toArray());
+                    continue;
+                }
+                if (isNode && NOTE.equals(child.getNodeName()) && notes.get(current) == null
+                    && StringUtils.isNotBlank(child.getTextContent())) {
+                    notes.set(current, child.getTextContent());
+                }
+                visit(child, current, null);
+            }
+        }
+
+        private void visitChildren(Element composedBy, int parent, List<Integer> nodeChildren) {
+            NodeList childNodes = composedBy.getChildNodes();
+            for (int i = 0; i < childNodes.getLength(); i++) {
+                if (childNodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                    visit((Element) childNodes.item(i), parent, nodeChildren);
+                }
+            }
+        }
+
+        private static String attribute(Element element, String name) {
+            return element.hasAttribute(name) ? element.getAttribute(name) : null;
+        }
+    }
+}
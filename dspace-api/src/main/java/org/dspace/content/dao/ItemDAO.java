@@ -173,7 +173,8 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
      * @param withdrawn    whether to find withdrawn
      * @param discoverable whether to find discoverable
      * @param lastModified earliest interesting last-modified date.
-     * @return iterator over items
+     * @return iterator over items, which evicts the items of each chunk from the session when the next chunk
+     *         is loaded: changes to the items must be committed before iterating further
      * @throws SQLException if database error
      */
     Iterator<Item> findAll(Context context, boolean archived,
@@ -215,4 +216,26 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
                    boolean discoverable)
         throws SQLException;
 
+    /**
+     * Load the bundles of the given items, the bitstreams of these bundles and
+     * the metadata of these bitstreams into the session of the context, with a
+     * single query per association. Associations already loaded are skipped.
+     *
+     * @param context context
+     * @param items   the items
+     * @throws SQLException if database error
+     */
+    void prefetchBundles(Context context, List<Item> items) throws SQLException;
+
+    /**
+     * Load the owning collections of the given items, with their metadata, into
+     * the session of the context with a single query. Collections already loaded
+     * are skipped.
+     *
+     * @param context context
+     * @param items   the items
+     * @throws SQLException if database error
+     */
+    void prefetchOwningCollections(Context context, List<Item> items) throws SQLException;
+
 }
@@ -11,10 +11,17 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import jakarta.persistence.PersistenceUnitUtil;
 import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaBuilder.In;
@@ -23,6 +30,8 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
 import org.dspace.content.DSpaceObject_;
 import org.dspace.content.Item;
@@ -54,11 +63,8 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived) throws SQLException {
-        Query query = createQuery(context, "SELECT i.id FROM Item i WHERE inArchive=:in_archive ORDER BY id");
-        query.setParameter("in_archive", archived);
-        @SuppressWarnings("unchecked")
-        List<UUID> uuids = query.getResultList();
-        return new UUIDIterator<Item>(context, uuids, Item.class, this);
+        return iterateByUUID(context, Item.class, "SELECT i.id FROM Item i", "i.id", "i.inArchive=:in_archive",
+                             Map.of("in_archive", archived));
     }
 
     @Override
@@ -75,55 +81,42 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException {
-        Query query = createQuery(context,
-                "SELECT i.id FROM Item i WHERE inArchive=:in_archive or withdrawn=:withdrawn ORDER BY id");
-        query.setParameter("in_archive", archived);
-        query.setParameter("withdrawn", withdrawn);
-        @SuppressWarnings("unchecked")
-        List<UUID> uuids = query.getResultList();
-        return new UUIDIterator<Item>(context, uuids, Item.class, this);
+        return iterateByUUID(context, Item.class, "SELECT i.id FROM Item i", "i.id",
+                             "i.inArchive=:in_archive or i.withdrawn=:withdrawn",
+                             Map.of("in_archive", archived, "withdrawn", withdrawn));
     }
 
     @Override
     public Iterator<Item> findAllRegularItems(Context context) throws SQLException {
         // NOTE: This query includes archived items, withdrawn items and older versions of items.
         //       It does not include workspace, workflow or template items.
-        Query query = createQuery(
-            context,
-            "SELECT i.id FROM Item as i " +
-            "LEFT JOIN Version as v ON i = v.item " +
-            "WHERE i.inArchive=true or i.withdrawn=true or (i.inArchive=false and v.id IS NOT NULL) " +
-            "ORDER BY i.id"
+        return iterateByUUID(
+            context, Item.class,
+            "SELECT i.id FROM Item as i LEFT JOIN Version as v ON i = v.item", "i.id",
+            "i.inArchive=true or i.withdrawn=true or (i.inArchive=false and v.id IS NOT NULL)",
+            Map.of()
         );
-        @SuppressWarnings("unchecked")
-        List<UUID> uuids = query.getResultList();
-        return new UUIDIterator<Item>(context, uuids, Item.class, this);
     }
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived,
                                   boolean withdrawn, boolean discoverable, Instant lastModified)
         throws SQLException {
-        StringBuilder queryStr = new StringBuilder();
-        queryStr.append("SELECT i.id FROM Item i");
-        queryStr.append(" WHERE (inArchive = :in_archive OR withdrawn = :withdrawn)");
-        queryStr.append(" AND discoverable = :discoverable");
-
-        if (lastModified != null) {
-            queryStr.append(" AND lastModified > :last_modified");
-        }
-        queryStr.append(" ORDER BY i.id");
-
-        Query query = createQuery(context, queryStr.toString());
-        query.setParameter("in_archive", archived);
-        query.setParameter("withdrawn", withdrawn);
-        query.setParameter("discoverable", discoverable);
+        StringBuilder condition = new StringBuilder();
+        condition.append("(i.inArchive = :in_archive OR i.withdrawn = :withdrawn)");
+        condition.append(" AND i.discoverable = :discoverable");
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("in_archive", archived);
+        parameters.put("withdrawn", withdrawn);
+        parameters.put("discoverable", discoverable);
         if (lastModified != null) {
-            query.setParameter("last_modified", lastModified);
+            condition.append(" AND i.lastModified > :last_modified");
+            parameters.put("last_modified", lastModified);
         }
-        @SuppressWarnings("unchecked")
-        List<UUID> uuids = query.getResultList();
-        return new UUIDIterator<Item>(context, uuids, Item.class, this);
+        // Read-only scans over possibly all the items (e.g. by the OAI import), which don't keep them in the session
+        return iterateByUUID(context, Item.class, "SELECT i.id FROM Item i", "i.id", condition.toString(),
+                             parameters, UUIDIterator.DEFAULT_CHUNK_SIZE, true);
     }
 
     @Override
@@ -479,4 +472,68 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
 
     }
+
+    @Override
+    public void prefetchBundles(Context context, List<Item> items) throws SQLException {
+        PersistenceUnitUtil persistenceUnitUtil = getHibernateSession(context).getSessionFactory()
+                                                                              .getPersistenceUnitUtil();
+        List<Item> itemsToLoad = notLoaded(persistenceUnitUtil, items, "bundles");
+        if (!itemsToLoad.isEmpty()) {
+            createQuery(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.bundles WHERE i IN (:items)")
+                .setParameter("items", itemsToLoad)
+                .getResultList();
+        }
+
+        Set<Bundle> bundles = new LinkedHashSet<>();
+        for (Item item : items) {
+            bundles.addAll(item.getBundles());
+        }
+        List<Bundle> bundlesToLoad = notLoaded(persistenceUnitUtil, bundles, "bitstreams");
+        if (!bundlesToLoad.isEmpty()) {
+            createQuery(context, "SELECT DISTINCT b FROM Bundle b LEFT JOIN FETCH b.bitstreams WHERE b IN (:bundles)")
+                .setParameter("bundles", bundlesToLoad)
+                .getResultList();
+        }
+
+        Set<Bitstream> bitstreams = new LinkedHashSet<>();
+        for (Bundle bundle : bundles) {
+            bitstreams.addAll(bundle.getBitstreams());
+        }
+        List<Bitstream> bitstreamsToLoad = notLoaded(persistenceUnitUtil, bitstreams, "metadata");
+        if (!bitstreamsToLoad.isEmpty()) {
+            createQuery(context,
+                        "SELECT DISTINCT b FROM Bitstream b LEFT JOIN FETCH b.metadata WHERE b IN (:bitstreams)")
+                .setParameter("bitstreams", bitstreamsToLoad)
+                .getResultList();
+        }
+    }
+
+    @Override
+    public void prefetchOwningCollections(Context context, List<Item> items) throws SQLException {
+        PersistenceUnitUtil persistenceUnitUtil = getHibernateSession(context).getSessionFactory()
+                                                                              .getPersistenceUnitUtil();
+        // the owning collections which are still uninitialized proxies
+        List<Collection> collectionsToLoad = items.stream()
+                                                  .map(Item::getOwningCollection)
+                                                  .filter(Objects::nonNull)
+                                                  .filter(collection -> !persistenceUnitUtil.isLoaded(collection))
+                                                  .distinct()
+                                                  .collect(Collectors.toList());
+        if (!collectionsToLoad.isEmpty()) {
+            createQuery(context,
+                        "SELECT DISTINCT c FROM Collection c LEFT JOIN FETCH c.metadata WHERE c IN (:collections)")
+                .setParameter("collections", collectionsToLoad)
+                .getResultList();
+        }
+    }
+
+    private <T> List<T> notLoaded(PersistenceUnitUtil persistenceUnitUtil, Iterable<T> entities, String attribute) {
+        List<T> result = new ArrayList<>();
+        for (T entity : entities) {
+            if (!persistenceUnitUtil.isLoaded(entity, attribute)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
 }
@@ -44,6 +44,30 @@ public interface ItemService
 
     Thumbnail getThumbnail(Context context, Item item, boolean requireOriginal) throws SQLException;
 
+    /**
+     * Load the bundles of all the given items, the bitstreams of these bundles
+     * and the metadata of these bitstreams with a few queries, instead of a few
+     * queries per item when the items are then navigated one by one (e.g. to
+     * find their thumbnail or access status). The loaded objects are kept in the
+     * session of the context.
+     *
+     * @param context DSpace context object
+     * @param items   the items
+     * @throws SQLException if database error
+     */
+    void prefetchBundles(Context context, List<Item> items) throws SQLException;
+
+    /**
+     * Load the owning collections of all the given items, with their metadata,
+     * with a single query. The loaded objects are kept in the session of the
+     * context.
+     *
+     * @param context DSpace context object
+     * @param items   the items
+     * @throws SQLException if database error
+     */
+    void prefetchOwningCollections(Context context, List<Item> items) throws SQLException;
+
     /**
      * Create a new item, with a new internal ID. Authorization is done
      * inside of this method.
@@ -243,7 +267,8 @@ public interface ItemService
      *
      * @param context DSpace context object
      * @param since   earliest interesting last-modified date, or null for no date test.
-     * @return an iterator over the items in the collection.
+     * @return an iterator over the items in the collection. The items are evicted from the context chunk
+     *         by chunk while iterating, changes to them must be committed before iterating further.
      * @throws SQLException if database error
      */
     Iterator<Item> findInArchiveOrWithdrawnDiscoverableModifiedSince(Context context, Instant since)
@@ -253,7 +278,8 @@ public interface ItemService
      * Get all Items installed or withdrawn, NON-discoverable, and modified since a Date.
      * @param context context
      * @param since earliest interesting last-modified date, or null for no date test.
-     * @return an iterator over the items in the collection.
+     * @return an iterator over the items in the collection. The items are evicted from the context chunk
+     *         by chunk while iterating, changes to them must be committed before iterating further.
      * @throws SQLException if database error
      */
     Iterator<Item> findInArchiveOrWithdrawnNonDiscoverableModifiedSince(Context context, Instant since)
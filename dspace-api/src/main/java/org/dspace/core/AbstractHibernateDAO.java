@@ -302,7 +302,9 @@ public abstract class AbstractHibernateDAO<T> implements GenericDAO<T> {
     }
 
     /**
-     * This method will return an Iterator for the given Query
+     * This method will return an Iterator for the given Query. The underlying result set is closed as soon
+     * as the iterator is exhausted; callers which stop iterating earlier should close the iterator (which
+     * implements {@link AutoCloseable}), otherwise the result set is only released with the transaction.
      *
      * @param query
      *         The query for which an Iterator will be made
@@ -311,18 +313,38 @@ public abstract class AbstractHibernateDAO<T> implements GenericDAO<T> {
     public Iterator<T> iterate(Query query) {
         @SuppressWarnings("unchecked")
         org.hibernate.query.Query hquery = query.unwrap(org.hibernate.query.Query.class);
+        @SuppressWarnings("unchecked")
         Stream<T> stream = hquery.stream();
-        Iterator<T> iter = stream.iterator();
-        return new AbstractIterator<T>() {
-            @Override
-            protected T computeNext() {
-                return iter.hasNext() ? iter.next() : endOfData();
-            }
-            @Override
-            public void finalize() {
-                stream.close();
+        return new StreamIterator<>(stream);
+    }
+
+    /**
+     * Iterator over a stream of query results, closing the stream once exhausted or closed.
+     *
+     * @param <T> class type
+     */
+    private static class StreamIterator<T> extends AbstractIterator<T> implements AutoCloseable {
+        private final Stream<T> stream;
+        private final Iterator<T> iter;
+
+        StreamIterator(Stream<T> stream) {
+            this.stream = stream;
+            this.iter = stream.iterator();
+        }
+
+        @Override
+        protected T computeNext() {
+            if (iter.hasNext()) {
+                return iter.next();
             }
-        };
+            close();
+            return endOfData();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
     }
 
     /**
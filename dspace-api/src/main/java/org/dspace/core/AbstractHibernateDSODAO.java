@@ -9,15 +9,21 @@ package org.dspace.core;
 
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Root;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.content.DSpaceObject;
+import org.dspace.content.DSpaceObject_;
 import org.dspace.content.MetadataField;
 
 /**
@@ -51,6 +57,104 @@ public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends Ab
         return uniqueResult(context, criteriaQuery, false, clazz);
     }
 
+    /**
+     * Load the DSOs having the given UUIDs with a single query. Their metadata
+     * values are fetched by the same query.
+     * @param context current DSpace context.
+     * @param clazz DSO subtype of the records.
+     * @param ids the UUIDs of the records.
+     * @return the DSOs found, in no particular order.
+     * @throws SQLException if database error
+     */
+    public List<T> findByIDs(Context context, Class<T> clazz, Collection<UUID> ids) throws SQLException {
+        if (CollectionUtils.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(clazz);
+        Root<T> root = criteriaQuery.from(clazz);
+        // Hibernate removes the duplicate roots caused by the fetch join
+        root.fetch(DSpaceObject_.metadata, JoinType.LEFT);
+        criteriaQuery.select(root);
+        criteriaQuery.where(root.get(DSpaceObject_.id).in(ids));
+        return getHibernateSession(context).createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Iterate over the DSOs matching a condition, paginating by UUID: each
+     * chunk of UUIDs is selected by a query restricted to the UUIDs greater
+     * than the last one of the previous chunk, so that neither the full list
+     * of UUIDs nor an offset has to be handled by the database.
+     * @param context current DSpace context.
+     * @param clazz DSO subtype of the records.
+     * @param selectFrom the select and from clauses of the query, selecting the UUID of the records,
+     *                   e.g. {@code SELECT i.id FROM Item i}
+     * @param idPath the path of the selected UUID, e.g. {@code i.id}
+     * @param condition the condition of the where clause
+     * @param parameters the parameters of the condition
+     * @return an iterator over the matching DSOs, ordered by UUID
+     */
+    protected UUIDIterator<T> iterateByUUID(Context context, Class<T> clazz, String selectFrom, String idPath,
+                                           String condition, Map<String, Object> parameters) {
+        return iterateByUUID(context, clazz, selectFrom, idPath, condition, parameters,
+                             UUIDIterator.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Iterate over the DSOs matching a condition, paginating by UUID.
+     * @param context current DSpace context.
+     * @param clazz DSO subtype of the records.
+     * @param selectFrom the select and from clauses of the query, selecting the UUID of the records
+     * @param idPath the path of the selected UUID
+     * @param condition the condition of the where clause
+     * @param parameters the parameters of the condition
+     * @param chunkSize number of DSOs loaded by a single query
+     * @return an iterator over the matching DSOs, ordered by UUID
+     * @see #iterateByUUID(Context, Class, String, String, String, Map)
+     */
+    protected UUIDIterator<T> iterateByUUID(Context context, Class<T> clazz, String selectFrom, String idPath,
+                                           String condition, Map<String, Object> parameters, int chunkSize) {
+        return iterateByUUID(context, clazz, selectFrom, idPath, condition, parameters, chunkSize, false);
+    }
+
+    /**
+     * Iterate over the DSOs matching a condition, paginating by UUID, and possibly evicting the DSOs of each
+     * chunk from the session when the next chunk is loaded. The iterator must then only be used by callers which
+     * don't modify the DSOs, or commit (or flush) their changes before asking for the DSOs of the next chunk.
+     * @param context current DSpace context.
+     * @param clazz DSO subtype of the records.
+     * @param selectFrom the select and from clauses of the query, selecting the UUID of the records
+     * @param idPath the path of the selected UUID
+     * @param condition the condition of the where clause
+     * @param parameters the parameters of the condition
+     * @param chunkSize number of DSOs loaded by a single query
+     * @param uncacheChunks true to evict the DSOs of each chunk from the session when the next chunk is loaded
+     * @return an iterator over the matching DSOs, ordered by UUID
+     * @see UUIDIterator
+     */
+    protected UUIDIterator<T> iterateByUUID(Context context, Class<T> clazz, String selectFrom, String idPath,
+                                           String condition, Map<String, Object> parameters, int chunkSize,
+                                           boolean uncacheChunks) {
+        return new UUIDIterator<>(context, (lastId, limit) -> {
+            StringBuilder queryStr = new StringBuilder(selectFrom);
+            queryStr.append(" WHERE (").append(condition).append(")");
+            if (lastId != null) {
+                queryStr.append(" AND ").append(idPath).append(" > :last_id");
+            }
+            queryStr.append(" ORDER BY ").append(idPath);
+
+            Query query = createQuery(context, queryStr.toString());
+            parameters.forEach(query::setParameter);
+            if (lastId != null) {
+                query.setParameter("last_id", lastId);
+            }
+            query.setMaxResults(limit);
+            @SuppressWarnings("unchecked")
+            List<UUID> uuids = query.getResultList();
+            return uuids;
+        }, clazz, this, chunkSize, uncacheChunks);
+    }
+
     /**
      * Add left outer join on all metadata fields which are passed to this function.
      * The identifier of the join will be the toString() representation of the metadata field.
@@ -0,0 +1,239 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.event.Consumer;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Base class of the application wide caches, shared by all contexts, whose
+ * entries are keyed by UUID and evicted by an event consumer once the
+ * transaction changing them has been committed.
+ * <P>
+ * Contexts holding uncommitted changes never read from nor write to these
+ * caches. Every invalidation increments a generation counter, and an entry is
+ * only stored if no invalidation happened while it was computed, so that a
+ * value based on data read before a commit can't be cached after its
+ * invalidation. Entries also expire after a configurable time to live, which
+ * bounds staleness in multi-node setups.
+ * <P>
+ * A cache is configured by the {@code <prefix>.enabled}, {@code <prefix>.size}
+ * and {@code <prefix>.ttl} properties, and is only enabled if its event
+ * consumer is configured for the default dispatcher.
+ *
+ * @param <V> type of the cached values
+ */
+public abstract class AbstractSharedCache<V> implements InitializingBean {
+
+    private static final Logger log = LogManager.getLogger();
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    protected Cache<UUID, V> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final String propertyPrefix;
+
+    private final Class<? extends Consumer> consumerClass;
+
+    private final long defaultSize;
+
+    private final long defaultTtl;
+
+    private boolean consumerConfigured;
+
+    /**
+     * @param propertyPrefix prefix of the configuration properties of the cache
+     * @param consumerClass  event consumer evicting the entries of the cache
+     * @param defaultSize    default maximum number of entries
+     * @param defaultTtl     default time to live of the entries, in seconds
+     */
+    protected AbstractSharedCache(String propertyPrefix, Class<? extends Consumer> consumerClass, long defaultSize,
+                                  long defaultTtl) {
+        this.propertyPrefix = propertyPrefix;
+        this.consumerClass = consumerClass;
+        this.defaultSize = defaultSize;
+        this.defaultTtl = defaultTtl;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        consumerConfigured = isConsumerConfigured();
+        if (!consumerConfigured && configurationService.getBooleanProperty(propertyPrefix + ".enabled", false)) {
+            log.error("{}.enabled is true but the '{}' event consumer is not configured for the default "
+                          + "dispatcher. The cache is disabled.", propertyPrefix, consumerClass.getName());
+        }
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(configurationService.getLongProperty(propertyPrefix + ".size",
+                                                                              defaultSize))
+                            .expireAfterWrite(configurationService.getLongProperty(propertyPrefix + ".ttl",
+                                                                                   defaultTtl), TimeUnit.SECONDS)
+                            .recordStats()
+                            .build();
+    }
+
+    /**
+     * @return true if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return consumerConfigured && configurationService.getBooleanProperty(propertyPrefix + ".enabled", false);
+    }
+
+    /**
+     * A context may only use the shared entries if it doesn't hold changes
+     * which aren't committed yet: those would either make it read entries
+     * which no longer hold in its own transaction, or publish entries based
+     * on data other contexts can't see (yet).
+     *
+     * @param context current context
+     * @return true if the given context may read from and write to this cache
+     */
+    public boolean canUse(Context context) {
+        return isEnabled() && !context.hasEvents() && !context.hasPostCommitTasks();
+    }
+
+    /**
+     * @return the current generation, to be passed when storing an entry
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @param startGeneration value of {@link #getGeneration()} before an entry was computed
+     * @return true if the cache wasn't invalidated since
+     */
+    protected boolean isCurrent(long startGeneration) {
+        return generation.get() == startGeneration;
+    }
+
+    /**
+     * Store an entry, unless the cache was invalidated since {@code startGeneration}.
+     *
+     * @param key             the key
+     * @param value           the value
+     * @param startGeneration value of {@link #getGeneration()} before the value was computed
+     */
+    protected void put(UUID key, V value, long startGeneration) {
+        if (!isCurrent(startGeneration)) {
+            return;
+        }
+        cache.put(key, value);
+        // An invalidation may have happened while we were writing
+        if (!isCurrent(startGeneration)) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Evict the entries of the given keys.
+     *
+     * @param keys the keys
+     */
+    public void invalidate(Collection<UUID> keys) {
+        generation.incrementAndGet();
+        cache.invalidateAll(keys);
+    }
+
+    /**
+     * Evict all entries.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of this cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private boolean isConsumerConfigured() {
+        String[] consumers = configurationService.getArrayProperty("event.dispatcher.default.consumers");
+        if (ArrayUtils.isEmpty(consumers)) {
+            return false;
+        }
+        for (String consumer : consumers) {
+            String configuredClass = configurationService.getProperty(
+                "event.consumer." + StringUtils.trim(consumer) + ".class");
+            if (consumerClass.getName().equals(StringUtils.trim(configuredClass))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Eviction of the entries touched by one transaction, registered with
+     * {@link Context#addPostCommitTask(Runnable)} to run after its commit.
+     * Registering it also keeps the context away from the cache until then.
+     */
+    public static class Invalidation implements Runnable {
+        private final AbstractSharedCache<?> cache;
+        private final Set<UUID> keys = new HashSet<>();
+        private boolean clearAll = false;
+
+        public Invalidation(AbstractSharedCache<?> cache) {
+            this.cache = cache;
+        }
+
+        /**
+         * Evict the entry of the given key.
+         *
+         * @param key the key, ignored if null
+         */
+        public void add(UUID key) {
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        /**
+         * Evict all entries.
+         */
+        public void clearAll() {
+            clearAll = true;
+        }
+
+        @Override
+        public void run() {
+            if (clearAll) {
+                cache.invalidateAll();
+            } else if (!keys.isEmpty()) {
+                cache.invalidate(keys);
+            }
+        }
+    }
+}
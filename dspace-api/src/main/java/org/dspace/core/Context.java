@@ -10,16 +10,19 @@ package org.dspace.core;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.content.DSpaceObject;
@@ -30,6 +33,7 @@ import org.dspace.event.Dispatcher;
 import org.dspace.event.Event;
 import org.dspace.event.factory.EventServiceFactory;
 import org.dspace.event.service.EventService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.storage.rdbms.DatabaseConfigVO;
 import org.dspace.storage.rdbms.DatabaseUtils;
 import org.dspace.utils.DSpace;
@@ -109,6 +113,22 @@ public class Context implements AutoCloseable {
      */
     private LinkedList<Event> events = null;
 
+    /**
+     * Last pending event of each subject (by type and UUID), into which redundant events are merged,
+     * see {@link #addEvent(Event)}
+     */
+    private Map<Pair<Integer, UUID>, Event> lastEventBySubject = null;
+
+    /**
+     * Whether redundant events are merged ({@code event.coalesce}), read on first use
+     */
+    private Boolean coalesceEvents = null;
+
+    /**
+     * Tasks to run once the current transaction has been committed
+     */
+    private List<Runnable> postCommitTasks = null;
+
     /**
      * Event dispatcher name
      */
@@ -124,6 +144,12 @@ public class Context implements AutoCloseable {
      */
     private final ContextReadOnlyCache readOnlyCache = new ContextReadOnlyCache();
 
+    /**
+     * Authorization decisions computed in bulk, which unlike the read-only cache are
+     * also used in the other modes, until the context adds an event, commits or rolls back
+     */
+    private final ContextReadOnlyCache prefetchedAuthorizations = new ContextReadOnlyCache();
+
     protected EventService eventService;
 
     private DBConnection dbConnection;
@@ -444,9 +470,50 @@ public class Context implements AutoCloseable {
             }
 
             if (dbConnection != null) {
+                recordDBStatistics();
                 // Commit our changes (this closes the transaction but leaves database connection open)
                 dbConnection.commit();
                 reloadContextBoundEntities();
+                prefetchedAuthorizations.clear();
+                runPostCommitTasks();
+            }
+        }
+    }
+
+    /**
+     * Register a task to run once the current transaction has been successfully
+     * committed, e.g. to invalidate a cache shared with other contexts only
+     * after the changes it depends on are visible to them. The task is
+     * discarded if the transaction is rolled back or the context aborted.
+     *
+     * @param task the task to run after commit
+     */
+    public void addPostCommitTask(Runnable task) {
+        if (postCommitTasks == null) {
+            postCommitTasks = new ArrayList<>();
+        }
+        postCommitTasks.add(task);
+    }
+
+    /**
+     * Whether or not tasks are waiting for the current transaction to be committed.
+     * @return true or false
+     */
+    public boolean hasPostCommitTasks() {
+        return !CollectionUtils.isEmpty(postCommitTasks);
+    }
+
+    private void runPostCommitTasks() {
+        if (postCommitTasks == null) {
+            return;
+        }
+        List<Runnable> tasks = postCommitTasks;
+        postCommitTasks = null;
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Error running post commit task " + task, e);
             }
         }
     }
@@ -472,6 +539,7 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            lastEventBySubject = null;
             if (dispatcher != null) {
                 eventService.returnDispatcher(dispName, dispatcher);
             }
@@ -508,10 +576,41 @@ public class Context implements AutoCloseable {
         if (events == null) {
             events = new LinkedList<>();
         }
+        // Something changed, decisions computed in advance may no longer hold
+        prefetchedAuthorizations.clear();
 
+        if (isCoalescingEvents()) {
+            if (lastEventBySubject == null) {
+                lastEventBySubject = new HashMap<>();
+            }
+            Pair<Integer, UUID> subject = Pair.of(event.getSubjectType(), event.getSubjectID());
+            Event last = lastEventBySubject.get(subject);
+            if (last != null && last.canCoalesce(event)) {
+                last.coalesce(event);
+                return;
+            }
+            lastEventBySubject.put(subject, event);
+        }
         events.add(event);
     }
 
+    /**
+     * Redundant events are merged into the previous pending event of their
+     * subject, so that consumers don't process e.g. every single metadata
+     * change of an object, see {@link Event#canCoalesce(Event)}. Only
+     * consecutive events of a subject are merged, so the order of the events
+     * of each subject is kept.
+     *
+     * @return true if redundant events are merged
+     */
+    private boolean isCoalescingEvents() {
+        if (coalesceEvents == null) {
+            coalesceEvents = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                  .getBooleanProperty("event.coalesce", true);
+        }
+        return coalesceEvents;
+    }
+
     /**
      * Get the current event list. If there is a separate list of events from
      * already-committed operations combine that with current list.
@@ -537,7 +636,12 @@ public class Context implements AutoCloseable {
      */
     public Event pollEvent() {
         if (hasEvents()) {
-            return events.poll();
+            Event event = events.poll();
+            if (lastEventBySubject != null) {
+                // Delivered events can't absorb later ones anymore
+                lastEventBySubject.remove(Pair.of(event.getSubjectType(), event.getSubjectID()), event);
+            }
+            return event;
         } else {
             return null;
         }
@@ -570,6 +674,9 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            lastEventBySubject = null;
+            postCommitTasks = null;
+            prefetchedAuthorizations.clear();
         }
     }
 
@@ -591,6 +698,7 @@ public class Context implements AutoCloseable {
         }
 
         try {
+            recordDBStatistics();
             // Rollback ONLY if we have a database transaction, and it is NOT Read Only
             if (!isReadOnly() && isTransactionAlive()) {
                 dbConnection.rollback();
@@ -608,6 +716,9 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            lastEventBySubject = null;
+            postCommitTasks = null;
+            prefetchedAuthorizations.clear();
         }
     }
 
@@ -665,6 +776,7 @@ public class Context implements AutoCloseable {
      */
     public void setSpecialGroup(UUID groupID) {
         specialGroups.add(groupID);
+        prefetchedAuthorizations.clear();
     }
 
     /**
@@ -720,6 +832,7 @@ public class Context implements AutoCloseable {
         specialGroupsPreviousState = specialGroups;
         specialGroups = new HashSet<>();
         currentUser = newUser;
+        prefetchedAuthorizations.clear();
     }
 
     /**
@@ -735,6 +848,7 @@ public class Context implements AutoCloseable {
         specialGroups = specialGroupsPreviousState;
         specialGroupsPreviousState = null;
         currentUserPreviousState = null;
+        prefetchedAuthorizations.clear();
     }
 
     /**
@@ -773,6 +887,23 @@ public class Context implements AutoCloseable {
         return this.getDBConnection().getCacheSize();
     }
 
+    /**
+     * Record the current size of the Hibernate session cache in the {@link DBStatistics} of the current
+     * thread, if statistics are being collected and the transaction is still open. Called before the
+     * transaction ends, as the session cache is cleared then.
+     */
+    public void recordDBStatistics() {
+        DBStatistics statistics = DBStatistics.getCurrent();
+        if (statistics == null || !isTransactionAlive()) {
+            return;
+        }
+        try {
+            statistics.recordSessionEntities(getCacheSize());
+        } catch (SQLException e) {
+            log.debug("Unable to determine the size of the session cache", e);
+        }
+    }
+
     /**
      * Change the mode of this current context.
      *
@@ -805,6 +936,10 @@ public class Context implements AutoCloseable {
                     log.warn("New context mode detected that has not been configured.");
                     break;
             }
+            if (mode == Mode.READ_ONLY && newMode != Mode.READ_ONLY) {
+                // Leaving a transaction on a read-only database replica detaches the entities
+                reloadContextBoundEntities();
+            }
         } catch (SQLException ex) {
             log.warn("Unable to set database connection mode", ex);
         }
@@ -910,7 +1045,26 @@ public class Context implements AutoCloseable {
         if (isReadOnly()) {
             return readOnlyCache.getCachedAuthorizationResult(dspaceObject, action, eperson);
         } else {
-            return null;
+            return prefetchedAuthorizations.getCachedAuthorizationResult(dspaceObject, action, eperson);
+        }
+    }
+
+    /**
+     * Cache an authorization decision computed in bulk, ahead of the individual
+     * checks. In READ_WRITE and BATCH_EDIT mode the decision is kept until the
+     * context adds an event, commits or rolls back.
+     *
+     * @param dspaceObject object the action is attempted on
+     * @param action       action ID
+     * @param eperson      user attempting the action
+     * @param result       the decision
+     */
+    public void cachePrefetchedAuthorization(DSpaceObject dspaceObject, int action, EPerson eperson,
+                                             Boolean result) {
+        if (isReadOnly()) {
+            readOnlyCache.cacheAuthorizedAction(dspaceObject, action, eperson, result);
+        } else {
+            prefetchedAuthorizations.cacheAuthorizedAction(dspaceObject, action, eperson, result);
         }
     }
 
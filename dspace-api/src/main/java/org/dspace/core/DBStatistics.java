@@ -0,0 +1,110 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+/**
+ * Database activity of a unit of work (typically a web request) running on a
+ * single thread: number of SQL statements and time spent executing them,
+ * entities loaded by Hibernate and the largest size of the Hibernate session
+ * cache observed.
+ * <P>
+ * The statistics are only collected between {@link #start()} and
+ * {@link #stop()} on the same thread. They are fed by the
+ * {@link DBStatisticsSessionListener} and {@link DBStatisticsInterceptor}
+ * configured in hibernate.cfg.xml, and by the {@link Context}.
+ */
+public class DBStatistics {
+
+    private static final ThreadLocal<DBStatistics> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long statementCount = 0;
+    private long sqlNanos = 0;
+    private long entitiesLoaded = 0;
+    private long maxSessionEntities = 0;
+
+    protected DBStatistics() {
+    }
+
+    /**
+     * Start collecting statistics for the current thread, discarding any previous ones.
+     *
+     * @return the new statistics
+     */
+    public static DBStatistics start() {
+        DBStatistics statistics = new DBStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * @return the statistics being collected for the current thread, or null if none
+     */
+    public static DBStatistics getCurrent() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop collecting statistics for the current thread.
+     *
+     * @return the collected statistics, or null if none were being collected
+     */
+    public static DBStatistics stop() {
+        DBStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    void recordStatement(long nanos) {
+        statementCount++;
+        sqlNanos += nanos;
+    }
+
+    void recordEntityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void recordSessionEntities(long count) {
+        maxSessionEntities = Math.max(maxSessionEntities, count);
+    }
+
+    /**
+     * @return the number of SQL statements (or batches) executed
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return the total time spent executing SQL statements, in nanoseconds
+     */
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    /**
+     * @return the number of entities loaded from the database
+     */
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    /**
+     * @return the largest number of entities observed in the Hibernate session cache
+     */
+    public long getMaxSessionEntities() {
+        return maxSessionEntities;
+    }
+
+    /**
+     * @return the time elapsed since {@link #start()}, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
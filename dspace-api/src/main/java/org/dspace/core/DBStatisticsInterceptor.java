@@ -0,0 +1,29 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate interceptor counting the entities loaded for the
+ * {@link DBStatistics} of the current thread, see
+ * {@code hibernate.session_factory.interceptor} in hibernate.cfg.xml.
+ */
+public class DBStatisticsInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        DBStatistics statistics = DBStatistics.getCurrent();
+        if (statistics != null) {
+            statistics.recordEntityLoaded();
+        }
+        // the state is not modified
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener measuring the execution of SQL statements for
+ * the {@link DBStatistics} of the current thread. Hibernate creates one
+ * instance per session, see {@code hibernate.session.events.auto} in
+ * hibernate.cfg.xml.
+ */
+public class DBStatisticsSessionListener implements SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private void record(long start) {
+        DBStatistics statistics = DBStatistics.getCurrent();
+        if (statistics != null) {
+            statistics.recordStatement(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+/**
+ * Consumer evicting the communities and collections touched by a transaction,
+ * and their cached associations, from the Hibernate second level cache.
+ * <P>
+ * Hibernate already evicts the entities and collections it updates itself.
+ * This consumer covers the hierarchy changes which only show up on the other
+ * side of an association (e.g. the parents of a moved collection) and the
+ * changes made without going through the Hibernate session of the entity.
+ * <P>
+ * The eviction runs after the transaction is committed, see
+ * {@link Context#addPostCommitTask(Runnable)}. The second level cache is
+ * local to each node: the entries of the other nodes of a cluster expire
+ * after the time to live configured in hibernate-ehcache-config.xml.
+ */
+public class HibernateCacheConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private static final String[] COMMUNITY_ROLES = {
+        Community.class.getName() + ".subCommunities",
+        Community.class.getName() + ".parentCommunities",
+        Community.class.getName() + ".collections"
+    };
+
+    private static final String[] COLLECTION_ROLES = {
+        Collection.class.getName() + ".communities"
+    };
+
+    /** Pending eviction of the transaction being dispatched, null if none yet. */
+    private Invalidation invalidation = null;
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        if (invalidation == null) {
+            Cache cache = getCache();
+            if (cache == null) {
+                return;
+            }
+            invalidation = new Invalidation(cache);
+            ctx.addPostCommitTask(invalidation);
+        }
+        invalidation.add(event.getSubjectType(), event.getSubjectID());
+        invalidation.add(event.getObjectType(), event.getObjectID());
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        invalidation = null;
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+
+    }
+
+    private Cache getCache() {
+        try {
+            SessionFactory sessionFactory = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                                 .getServiceByName("sessionFactory",
+                                                                                   SessionFactory.class);
+            return sessionFactory != null ? sessionFactory.getCache() : null;
+        } catch (RuntimeException e) {
+            log.warn("Unable to find the Hibernate second level cache", e);
+            return null;
+        }
+    }
+
+    /**
+     * Eviction of the communities and collections touched by one transaction.
+     */
+    private static class Invalidation implements Runnable {
+        private final Cache cache;
+        private final Set<UUID> communityIds = new HashSet<>();
+        private final Set<UUID> collectionIds = new HashSet<>();
+
+        Invalidation(Cache cache) {
+            this.cache = cache;
+        }
+
+        void add(int type, UUID uuid) {
+            if (uuid == null) {
+                return;
+            }
+            if (type == Constants.COMMUNITY) {
+                communityIds.add(uuid);
+            } else if (type == Constants.COLLECTION) {
+                collectionIds.add(uuid);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (UUID id : communityIds) {
+                cache.evictEntityData(Community.class, id);
+                for (String role : COMMUNITY_ROLES) {
+                    cache.evictCollectionData(role, id);
+                }
+            }
+            for (UUID id : collectionIds) {
+                cache.evictEntityData(Collection.class, id);
+                for (String role : COLLECTION_ROLES) {
+                    cache.evictCollectionData(role, id);
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,8 @@ import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.handle.Handle;
 import org.dspace.storage.rdbms.DatabaseConfigVO;
+import org.dspace.storage.rdbms.ReadReplicaRoutingDataSource;
+import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.Hibernate;
 import org.hibernate.Session;
@@ -62,6 +64,10 @@ public class HibernateDBConnection implements DBConnection<Session> {
 
     private boolean batchModeEnabled = false;
     private boolean readOnlyEnabled = false;
+    /**
+     * Whether the current transaction runs on the read-only replica, see {@link ReadReplicaRoutingDataSource}
+     */
+    private boolean transactionOnReplica = false;
 
     /**
      * Retrieves the current Session from Hibernate (per our settings, Hibernate is configured to create one Session
@@ -75,7 +81,19 @@ public class HibernateDBConnection implements DBConnection<Session> {
         // If we don't yet have a live transaction, start a new one
         // NOTE: a Session cannot be used until a Transaction is started.
         if (!isTransActionAlive()) {
-            sessionFactory.getCurrentSession().beginTransaction();
+            // Read-only transactions may run on a replica of the database. Hibernate acquires the connection
+            // of a transaction when it begins.
+            boolean replica = readOnlyEnabled && !batchModeEnabled;
+            ReadReplicaRoutingDataSource.setRouteToReplica(replica);
+            try {
+                sessionFactory.getCurrentSession().beginTransaction();
+            } finally {
+                ReadReplicaRoutingDataSource.setRouteToReplica(false);
+            }
+            transactionOnReplica = replica && ReadReplicaRoutingDataSource.isLastConnectionFromReplica();
+            // The replica may lag behind: its rows must not be put in the second level cache shared with the
+            // transactions on the primary database, they could bring back entries evicted by a recent commit
+            sessionFactory.getCurrentSession().setCacheMode(transactionOnReplica ? CacheMode.GET : CacheMode.NORMAL);
             configureDatabaseMode();
         }
         // Return the current Hibernate Session object (Hibernate will create one if it doesn't yet exist)
@@ -224,6 +242,10 @@ public class HibernateDBConnection implements DBConnection<Session> {
     public void setConnectionMode(final boolean batchOptimized, final boolean readOnlyOptimized) throws SQLException {
         this.batchModeEnabled = batchOptimized;
         this.readOnlyEnabled = readOnlyOptimized;
+        if (transactionOnReplica && (batchOptimized || !readOnlyOptimized) && isTransActionAlive()) {
+            // The replica can't take writes: end its (read-only) transaction, the next one runs on the primary
+            getTransaction().rollback();
+        }
         configureDatabaseMode();
     }
 
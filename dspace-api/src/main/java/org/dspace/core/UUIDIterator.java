@@ -8,56 +8,245 @@
 package org.dspace.core;
 
 import java.sql.SQLException;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.AbstractIterator;
 import org.dspace.content.DSpaceObject;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 
 /**
  * Iterator implementation which allows to iterate over items and commit while
  * iterating. Using an iterator over previous retrieved UUIDs the iterator doesn't
  * get invalidated after a commit that would instead close the database ResultSet
+ * <P>
+ * The objects are loaded in chunks: the UUIDs of a chunk are retrieved from an
+ * {@link IdSource} (either a list of UUIDs retrieved beforehand, or a query
+ * paginating by UUID so that the full list is never materialized) and the
+ * objects of the chunk are loaded with a single query, together with their
+ * metadata. Objects of the chunk which got detached from the session in the
+ * meantime (e.g. by a commit) are loaded again before being returned, and
+ * objects deleted in the meantime are skipped.
+ * <P>
+ * An iterator may be created to uncache its chunks: the objects of a chunk are
+ * then evicted from the session when the next chunk is loaded, i.e. when the
+ * object following the last one of the chunk is requested, so that iterating
+ * over many objects doesn't keep all of them in the session. Only the objects
+ * which weren't in the session before the iterator loaded them are evicted,
+ * the objects already used by the caller stay in the session. Callers of such an
+ * iterator must not keep using the objects of a chunk once they moved past it,
+ * and must commit (or flush) their changes to these objects before asking for
+ * the next object, as the changes of evicted objects are lost.
  *
  * @author Andrea Bollini (andrea.bollini at 4science.com)
  * @param  <T> class type
  */
 public class UUIDIterator<T extends DSpaceObject> extends AbstractIterator<T> {
-    private Class<T> clazz;
 
-    private Iterator<UUID> iterator;
+    /**
+     * Default number of objects loaded by a single query
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 100;
 
-    @Autowired
-    private AbstractHibernateDSODAO<T> dao;
+    private final Class<T> clazz;
 
-    private Context ctx;
+    private final AbstractHibernateDSODAO<T> dao;
+
+    private final Context ctx;
+
+    private final IdSource idSource;
+
+    private final int chunkSize;
+
+    private final boolean uncacheChunks;
+
+    /** UUIDs of the current chunk */
+    private List<UUID> chunkIds = Collections.emptyList();
+
+    /** Position of the next UUID to return in the current chunk */
+    private int position = 0;
+
+    /** Loaded objects of the current chunk, by UUID */
+    private Map<UUID, T> chunk = Collections.emptyMap();
+
+    /** Objects of the current chunk brought into the session by this iterator, evicted with the chunk */
+    private final List<T> loadedObjects = new ArrayList<>();
+
+    /** Last UUID of the previous chunk, null before the first chunk */
+    private UUID lastId = null;
+
+    private boolean exhausted = false;
 
     public UUIDIterator(Context ctx, List<UUID> uuids, Class<T> clazz, AbstractHibernateDSODAO<T> dao)
             throws SQLException {
+        this(ctx, uuids, clazz, dao, DEFAULT_CHUNK_SIZE);
+    }
+
+    public UUIDIterator(Context ctx, List<UUID> uuids, Class<T> clazz, AbstractHibernateDSODAO<T> dao,
+                        int chunkSize) throws SQLException {
+        this(ctx, new ListIdSource(uuids), clazz, dao, chunkSize);
+    }
+
+    /**
+     * @param ctx       The relevant DSpace Context
+     * @param idSource  source of the UUIDs to iterate over
+     * @param clazz     class of the objects
+     * @param dao       DAO used to load the objects
+     * @param chunkSize number of objects loaded by a single query
+     */
+    public UUIDIterator(Context ctx, IdSource idSource, Class<T> clazz, AbstractHibernateDSODAO<T> dao,
+                        int chunkSize) {
+        this(ctx, idSource, clazz, dao, chunkSize, false);
+    }
+
+    /**
+     * @param ctx           The relevant DSpace Context
+     * @param idSource      source of the UUIDs to iterate over
+     * @param clazz         class of the objects
+     * @param dao           DAO used to load the objects
+     * @param chunkSize     number of objects loaded by a single query
+     * @param uncacheChunks true to evict the objects of each chunk from the session when the next chunk is
+     *                      loaded, their changes must then be committed or flushed before that
+     */
+    public UUIDIterator(Context ctx, IdSource idSource, Class<T> clazz, AbstractHibernateDSODAO<T> dao,
+                        int chunkSize, boolean uncacheChunks) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
         this.ctx = ctx;
+        this.idSource = idSource;
         this.clazz = clazz;
         this.dao = dao;
-        this.iterator = uuids.iterator();
+        this.chunkSize = chunkSize;
+        this.uncacheChunks = uncacheChunks;
     }
 
     @Override
     protected T computeNext() {
         try {
-            if (iterator.hasNext()) {
-                T item = dao.findByID(ctx, clazz, iterator.next());
-                if (item != null) {
-                    return item;
-                } else {
-                    return computeNext();
+            while (true) {
+                if (position >= chunkIds.size()) {
+                    if (!loadNextChunk()) {
+                        return endOfData();
+                    }
+                    continue;
+                }
+                UUID id = chunkIds.get(position);
+                T object = chunk.get(id);
+                if (object != null && !dao.getHibernateSession(ctx).contains(object)) {
+                    // Detached since the chunk was loaded, load the rest of the chunk again
+                    chunk = load(chunkIds.subList(position, chunkIds.size()));
+                    object = chunk.get(id);
                 }
-            } else {
-                return endOfData();
+                position++;
+                if (object != null) {
+                    return object;
+                }
+                // Deleted in the meantime, skip it
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private boolean loadNextChunk() throws SQLException {
+        uncacheChunk();
+        if (exhausted) {
+            return false;
+        }
+        List<UUID> ids = idSource.nextIds(lastId, chunkSize);
+        if (ids.size() < chunkSize) {
+            exhausted = true;
+        }
+        if (ids.isEmpty()) {
+            chunkIds = Collections.emptyList();
+            chunk = Collections.emptyMap();
+            return false;
+        }
+        chunkIds = ids;
+        position = 0;
+        lastId = ids.get(ids.size() - 1);
+        chunk = load(ids);
+        return true;
+    }
+
+    private Map<UUID, T> load(List<UUID> ids) throws SQLException {
+        if (!uncacheChunks) {
+            return byID(dao.findByIDs(ctx, clazz, ids));
+        }
+        // The objects already in the session are used by the caller, only the other ones are evicted later
+        SessionImplementor session = dao.getHibernateSession(ctx).unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(clazz);
+        Set<UUID> managedIds = new HashSet<>();
+        for (UUID id : ids) {
+            if (session.getPersistenceContextInternal().containsEntity(session.generateEntityKey(id, persister))) {
+                managedIds.add(id);
+            }
+        }
+        Map<UUID, T> objects = byID(dao.findByIDs(ctx, clazz, ids));
+        for (T object : objects.values()) {
+            if (!managedIds.contains(object.getID())) {
+                loadedObjects.add(object);
+            }
+        }
+        return objects;
+    }
+
+    private void uncacheChunk() throws SQLException {
+        for (T object : loadedObjects) {
+            ctx.uncacheEntity(object);
+        }
+        loadedObjects.clear();
+        chunk = Collections.emptyMap();
+    }
+
+    /**
+     * Source of the UUIDs to iterate over, queried once per chunk.
+     */
+    @FunctionalInterface
+    public interface IdSource {
+
+        /**
+         * @param lastId the last UUID returned for the previous chunk, null for the first chunk
+         * @param limit  maximum number of UUIDs to return
+         * @return the next UUIDs, fewer than {@code limit} (possibly none) when there are no more UUIDs
+         * @throws SQLException if database error
+         */
+        List<UUID> nextIds(UUID lastId, int limit) throws SQLException;
+    }
+
+    /**
+     * Source paginating over a list of UUIDs retrieved beforehand.
+     */
+    private static class ListIdSource implements IdSource {
+        private final List<UUID> uuids;
+        private int offset = 0;
+
+        ListIdSource(List<UUID> uuids) {
+            this.uuids = uuids;
+        }
+
+        @Override
+        public List<UUID> nextIds(UUID lastId, int limit) {
+            int end = Math.min(offset + limit, uuids.size());
+            List<UUID> ids = uuids.subList(offset, end);
+            offset = end;
+            return ids;
+        }
+    }
+
+    private Map<UUID, T> byID(List<T> objects) {
+        Map<UUID, T> result = new HashMap<>(objects.size() * 2);
+        for (T object : objects) {
+            result.put(object.getID(), object);
+        }
+        return result;
+    }
 }
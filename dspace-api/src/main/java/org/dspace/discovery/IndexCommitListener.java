@@ -0,0 +1,21 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+/**
+ * Bean notified by the {@link IndexingService} after each commit of the
+ * search index, e.g. to refresh data derived from the index.
+ */
+public interface IndexCommitListener {
+
+    /**
+     * Called after the search index has been committed. Implementations must
+     * return quickly: the work should be done in the background.
+     */
+    void indexCommitted();
+}
@@ -119,6 +119,8 @@ public class SolrServiceImpl implements SearchService, IndexingService {
     protected SolrSearchCore solrSearchCore;
     @Autowired
     protected ConfigurationService configurationService;
+    @Autowired(required = false)
+    protected List<IndexCommitListener> indexCommitListeners = Collections.emptyList();
 
     protected SolrServiceImpl() {
 
@@ -1527,6 +1529,13 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         } catch (IOException | SolrServerException e) {
             throw new SearchServiceException(e.getMessage(), e);
         }
+        for (IndexCommitListener listener : indexCommitListeners) {
+            try {
+                listener.indexCommitted();
+            } catch (RuntimeException e) {
+                log.error("Error notifying " + listener + " of the index commit", e);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,64 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.core.AbstractSharedCache;
+import org.dspace.core.Context;
+
+/**
+ * Application wide cache of the effective groups of each EPerson: the groups
+ * it is a direct member of, the Anonymous group and all their parent groups
+ * (according to the Group2GroupCache). The groups are stored by UUID, so
+ * that a membership check becomes a set lookup instead of database queries.
+ * Special groups are context specific and are never part of the cached sets.
+ * <P>
+ * Entries are invalidated by the {@link GroupMembershipCacheConsumer} once the
+ * transaction changing group memberships has been committed, see
+ * {@link AbstractSharedCache}.
+ * <P>
+ * The cache is disabled by default, see {@code eperson.group-cache.*} in
+ * dspace.cfg.
+ */
+public class GroupMembershipCache extends AbstractSharedCache<Set<UUID>> {
+
+    protected GroupMembershipCache() {
+        super("eperson.group-cache", GroupMembershipCacheConsumer.class, 10000, 600);
+    }
+
+    /**
+     * Look up the effective groups of an EPerson.
+     *
+     * @param context current context
+     * @param ePerson the EPerson
+     * @return the UUIDs of the groups, or null if unknown or the context can't use the cache
+     */
+    public Set<UUID> get(Context context, EPerson ePerson) {
+        if (ePerson == null || !canUse(context)) {
+            return null;
+        }
+        return cache.getIfPresent(ePerson.getID());
+    }
+
+    /**
+     * Store the effective groups of an EPerson, unless the cache was invalidated since {@code startGeneration}.
+     *
+     * @param context         current context
+     * @param ePerson         the EPerson
+     * @param groupIds        the UUIDs of its effective groups
+     * @param startGeneration value of {@link #getGeneration()} before the groups were loaded
+     */
+    public void put(Context context, EPerson ePerson, Set<UUID> groupIds, long startGeneration) {
+        if (ePerson == null || !canUse(context)) {
+            return;
+        }
+        put(ePerson.getID(), Set.copyOf(groupIds), startGeneration);
+    }
+}
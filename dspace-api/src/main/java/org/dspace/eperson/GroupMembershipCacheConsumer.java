@@ -0,0 +1,87 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.AbstractSharedCache;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Consumer evicting entries of the {@link GroupMembershipCache} which may be
+ * affected by the events of a transaction. Adding or removing an EPerson to
+ * or from a group only evicts that EPerson. Changes of the group hierarchy
+ * and group deletions evict everything, as they can affect the effective
+ * groups of any EPerson.
+ * <P>
+ * The eviction runs after the transaction is committed, see
+ * {@link Context#addPostCommitTask(Runnable)}.
+ */
+public class GroupMembershipCacheConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /** Pending eviction of the transaction being dispatched, null if none yet. */
+    private AbstractSharedCache.Invalidation invalidation = null;
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        GroupMembershipCache cache = getCache();
+        if (cache == null || !cache.isEnabled()) {
+            return;
+        }
+
+        int st = event.getSubjectType();
+        int et = event.getEventType();
+        if (st == Constants.GROUP && (et == Event.CREATE || et == Event.MODIFY_METADATA)) {
+            // A new group has no members yet, and its name doesn't affect memberships
+            return;
+        }
+
+        if (invalidation == null) {
+            invalidation = new AbstractSharedCache.Invalidation(cache);
+            // Registering the task also keeps the context away from the shared cache until its commit
+            ctx.addPostCommitTask(invalidation);
+        }
+
+        if (st == Constants.EPERSON) {
+            invalidation.add(event.getSubjectID());
+        } else if (st == Constants.GROUP && event.getObjectType() == Constants.EPERSON) {
+            invalidation.add(event.getObjectID());
+        } else {
+            invalidation.clearAll();
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        invalidation = null;
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+
+    }
+
+    private GroupMembershipCache getCache() {
+        try {
+            return EPersonServiceFactory.getInstance().getGroupMembershipCache();
+        } catch (RuntimeException e) {
+            log.warn("Unable to find the group membership cache", e);
+            return null;
+        }
+    }
+}
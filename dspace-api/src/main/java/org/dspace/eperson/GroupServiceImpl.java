@@ -45,6 +45,7 @@ import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
 import org.dspace.event.Event;
+import org.dspace.services.ConfigurationService;
 import org.dspace.util.UUIDUtils;
 import org.dspace.xmlworkflow.Role;
 import org.dspace.xmlworkflow.factory.XmlWorkflowFactory;
@@ -73,6 +74,12 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     @Autowired(required = true)
     protected Group2GroupCacheDAO group2GroupCacheDAO;
 
+    @Autowired(required = true)
+    protected GroupMembershipCache groupMembershipCache;
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
     @Autowired(required = true)
     protected CollectionService collectionService;
 
@@ -288,8 +295,13 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
                 //If we have an ePerson, check we can find membership in the database
                 if (ePerson != null) {
-                    //lookup eperson in normal groups and subgroups with 1 query
-                    isMember = isEPersonInGroup(context, group, ePerson);
+                    Set<UUID> sharedGroupIds = getSharedGroupIds(context, ePerson);
+                    if (sharedGroupIds != null) {
+                        isMember = sharedGroupIds.contains(group.getID());
+                    } else {
+                        //lookup eperson in normal groups and subgroups with 1 query
+                        isMember = isEPersonInGroup(context, group, ePerson);
+                    }
                 }
 
                 //If we did not find the group membership in the database, check the special groups.
@@ -376,6 +388,65 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         return groups;
     }
 
+    @Override
+    public Set<UUID> allMemberGroupIds(Context context, EPerson ePerson) throws SQLException {
+        Set<UUID> sharedGroupIds = getSharedGroupIds(context, ePerson);
+        Set<UUID> groupIds = new HashSet<>();
+        if (sharedGroupIds == null) {
+            for (Group group : allMemberGroupsSet(context, ePerson)) {
+                groupIds.add(group.getID());
+            }
+            return groupIds;
+        }
+
+        groupIds.addAll(sharedGroupIds);
+        // Special groups are not shared, see allMemberGroupsSet
+        if (((context.getCurrentUser() == null) || (context.getCurrentUser().equals(ePerson)))
+            && CollectionUtils.isNotEmpty(context.getSpecialGroups())) {
+            List<Group> specialGroups = context.getSpecialGroups();
+            for (Group special : specialGroups) {
+                groupIds.add(special.getID());
+            }
+            for (Group2GroupCache group2GroupCache : group2GroupCacheDAO.findByChildren(context, specialGroups)) {
+                groupIds.add(group2GroupCache.getParent().getID());
+            }
+        }
+        return groupIds;
+    }
+
+    /**
+     * Get the UUIDs of the groups the given eperson is a member of in the database (directly or through
+     * subgroups) and of the Anonymous group and its parents, from the shared {@link GroupMembershipCache}.
+     * The set is loaded and cached on a miss.
+     *
+     * @param context DSpace context
+     * @param ePerson ePerson object
+     * @return the group UUIDs, or null if the shared cache can't be used by this context
+     * @throws SQLException if database error
+     */
+    protected Set<UUID> getSharedGroupIds(Context context, EPerson ePerson) throws SQLException {
+        if (ePerson == null || !groupMembershipCache.canUse(context)) {
+            return null;
+        }
+        Set<UUID> groupIds = groupMembershipCache.get(context, ePerson);
+        if (groupIds != null) {
+            return groupIds;
+        }
+
+        long cacheGeneration = groupMembershipCache.getGeneration();
+        Set<Group> groups = new HashSet<>(groupDAO.findByEPerson(context, ePerson));
+        groups.add(findByName(context, Group.ANONYMOUS));
+        groupIds = new HashSet<>();
+        for (Group group : groups) {
+            groupIds.add(group.getID());
+        }
+        for (Group2GroupCache group2GroupCache : group2GroupCacheDAO.findByChildren(context, groups)) {
+            groupIds.add(group2GroupCache.getParent().getID());
+        }
+        groupMembershipCache.put(context, ePerson, groupIds, cacheGeneration);
+        return groupIds;
+    }
+
     @Override
     public List<EPerson> allMembers(Context c, Group g) throws SQLException {
         // two queries - first to get all groups which are a member of this group
@@ -552,6 +623,12 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         // Remove any ResourcePolicies that reference this group
         authorizeService.removeGroupPolicies(context, group);
 
+        // the group and its parents, whose rows of the group cache change
+        Set<Group> changedGroups = new HashSet<>(group.getParentGroups());
+        changedGroups.add(group);
+        for (Group parent : group.getParentGroups()) {
+            parent.remove(group);
+        }
         group.getMemberGroups().clear();
         group.getParentGroups().clear();
 
@@ -563,11 +640,20 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             ePerson.getGroups().remove(group);
         }
 
-        // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
-        group2GroupCacheDAO.deleteAll(context);
-        // Remove ourself
-        groupDAO.delete(context, group);
-        rethinkGroupCache(context, false);
+        if (isGroupCacheIncremental()) {
+            // update group2groupcache table first (if we do it after we delete our object we get an issue with
+            // references)
+            rethinkGroupCache(context, changedGroups, true);
+            // Remove ourself
+            groupDAO.delete(context, group);
+        } else {
+            // empty out group2groupcache table (if we do it after we delete our object we get an issue with
+            // references)
+            group2GroupCacheDAO.deleteAll(context);
+            // Remove ourself
+            groupDAO.delete(context, group);
+            rethinkGroupCache(context, false);
+        }
 
         log.info(LogHelper.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -658,7 +744,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
-            rethinkGroupCache(context, true);
+            rethinkGroupCache(context, group, true);
             group.clearGroupsChanged();
         }
 
@@ -742,6 +828,129 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
     }
 
+    /**
+     * Update the group cache AKA the group2groupcache table in the database after the subgroups or
+     * the parent groups of the given group have changed. Only the rows of the groups whose descendants
+     * may have changed are recomputed: the given group, its current and former parent groups and all
+     * their ancestors. The other rows can't be affected by edges of the given group.
+     * <P>
+     * Falls back to the full {@link #rethinkGroupCache(Context, boolean)} if
+     * {@code eperson.group2groupcache.incremental} is false. If
+     * {@code eperson.group2groupcache.verify} is true the result is compared to a full rebuild, and
+     * repaired by it in case of differences.
+     *
+     * @param context      The relevant DSpace Context.
+     * @param group        the group whose subgroups or parent groups have changed
+     * @param flushQueries flushQueries Flush all pending queries
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void rethinkGroupCache(Context context, Group group, boolean flushQueries) throws SQLException {
+        if (!isGroupCacheIncremental()) {
+            rethinkGroupCache(context, flushQueries);
+            return;
+        }
+
+        Set<Group> changedGroups = new HashSet<>(group.getParentGroups());
+        changedGroups.add(group);
+        rethinkGroupCache(context, changedGroups, flushQueries);
+    }
+
+    /**
+     * @return true if the group cache AKA the group2groupcache table is updated incrementally, see
+     * {@code eperson.group2groupcache.incremental}
+     */
+    protected boolean isGroupCacheIncremental() {
+        return configurationService.getBooleanProperty("eperson.group2groupcache.incremental", true);
+    }
+
+    /**
+     * Recompute the rows of the group cache AKA the group2groupcache table of the given groups, whose
+     * subgroups have changed, and of all their ancestors.
+     *
+     * @param context       The relevant DSpace Context.
+     * @param changedGroups the groups whose subgroups have changed
+     * @param flushQueries  flushQueries Flush all pending queries
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    private void rethinkGroupCache(Context context, Set<Group> changedGroups, boolean flushQueries)
+        throws SQLException {
+        // the changed groups, and their (possibly former) ancestors still recorded in the cache
+        Set<Group> affected = new HashSet<>(changedGroups);
+        List<Group2GroupCache> ancestors = group2GroupCacheDAO.findByChildren(context,
+                                                                             new ArrayList<>(changedGroups));
+        for (Group2GroupCache group2GroupCache : ancestors) {
+            affected.add(group2GroupCache.getParent());
+        }
+
+        Map<UUID, Set<UUID>> descendants = new HashMap<>();
+        for (Group parent : affected) {
+            Set<UUID> newChildren = getDescendantIds(parent, descendants, new HashSet<>());
+            Set<UUID> oldChildren = new HashSet<>();
+            for (Group2GroupCache group2GroupCache : group2GroupCacheDAO.findByParent(context, parent)) {
+                oldChildren.add(group2GroupCache.getChild().getID());
+            }
+
+            for (UUID child : SetUtils.difference(oldChildren, newChildren)) {
+                group2GroupCacheDAO.deleteFromCache(context, parent.getID(), child);
+            }
+            for (UUID child : SetUtils.difference(newChildren, oldChildren)) {
+                group2GroupCacheDAO.addToCache(context, parent.getID(), child);
+            }
+        }
+
+        if (configurationService.getBooleanProperty("eperson.group2groupcache.verify", false)) {
+            verifyGroupCache(context, flushQueries);
+        }
+    }
+
+    /**
+     * Compare the group cache table to a full rebuild, and rebuild it if they differ.
+     *
+     * @param context      The relevant DSpace Context.
+     * @param flushQueries flushQueries Flush all pending queries
+     * @return true if the cache table was correct
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected boolean verifyGroupCache(Context context, boolean flushQueries) throws SQLException {
+        Set<Pair<UUID, UUID>> currentCache = group2GroupCacheDAO.getCache(context);
+        Set<Pair<UUID, UUID>> expectedCache = computeNewCache(context, flushQueries);
+        if (currentCache.equals(expectedCache)) {
+            return true;
+        }
+        log.error("The incrementally maintained group2groupcache differs from a full rebuild: missing rows {}, "
+                      + "extra rows {}. Rebuilding it.", SetUtils.difference(expectedCache, currentCache),
+                  SetUtils.difference(currentCache, expectedCache));
+        rethinkGroupCache(context, flushQueries);
+        return false;
+    }
+
+    /**
+     * Collect the UUIDs of all the direct and indirect subgroups of a group, following the
+     * (possibly not yet flushed) member groups of the entities.
+     *
+     * @param group       the group
+     * @param descendants descendants already computed during this update, by group UUID
+     * @param visiting    groups on the current path, guarding against cycles
+     * @return the UUIDs of the subgroups
+     */
+    private Set<UUID> getDescendantIds(Group group, Map<UUID, Set<UUID>> descendants, Set<UUID> visiting) {
+        Set<UUID> result = descendants.get(group.getID());
+        if (result != null) {
+            return result;
+        }
+        result = new HashSet<>();
+        visiting.add(group.getID());
+        for (Group child : group.getMemberGroups()) {
+            result.add(child.getID());
+            if (!visiting.contains(child.getID())) {
+                result.addAll(getDescendantIds(child, descendants, visiting));
+            }
+        }
+        visiting.remove(group.getID());
+        descendants.put(group.getID(), result);
+        return result;
+    }
+
     @Override
     public DSpaceObject getParentObject(Context context, Group group) throws SQLException {
         if (group == null) {
@@ -7,6 +7,7 @@
  */
 package org.dspace.eperson.factory;
 
+import org.dspace.eperson.GroupMembershipCache;
 import org.dspace.eperson.service.AccountService;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
@@ -35,6 +36,8 @@ public abstract class EPersonServiceFactory {
 
     public abstract SubscribeService getSubscribeService();
 
+    public abstract GroupMembershipCache getGroupMembershipCache();
+
     public static EPersonServiceFactory getInstance() {
         return DSpaceServicesFactory.getInstance().getServiceManager()
                                     .getServiceByName("ePersonServiceFactory", EPersonServiceFactory.class);
@@ -7,6 +7,7 @@
  */
 package org.dspace.eperson.factory;
 
+import org.dspace.eperson.GroupMembershipCache;
 import org.dspace.eperson.service.AccountService;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
@@ -35,6 +36,8 @@ public class EPersonServiceFactoryImpl extends EPersonServiceFactory {
     private AccountService accountService;
     @Autowired(required = true)
     private SubscribeService subscribeService;
+    @Autowired(required = true)
+    private GroupMembershipCache groupMembershipCache;
 
     @Override
     public EPersonService getEPersonService() {
@@ -61,6 +64,11 @@ public class EPersonServiceFactoryImpl extends EPersonServiceFactory {
         return subscribeService;
     }
 
+    @Override
+    public GroupMembershipCache getGroupMembershipCache() {
+        return groupMembershipCache;
+    }
+
     @Override
     public RegistrationDataMetadataService getRegistrationDAtaDataMetadataService() {
         return registrationDataMetadataService;
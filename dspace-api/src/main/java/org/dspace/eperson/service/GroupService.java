@@ -10,6 +10,7 @@ package org.dspace.eperson.service;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.MetadataField;
@@ -188,6 +189,19 @@ public interface GroupService extends DSpaceObjectService<Group>, DSpaceObjectLe
 
     Set<Group> allMemberGroupsSet(Context context, EPerson ePerson) throws SQLException;
 
+    /**
+     * Get the UUIDs of all the groups an eperson is a member of, the same groups as
+     * {@link #allMemberGroupsSet(Context, EPerson)}. Served from the shared
+     * {@link org.dspace.eperson.GroupMembershipCache} when it is enabled, so that
+     * membership checks become a set lookup.
+     *
+     * @param context DSpace context
+     * @param ePerson ePerson object, null for anonymous
+     * @return set of group UUIDs
+     * @throws SQLException if database error
+     */
+    Set<UUID> allMemberGroupIds(Context context, EPerson ePerson) throws SQLException;
+
     /**
      * Get all of the EPerson objects who are a member of the specified group, or a member of a subgroup of the
      * specified group, etc.
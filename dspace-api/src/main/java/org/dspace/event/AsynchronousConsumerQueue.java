@@ -0,0 +1,430 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Queue delivering the events of one asynchronous consumer on worker threads,
+ * see {@link AsynchronousDispatcher}. There is a single queue per consumer
+ * name in the JVM, shared by all the dispatchers.
+ * <P>
+ * The queue has {@code event.async.threads} lanes, each with its own worker
+ * thread, consumer instance and bounded queue of {@code event.async.queue-size}
+ * batches. The events of a transaction are split by subject object among the
+ * lanes, so that the events of an object are always delivered in order. Each
+ * batch is delivered with a new Context with the authorization system turned
+ * off, which is completed once the consumer's {@code end} method returned. A
+ * failed batch is delivered again up to {@code event.async.retries} times. As
+ * the consumer may hold the state of the events it already consumed, it is
+ * finished and replaced by a new instance after each failure.
+ * Submitting a batch to a full lane blocks until the lane has room again.
+ * <P>
+ * The statistics of the queues which were used since the previous report are
+ * logged every {@code event.async.statistics-interval} seconds, and the
+ * statistics of all the queues when they are shut down. The events of a batch
+ * which still fails after the last retry are dropped, which is logged as an
+ * error.
+ * <P>
+ * Batches still queued when the JVM stops are lost, unless the queues are
+ * drained first with {@link #shutdownAll(long)}, as the command line launcher
+ * does before exiting.
+ */
+public class AsynchronousConsumerQueue {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private static final Map<String, AsynchronousConsumerQueue> queues = new ConcurrentHashMap<>();
+
+    /** Periodic logging of the statistics, started with the first queue */
+    private static ScheduledExecutorService reporter;
+
+    private final String name;
+
+    private final Lane[] lanes;
+
+    private final int retries;
+
+    private final long retryDelay;
+
+    private volatile boolean closed = false;
+
+    private final AtomicLong submittedEvents = new AtomicLong();
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong retriedBatches = new AtomicLong();
+
+    /** Sum of the counters at the previous periodic report, to skip the queues unused since then */
+    private long reportedActivity = 0;
+
+    /**
+     * Get the queue of a consumer, creating it on first use.
+     *
+     * @param name the consumer name
+     * @return the queue of the consumer
+     */
+    public static AsynchronousConsumerQueue forConsumer(String name) {
+        return queues.computeIfAbsent(name, AsynchronousConsumerQueue::new);
+    }
+
+    private static synchronized void startReporter(long interval) {
+        if (reporter != null || interval <= 0) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "async-consumer-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleWithFixedDelay(AsynchronousConsumerQueue::reportActiveQueues, interval, interval,
+                                        TimeUnit.SECONDS);
+    }
+
+    /**
+     * Log the statistics of the queues used since the previous report.
+     */
+    private static void reportActiveQueues() {
+        for (AsynchronousConsumerQueue queue : queues.values()) {
+            long activity = queue.getSubmittedEvents() + queue.getProcessedEvents() + queue.getFailedEvents()
+                + queue.getRetriedBatches();
+            if (activity != queue.reportedActivity || queue.getPendingBatches() > 0) {
+                queue.reportedActivity = activity;
+                log.info(queue.getStatistics());
+            }
+        }
+    }
+
+    /**
+     * @return the queues created so far
+     */
+    public static Collection<AsynchronousConsumerQueue> getQueues() {
+        return queues.values();
+    }
+
+    /**
+     * Wait until all the queues are idle.
+     *
+     * @param timeout maximum time to wait, in milliseconds
+     * @return true if all the queues are idle, false if the timeout elapsed before
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static boolean awaitAll(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        for (AsynchronousConsumerQueue queue : queues.values()) {
+            for (Lane lane : queue.lanes) {
+                if (!lane.awaitIdle(deadline)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deliver the queued events and stop the worker threads. Batches submitted
+     * afterwards are delivered synchronously.
+     *
+     * @param timeout maximum time to wait for the queued events, in milliseconds
+     */
+    public static void shutdownAll(long timeout) {
+        for (AsynchronousConsumerQueue queue : queues.values()) {
+            queue.closed = true;
+        }
+        try {
+            if (!awaitAll(timeout)) {
+                log.warn("Asynchronous event consumers still busy after {} ms, pending events are lost", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (AsynchronousConsumerQueue queue : queues.values()) {
+            for (Lane lane : queue.lanes) {
+                lane.worker.interrupt();
+            }
+            log.info(queue.getStatistics());
+        }
+        synchronized (AsynchronousConsumerQueue.class) {
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+        }
+    }
+
+    private AsynchronousConsumerQueue(String name) {
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        this.name = name;
+        this.retries = Math.max(0, configurationService.getIntProperty("event.async.retries", 3));
+        this.retryDelay = Math.max(0, configurationService.getLongProperty("event.async.retry-delay", 1000));
+        int threads = Math.max(1, configurationService.getIntProperty("event.async.threads", 1));
+        int queueSize = Math.max(1, configurationService.getIntProperty("event.async.queue-size", 1000));
+
+        lanes = new Lane[threads];
+        for (int i = 0; i < threads; i++) {
+            try {
+                ConsumerProfile profile = ConsumerProfile.makeConsumerProfile(name);
+                profile.getConsumer().initialize();
+                lanes[i] = new Lane(profile.getConsumer(), queueSize, i);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to create the asynchronous consumer " + name, e);
+            }
+        }
+        for (Lane lane : lanes) {
+            lane.worker.start();
+        }
+        startReporter(configurationService.getLongProperty("event.async.statistics-interval", 300));
+    }
+
+    /**
+     * Queue the events of a committed transaction for delivery.
+     *
+     * @param events the events which passed the filters of the consumer, in dispatch order
+     */
+    public void submit(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        submittedEvents.addAndGet(events.size());
+
+        List<List<Event>> batches = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (Event event : events) {
+            int lane = Math.floorMod(Objects.hash(event.getSubjectType(), event.getSubjectID()), lanes.length);
+            batches.get(lane).add(event);
+        }
+
+        for (int i = 0; i < lanes.length; i++) {
+            if (!batches.get(i).isEmpty()) {
+                lanes[i].submit(batches.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the consumer name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of batches waiting or being delivered
+     */
+    public int getPendingBatches() {
+        int pending = 0;
+        for (Lane lane : lanes) {
+            pending += lane.pending.get();
+        }
+        return pending;
+    }
+
+    /**
+     * @return the number of events submitted to this queue
+     */
+    public long getSubmittedEvents() {
+        return submittedEvents.get();
+    }
+
+    /**
+     * @return the number of events successfully delivered
+     */
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    /**
+     * @return the number of events which couldn't be delivered after all the retries
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * @return the number of times a failed batch was delivered again
+     */
+    public long getRetriedBatches() {
+        return retriedBatches.get();
+    }
+
+    /**
+     * @return a summary of the counters of this queue, as logged
+     */
+    public String getStatistics() {
+        return String.format("Asynchronous consumer %s: %d events submitted, %d processed, %d dropped after "
+                                 + "failures, %d batches retried, %d batches pending",
+                             name, getSubmittedEvents(), getProcessedEvents(), getFailedEvents(),
+                             getRetriedBatches(), getPendingBatches());
+    }
+
+    /**
+     * A worker thread with its own consumer instance and queue.
+     */
+    private class Lane implements Runnable {
+        private Consumer consumer;
+        private final BlockingQueue<List<Event>> queue;
+        private final Thread worker;
+        /** Batches queued or being delivered */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Lane(Consumer consumer, int queueSize, int index) {
+            this.consumer = consumer;
+            this.queue = new LinkedBlockingQueue<>(queueSize);
+            this.worker = new Thread(this, "async-consumer-" + name + "-" + index);
+            this.worker.setDaemon(true);
+        }
+
+        void submit(List<Event> batch) {
+            if (closed) {
+                // Shutting down: deliver after the batches already queued, waiting for it. A separate thread is
+                // still used, the Hibernate session of the current thread belongs to the submitting context.
+                Thread thread = new Thread(() -> {
+                    synchronized (this) {
+                        deliver(batch);
+                    }
+                }, worker.getName() + "-shutdown");
+                try {
+                    awaitIdle(Long.MAX_VALUE);
+                    thread.start();
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            pending.incrementAndGet();
+            if (queue.offer(batch)) {
+                return;
+            }
+            log.warn("The queue of the asynchronous consumer {} is full, waiting for room", name);
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                pending.decrementAndGet();
+                Thread.currentThread().interrupt();
+                failedEvents.addAndGet(batch.size());
+                log.error("Interrupted while queuing {} events for the asynchronous consumer {}, they are lost",
+                          batch.size(), name);
+            }
+        }
+
+        boolean awaitIdle(long deadline) throws InterruptedException {
+            while (pending.get() > 0) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(50);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Event> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    synchronized (this) {
+                        deliver(batch);
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }
+
+        private void deliver(List<Event> batch) {
+            long start = System.currentTimeMillis();
+            for (int attempt = 0; ; attempt++) {
+                Context context = new Context();
+                try {
+                    context.turnOffAuthorisationSystem();
+                    for (Event event : batch) {
+                        consumer.consume(context, event);
+                    }
+                    consumer.end(context);
+                    context.complete();
+                    processedEvents.addAndGet(batch.size());
+                    log.debug("Asynchronous consumer {} processed {} events in {} ms", name, batch.size(),
+                              System.currentTimeMillis() - start);
+                    return;
+                } catch (Exception e) {
+                    if (context.isValid()) {
+                        context.abort();
+                    }
+                    resetConsumer();
+                    if (attempt >= retries) {
+                        long dropped = failedEvents.addAndGet(batch.size());
+                        log.error("Asynchronous consumer {} failed to process {} events after {} attempts, they "
+                                      + "are dropped ({} events dropped so far)",
+                                  name, batch.size(), attempt + 1, dropped, e);
+                        return;
+                    }
+                    retriedBatches.incrementAndGet();
+                    log.warn("Asynchronous consumer {} failed to process {} events, retrying",
+                             name, batch.size(), e);
+                    try {
+                        Thread.sleep(retryDelay * (attempt + 1));
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        long dropped = failedEvents.addAndGet(batch.size());
+                        log.error("Interrupted while retrying {} events of the asynchronous consumer {}, they are "
+                                      + "dropped ({} events dropped so far)", batch.size(), name, dropped);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finish the consumer after a failed batch, and replace it by a new instance, so that no state of the
+         * failed batch is carried over to the next delivery.
+         */
+        private void resetConsumer() {
+            Context context = new Context();
+            try {
+                consumer.finish(context);
+            } catch (Exception e) {
+                log.warn("Unable to finish the asynchronous consumer {}", name, e);
+            } finally {
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+            try {
+                Consumer newConsumer = ConsumerProfile.makeConsumerProfile(name).getConsumer();
+                newConsumer.initialize();
+                consumer = newConsumer;
+            } catch (Exception e) {
+                log.error("Unable to create a new asynchronous consumer {}, keeping the current one", name, e);
+            }
+        }
+    }
+}
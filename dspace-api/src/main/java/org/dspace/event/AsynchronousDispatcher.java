@@ -0,0 +1,62 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dspace.core.Context;
+
+/**
+ * Dispatcher delivering the events to the consumers declared safe for
+ * asynchronous delivery ({@code event.consumer.<name>.async = true}) on
+ * worker threads, see {@link AsynchronousConsumerQueue}. The events of such
+ * a consumer are collected while dispatching and handed over to its queue
+ * once the transaction has been committed, so that the committing thread
+ * doesn't wait on the consumer and the consumer sees the committed data.
+ * Events of a rolled back transaction are never delivered.
+ * <P>
+ * The other consumers are delivered synchronously, exactly like with the
+ * {@link BasicDispatcher}.
+ */
+public class AsynchronousDispatcher extends BasicDispatcher {
+
+    /**
+     * Events collected for the asynchronous consumers during the current dispatch, by consumer name
+     */
+    private final Map<String, List<Event>> pending = new HashMap<>();
+
+    public AsynchronousDispatcher(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) {
+        if (!cp.isAsynchronous()) {
+            super.consume(ctx, cp, event);
+            return;
+        }
+        pending.computeIfAbsent(cp.getName(), name -> new ArrayList<>()).add(event);
+        event.setBitSet(cp.getName());
+    }
+
+    @Override
+    protected void end(Context ctx, ConsumerProfile cp) {
+        if (!cp.isAsynchronous()) {
+            super.end(ctx, cp);
+            return;
+        }
+        List<Event> events = pending.remove(cp.getName());
+        if (events != null) {
+            AsynchronousConsumerQueue queue = AsynchronousConsumerQueue.forConsumer(cp.getName());
+            ctx.addPostCommitTask(() -> queue.submit(events));
+        }
+    }
+}
@@ -100,16 +100,7 @@ public class BasicDispatcher extends Dispatcher {
                                           + "\": " + event.toString());
                         }
 
-                        try {
-                            cp.getConsumer().consume(ctx, event);
-
-                            // Record that the event has been consumed by this
-                            // consumer
-                            event.setBitSet(cp.getName());
-                        } catch (Exception e) {
-                            log.error("Consumer(\"" + cp.getName()
-                                          + "\").consume threw: " + e.toString(), e);
-                        }
+                        consume(ctx, cp, event);
                     }
 
                 }
@@ -124,15 +115,45 @@ public class BasicDispatcher extends Dispatcher {
                                       + "\"");
                     }
 
-                    try {
-                        cp.getConsumer().end(ctx);
-                    } catch (Exception e) {
-                        log.error("Error in Consumer(\"" + cp.getName()
-                                      + "\").end: " + e.toString(), e);
-                    }
+                    end(ctx, cp);
                 }
             }
         }
     }
 
+    /**
+     * Deliver an event which passed the filters of a consumer.
+     *
+     * @param ctx   the execution context
+     * @param cp    the consumer profile
+     * @param event the event
+     */
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) {
+        try {
+            cp.getConsumer().consume(ctx, event);
+
+            // Record that the event has been consumed by this
+            // consumer
+            event.setBitSet(cp.getName());
+        } catch (Exception e) {
+            log.error("Consumer(\"" + cp.getName()
+                          + "\").consume threw: " + e.toString(), e);
+        }
+    }
+
+    /**
+     * Signal a consumer that all the events of the transaction have been delivered.
+     *
+     * @param ctx the execution context
+     * @param cp  the consumer profile
+     */
+    protected void end(Context ctx, ConsumerProfile cp) {
+        try {
+            cp.getConsumer().end(ctx);
+        } catch (Exception e) {
+            log.error("Error in Consumer(\"" + cp.getName()
+                          + "\").end: " + e.toString(), e);
+        }
+    }
+
 }
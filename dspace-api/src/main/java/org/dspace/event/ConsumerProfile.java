@@ -43,6 +43,11 @@ public class ConsumerProfile {
      */
     private List<int[]> filters;
 
+    /**
+     * Whether the consumer may receive its events asynchronously, see {@link AsynchronousDispatcher}
+     */
+    private boolean asynchronous;
+
     // Prefix of keys in DSpace Configuration.
     private static final String CONSUMER_PREFIX = "event.consumer.";
 
@@ -104,6 +109,8 @@ public class ConsumerProfile {
                 "No filters configured for consumer named: " + name);
         }
 
+        asynchronous = configurationService.getBooleanProperty(CONSUMER_PREFIX + name + ".async", false);
+
         consumer = Class.forName(className.trim())
                 .asSubclass(Consumer.class)
                 .getDeclaredConstructor().newInstance();
@@ -163,4 +170,12 @@ public class ConsumerProfile {
     public String getName() {
         return name;
     }
+
+    /**
+     * @return true if the consumer is declared safe for asynchronous delivery
+     *         ({@code event.consumer.<name>.async = true})
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
 }
@@ -13,10 +13,14 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.DSpaceObject;
@@ -339,6 +343,52 @@ public class Event implements Serializable {
                                     .toHashCode();
     }
 
+    /**
+     * Whether an event fired later in the same transaction is redundant with
+     * this one and can be merged into it, see {@link #coalesce(Event)}: it is
+     * a modification of the same subject (and object), either of its metadata
+     * or with the same detail.
+     *
+     * @param other an event fired after this one
+     * @return true if the other event can be merged into this one
+     */
+    public boolean canCoalesce(Event other) {
+        if (eventType != other.eventType
+            || subjectType != other.subjectType || !Objects.equals(subjectID, other.subjectID)
+            || objectType != other.objectType || !Objects.equals(objectID, other.objectID)) {
+            return false;
+        }
+        // The detail of metadata modifications is the list of fields, that of other modifications has a meaning
+        return eventType == MODIFY_METADATA || (eventType == MODIFY && Objects.equals(detail, other.detail));
+    }
+
+    /**
+     * Merge a redundant event into this one, keeping the union of their
+     * details (comma separated lists of metadata fields) and identifiers.
+     *
+     * @param other an event for which {@link #canCoalesce(Event)} is true
+     */
+    public void coalesce(Event other) {
+        if (!Objects.equals(detail, other.detail)) {
+            Set<String> details = new LinkedHashSet<>();
+            for (String d : new String[] {detail, other.detail}) {
+                if (d != null) {
+                    for (String part : d.split(",")) {
+                        if (StringUtils.isNotBlank(part)) {
+                            details.add(part.trim());
+                        }
+                    }
+                }
+            }
+            detail = details.isEmpty() ? null : String.join(", ", details);
+        }
+        for (String identifier : other.identifiers) {
+            if (!identifiers.contains(identifier)) {
+                identifiers.add(identifier);
+            }
+        }
+    }
+
     /**
      * Set the identifier of the dispatcher that first processed this event.
      *
@@ -626,7 +676,11 @@ public class Event implements Serializable {
      * @param consumerName name of consumer which has consumed the event
      */
     public void setBitSet(String consumerName) {
-        consumedBy.set(EventServiceFactory.getInstance().getEventService().getConsumerIndex(consumerName));
+        int index = EventServiceFactory.getInstance().getEventService().getConsumerIndex(consumerName);
+        // Consumers configured after the event service was initialized have no index
+        if (index >= 0) {
+            consumedBy.set(index);
+        }
     }
 
     /**
@@ -23,6 +23,7 @@ import net.handle.hdllib.ScanCallback;
 import net.handle.hdllib.Util;
 import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
+import org.dspace.handle.HandleResolutionCache.Resolution;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
 import org.dspace.servicemanager.DSpaceKernelImpl;
@@ -62,6 +63,7 @@ public class HandlePlugin implements HandleStorage {
      * References to DSpace Services
      **/
     protected HandleService handleService;
+    protected HandleResolutionCache handleResolutionCache;
     protected ConfigurationService configurationService;
 
     ////////////////////////////////////////
@@ -105,6 +107,7 @@ public class HandlePlugin implements HandleStorage {
 
         // Get a reference to the HandleService & ConfigurationService
         handleService = HandleServiceFactory.getInstance().getHandleService();
+        handleResolutionCache = HandleServiceFactory.getInstance().getHandleResolutionCache();
         configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
     }
 
@@ -190,6 +193,11 @@ public class HandlePlugin implements HandleStorage {
             log.info("Called shutdown (Destroying DSpace Kernel)");
         }
 
+        if (handleResolutionCache != null) {
+            log.info("Handle resolution cache: {}, {} invalidations", handleResolutionCache.getStats(),
+                     handleResolutionCache.getInvalidationCount());
+        }
+
         // Destroy the DSpace kernel if it is still alive
         if (kernelImpl != null) {
             kernelImpl.destroy();
@@ -250,9 +258,15 @@ public class HandlePlugin implements HandleStorage {
 
             String handle = Util.decodeString(theHandle);
 
-            context = new Context();
-
-            String url = handleService.resolveToURL(context, handle);
+            // Most resolutions are answered from the shared cache, without opening a context
+            String url;
+            Resolution resolution = handleResolutionCache.get(handle);
+            if (resolution != null) {
+                url = resolution.url();
+            } else {
+                context = new Context(Context.Mode.READ_ONLY);
+                url = handleService.resolveToURL(context, handle);
+            }
 
             if (url == null) {
                 return null;
@@ -0,0 +1,255 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.handle;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Application wide cache of handle resolutions: for each handle looked up,
+ * the UUID and type of the object it is bound to and its URL, or the fact
+ * that the handle doesn't exist (negative caching). It lets the
+ * {@link HandleServiceImpl} and the {@link HandlePlugin} answer the common
+ * resolutions without querying the database.
+ * <P>
+ * All changes to handles go through the {@link HandleServiceImpl}, which
+ * invalidates the handles it creates, binds or unbinds, and the whole cache
+ * when a prefix is updated, once the transaction has been committed. Contexts
+ * holding uncommitted changes never read from nor write to this cache. Entries
+ * also expire after a configurable time to live, which bounds staleness in
+ * multi-node setups and in the handle server, which runs in its own JVM and
+ * isn't reached by the invalidations of the web application. Handles which
+ * don't exist are kept for a shorter time, as they are usually looked up
+ * again once they have been registered, possibly by another JVM.
+ * <P>
+ * See {@code handle.resolution-cache.*} in dspace.cfg.
+ */
+public class HandleResolutionCache implements InitializingBean {
+
+    /**
+     * Resolution of a handle.
+     *
+     * @param exists         false if the handle is unknown
+     * @param dsoId          UUID of the object the handle is bound to, null if unknown or unbound
+     * @param resourceTypeId type of the object the handle is (or was) bound to, null if unknown
+     * @param url            URL of the handle, null if unknown
+     */
+    public record Resolution(boolean exists, UUID dsoId, Integer resourceTypeId, String url) {
+        /**
+         * Resolution of the handles which don't exist
+         */
+        public static final Resolution NOT_FOUND = new Resolution(false, null, null, null);
+
+        /**
+         * @return true if the handle is bound to an object
+         */
+        public boolean isBound() {
+            return exists && dsoId != null && resourceTypeId != null;
+        }
+    }
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private Cache<String, Resolution> cache;
+
+    /**
+     * Handles which don't exist, kept for a shorter time than the other resolutions
+     */
+    private Cache<String, Resolution> notFoundCache;
+
+    /**
+     * Number of explicit invalidations, which Guava doesn't count as evictions
+     */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * Incremented on every invalidation. A resolution is only stored if no
+     * invalidation happened while it was loaded, so that a resolution read
+     * before a commit can't be cached after its invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private boolean enabled;
+
+    protected HandleResolutionCache() {
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        enabled = configurationService.getBooleanProperty("handle.resolution-cache.enabled", true);
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(configurationService.getLongProperty("handle.resolution-cache.size",
+                                                                              100000))
+                            .expireAfterWrite(configurationService.getLongProperty("handle.resolution-cache.ttl",
+                                                                                   3600),
+                                              TimeUnit.SECONDS)
+                            .recordStats()
+                            .build();
+        notFoundCache = CacheBuilder.newBuilder()
+                                    .maximumSize(configurationService.getLongProperty(
+                                        "handle.resolution-cache.size", 100000))
+                                    .expireAfterWrite(configurationService.getLongProperty(
+                                        "handle.resolution-cache.not-found-ttl", 60), TimeUnit.SECONDS)
+                                    .recordStats()
+                                    .build();
+    }
+
+    /**
+     * @return true if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A context may only use the shared resolutions if it doesn't hold changes
+     * which aren't committed yet.
+     *
+     * @param context current context
+     * @return true if the given context may read from and write to this cache
+     */
+    public boolean canUse(Context context) {
+        return enabled && !context.hasEvents() && !context.hasPostCommitTasks();
+    }
+
+    /**
+     * Look up the resolution of a handle.
+     *
+     * @param context current context
+     * @param handle  the handle
+     * @return the resolution, or null if unknown or the context can't use the cache
+     */
+    public Resolution get(Context context, String handle) {
+        if (handle == null || !canUse(context)) {
+            return null;
+        }
+        return lookup(handle);
+    }
+
+    /**
+     * Look up the resolution of a handle outside of any context, e.g. before
+     * opening one to resolve it from the database.
+     *
+     * @param handle the handle
+     * @return the resolution, or null if unknown or the cache is disabled
+     */
+    public Resolution get(String handle) {
+        if (handle == null || !enabled) {
+            return null;
+        }
+        return lookup(handle);
+    }
+
+    private Resolution lookup(String handle) {
+        Resolution resolution = cache.getIfPresent(handle);
+        return resolution != null ? resolution : notFoundCache.getIfPresent(handle);
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put(Context, String, Resolution, long)}
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Store the resolution of a handle, unless the cache was invalidated since {@code startGeneration}.
+     *
+     * @param context         current context
+     * @param handle          the handle
+     * @param resolution      its resolution
+     * @param startGeneration value of {@link #getGeneration()} before the handle was looked up
+     */
+    public void put(Context context, String handle, Resolution resolution, long startGeneration) {
+        if (handle == null || !canUse(context) || generation.get() != startGeneration) {
+            return;
+        }
+        Cache<String, Resolution> target = resolution.exists() ? cache : notFoundCache;
+        target.put(handle, resolution);
+        // An invalidation may have happened while we were writing
+        if (generation.get() != startGeneration) {
+            target.invalidate(handle);
+        }
+    }
+
+    /**
+     * Evict the resolution of a handle once the current transaction is
+     * committed.
+     *
+     * @param context current context
+     * @param handle  the handle
+     */
+    public void invalidateAfterCommit(Context context, String handle) {
+        if (handle != null) {
+            context.addPostCommitTask(() -> invalidate(handle));
+        }
+    }
+
+    /**
+     * Evict all resolutions once the current transaction is committed.
+     *
+     * @param context current context
+     */
+    public void invalidateAllAfterCommit(Context context) {
+        context.addPostCommitTask(this::invalidateAll);
+    }
+
+    /**
+     * Evict the resolution of a handle.
+     *
+     * @param handle the handle
+     */
+    public void invalidate(String handle) {
+        generation.incrementAndGet();
+        invalidationCount.incrementAndGet();
+        cache.invalidate(handle);
+        notFoundCache.invalidate(handle);
+    }
+
+    /**
+     * Evict all resolutions.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidationCount.incrementAndGet();
+        cache.invalidateAll();
+        notFoundCache.invalidateAll();
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of this cache. Evictions only count the resolutions evicted
+     * because of the size or time to live of the cache, see {@link #getInvalidationCount()}.
+     */
+    public CacheStats getStats() {
+        return cache.stats().plus(notFoundCache.stats());
+    }
+
+    /**
+     * @return the number of calls to {@link #invalidate(String)} and {@link #invalidateAll()}
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    /**
+     * @return the number of cached resolutions
+     */
+    public long size() {
+        return cache.size() + notFoundCache.size();
+    }
+}
@@ -19,9 +19,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.DSpaceObject;
+import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.SiteService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.handle.HandleResolutionCache.Resolution;
 import org.dspace.handle.dao.HandleDAO;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
@@ -59,6 +61,9 @@ public class HandleServiceImpl implements HandleService {
     @Autowired
     protected SiteService siteService;
 
+    @Autowired(required = true)
+    protected HandleResolutionCache handleResolutionCache;
+
     private static final Pattern[] IDENTIFIER_PATTERNS = {
         Pattern.compile("^hdl:(.*)$"),
         Pattern.compile("^info:hdl/(.*)$"),
@@ -75,14 +80,7 @@ public class HandleServiceImpl implements HandleService {
     @Override
     public String resolveToURL(Context context, String handle)
         throws SQLException {
-        Handle dbhandle = findHandleInternal(context, handle);
-
-        if (dbhandle == null) {
-            return null;
-        }
-
-        String url = configurationService.getProperty("dspace.ui.url")
-            + "/handle/" + handle;
+        String url = resolve(context, handle).url();
 
         log.debug("Resolved {} to {}", handle, url);
 
@@ -114,9 +112,7 @@ public class HandleServiceImpl implements HandleService {
         while (handle.startsWith("/")) {
             handle = handle.substring(1);
         }
-        Handle dbhandle = findHandleInternal(context, handle);
-
-        return (null == dbhandle) ? null : handle;
+        return resolve(context, handle).exists() ? handle : null;
     }
 
     @Override
@@ -146,6 +142,7 @@ public class HandleServiceImpl implements HandleService {
         dso.addHandle(handle);
         handle.setResourceTypeId(dso.getType());
         handleDAO.save(context, handle);
+        handleResolutionCache.invalidateAfterCommit(context, handleId);
 
         log.debug("Created new handle for {} (ID={}) {}",
             () -> Constants.typeText[dso.getType()],
@@ -200,6 +197,7 @@ public class HandleServiceImpl implements HandleService {
         handle.setDSpaceObject(dso);
         dso.addHandle(handle);
         handleDAO.save(context, handle);
+        handleResolutionCache.invalidateAfterCommit(context, suppliedHandle);
 
         log.debug("Created new handle for {} (ID={}) {}",
             () -> Constants.typeText[dso.getType()],
@@ -225,6 +223,7 @@ public class HandleServiceImpl implements HandleService {
 
 
                 handleDAO.save(context, handle);
+                handleResolutionCache.invalidateAfterCommit(context, handle.getHandle());
 
                 log.debug("Unbound Handle {} from object {} id={}",
                     () -> handle.getHandle(),
@@ -241,7 +240,22 @@ public class HandleServiceImpl implements HandleService {
     @Override
     public DSpaceObject resolveToObject(Context context, String handle)
         throws IllegalStateException, SQLException {
-        Handle dbhandle = findHandleInternal(context, handle);
+        Resolution resolution = handleResolutionCache.get(context, handle);
+        if (resolution != null) {
+            if (!resolution.isBound()) {
+                return null;
+            }
+            DSpaceObject dso = ContentServiceFactory.getInstance()
+                                                    .getDSpaceObjectService(resolution.resourceTypeId())
+                                                    .find(context, resolution.dsoId());
+            if (dso != null) {
+                return dso;
+            }
+            // The object is gone: resolve the handle from the database again
+            handleResolutionCache.invalidate(handle);
+        }
+
+        Handle dbhandle = findAndCacheHandle(context, handle);
         // check if handle was allocated previously, but is currently not
         // associated with a DSpaceObject
         // (this may occur when 'unbindHandle()' is called for an obj that was removed)
@@ -304,6 +318,7 @@ public class HandleServiceImpl implements HandleService {
 
     @Override
     public int updateHandlesWithNewPrefix(Context context, String newPrefix, String oldPrefix) throws SQLException {
+        handleResolutionCache.invalidateAllAfterCommit(context);
         return handleDAO.updateHandlesWithNewPrefix(context, newPrefix, oldPrefix);
     }
 
@@ -322,6 +337,7 @@ public class HandleServiceImpl implements HandleService {
             dbHandle.setResourceTypeId(newOwner.getType());
             newOwner.getHandles().add(0, dbHandle);
             handleDAO.save(context, dbHandle);
+            handleResolutionCache.invalidateAfterCommit(context, handle);
         }
 
     }
@@ -346,6 +362,48 @@ public class HandleServiceImpl implements HandleService {
         return handleDAO.findByHandle(context, handle);
     }
 
+    /**
+     * Resolve a handle from the shared {@link HandleResolutionCache} if possible,
+     * from the database otherwise.
+     *
+     * @param context DSpace context
+     * @param handle  The handle to resolve
+     * @return The resolution of the handle, {@link Resolution#NOT_FOUND} if it doesn't exist
+     * @throws SQLException If a database error occurs
+     */
+    protected Resolution resolve(Context context, String handle) throws SQLException {
+        Resolution resolution = handleResolutionCache.get(context, handle);
+        if (resolution == null) {
+            resolution = toResolution(handle, findAndCacheHandle(context, handle));
+        }
+        return resolution;
+    }
+
+    /**
+     * Find the database row corresponding to handle, and share its resolution
+     * in the {@link HandleResolutionCache}.
+     *
+     * @param context DSpace context
+     * @param handle  The handle to resolve
+     * @return The database row corresponding to the handle
+     * @throws SQLException If a database error occurs
+     */
+    protected Handle findAndCacheHandle(Context context, String handle) throws SQLException {
+        long generation = handleResolutionCache.getGeneration();
+        Handle dbhandle = findHandleInternal(context, handle);
+        handleResolutionCache.put(context, handle, toResolution(handle, dbhandle), generation);
+        return dbhandle;
+    }
+
+    private Resolution toResolution(String handle, Handle dbhandle) {
+        if (dbhandle == null) {
+            return Resolution.NOT_FOUND;
+        }
+        DSpaceObject dso = dbhandle.getDSpaceObject();
+        return new Resolution(true, dso == null ? null : dso.getID(), dbhandle.getResourceTypeId(),
+                              configurationService.getProperty("dspace.ui.url") + "/handle/" + handle);
+    }
+
     /**
      * Create/mint a new handle id.
      *
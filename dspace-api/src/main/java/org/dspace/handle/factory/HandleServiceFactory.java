@@ -7,6 +7,7 @@
  */
 package org.dspace.handle.factory;
 
+import org.dspace.handle.HandleResolutionCache;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 
@@ -20,6 +21,8 @@ public abstract class HandleServiceFactory {
 
     public abstract HandleService getHandleService();
 
+    public abstract HandleResolutionCache getHandleResolutionCache();
+
     public static HandleServiceFactory getInstance() {
         return DSpaceServicesFactory.getInstance().getServiceManager()
                                     .getServiceByName("handleServiceFactory", HandleServiceFactory.class);
@@ -7,6 +7,7 @@
  */
 package org.dspace.handle.factory;
 
+import org.dspace.handle.HandleResolutionCache;
 import org.dspace.handle.service.HandleService;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -21,8 +22,16 @@ public class HandleServiceFactoryImpl extends HandleServiceFactory {
     @Autowired(required = true)
     private HandleService handleService;
 
+    @Autowired(required = true)
+    private HandleResolutionCache handleResolutionCache;
+
     @Override
     public HandleService getHandleService() {
         return handleService;
     }
+
+    @Override
+    public HandleResolutionCache getHandleResolutionCache() {
+        return handleResolutionCache;
+    }
 }
@@ -0,0 +1,174 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded, thread-safe cache of the DNS and GeoIP information resolved for a
+ * client IP address when a usage event is logged. Crawlers and harvesters
+ * typically send bursts of requests from a handful of addresses, so caching
+ * the lookup result avoids resolving the same address over and over again.
+ * <P>
+ * Entries expire after a configurable time to live, and the cache records
+ * hit/miss/eviction statistics which are periodically written to the log.
+ */
+public class GeoIpLookupCache {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /** Number of lookups between two statistics log messages. */
+    private static final long STATS_LOG_INTERVAL = 10000;
+
+    private final Cache<String, IpLookup> cache;
+
+    private long lookups = 0;
+
+    /**
+     * @param maxSize    maximum number of IP addresses to keep in the cache.
+     * @param ttlSeconds number of seconds a resolved address is kept.
+     */
+    public GeoIpLookupCache(long maxSize, long ttlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                 .recordStats()
+                                 .build();
+    }
+
+    /**
+     * Return the cached lookup for the given address, resolving (and caching)
+     * it with the given loader on a miss. Failed lookups are cached as well,
+     * as a result without DNS name or location.
+     *
+     * @param ip     the client IP address.
+     * @param loader resolves the address when it is not cached.
+     * @return the lookup result, never null.
+     */
+    public IpLookup get(String ip, Callable<IpLookup> loader) {
+        logStatistics();
+        try {
+            return cache.get(ip, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            log.warn("Unable to resolve IP address {}: {}", ip, e.getMessage());
+            return IpLookup.EMPTY;
+        }
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of this cache.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the number of addresses currently cached.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all the cached addresses, e.g. after the GeoIP database has
+     * been updated.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private void logStatistics() {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        boolean logNow;
+        synchronized (this) {
+            logNow = ++lookups % STATS_LOG_INTERVAL == 0;
+        }
+        if (logNow) {
+            CacheStats stats = cache.stats();
+            log.debug("GeoIP lookup cache: size={}, hitRate={}, hits={}, misses={}, evictions={}",
+                      cache.size(), stats.hitRate(), stats.hitCount(), stats.missCount(),
+                      stats.evictionCount());
+        }
+    }
+
+    /**
+     * Immutable result of resolving a single IP address.
+     */
+    public static class IpLookup {
+
+        /** Result of an address which could not be resolved at all. */
+        public static final IpLookup EMPTY = new IpLookup(null, null, null, null, null, null);
+
+        private final String dns;
+        private final String continentCode;
+        private final String countryCode;
+        private final String city;
+        private final Double latitude;
+        private final Double longitude;
+
+        public IpLookup(String dns, String continentCode, String countryCode, String city,
+                        Double latitude, Double longitude) {
+            this.dns = dns;
+            this.continentCode = continentCode;
+            this.countryCode = countryCode;
+            this.city = city;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        /**
+         * @return a copy of this lookup carrying the given location information.
+         */
+        public IpLookup withLocation(String continentCode, String countryCode, String city,
+                                     Double latitude, Double longitude) {
+            return new IpLookup(dns, continentCode, countryCode, city, latitude, longitude);
+        }
+
+        public String getDns() {
+            return dns;
+        }
+
+        public String getContinentCode() {
+            return continentCode;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        /**
+         * @return true if the GeoIP database returned a valid location.
+         */
+        public boolean hasLocation() {
+            return latitude != null && longitude != null;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.Reader;
 import com.maxmind.geoip2.DatabaseReader;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.services.ConfigurationService;
@@ -29,7 +31,10 @@ public class GeoIpService {
 
     /**
      * Returns an instance of {@link DatabaseReader} based on the configured db
-     * file, if any.
+     * file, if any. The file is memory-mapped by default; set
+     * {@code usage-statistics.dbfile.mode = MEMORY} to load it on the heap
+     * instead. Decoded database nodes are cached unless
+     * {@code usage-statistics.dbfile.node-cache} is disabled.
      *
      * @return                       the Database reader
      * @throws IllegalStateException if the db file is not configured correctly
@@ -42,7 +47,11 @@ public class GeoIpService {
 
         try {
             File dbFile = new File(dbPath);
-            return new DatabaseReader.Builder(dbFile).build();
+            DatabaseReader.Builder builder = new DatabaseReader.Builder(dbFile).fileMode(getFileMode());
+            if (configurationService.getBooleanProperty("usage-statistics.dbfile.node-cache", true)) {
+                builder = builder.withCache(new CHMCache());
+            }
+            return builder.build();
         } catch (FileNotFoundException fe) {
             throw new IllegalStateException(
                 "The GeoLite Database file is missing (" + dbPath + ")! Solr Statistics cannot generate location " +
@@ -54,4 +63,15 @@ public class GeoIpService {
                     "DSpace installation instructions for more details.", e);
         }
     }
+
+    private Reader.FileMode getFileMode() {
+        String mode = configurationService.getProperty("usage-statistics.dbfile.mode",
+                                                       Reader.FileMode.MEMORY_MAPPED.name());
+        try {
+            return Reader.FileMode.valueOf(StringUtils.upperCase(StringUtils.trim(mode)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid usage-statistics.dbfile.mode '" + mode
+                                                + "', expected MEMORY_MAPPED or MEMORY", e);
+        }
+    }
 }
@@ -128,6 +128,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     protected DatabaseReader locationService;
 
+    /** Cache of resolved client addresses, null when caching is disabled. */
+    protected GeoIpLookupCache ipLookupCache;
+
     protected boolean useProxies;
 
     private static final List<String> statisticYearCores = new ArrayList<>();
@@ -204,6 +207,12 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.error(ex);
         }
         locationService = service;
+
+        if (configurationService.getBooleanProperty("usage-statistics.lookup-cache.enabled", true)) {
+            ipLookupCache = new GeoIpLookupCache(
+                configurationService.getLongProperty("usage-statistics.lookup-cache.size", 10000),
+                configurationService.getLongProperty("usage-statistics.lookup-cache.ttl", 3600));
+        }
     }
 
     @Override
@@ -370,54 +379,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 doc1.addField("referrer", request.getHeader("referer"));
             }
 
-            InetAddress ipAddress = null;
-            try {
-                String dns;
-                if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                    ipAddress = InetAddress.getByName(ip);
-                    dns = ipAddress.getHostName();
-                } else {
-                    dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-                }
-                doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-            } catch (UnknownHostException e) {
-                log.info("Failed DNS Lookup for IP:  {}", ip);
-                log.debug(e.getMessage(), e);
-            }
+            addIpLookupFields(doc1, ip);
             if (request.getHeader("User-Agent") != null) {
                 doc1.addField("userAgent", request.getHeader("User-Agent"));
             }
             doc1.addField("isBot", isSpiderBot);
-            // Save the location information if valid, save the event without
-            // location information if not valid
-            if (locationService != null && ipAddress != null) {
-                try {
-                    CityResponse location = locationService.city(ipAddress);
-                    String countryCode = location.getCountry().getIsoCode();
-                    double latitude = location.getLocation().getLatitude();
-                    double longitude = location.getLocation().getLongitude();
-                    if (!(
-                            "--".equals(countryCode)
-                            && latitude == -180
-                            && longitude == -180)
-                    ) {
-                        try {
-                            doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
-                        } catch (Exception e) {
-                            log.warn("Failed to load country/continent table: {}", countryCode);
-                        }
-                        doc1.addField("countryCode", countryCode);
-                        doc1.addField("city", location.getCity().getName());
-                        doc1.addField("latitude", latitude);
-                        doc1.addField("longitude", longitude);
-                    }
-                } catch (IOException e) {
-                    log.warn("GeoIP lookup failed.", e);
-                } catch (GeoIp2Exception e) {
-                    log.info("Unable to get location of request: {}", e.getMessage());
-                }
-            }
         }
 
         if (dspaceObject != null) {
@@ -462,26 +428,85 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("referrer", referrer);
         }
 
-        InetAddress ipAddress = null;
-        try {
-            String dns;
-            if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                ipAddress = InetAddress.getByName(ip);
-                dns = ipAddress.getHostName();
-            } else {
-                dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-            }
-            doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-        } catch (UnknownHostException e) {
-            log.info("Failed DNS Lookup for IP:  {}", ip);
-            log.debug(e.getMessage(), e);
-        }
+        addIpLookupFields(doc1, ip);
         if (userAgent != null) {
             doc1.addField("userAgent", userAgent);
         }
         doc1.addField("isBot", isSpiderBot);
+
+        if (dspaceObject != null) {
+            doc1.addField("id", dspaceObject.getID().toString());
+            doc1.addField("type", dspaceObject.getType());
+            storeParents(doc1, dspaceObject);
+        }
+        // Save the current time
+        doc1.addField("time", Instant.now().toString());
+        if (currentUser != null) {
+            doc1.addField("epersonid", currentUser.getID().toString());
+        }
+
+        return doc1;
+    }
+
+    /**
+     * Add the DNS name and, if a GeoIP database is available, the location
+     * of the given client address to the usage event document. Lookups are
+     * served from the {@link GeoIpLookupCache} when it is enabled.
+     *
+     * @param doc1 the usage event document.
+     * @param ip   the client IP address.
+     */
+    protected void addIpLookupFields(SolrInputDocument doc1, String ip) {
+        if (configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
+            String dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
+            doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
+            return;
+        }
+
+        GeoIpLookupCache.IpLookup lookup;
+        if (ipLookupCache != null) {
+            lookup = ipLookupCache.get(ip, () -> lookupIp(ip));
+        } else {
+            lookup = lookupIp(ip);
+        }
+
+        if (lookup.getDns() != null) {
+            doc1.addField("dns", lookup.getDns());
+        }
         // Save the location information if valid, save the event without
         // location information if not valid
+        if (lookup.hasLocation()) {
+            if (lookup.getContinentCode() != null) {
+                doc1.addField("continent", lookup.getContinentCode());
+            }
+            doc1.addField("countryCode", lookup.getCountryCode());
+            doc1.addField("city", lookup.getCity());
+            doc1.addField("latitude", lookup.getLatitude());
+            doc1.addField("longitude", lookup.getLongitude());
+        }
+    }
+
+    /**
+     * Resolve the DNS name and GeoIP location of a client address, without
+     * any caching.
+     *
+     * @param ip the client IP address.
+     * @return the lookup result, without DNS name or location if the address
+     *         could not be resolved.
+     */
+    protected GeoIpLookupCache.IpLookup lookupIp(String ip) {
+        InetAddress ipAddress;
+        GeoIpLookupCache.IpLookup lookup;
+        try {
+            ipAddress = InetAddress.getByName(ip);
+            lookup = new GeoIpLookupCache.IpLookup(ipAddress.getHostName().toLowerCase(Locale.ROOT),
+                                                   null, null, null, null, null);
+        } catch (UnknownHostException e) {
+            log.info("Failed DNS Lookup for IP:  {}", ip);
+            log.debug(e.getMessage(), e);
+            return GeoIpLookupCache.IpLookup.EMPTY;
+        }
+
         if (locationService != null) {
             try {
                 CityResponse location = locationService.city(ipAddress);
@@ -490,20 +515,17 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 double longitude = location.getLocation().getLongitude();
                 if (!(
                         "--".equals(countryCode)
-                                && latitude == -180
-                                && longitude == -180)
+                        && latitude == -180
+                        && longitude == -180)
                 ) {
+                    String continentCode = null;
                     try {
-                        doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
+                        continentCode = LocationUtils.getContinentCode(countryCode);
                     } catch (Exception e) {
-                        System.out
-                                .println("COUNTRY ERROR: " + countryCode);
+                        log.warn("Failed to load country/continent table: {}", countryCode);
                     }
-                    doc1.addField("countryCode", countryCode);
-                    doc1.addField("city", location.getCity().getName());
-                    doc1.addField("latitude", latitude);
-                    doc1.addField("longitude", longitude);
+                    lookup = lookup.withLocation(continentCode, countryCode, location.getCity().getName(),
+                                                 latitude, longitude);
                 }
             } catch (IOException e) {
                 log.warn("GeoIP lookup failed.", e);
@@ -511,19 +533,14 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 log.info("Unable to get location of request: {}", e.getMessage());
             }
         }
+        return lookup;
+    }
 
-        if (dspaceObject != null) {
-            doc1.addField("id", dspaceObject.getID().toString());
-            doc1.addField("type", dspaceObject.getType());
-            storeParents(doc1, dspaceObject);
-        }
-        // Save the current time
-        doc1.addField("time", Instant.now().toString());
-        if (currentUser != null) {
-            doc1.addField("epersonid", currentUser.getID().toString());
-        }
-
-        return doc1;
+    /**
+     * @return the cache of resolved client addresses, or null if disabled.
+     */
+    public GeoIpLookupCache getIpLookupCache() {
+        return ipLookupCache;
     }
 
 
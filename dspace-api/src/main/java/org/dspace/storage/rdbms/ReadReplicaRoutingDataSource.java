@@ -0,0 +1,224 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource used by Hibernate, which hands out connections to a read-only
+ * replica of the database for the transactions of READ_ONLY contexts, and
+ * connections to the primary database (the wrapped DataSource) otherwise.
+ * See {@link org.dspace.core.HibernateDBConnection}.
+ * <P>
+ * The replica is only used when {@code db.replica.url} is configured. Its
+ * replication lag is checked every {@code db.replica.lag-check-interval}
+ * seconds with the {@code db.replica.lag-query}; while the lag exceeds
+ * {@code db.replica.max-lag} seconds, or the replica can't be reached, the
+ * primary database is used instead.
+ */
+public class ReadReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Default lag query for PostgreSQL: seconds since the last replayed transaction, 0 on a primary server
+     */
+    private static final String DEFAULT_LAG_QUERY =
+        "SELECT CASE WHEN pg_is_in_recovery() "
+            + "THEN COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0) ELSE 0 END";
+
+    /**
+     * Whether the connections requested by the current thread should come from the replica
+     */
+    private static final ThreadLocal<Boolean> routeToReplica = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Whether the last connection handed out to the current thread came from the replica
+     */
+    private static final ThreadLocal<Boolean> lastFromReplica = ThreadLocal.withInitial(() -> false);
+
+    private volatile DataSource replica;
+
+    private long maxLag;
+
+    private long lagCheckInterval;
+
+    private String lagQuery;
+
+    private volatile boolean replicaUsable = false;
+
+    private volatile long nextLagCheck = 0;
+
+    private final ReentrantLock lagCheckLock = new ReentrantLock();
+
+    /**
+     * @param primary DataSource of the primary database
+     */
+    public ReadReplicaRoutingDataSource(DataSource primary) {
+        super(primary);
+    }
+
+    /**
+     * @param primary          DataSource of the primary database
+     * @param replica          DataSource of the replica
+     * @param maxLag           maximum replication lag, in seconds
+     * @param lagCheckInterval interval between two lag checks, in milliseconds
+     * @param lagQuery         query returning the replication lag, in seconds
+     */
+    ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLag, long lagCheckInterval,
+                                 String lagQuery) {
+        super(primary);
+        setReplica(replica, maxLag, lagCheckInterval, lagQuery);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        String url = configurationService.getProperty("db.replica.url");
+        if (StringUtils.isBlank(url)) {
+            return;
+        }
+        BasicDataSource pool = new BasicDataSource();
+        pool.setDriverClassName(configurationService.getProperty("db.driver"));
+        pool.setUrl(url);
+        pool.setUsername(configurationService.getProperty("db.replica.username",
+                                                          configurationService.getProperty("db.username")));
+        pool.setPassword(configurationService.getProperty("db.replica.password",
+                                                          configurationService.getProperty("db.password")));
+        pool.setMaxTotal(configurationService.getIntProperty("db.replica.maxconnections",
+                                                             configurationService.getIntProperty(
+                                                                 "db.maxconnections", 30)));
+        pool.setMaxWaitMillis(configurationService.getLongProperty("db.maxwait", 10000));
+        pool.setMaxIdle(configurationService.getIntProperty("db.maxidle", 10));
+        pool.setDefaultReadOnly(true);
+
+        setReplica(pool, configurationService.getLongProperty("db.replica.max-lag", 30),
+                   configurationService.getLongProperty("db.replica.lag-check-interval", 10) * 1000,
+                   configurationService.getProperty("db.replica.lag-query", DEFAULT_LAG_QUERY));
+        log.info("Read-only transactions are routed to the database replica {}", url);
+    }
+
+    /**
+     * Replace the replica, whose lag is checked again on the next read-only transaction.
+     *
+     * @param replica          DataSource of the replica, null to use the primary database only
+     * @param maxLag           maximum replication lag, in seconds
+     * @param lagCheckInterval interval between two lag checks, in milliseconds
+     * @param lagQuery         query returning the replication lag, in seconds
+     */
+    void setReplica(DataSource replica, long maxLag, long lagCheckInterval, String lagQuery) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagCheckInterval = lagCheckInterval;
+        this.lagQuery = lagQuery;
+        this.replicaUsable = false;
+        this.nextLagCheck = 0;
+    }
+
+    /**
+     * Request connections from the replica (if usable) or from the primary database for the current thread.
+     *
+     * @param replica true to request connections from the replica
+     */
+    public static void setRouteToReplica(boolean replica) {
+        routeToReplica.set(replica);
+    }
+
+    /**
+     * @return true if the last connection handed out to the current thread came from the replica
+     */
+    public static boolean isLastConnectionFromReplica() {
+        return lastFromReplica.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                lastFromReplica.set(true);
+                return connection;
+            } catch (SQLException e) {
+                markReplicaUnusable(e);
+            }
+        }
+        lastFromReplica.set(false);
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        lastFromReplica.set(false);
+        return super.getConnection(username, password);
+    }
+
+    /**
+     * Close the replica connection pool.
+     *
+     * @throws SQLException if the pool can't be closed
+     */
+    public void close() throws SQLException {
+        if (replica instanceof BasicDataSource pool) {
+            pool.close();
+        }
+    }
+
+    private boolean useReplica() {
+        if (replica == null || !routeToReplica.get()) {
+            return false;
+        }
+        if (System.currentTimeMillis() >= nextLagCheck && lagCheckLock.tryLock()) {
+            // Other threads keep using the last known state while the lag is checked
+            try {
+                checkLag();
+            } finally {
+                lagCheckLock.unlock();
+            }
+        }
+        return replicaUsable;
+    }
+
+    private void checkLag() {
+        nextLagCheck = System.currentTimeMillis() + lagCheckInterval;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            boolean usable = lag <= maxLag;
+            if (usable != replicaUsable) {
+                log.info("Database replica lag is {} seconds, read-only transactions use the {}", lag,
+                         usable ? "replica" : "primary database");
+            }
+            replicaUsable = usable;
+        } catch (SQLException e) {
+            markReplicaUnusable(e);
+        }
+    }
+
+    private void markReplicaUnusable(SQLException e) {
+        if (replicaUsable) {
+            log.warn("Database replica unavailable, read-only transactions use the primary database", e);
+        }
+        replicaUsable = false;
+        nextLagCheck = System.currentTimeMillis() + lagCheckInterval;
+    }
+}
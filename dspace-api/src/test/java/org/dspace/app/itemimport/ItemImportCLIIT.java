@@ -8,6 +8,7 @@
 package org.dspace.app.itemimport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.io.file.PathUtils;
 import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.launcher.ScriptLauncher;
+import org.dspace.app.scripts.handler.impl.TestDSpaceRunnableHandler;
 import org.dspace.builder.CollectionBuilder;
 import org.dspace.builder.CommunityBuilder;
 import org.dspace.builder.EntityTypeBuilder;
@@ -30,6 +33,7 @@ import org.dspace.content.EntityType;
 import org.dspace.content.Item;
 import org.dspace.content.Relationship;
 import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.services.ConfigurationService;
@@ -53,6 +57,7 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
     private static final String personTitle = "Person Test";
 
     private ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
     private RelationshipService relationshipService = ContentServiceFactory.getInstance().getRelationshipService();
     private ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
     private Collection collection;
@@ -92,6 +97,8 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
     @After
     @Override
     public void destroy() throws Exception {
+        configurationService.setProperty("org.dspace.app.batchitemimport.commit.size", null);
+        configurationService.setProperty("org.dspace.app.batchitemimport.max-threads", null);
         PathUtils.deleteOnExit(tempDir);
         for (Path path : Files.list(workDir).collect(Collectors.toList())) {
             PathUtils.deleteOnExit(path);
@@ -262,6 +269,135 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkRelationship();
     }
 
+    @Test
+    public void importItemsBySafWithBitstreamsInParallel() throws Exception {
+        // create a SAF of several items, committed by batches of two
+        configurationService.setProperty("org.dspace.app.batchitemimport.commit.size", 2);
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (int i = 0; i < 5; i++) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_00" + i));
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+            Files.writeString(Path.of(itemDir.toString() + "/contents"), "file1.txt");
+            Files.writeString(Path.of(itemDir.toString() + "/file1.txt"), "TEST TEST TEST " + i);
+        }
+
+        String[] args = new String[] { "import", "-a", "-t", "3", "-e", admin.getEmail(),
+                "-c", collection.getID().toString(), "-s", safDir.toString(),
+                "-m", tempDir.toString() + "/mapfile.out" };
+        perfomImportScript(args);
+
+        Iterator<Item> items = itemService.findByMetadataField(context, "dc", "title", null, publicationTitle);
+        int count = 0;
+        while (items.hasNext()) {
+            Item item = items.next();
+            assertEquals("1990", itemService.getMetadata(item, "dc.date.issued"));
+            List<Bitstream> bitstreams = item.getBundles("ORIGINAL").get(0).getBitstreams();
+            assertEquals(1, bitstreams.size());
+            assertEquals("file1.txt", bitstreams.get(0).getName());
+            count++;
+        }
+        assertEquals(5, count);
+        assertEquals(5, Files.readAllLines(Path.of(tempDir.toString() + "/mapfile.out")).size());
+    }
+
+    @Test
+    public void importItemsBySafWithoutCollectionsFileInParallel() throws Exception {
+        // create a SAF whose second item has no collections file
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (int i = 0; i < 3; i++) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_00" + i));
+            if (i != 1) {
+                Files.writeString(Path.of(itemDir.toString() + "/collections"), collection.getID().toString());
+            }
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+            Files.writeString(Path.of(itemDir.toString() + "/contents"), "file1.txt");
+            Files.writeString(Path.of(itemDir.toString() + "/file1.txt"), "TEST TEST TEST " + i);
+        }
+        long orphans = countBitstreamsWithoutBundle();
+
+        String[] args = new String[] { "import", "-a", "-t", "2", "-e", admin.getEmail(),
+                "-s", safDir.toString(), "-m", tempDir.toString() + "/mapfile.out" };
+        perfomImportScript(args);
+
+        Iterator<Item> items = itemService.findByMetadataField(context, "dc", "title", null, publicationTitle);
+        int count = 0;
+        while (items.hasNext()) {
+            items.next();
+            count++;
+        }
+        assertEquals(2, count);
+        List<String> mapLines = Files.readAllLines(Path.of(tempDir.toString() + "/mapfile.out"));
+        assertEquals(2, mapLines.size());
+        assertTrue(mapLines.stream().noneMatch(line -> line.startsWith("item_001 ")));
+        // the file stored for the skipped item was deleted
+        assertEquals(orphans, countBitstreamsWithoutBundle());
+    }
+
+    @Test
+    public void importItemsBySafWithTooManyThreads() throws Exception {
+        configurationService.setProperty("org.dspace.app.batchitemimport.max-threads", 2);
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_000"));
+        Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                Path.of(itemDir.toString() + "/dublin_core.xml"));
+        Files.writeString(Path.of(itemDir.toString() + "/contents"), "file1.txt");
+        Files.writeString(Path.of(itemDir.toString() + "/file1.txt"), "TEST TEST TEST");
+
+        String[] args = new String[] { "import", "-a", "-t", "50", "-e", admin.getEmail(),
+                "-c", collection.getID().toString(), "-s", safDir.toString(),
+                "-m", tempDir.toString() + "/mapfile.out" };
+        TestDSpaceRunnableHandler handler = new TestDSpaceRunnableHandler();
+        ScriptLauncher.handleScript(args, ScriptLauncher.getConfig(kernelImpl), handler, kernelImpl);
+
+        assertEquals(List.of("Using 2 threads instead of 50 (org.dspace.app.batchitemimport.max-threads)"),
+                handler.getWarningMessages());
+        checkMetadata();
+    }
+
+    @Test
+    public void importItemByZipSafWithBitstreamsInParallel() throws Exception {
+        // use simple SAF in zip format, extracted while it is imported
+        Files.copy(getClass().getResourceAsStream("saf-bitstreams.zip"),
+                Path.of(tempDir.toString() + "/" + ZIP_NAME));
+
+        String[] args = new String[] { "import", "-a", "-t", "2", "-e", admin.getEmail(),
+                "-c", collection.getID().toString(), "-s", tempDir.toString(), "-z", ZIP_NAME,
+                "-m", tempDir.toString() + "/mapfile.out" };
+        perfomImportScript(args);
+
+        checkMetadata();
+        checkMetadataWithAnotherSchema();
+        checkBitstream();
+    }
+
+    @Test
+    public void importItemByZipSafWithRelationshipsInParallel() throws Exception {
+        context.turnOffAuthorisationSystem();
+        // create collection that contains person
+        Collection collectionPerson = CollectionBuilder.createCollection(context, parentCommunity)
+                .withName("Collection Person")
+                .withEntityType("Person")
+                .build();
+        // create person
+        ItemBuilder.createItem(context, collectionPerson)
+                .withTitle(personTitle)
+                .build();
+        context.restoreAuthSystemState();
+        // use simple SAF in zip format
+        Files.copy(getClass().getResourceAsStream("saf-relationships.zip"),
+                Path.of(tempDir.toString() + "/" + ZIP_NAME));
+
+        String[] args = new String[] { "import", "-a", "-p", "-t", "2", "-e", admin.getEmail(),
+                "-c", collection.getID().toString(), "-s", tempDir.toString(), "-z", ZIP_NAME,
+                "-m", tempDir.toString() + "/mapfile.out" };
+        perfomImportScript(args);
+
+        checkMetadata();
+        checkRelationship();
+    }
+
     @Test
     public void importItemByZipSafInvalidMimetype() throws Exception {
         // use sample PDF file
@@ -405,6 +541,44 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkBitstream();
     }
 
+    @Test
+    public void resumeImportItemSkippingTheFirstOneBySafWithBitstreamsInParallel()
+            throws Exception {
+        // create item
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection)
+                .withTitle("Another Title")
+                .build();
+        context.restoreAuthSystemState();
+        // create simple SAF
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (String itemName : List.of("item_000", "item_001")) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/" + itemName));
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+            Files.writeString(Path.of(itemDir.toString() + "/contents"), "file1.txt");
+            Files.writeString(Path.of(itemDir.toString() + "/file1.txt"), "TEST TEST TEST");
+        }
+        // add mapfile
+        Path mapFile = Files.createFile(Path.of(tempDir.toString() + "/mapfile.out"));
+        Files.writeString(mapFile, "item_000 " + item.getHandle() + "\n");
+
+        String[] args = new String[] { "import", "-a", "-R", "-t", "2", "-e", admin.getEmail(),
+                "-c", collection.getID().toString(), "-s", safDir.toString(),
+                "-m", mapFile.toString() };
+        perfomImportScript(args);
+
+        checkMetadata();
+        checkBitstream();
+        // only item_001 was imported and appended to the mapfile
+        Iterator<Item> items = itemService.findByMetadataField(context, "dc", "title", null, publicationTitle);
+        items.next();
+        assertFalse(items.hasNext());
+        List<String> lines = Files.readAllLines(mapFile);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("item_001 "));
+    }
+
     @Test
     public void resumeImportItemSkippingTheFirstOneBySafWithAnotherMetadataSchema()
             throws Exception {
@@ -597,6 +771,20 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         assertEquals(item.getID(), relationships.get(0).getLeftItem().getID());
     }
 
+    /**
+     * Count the bitstreams which are not deleted and belong to no bundle
+     * @throws Exception
+     */
+    private long countBitstreamsWithoutBundle() throws Exception {
+        long count = 0;
+        for (Bitstream bitstream : bitstreamService.findAll(context)) {
+            if (!bitstream.isDeleted() && bitstream.getBundles().isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     private void perfomImportScript(String[] args)
             throws Exception {
         runDSpaceScript(args);
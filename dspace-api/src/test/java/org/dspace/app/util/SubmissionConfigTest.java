@@ -9,6 +9,8 @@ package org.dspace.app.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -95,4 +97,18 @@ public class SubmissionConfigTest extends AbstractUnitTest {
         assertEquals(unboundFields, allowedFieldsForArticle);
         assertEquals(unboundFields, allowedFieldsForNoType);
     }
+
+    @Test
+    public void testParsedConfigurationIsShared() throws SubmissionConfigReaderException, DCInputsReaderException {
+        // Readers of an unchanged forms file share the same input sets
+        DCInputsReader otherReader = new DCInputsReader();
+        assertSame(inputReader.getInputsByFormName("traditionalpageone"),
+                   otherReader.getInputsByFormName("traditionalpageone"));
+
+        SubmissionConfigReader submissionConfigReader = new SubmissionConfigReader();
+        SubmissionConfig config = submissionConfigReader.getSubmissionConfigByName("traditional");
+        assertSame(config, submissionConfigReader.getSubmissionConfigByName("traditional"));
+        assertEquals(submissionConfigReader.getDefaultSubmissionConfigName(), config.getSubmissionName());
+        assertTrue(config.isDefaultConf());
+    }
 }
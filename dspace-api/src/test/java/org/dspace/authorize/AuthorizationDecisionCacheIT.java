@@ -0,0 +1,123 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the eviction of the {@link AuthorizationDecisionCache}.
+ */
+public class AuthorizationDecisionCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+    private final AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+    private final AuthorizationDecisionCache cache = AuthorizeServiceFactory.getInstance()
+                                                                            .getAuthorizationDecisionCache();
+    private final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+
+    private Bundle bundle;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).withName("Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, community).withName("Collection").build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        Bitstream bitstream = BitstreamBuilder.createBitstream(context, item, InputStream.nullInputStream())
+                                              .withName("file")
+                                              .build();
+        bundle = bitstream.getBundles().get(0);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        configurationService.setProperty("authorize.decision-cache.enabled", true);
+        cache.invalidateAll();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("authorize.decision-cache.enabled", null);
+        cache.invalidateAll();
+        super.destroy();
+    }
+
+    @Test
+    public void bundlePolicyChangesEvictCachedDecisions() throws Exception {
+        assertTrue(cache.isEnabled());
+        bundle = context.reloadEntity(bundle);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+        assertTrue(cache.size() > 0);
+        long hits = cache.getStats().hitCount();
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+        assertEquals(hits + 1, cache.getStats().hitCount());
+
+        // Bundles don't fire any event when their policies change
+        context.turnOffAuthorisationSystem();
+        authorizeService.removePoliciesActionFilter(context, bundle, Constants.READ);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        bundle = context.reloadEntity(bundle);
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+
+        context.turnOffAuthorisationSystem();
+        Group anonymous = groupService.findByName(context, Group.ANONYMOUS);
+        authorizeService.addPolicy(context, bundle, Constants.READ, anonymous);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        bundle = context.reloadEntity(bundle);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+    }
+
+    @Test
+    public void uncommittedPolicyChangesBypassTheCache() throws Exception {
+        bundle = context.reloadEntity(bundle);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+
+        context.turnOffAuthorisationSystem();
+        authorizeService.removePoliciesActionFilter(context, bundle, Constants.READ);
+        context.restoreAuthSystemState();
+
+        // The context sees its own change, before and after the commit
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+        context.commit();
+        bundle = context.reloadEntity(bundle);
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, bundle, Constants.READ, true));
+    }
+}
@@ -9,6 +9,9 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
@@ -127,6 +130,48 @@ public class AuthorizeServiceTest extends AbstractUnitTest {
             throw new AssertionError(ex);
         }
     }
+
+    @Test
+    public void testBulkAuthorizeMatchesSingleChecks() {
+        EPerson eperson;
+        Community allowed;
+        Community denied;
+
+        try {
+            context.turnOffAuthorisationSystem();
+
+            eperson = ePersonService.create(context);
+            Group group = groupService.create(context);
+            // A group has to have a name, otherwise there are queries that break
+            groupService.setName(group, "My test group 3");
+            groupService.addMember(context, group, eperson);
+            groupService.update(context, group);
+
+            allowed = communityService.create(null, context);
+            denied = communityService.create(null, context);
+            authorizeService.addPolicy(context, allowed, Constants.WRITE, group);
+            context.commit();
+            context.setCurrentUser(eperson);
+        } catch (SQLException | AuthorizeException ex) {
+            throw new AssertionError(ex);
+        } finally {
+            context.restoreAuthSystemState();
+        }
+
+        try {
+            Map<Community, Boolean> decisions = authorizeService
+                .bulkAuthorizeActionBoolean(context, List.of(allowed, denied), Constants.WRITE);
+            Assert.assertEquals(List.of(allowed, denied), new ArrayList<>(decisions.keySet()));
+            Assert.assertTrue(decisions.get(allowed));
+            Assert.assertFalse(decisions.get(denied));
+
+            // the single checks, answered from the context, must agree
+            Assert.assertTrue(authorizeService.authorizeActionBoolean(context, allowed, Constants.WRITE));
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, denied, Constants.WRITE));
+        } catch (SQLException ex) {
+            throw new AssertionError(ex);
+        }
+    }
 //
 //    @Test
 //    public void testIsCollectionAdmin() throws SQLException, AuthorizeException, IOException {
@@ -0,0 +1,204 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.indexobject.IndexableCollection;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.sort.SortOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests checking that the value browses answered by the
+ * {@link BrowseValueCache} are the same as the ones answered by Solr.
+ */
+public class BrowseValueCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+
+    private final BrowseValueCache browseValueCache = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName(null, BrowseValueCache.class);
+
+    private Collection col1;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).withName("Community").build();
+        col1 = CollectionBuilder.createCollection(context, community).withName("Collection 1").build();
+        Collection col2 = CollectionBuilder.createCollection(context, community).withName("Collection 2").build();
+
+        ItemBuilder.createItem(context, col1).withTitle("Item 1")
+                   .withAuthor("Adams, Amy").withAuthor("Baker, Bob").build();
+        ItemBuilder.createItem(context, col1).withTitle("Item 2")
+                   .withAuthor("Baker, Bob").withAuthor("Brown, Carl").build();
+        ItemBuilder.createItem(context, col2).withTitle("Item 3")
+                   .withAuthor("Doe, Jane").withAuthor("Smith, John").build();
+        ItemBuilder.createItem(context, col2).withTitle("Item 4")
+                   .withAuthor("Bell, Dana").withAuthor("Zimmer, Eve").build();
+        ItemBuilder.createItem(context, col2).withTitle("Private item")
+                   .withAuthor("Hidden, Harry").makeUnDiscoverable().build();
+        context.restoreAuthSystemState();
+        context.setCurrentUser(null);
+        browseValueCache.invalidateAll();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("browse.value-cache.enabled", null);
+        super.destroy();
+    }
+
+    @Test
+    public void sameResultsAsSolrTest() throws Exception {
+        assertSameResults(null, null, SortOption.ASCENDING, 0, 2);
+        assertSameResults(null, null, SortOption.ASCENDING, 2, 2);
+        assertSameResults(null, null, SortOption.ASCENDING, 6, 2);
+        assertSameResults(null, null, SortOption.DESCENDING, 0, 3);
+        assertSameResults(null, null, SortOption.DESCENDING, 3, 3);
+        assertSameResults(null, "b", SortOption.ASCENDING, 0, 2);
+        assertSameResults(null, "b", SortOption.ASCENDING, 2, 2);
+        assertSameResults(null, "b", SortOption.DESCENDING, 0, 2);
+        assertSameResults(null, "c", SortOption.ASCENDING, 0, 2);
+        assertSameResults(null, "x", SortOption.ASCENDING, 0, 2);
+        assertSameResults(new IndexableCollection(col1), null, SortOption.ASCENDING, 0, 5);
+        assertSameResults(new IndexableCollection(col1), "b", SortOption.ASCENDING, 0, 5);
+    }
+
+    @Test
+    public void jumpToValueTest() throws Exception {
+        assertSameJumpToResults(null, "Baker", SortOption.ASCENDING, 2);
+        assertSameJumpToResults(null, "b", SortOption.ASCENDING, 5);
+        assertSameJumpToResults(null, "Bell, Dana", SortOption.DESCENDING, 2);
+        assertSameJumpToResults(null, "x", SortOption.ASCENDING, 2);
+        assertSameJumpToResults(new IndexableCollection(col1), "Brown", SortOption.ASCENDING, 5);
+
+        configurationService.setProperty("browse.value-cache.enabled", true);
+        BrowseInfo info = browse(null, null, "Baker", SortOption.ASCENDING, 0, 20);
+        assertEquals(1, info.getTotal());
+        assertEquals("Baker, Bob", info.getStringResults()[0][0]);
+    }
+
+    @Test
+    public void distinctOffsetTest() throws Exception {
+        for (String value : new String[] {"", "adams, amy", "b", "baker, bob", "bell", "c", "smith, john", "zz"}) {
+            assertSameDistinctOffsets(null, null, value);
+        }
+        assertSameDistinctOffsets(null, "b", "bell");
+        assertSameDistinctOffsets(null, "b", "a");
+        assertSameDistinctOffsets(null, "b", "c");
+        assertSameDistinctOffsets(col1, null, "brown");
+    }
+
+    @Test
+    public void hiddenValuesTest() throws Exception {
+        configurationService.setProperty("browse.value-cache.enabled", true);
+        BrowseInfo info = browse(null, null, SortOption.ASCENDING, 0, 20);
+        assertEquals(7, info.getTotal());
+        for (String[] value : info.getStringResults()) {
+            assertFalse(value[0].startsWith("Hidden"));
+        }
+    }
+
+    private void assertSameResults(IndexableObject container, String startsWith, String order, int offset,
+                                   int resultsPerPage) throws Exception {
+        configurationService.setProperty("browse.value-cache.enabled", false);
+        BrowseInfo expected = browse(container, startsWith, order, offset, resultsPerPage);
+        configurationService.setProperty("browse.value-cache.enabled", true);
+        BrowseInfo actual = browse(container, startsWith, order, offset, resultsPerPage);
+
+        assertEquals(expected.getTotal(), actual.getTotal());
+        assertEquals(expected.getOffset(), actual.getOffset());
+        assertArrayEquals(expected.getStringResults(), actual.getStringResults());
+    }
+
+    private void assertSameJumpToResults(IndexableObject container, String jumpTo, String order,
+                                         int resultsPerPage) throws Exception {
+        configurationService.setProperty("browse.value-cache.enabled", false);
+        BrowseInfo expected = browse(container, null, jumpTo, order, 0, resultsPerPage);
+        configurationService.setProperty("browse.value-cache.enabled", true);
+        BrowseInfo actual = browse(container, null, jumpTo, order, 0, resultsPerPage);
+
+        assertEquals(expected.getTotal(), actual.getTotal());
+        assertEquals(expected.getOffset(), actual.getOffset());
+        assertArrayEquals(expected.getStringResults(), actual.getStringResults());
+    }
+
+    /**
+     * Compare the offsets of a "jump to" value computed from the cache with the ones of Solr. The Solr
+     * implementation only searches an ascending list of values: the descending offset is derived from the
+     * ascending one and the number of values, as {@link SolrBrowseDAO#doDistinctOffsetQuery} does.
+     */
+    private void assertSameDistinctOffsets(Collection container, String startsWith, String value) throws Exception {
+        configurationService.setProperty("browse.value-cache.enabled", false);
+        int expected = createDistinctDAO(container, startsWith, true).doDistinctOffsetQuery("sort_value", value,
+                                                                                            true);
+        int count = createDistinctDAO(container, startsWith, true).doCountQuery();
+        configurationService.setProperty("browse.value-cache.enabled", true);
+        assertEquals(expected, createDistinctDAO(container, startsWith, true)
+            .doDistinctOffsetQuery("sort_value", value, true));
+        assertEquals(count - expected, createDistinctDAO(container, startsWith, false)
+            .doDistinctOffsetQuery("sort_value", value, false));
+    }
+
+    private BrowseDAO createDistinctDAO(Collection container, String startsWith, boolean ascending)
+        throws Exception {
+        BrowseDAO dao = BrowseDAOFactory.getInstance(context);
+        dao.setTable(BrowseIndex.getBrowseIndex("author").getDistinctTableName());
+        dao.setDistinct(true);
+        dao.setAscending(ascending);
+        dao.setStartsWith(startsWith);
+        if (container != null) {
+            dao.setContainerTable("collection2item");
+            dao.setContainerIDField("collection_id");
+            dao.setContainer(container);
+        }
+        return dao;
+    }
+
+    private BrowseInfo browse(IndexableObject container, String startsWith, String order, int offset,
+                              int resultsPerPage) throws Exception {
+        return browse(container, startsWith, null, order, offset, resultsPerPage);
+    }
+
+    private BrowseInfo browse(IndexableObject container, String startsWith, String jumpTo, String order,
+                              int offset, int resultsPerPage) throws Exception {
+        BrowserScope scope = new BrowserScope(context);
+        scope.setBrowseIndex(BrowseIndex.getBrowseIndex("author"));
+        scope.setOrder(order);
+        scope.setOffset(offset);
+        scope.setResultsPerPage(resultsPerPage);
+        if (startsWith != null) {
+            scope.setStartsWith(startsWith);
+        }
+        if (jumpTo != null) {
+            scope.setJumpToValue(jumpTo);
+        }
+        if (container != null) {
+            scope.setBrowseContainer(container);
+        }
+        return new BrowseEngine(context).browse(scope);
+    }
+}
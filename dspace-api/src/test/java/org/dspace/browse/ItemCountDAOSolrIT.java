@@ -0,0 +1,80 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertEquals;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.eperson.Group;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Test;
+
+/**
+ * Integration tests of the item counts loaded from Solr by {@link ItemCountDAOSolr}.
+ */
+public class ItemCountDAOSolrIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ItemCountDAOSolr itemCountDAO = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName("itemCountDAO", ItemCountDAOSolr.class);
+
+    @Test
+    public void countsTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community parent = CommunityBuilder.createCommunity(context).withName("Parent").build();
+        Community child = CommunityBuilder.createSubCommunity(context, parent).withName("Child").build();
+        Collection col1 = CollectionBuilder.createCollection(context, parent).withName("Collection 1").build();
+        Collection col2 = CollectionBuilder.createCollection(context, child).withName("Collection 2").build();
+
+        ItemBuilder.createItem(context, col1).withTitle("Item 1")
+                   .withMetadata("dspace", "entity", "type", "Publication").build();
+        ItemBuilder.createItem(context, col1).withTitle("Item 2").build();
+        ItemBuilder.createItem(context, col2).withTitle("Item 3")
+                   .withMetadata("dspace", "entity", "type", "Publication").build();
+        ItemBuilder.createItem(context, col2).withTitle("Withdrawn item").withdrawn().build();
+        ItemBuilder.createItem(context, col2).withTitle("Private item").makeUnDiscoverable().build();
+        Group readers = GroupBuilder.createGroup(context).withName("Readers").addMember(eperson).build();
+        ItemBuilder.createItem(context, col1).withTitle("Restricted item").withReaderGroup(readers).build();
+        context.restoreAuthSystemState();
+        context.setCurrentUser(null);
+
+        itemCountDAO.refresh();
+
+        assertEquals(3, itemCountDAO.getCount(context, parent));
+        assertEquals(1, itemCountDAO.getCount(context, child));
+        assertEquals(2, itemCountDAO.getCount(context, col1));
+        assertEquals(1, itemCountDAO.getCount(context, col2));
+
+        // Withdrawn items are only readable by administrators
+        assertEquals(0, itemCountDAO.getWithdrawnCount(context, parent));
+
+        assertEquals(2, itemCountDAO.getCount(context, parent, "Publication"));
+        assertEquals(1, itemCountDAO.getCount(context, col1, "Publication"));
+        assertEquals(1, itemCountDAO.getCount(context, child, "Publication"));
+        assertEquals(0, itemCountDAO.getCount(context, col1, "Person"));
+
+        // The users who may read the restricted item count it, anonymous users don't
+        context.setCurrentUser(eperson);
+        assertEquals(4, itemCountDAO.getCount(context, parent));
+        assertEquals(3, itemCountDAO.getCount(context, col1));
+        assertEquals(1, itemCountDAO.getCount(context, col2));
+        assertEquals(0, itemCountDAO.getWithdrawnCount(context, parent));
+        context.setCurrentUser(admin);
+        assertEquals(3, itemCountDAO.getCount(context, col1));
+        assertEquals(1, itemCountDAO.getWithdrawnCount(context, parent));
+        assertEquals(1, itemCountDAO.getWithdrawnCount(context, col2));
+        assertEquals(0, itemCountDAO.getWithdrawnCount(context, col1));
+        context.setCurrentUser(null);
+        assertEquals(2, itemCountDAO.getCount(context, col1));
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MetadataIndex}.
+ */
+public class MetadataIndexTest {
+
+    private final MetadataField author = field(1, "author");
+    private final MetadataField editor = field(2, "editor");
+
+    @Test
+    public void testFindSingleField() {
+        MetadataValue a1 = value(author, null);
+        MetadataValue e1 = value(editor, "en");
+        MetadataValue a2 = value(author, "en");
+        MetadataIndex index = new MetadataIndex(List.of(a1, e1, a2));
+
+        assertEquals(List.of(a1, a2), index.find(v -> v.getMetadataField() == author, v -> true));
+        assertEquals(List.of(a2),
+                     index.find(v -> v.getMetadataField() == author, v -> Objects.equals("en", v.getLanguage())));
+    }
+
+    @Test
+    public void testFindSeveralFieldsKeepsListOrder() {
+        MetadataValue a1 = value(author, null);
+        MetadataValue e1 = value(editor, null);
+        MetadataValue a2 = value(author, null);
+        MetadataIndex index = new MetadataIndex(List.of(a1, e1, a2));
+
+        assertEquals(List.of(a1, e1, a2), index.find(v -> true, v -> true));
+        assertTrue(index.find(v -> false, v -> true).isEmpty());
+    }
+
+    @Test
+    public void testIsIndexOf() {
+        List<MetadataValue> metadata = new ArrayList<>(List.of(value(author, null)));
+        MetadataIndex index = new MetadataIndex(metadata);
+        assertTrue(index.isIndexOf(metadata));
+        assertFalse(index.isIndexOf(new ArrayList<>(metadata)));
+
+        metadata.add(value(editor, null));
+        assertFalse(index.isIndexOf(metadata));
+    }
+
+    private MetadataField field(int id, String element) {
+        MetadataField field = mock(MetadataField.class);
+        when(field.getID()).thenReturn(id);
+        when(field.getElement()).thenReturn(element);
+        return field;
+    }
+
+    private MetadataValue value(MetadataField field, String language) {
+        MetadataValue value = new MetadataValue();
+        value.setMetadataField(field);
+        value.setLanguage(language);
+        return value;
+    }
+}
@@ -228,6 +228,36 @@ public class DSpaceControlledVocabularyTest extends AbstractDSpaceTest {
         assertEquals("Algerien", result.label);
     }
 
+    /**
+     * Test of getMatches method of class DSpaceControlledVocabulary with texts differing by case and diacritics from
+     * the labels, matching the start of a word of the labels and restricted by the labels of ancestors.
+     * @throws java.lang.ClassNotFoundException passed through.
+     */
+    @Test
+    public void testGetMatchesFoldedAndHierarchical() throws ClassNotFoundException {
+        final String PLUGIN_INTERFACE = "org.dspace.content.authority.ChoiceAuthority";
+
+        DSpaceControlledVocabulary farm = (DSpaceControlledVocabulary)
+            CoreServiceFactory.getInstance().getPluginService().getNamedPlugin(Class.forName(PLUGIN_INTERFACE), "farm");
+        Choices result = farm.getMatches("40", 0, 10, null);
+        assertEquals(2, result.total);
+        assertEquals("north 40", result.values[0].label);
+        assertEquals("south 40", result.values[1].label);
+        // Only the start of the words is matched
+        assertEquals(0, farm.getMatches("orth", 0, 10, null).total);
+
+        DSpaceControlledVocabulary countries = (DSpaceControlledVocabulary)
+            CoreServiceFactory.getInstance().getPluginService().getNamedPlugin(Class.forName(PLUGIN_INTERFACE),
+                "countries");
+        result = countries.getMatches("ALGÉ", 0, 10, "de");
+        assertEquals(1, result.total);
+        assertEquals("DZA", result.values[0].value);
+        result = countries.getMatches("afri::alg", 0, 10, "de");
+        assertEquals(1, result.total);
+        assertEquals("DZA", result.values[0].value);
+        assertEquals(0, countries.getMatches("europa::alg", 0, 10, "de").total);
+    }
+
     /**
      * Test of getBestMatch method, of class DSpaceControlledVocabulary.
      */
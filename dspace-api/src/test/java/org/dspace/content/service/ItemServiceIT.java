@@ -20,6 +20,7 @@ import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -60,6 +61,7 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.contentreport.QueryOperator;
 import org.dspace.contentreport.QueryPredicate;
 import org.dspace.core.Constants;
+import org.dspace.core.DBStatistics;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.GroupService;
@@ -1025,4 +1027,69 @@ public class ItemServiceIT extends AbstractIntegrationTestWithDatabase {
         context.turnOffAuthorisationSystem();
     }
 
+    @Test
+    public void testPrefetchBundlesAndOwningCollections() throws Exception {
+        context.turnOffAuthorisationSystem();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item prefetched = ItemBuilder.createItem(context, collection1).withTitle("Prefetched " + i).build();
+            BitstreamBuilder.createBitstream(context, prefetched, InputStream.nullInputStream())
+                            .withName("file " + i)
+                            .build();
+            ids.add(prefetched.getID());
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // Without prefetching, each item loads its own bundles, bitstreams, bitstream metadata and collection
+        long lazyStatements = countStatements(findItems(ids), false);
+        // With prefetching, these are loaded by one query each for all the items, and nothing is loaded later
+        long prefetchStatements = countStatements(findItems(ids), true);
+
+        assertTrue("prefetching should save queries (" + prefetchStatements + " vs " + lazyStatements + ")",
+                   prefetchStatements < lazyStatements);
+    }
+
+    private List<Item> findItems(List<UUID> ids) throws SQLException {
+        context.uncacheEntities();
+        List<Item> items = new ArrayList<>();
+        for (UUID id : ids) {
+            items.add(itemService.find(context, id));
+        }
+        return items;
+    }
+
+    /**
+     * Count the SQL statements needed to read the bundles, bitstreams and owning collections of the given
+     * items, after prefetching them or not.
+     */
+    private long countStatements(List<Item> items, boolean prefetch) throws SQLException {
+        DBStatistics statistics = DBStatistics.start();
+        try {
+            if (prefetch) {
+                itemService.prefetchBundles(context, items);
+                itemService.prefetchOwningCollections(context, items);
+            }
+            long prefetchStatements = statistics.getStatementCount();
+            int values = 0;
+            for (Item prefetched : items) {
+                for (Bundle bundle : prefetched.getBundles()) {
+                    for (Bitstream bitstream : bundle.getBitstreams()) {
+                        values += bitstream.getMetadata().size();
+                    }
+                }
+                values += prefetched.getOwningCollection().getMetadata().size();
+            }
+            // the names of the bitstreams at least
+            assertTrue(values >= items.size());
+            if (prefetch) {
+                assertEquals("nothing should be loaded after prefetching",
+                             prefetchStatements, statistics.getStatementCount());
+            }
+            return statistics.getStatementCount();
+        } finally {
+            DBStatistics.stop();
+        }
+    }
+
 }
@@ -0,0 +1,159 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jakarta.persistence.Query;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the iteration over DSOs paginated by UUID of {@link AbstractHibernateDSODAO}.
+ */
+public class AbstractHibernateDSODAOIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private final AbstractHibernateDSODAO<Item> dao = new AbstractHibernateDSODAO<>() {
+    };
+
+    private Collection collection;
+
+    /**
+     * UUIDs of the items of the collection, in the order of the database
+     */
+    private List<UUID> expectedIds;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).withName("Community").build();
+        collection = CollectionBuilder.createCollection(context, community).withName("Collection").build();
+        Collection otherCollection = CollectionBuilder.createCollection(context, community)
+                                                      .withName("Other collection").build();
+        for (int i = 0; i < 7; i++) {
+            ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+        }
+        ItemBuilder.createItem(context, otherCollection).withTitle("Other item").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        Query query = dao.createQuery(context, "SELECT i.id FROM Item i WHERE i.owningCollection = :collection "
+            + "ORDER BY i.id");
+        query.setParameter("collection", collection);
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = query.getResultList();
+        expectedIds = ids;
+        assertEquals(7, expectedIds.size());
+    }
+
+    @Test
+    public void iterateInUUIDOrderAcrossChunks() throws Exception {
+        // a single chunk, chunks of one, a partial last chunk, a full last chunk followed by an empty one
+        for (int chunkSize : new int[] {10, 1, 3, 7}) {
+            assertEquals("Chunk size " + chunkSize, expectedIds, getIds(iterate(chunkSize)));
+        }
+    }
+
+    @Test
+    public void iterateAfterCommit() throws Exception {
+        Iterator<Item> items = iterate(3);
+        List<UUID> ids = new ArrayList<>();
+        while (items.hasNext()) {
+            ids.add(items.next().getID());
+            // the objects loaded for the chunk are detached, and loaded again
+            context.commit();
+        }
+        assertEquals(expectedIds, ids);
+    }
+
+    @Test
+    public void skipItemsDeletedDuringTheIteration() throws Exception {
+        Iterator<Item> items = iterate(3);
+        List<UUID> ids = new ArrayList<>();
+        ids.add(items.next().getID());
+
+        // delete an item of the current chunk, which is already loaded, and one of the next chunk
+        context.turnOffAuthorisationSystem();
+        itemService.delete(context, itemService.find(context, expectedIds.get(1)));
+        itemService.delete(context, itemService.find(context, expectedIds.get(4)));
+        context.restoreAuthSystemState();
+        context.commit();
+
+        while (items.hasNext()) {
+            ids.add(items.next().getID());
+        }
+        List<UUID> remainingIds = new ArrayList<>(expectedIds);
+        remainingIds.remove(4);
+        remainingIds.remove(1);
+        assertEquals(remainingIds, ids);
+    }
+
+    @Test
+    public void uncacheTheChunksLoadedByTheIterator() throws Exception {
+        context.uncacheEntities();
+        // already used before the iteration, stays in the session
+        Item usedItem = itemService.find(context, expectedIds.get(1));
+
+        Iterator<Item> items = dao.iterateByUUID(context, Item.class, "SELECT i.id FROM Item i", "i.id",
+                                                 "i.owningCollection = :collection",
+                                                 Map.of("collection", collection), 3, true);
+        List<Item> firstChunk = List.of(items.next(), items.next(), items.next());
+        assertSame(usedItem, firstChunk.get(1));
+        for (Item item : firstChunk) {
+            assertTrue(dao.getHibernateSession(context).contains(item));
+        }
+
+        // moving to the next chunk evicts the items loaded for the first one
+        Item item = items.next();
+        assertEquals(expectedIds.get(3), item.getID());
+        assertTrue(dao.getHibernateSession(context).contains(item));
+        assertFalse(dao.getHibernateSession(context).contains(firstChunk.get(0)));
+        assertTrue(dao.getHibernateSession(context).contains(usedItem));
+        assertFalse(dao.getHibernateSession(context).contains(firstChunk.get(2)));
+
+        List<UUID> ids = new ArrayList<>(getIds(firstChunk.iterator()));
+        ids.add(item.getID());
+        ids.addAll(getIds(items));
+        assertEquals(expectedIds, ids);
+    }
+
+    private Iterator<Item> iterate(int chunkSize) {
+        return dao.iterateByUUID(context, Item.class, "SELECT i.id FROM Item i", "i.id",
+                                 "i.owningCollection = :collection", Map.of("collection", collection), chunkSize);
+    }
+
+    private List<UUID> getIds(Iterator<Item> items) {
+        List<UUID> ids = new ArrayList<>();
+        while (items.hasNext()) {
+            ids.add(items.next().getID());
+        }
+        return ids;
+    }
+}
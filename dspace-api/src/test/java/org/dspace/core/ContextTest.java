@@ -24,6 +24,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.AuthorizeException;
@@ -33,6 +34,7 @@ import org.dspace.eperson.Group;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
+import org.dspace.event.Event;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -316,6 +318,74 @@ public class ContextTest extends AbstractUnitTest {
         cleanupContext(instance);
     }
 
+    /**
+     * Test of addPostCommitTask method, of class Context.
+     */
+    @Test
+    public void testPostCommitTask() throws SQLException {
+        Context instance = new Context();
+        AtomicInteger runs = new AtomicInteger();
+
+        instance.addPostCommitTask(runs::incrementAndGet);
+        assertTrue("Task should be pending", instance.hasPostCommitTasks());
+        assertEquals("Task should not run before commit", 0, runs.get());
+
+        instance.commit();
+        assertEquals("Task should run once after commit", 1, runs.get());
+        assertFalse("No task should be pending after commit", instance.hasPostCommitTasks());
+
+        // A second commit doesn't run the task again
+        instance.commit();
+        assertEquals("Task should not run twice", 1, runs.get());
+
+        // Tasks are discarded on rollback
+        instance.addPostCommitTask(runs::incrementAndGet);
+        instance.rollback();
+        assertFalse("No task should be pending after rollback", instance.hasPostCommitTasks());
+        instance.commit();
+        assertEquals("Discarded task should not run", 1, runs.get());
+
+        cleanupContext(instance);
+    }
+
+    /**
+     * Test of addEvent method, of class Context: redundant events are merged.
+     */
+    @Test
+    public void testAddEventCoalescesModifications() throws SQLException {
+        Context instance = new Context();
+        UUID item = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        instance.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, item, "dc.title"));
+        instance.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, other, "dc.title"));
+        instance.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, item, "dc.title, dc.date"));
+        instance.addEvent(new Event(Event.MODIFY, Constants.ITEM, item, "WITHDRAW"));
+        instance.addEvent(new Event(Event.MODIFY, Constants.ITEM, item, "WITHDRAW"));
+        instance.addEvent(new Event(Event.MODIFY, Constants.ITEM, item, "REINSTATE"));
+        // Not merged into the first one, it would be moved before the modifications
+        instance.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, item, "dc.subject"));
+
+        List<Event> events = instance.getEvents();
+        assertEquals(5, events.size());
+        assertEquals("dc.title, dc.date", events.get(0).getDetail());
+        assertEquals(other, events.get(1).getSubjectID());
+        assertEquals("WITHDRAW", events.get(2).getDetail());
+        assertEquals("REINSTATE", events.get(3).getDetail());
+        assertEquals("dc.subject", events.get(4).getDetail());
+
+        // Events already delivered don't absorb later ones
+        instance.pollEvent();
+        instance.pollEvent();
+        instance.pollEvent();
+        instance.pollEvent();
+        instance.pollEvent();
+        instance.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, item, "dc.subject"));
+        assertEquals(1, instance.getEvents().size());
+
+        cleanupContext(instance);
+    }
+
     /**
      * Test of abort method, of class Context.
      */
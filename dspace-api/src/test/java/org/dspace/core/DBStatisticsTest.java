@@ -0,0 +1,56 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DBStatistics}.
+ */
+public class DBStatisticsTest {
+
+    @After
+    public void tearDown() {
+        DBStatistics.stop();
+    }
+
+    @Test
+    public void testCollectsOnlyBetweenStartAndStop() {
+        assertNull(DBStatistics.getCurrent());
+
+        DBStatistics statistics = DBStatistics.start();
+        assertSame(statistics, DBStatistics.getCurrent());
+        statistics.recordStatement(1000);
+        statistics.recordStatement(500);
+        statistics.recordEntityLoaded();
+        statistics.recordSessionEntities(10);
+        statistics.recordSessionEntities(4);
+
+        assertSame(statistics, DBStatistics.stop());
+        assertNull(DBStatistics.getCurrent());
+        assertEquals(2, statistics.getStatementCount());
+        assertEquals(1500, statistics.getSqlNanos());
+        assertEquals(1, statistics.getEntitiesLoaded());
+        assertEquals(10, statistics.getMaxSessionEntities());
+    }
+
+    @Test
+    public void testStartDiscardsPreviousStatistics() {
+        DBStatistics first = DBStatistics.start();
+        first.recordStatement(1000);
+
+        DBStatistics second = DBStatistics.start();
+        assertSame(second, DBStatistics.getCurrent());
+        assertEquals(0, second.getStatementCount());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CommunityService;
+import org.dspace.event.Event;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the eviction of communities and collections from the
+ * Hibernate second level cache by the {@link HibernateCacheConsumer}.
+ */
+public class HibernateCacheConsumerIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final String COLLECTIONS_ROLE = Community.class.getName() + ".collections";
+
+    private final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+
+    private Cache cache;
+
+    private UUID communityId;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        cache = DSpaceServicesFactory.getInstance().getServiceManager()
+                                     .getServiceByName("sessionFactory", SessionFactory.class).getCache();
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).withName("Community").build();
+        CollectionBuilder.createCollection(context, community).withName("Collection").build();
+        context.restoreAuthSystemState();
+        context.commit();
+        communityId = community.getID();
+    }
+
+    @Test
+    public void consumerEvictsTheCommunityAndItsCollections() throws Exception {
+        loadIntoCache(1);
+
+        HibernateCacheConsumer consumer = new HibernateCacheConsumer();
+        consumer.initialize();
+        consumer.consume(context, new Event(Event.MODIFY, Constants.COMMUNITY, communityId, null));
+        consumer.end(context);
+
+        // Nothing is evicted before the commit
+        assertTrue(cache.containsEntity(Community.class, communityId));
+        assertTrue(cache.containsCollection(COLLECTIONS_ROLE, communityId));
+        context.commit();
+        assertFalse(cache.containsEntity(Community.class, communityId));
+        assertFalse(cache.containsCollection(COLLECTIONS_ROLE, communityId));
+    }
+
+    @Test
+    public void addingACollectionEvictsTheCachedCollectionsOfTheCommunity() throws Exception {
+        loadIntoCache(1);
+
+        context.turnOffAuthorisationSystem();
+        Collection collection = CollectionBuilder.createCollection(context,
+                                                                   communityService.find(context, communityId))
+                                                 .withName("Other collection").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertFalse(cache.containsCollection(COLLECTIONS_ROLE, communityId));
+        context.uncacheEntities();
+        Community community = communityService.find(context, communityId);
+        assertEquals(2, community.getCollections().size());
+        assertTrue(community.getCollections().stream().anyMatch(c -> c.getID().equals(collection.getID())));
+    }
+
+    /**
+     * Load the community and its collections from the database, which stores them in the second level cache.
+     *
+     * @param collections expected number of collections of the community
+     */
+    private void loadIntoCache(int collections) throws Exception {
+        cache.evictEntityData(Community.class, communityId);
+        cache.evictCollectionData(COLLECTIONS_ROLE, communityId);
+        context.uncacheEntities();
+        Community community = communityService.find(context, communityId);
+        assertEquals(collections, community.getCollections().size());
+        assertTrue(cache.containsEntity(Community.class, communityId));
+        assertTrue(cache.containsCollection(COLLECTIONS_ROLE, communityId));
+    }
+}
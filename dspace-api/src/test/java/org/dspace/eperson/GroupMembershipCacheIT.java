@@ -0,0 +1,115 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the eviction of the {@link GroupMembershipCache}.
+ */
+public class GroupMembershipCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+    private final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    private final GroupMembershipCache cache = EPersonServiceFactory.getInstance().getGroupMembershipCache();
+
+    private Group parent;
+    private Group child;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parent = GroupBuilder.createGroup(context).withName("Parent").build();
+        child = GroupBuilder.createGroup(context).withName("Child").withParent(parent).build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        configurationService.setProperty("eperson.group-cache.enabled", true);
+        cache.invalidateAll();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("eperson.group-cache.enabled", null);
+        cache.invalidateAll();
+        super.destroy();
+    }
+
+    @Test
+    public void membershipChangesEvictCachedGroups() throws Exception {
+        assertTrue(cache.isEnabled());
+        parent = context.reloadEntity(parent);
+        child = context.reloadEntity(child);
+        assertFalse(groupService.isMember(context, eperson, parent));
+        assertNotNull(cache.get(context, eperson));
+        long hits = cache.getStats().hitCount();
+        assertFalse(groupService.isMember(context, eperson, child));
+        assertEquals(hits + 1, cache.getStats().hitCount());
+
+        // Adding the EPerson to the subgroup makes it a member of both groups once committed
+        context.turnOffAuthorisationSystem();
+        groupService.addMember(context, child, eperson);
+        groupService.update(context, child);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertNull(cache.get(context, eperson));
+        parent = context.reloadEntity(parent);
+        child = context.reloadEntity(child);
+        assertTrue(groupService.isMember(context, eperson, child));
+        assertTrue(groupService.isMember(context, eperson, parent));
+
+        // Removing the subgroup from the parent group evicts every EPerson
+        context.turnOffAuthorisationSystem();
+        groupService.removeMember(context, parent, child);
+        groupService.update(context, parent);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertNull(cache.get(context, eperson));
+        parent = context.reloadEntity(parent);
+        child = context.reloadEntity(child);
+        assertTrue(groupService.isMember(context, eperson, child));
+        assertFalse(groupService.isMember(context, eperson, parent));
+    }
+
+    @Test
+    public void uncommittedMembershipChangesBypassTheCache() throws Exception {
+        parent = context.reloadEntity(parent);
+        assertFalse(groupService.isMember(context, eperson, parent));
+
+        context.turnOffAuthorisationSystem();
+        groupService.addMember(context, parent, eperson);
+        groupService.update(context, parent);
+        context.restoreAuthSystemState();
+
+        // The context sees its own change, before and after the commit
+        assertTrue(groupService.isMember(context, eperson, parent));
+        context.commit();
+        parent = context.reloadEntity(parent);
+        assertTrue(groupService.isMember(context, eperson, parent));
+    }
+}
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +31,8 @@ import org.dspace.authorize.AuthorizeException;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -50,6 +54,8 @@ public class GroupTest extends AbstractUnitTest {
 
     protected EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
     protected GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    protected ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                               .getConfigurationService();
 
 
     /**
@@ -571,6 +577,56 @@ public class GroupTest extends AbstractUnitTest {
         assertFalse(groupService.isParentOf(context, topGroup, level1Group));
     }
 
+    @Test
+    public void removeMemberGroupUpdatesIndirectParents() throws SQLException, AuthorizeException {
+        assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+
+        groupService.removeMember(context, topGroup, level1Group);
+        groupService.update(context, topGroup);
+
+        assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+        assertTrue(groupService.isParentOf(context, level1Group, level2Group));
+
+        groupService.addMember(context, topGroup, level1Group);
+        groupService.update(context, level1Group);
+
+        assertTrue(groupService.isParentOf(context, topGroup, level1Group));
+        assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+    }
+
+    @Test
+    public void removeNestedMemberGroupUpdatesAncestors() throws SQLException, AuthorizeException {
+        configurationService.setProperty("eperson.group2groupcache.verify", false);
+        try {
+            groupService.removeMember(context, level1Group, level2Group);
+            groupService.update(context, level1Group);
+
+            assertFalse(groupService.isParentOf(context, level1Group, level2Group));
+            assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+            assertTrue(groupService.isParentOf(context, topGroup, level1Group));
+            assertTrue(isGroupCacheConsistent());
+        } finally {
+            configurationService.setProperty("eperson.group2groupcache.verify", true);
+        }
+    }
+
+    @Test
+    public void deleteMemberGroupUpdatesAncestors()
+        throws SQLException, AuthorizeException, IOException {
+        configurationService.setProperty("eperson.group2groupcache.verify", false);
+        try {
+            context.turnOffAuthorisationSystem();
+            groupService.delete(context, level1Group);
+            level1Group = null;
+            context.restoreAuthSystemState();
+
+            assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+            assertTrue(isGroupCacheConsistent());
+        } finally {
+            configurationService.setProperty("eperson.group2groupcache.verify", true);
+        }
+    }
+
     @Test
     public void allMemberGroups() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         EPerson ePerson = createEPersonAndAddToGroup("allMemberGroups@dspace.org", level1Group);
@@ -585,6 +641,21 @@ public class GroupTest extends AbstractUnitTest {
 
     }
 
+    @Test
+    public void allMemberGroupIds() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
+        EPerson ePerson = createEPersonAndAddToGroup("allMemberGroupIds@dspace.org", level1Group);
+        try {
+            Set<UUID> groupIds = groupService.allMemberGroupIds(context, ePerson);
+            assertTrue(groupIds.containsAll(Arrays.asList(topGroup.getID(), level1Group.getID(),
+                groupService.findByName(context, Group.ANONYMOUS).getID())));
+            assertFalse(groupIds.contains(level2Group.getID()));
+        } finally {
+            context.turnOffAuthorisationSystem();
+            ePersonService.delete(context, ePerson);
+            context.restoreAuthSystemState();
+        }
+    }
+
     @Test
     public void allMembers() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         List<EPerson> allEPeopleAdded = new ArrayList<>();
@@ -812,5 +883,11 @@ public class GroupTest extends AbstractUnitTest {
         return ePerson;
     }
 
-
+    /**
+     * @return true if the group cache table matches a full rebuild, checked without the verification configured
+     * for the tests, which repairs it after each change
+     */
+    private boolean isGroupCacheConsistent() throws SQLException {
+        return ((GroupServiceImpl) groupService).verifyGroupCache(context, true);
+    }
 }
@@ -0,0 +1,220 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.AbstractUnitTest;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AsynchronousDispatcher}.
+ */
+public class AsynchronousDispatcherTest extends AbstractUnitTest {
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    @Before
+    @Override
+    public void init() {
+        super.init();
+        configurationService.setProperty("event.consumer.synctest.class", SyncConsumer.class.getName());
+        configurationService.setProperty("event.consumer.synctest.filters", "All+All");
+        configurationService.setProperty("event.consumer.asynctest.class", AsyncConsumer.class.getName());
+        configurationService.setProperty("event.consumer.asynctest.filters", "Item+Modify|Modify_Metadata");
+        configurationService.setProperty("event.consumer.asynctest.async", true);
+        configurationService.setProperty("event.consumer.failingtest.class", FailingConsumer.class.getName());
+        configurationService.setProperty("event.consumer.failingtest.filters", "Item+Modify");
+        configurationService.setProperty("event.consumer.failingtest.async", true);
+        configurationService.setProperty("event.consumer.droppingtest.class", FailingConsumer.class.getName());
+        configurationService.setProperty("event.consumer.droppingtest.filters", "Item+Modify");
+        configurationService.setProperty("event.consumer.droppingtest.async", true);
+        configurationService.setProperty("event.async.retry-delay", 0);
+        SyncConsumer.events.clear();
+        AsyncConsumer.events.clear();
+        FailingConsumer.deliveries.clear();
+        FailingConsumer.failures.set(0);
+        FailingConsumer.finished.set(0);
+    }
+
+    @After
+    @Override
+    public void destroy() {
+        for (String consumer : List.of("synctest", "asynctest", "failingtest", "droppingtest")) {
+            configurationService.setProperty("event.consumer." + consumer + ".class", null);
+            configurationService.setProperty("event.consumer." + consumer + ".filters", null);
+            configurationService.setProperty("event.consumer." + consumer + ".async", null);
+        }
+        configurationService.setProperty("event.async.retry-delay", null);
+        configurationService.setProperty("event.async.retries", null);
+        super.destroy();
+    }
+
+    @Test
+    public void testAsynchronousConsumerGetsEventsAfterCommit() throws Exception {
+        AsynchronousDispatcher dispatcher = new AsynchronousDispatcher("asynctest");
+        dispatcher.addConsumerProfile(ConsumerProfile.makeConsumerProfile("synctest"));
+        dispatcher.addConsumerProfile(ConsumerProfile.makeConsumerProfile("asynctest"));
+
+        UUID id = UUID.randomUUID();
+        context.addEvent(new Event(Event.MODIFY_METADATA, Constants.ITEM, id, null));
+        context.addEvent(new Event(Event.CREATE, Constants.ITEM, id, null));
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, id, null));
+        dispatcher.dispatch(context);
+
+        // Synchronous consumers are delivered while dispatching, asynchronous ones wait for the commit
+        assertEquals(List.of(Event.MODIFY_METADATA, Event.CREATE, Event.MODIFY), SyncConsumer.events);
+        assertTrue(AsyncConsumer.events.isEmpty());
+
+        context.commit();
+        assertTrue(AsynchronousConsumerQueue.awaitAll(10000));
+        assertEquals(List.of(Event.MODIFY_METADATA, Event.MODIFY), AsyncConsumer.events);
+        assertEquals(2, AsynchronousConsumerQueue.forConsumer("asynctest").getProcessedEvents());
+    }
+
+    @Test
+    public void testAsynchronousConsumerIgnoresRolledBackEvents() throws Exception {
+        AsynchronousDispatcher dispatcher = new AsynchronousDispatcher("asynctest");
+        dispatcher.addConsumerProfile(ConsumerProfile.makeConsumerProfile("asynctest"));
+
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null));
+        dispatcher.dispatch(context);
+        context.rollback();
+
+        assertTrue(AsynchronousConsumerQueue.awaitAll(10000));
+        assertTrue(AsyncConsumer.events.isEmpty());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithANewConsumer() throws Exception {
+        AsynchronousDispatcher dispatcher = new AsynchronousDispatcher("failingtest");
+        dispatcher.addConsumerProfile(ConsumerProfile.makeConsumerProfile("failingtest"));
+        FailingConsumer.failures.set(1);
+
+        UUID id = UUID.randomUUID();
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, id, null));
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, id, "second"));
+        dispatcher.dispatch(context);
+        context.commit();
+
+        // The retry is delivered to a new consumer, which doesn't see the events of the failed attempt again
+        assertTrue(AsynchronousConsumerQueue.awaitAll(10000));
+        assertEquals(List.of(List.of(Event.MODIFY, Event.MODIFY)), FailingConsumer.deliveries);
+        assertEquals(1, FailingConsumer.finished.get());
+        AsynchronousConsumerQueue queue = AsynchronousConsumerQueue.forConsumer("failingtest");
+        assertEquals(1, queue.getRetriedBatches());
+        assertEquals(2, queue.getProcessedEvents());
+        assertEquals(0, queue.getFailedEvents());
+    }
+
+    @Test
+    public void testEventsAreDroppedAfterTheLastRetry() throws Exception {
+        configurationService.setProperty("event.async.retries", 1);
+        AsynchronousDispatcher dispatcher = new AsynchronousDispatcher("droppingtest");
+        dispatcher.addConsumerProfile(ConsumerProfile.makeConsumerProfile("droppingtest"));
+        FailingConsumer.failures.set(2);
+
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null));
+        context.addEvent(new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null));
+        dispatcher.dispatch(context);
+        context.commit();
+
+        assertTrue(AsynchronousConsumerQueue.awaitAll(10000));
+        assertTrue(FailingConsumer.deliveries.isEmpty());
+        AsynchronousConsumerQueue queue = AsynchronousConsumerQueue.forConsumer("droppingtest");
+        assertEquals(1, queue.getRetriedBatches());
+        assertEquals(0, queue.getProcessedEvents());
+        assertEquals(2, queue.getFailedEvents());
+        assertEquals("Asynchronous consumer droppingtest: 2 events submitted, 0 processed, 2 dropped after "
+                         + "failures, 1 batches retried, 0 batches pending", queue.getStatistics());
+    }
+
+    /**
+     * Consumer recording the types of the events it gets.
+     */
+    public static class SyncConsumer implements Consumer {
+        static final List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            events.add(event.getEventType());
+        }
+
+        @Override
+        public void end(Context ctx) {
+        }
+
+        @Override
+        public void finish(Context ctx) {
+        }
+    }
+
+    /**
+     * Consumer recording the types of the events it gets, delivered asynchronously.
+     */
+    public static class AsyncConsumer extends SyncConsumer {
+        static final List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            events.add(event.getEventType());
+        }
+    }
+
+    /**
+     * Consumer collecting the events of a batch until its end, failing the given number of times.
+     */
+    public static class FailingConsumer implements Consumer {
+        static final List<List<Integer>> deliveries = Collections.synchronizedList(new ArrayList<>());
+        static final AtomicInteger failures = new AtomicInteger();
+        static final AtomicInteger finished = new AtomicInteger();
+
+        private final List<Integer> events = new ArrayList<>();
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            events.add(event.getEventType());
+        }
+
+        @Override
+        public void end(Context ctx) {
+            if (failures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                throw new IllegalStateException("Failing as requested");
+            }
+            deliveries.add(new ArrayList<>(events));
+            events.clear();
+        }
+
+        @Override
+        public void finish(Context ctx) {
+            finished.incrementAndGet();
+        }
+    }
+}
@@ -8,9 +8,16 @@
 package org.dspace.handle;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.dspace.AbstractUnitTest;
+import org.dspace.content.Community;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CommunityService;
+import org.dspace.handle.HandleResolutionCache.Resolution;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
@@ -20,6 +27,9 @@ import org.junit.Test;
 
 public class HandleServiceTest extends AbstractUnitTest {
     protected HandleService handleService = HandleServiceFactory.getInstance().getHandleService();
+    protected HandleResolutionCache handleResolutionCache =
+        HandleServiceFactory.getInstance().getHandleResolutionCache();
+    protected CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
     protected ConfigurationService configurationService = new DSpace().getConfigurationService();
 
     @Before
@@ -70,4 +80,42 @@ public class HandleServiceTest extends AbstractUnitTest {
         assertEquals("111222333/111", handleService.parseHandle("https://whatever/handle/111222333/111"));
         assertEquals("111222333/111", handleService.parseHandle("http://whatever/handle/111222333/111"));
     }
+
+    @Test
+    public void testResolutionCache() throws Exception {
+        String handle = "123456789/resolution-cache";
+
+        // unknown handles are cached too
+        assertNull(handleService.resolveToURL(context, handle));
+        assertEquals(Resolution.NOT_FOUND, handleResolutionCache.get(context, handle));
+        assertNull(handleService.resolveToObject(context, handle));
+
+        context.turnOffAuthorisationSystem();
+        Community community = communityService.create(null, context, handle);
+        // the context holds uncommitted changes, so it doesn't use the cache
+        assertEquals(community, handleService.resolveToObject(context, handle));
+        long invalidations = handleResolutionCache.getInvalidationCount();
+        context.commit();
+
+        // the creation of the handle evicted its resolution
+        assertNull(handleResolutionCache.get(context, handle));
+        assertTrue(handleResolutionCache.getInvalidationCount() > invalidations);
+        assertEquals(configurationService.getProperty("dspace.ui.url") + "/handle/" + handle,
+                     handleService.resolveToURL(context, handle));
+        Resolution resolution = handleResolutionCache.get(context, handle);
+        assertNotNull(resolution);
+        assertTrue(resolution.isBound());
+        assertEquals(community.getID(), resolution.dsoId());
+        assertEquals(community, handleService.resolveToObject(context, handle));
+
+        community = context.reloadEntity(community);
+        communityService.delete(context, community);
+        context.commit();
+        context.restoreAuthSystemState();
+
+        // the handle was unbound
+        assertNull(handleResolutionCache.get(context, handle));
+        assertNull(handleService.resolveToObject(context, handle));
+        assertFalse(handleResolutionCache.get(context, handle).isBound());
+    }
 }
@@ -0,0 +1,74 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.statistics.GeoIpLookupCache.IpLookup;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeoIpLookupCache}.
+ */
+public class GeoIpLookupCacheTest {
+
+    @Test
+    public void testRepeatedLookupIsResolvedOnce() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(10, 60);
+        AtomicInteger resolved = new AtomicInteger();
+        IpLookup expected = new IpLookup("crawler.example.org", "NA", "US", "New York", 40.76, -73.99);
+
+        for (int i = 0; i < 5; i++) {
+            IpLookup lookup = cache.get("192.0.2.1", () -> {
+                resolved.incrementAndGet();
+                return expected;
+            });
+            assertSame(expected, lookup);
+        }
+
+        assertEquals(1, resolved.get());
+        assertEquals(4, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(2, 60);
+        for (int i = 0; i < 10; i++) {
+            cache.get("192.0.2." + i, () -> IpLookup.EMPTY);
+        }
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.getStats().evictionCount() >= 8);
+    }
+
+    @Test
+    public void testFailedLookupReturnsEmpty() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(10, 60);
+        IpLookup lookup = cache.get("192.0.2.1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertSame(IpLookup.EMPTY, lookup);
+        assertNull(lookup.getDns());
+        assertFalse(lookup.hasLocation());
+    }
+
+    @Test
+    public void testClear() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(10, 60);
+        cache.get("192.0.2.1", () -> IpLookup.EMPTY);
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.content.Community;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CommunityService;
+import org.dspace.core.Context;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the transactions routed to a database replica by {@link ReadReplicaRoutingDataSource}. The
+ * test database itself plays the replica.
+ */
+public class ReadReplicaRoutingDataSourceIT extends AbstractIntegrationTestWithDatabase {
+
+    private final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    private Cache cache;
+
+    private UUID communityId;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        routingDataSource = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                 .getServiceByName("routingDataSource",
+                                                                   ReadReplicaRoutingDataSource.class);
+        routingDataSource.setReplica(routingDataSource.getTargetDataSource(), 30, 60000, "SELECT 0");
+        cache = DSpaceServicesFactory.getInstance().getServiceManager()
+                                     .getServiceByName("sessionFactory", SessionFactory.class).getCache();
+
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).withName("Community").build();
+        context.restoreAuthSystemState();
+        context.commit();
+        communityId = community.getID();
+        cache.evictEntityData(Community.class, communityId);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        // The test configuration has no replica
+        routingDataSource.setReplica(null, 0, 0, null);
+        if (context.getCurrentMode() != Context.Mode.READ_WRITE) {
+            context.setMode(Context.Mode.READ_WRITE);
+        }
+        super.destroy();
+    }
+
+    @Test
+    public void replicaReadsDoNotFillTheSecondLevelCache() throws Exception {
+        context.uncacheEntities();
+        context.setMode(Context.Mode.READ_ONLY);
+        assertTrue(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+
+        assertNotNull(communityService.find(context, communityId));
+        assertFalse(cache.containsEntity(Community.class, communityId));
+
+        // Back on the primary database, the entities read are cached again
+        context.setMode(Context.Mode.READ_WRITE);
+        assertFalse(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+        context.uncacheEntities();
+        assertNotNull(communityService.find(context, communityId));
+        assertTrue(cache.containsEntity(Community.class, communityId));
+    }
+}
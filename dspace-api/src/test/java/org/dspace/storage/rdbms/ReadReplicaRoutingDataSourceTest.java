@@ -0,0 +1,118 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ReadReplicaRoutingDataSource}, with mocked primary and replica databases.
+ */
+public class ReadReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag";
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ResultSet lagResult;
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        lagResult = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(lagResult);
+        when(lagResult.next()).thenReturn(true);
+        when(lagResult.getDouble(1)).thenReturn(0d);
+
+        dataSource = new ReadReplicaRoutingDataSource(primary, replica, 30, 60000, LAG_QUERY);
+    }
+
+    @After
+    public void destroy() {
+        ReadReplicaRoutingDataSource.setRouteToReplica(false);
+    }
+
+    @Test
+    public void readOnlyConnectionsComeFromTheReplica() throws Exception {
+        ReadReplicaRoutingDataSource.setRouteToReplica(true);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertTrue(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    public void writeConnectionsComeFromThePrimary() throws Exception {
+        ReadReplicaRoutingDataSource.setRouteToReplica(true);
+        dataSource.getConnection();
+
+        ReadReplicaRoutingDataSource.setRouteToReplica(false);
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+        // one connection for the lag check, one handed out for the read-only transaction
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    public void fallBackToThePrimaryWhenTheReplicaIsUnavailable() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReadReplicaRoutingDataSource.setRouteToReplica(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+        // the replica isn't tried again before the next lag check
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    public void fallBackToThePrimaryWhenTheReplicaLagsBehind() throws Exception {
+        when(lagResult.getDouble(1)).thenReturn(120d);
+        ReadReplicaRoutingDataSource.setRouteToReplica(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+    }
+
+    @Test
+    public void fallBackToThePrimaryWhenTheReplicaFailsAfterTheLagCheck() throws Exception {
+        ReadReplicaRoutingDataSource.setRouteToReplica(true);
+        assertSame(replicaConnection, dataSource.getConnection());
+
+        when(replica.getConnection()).thenThrow(new SQLException("Connection reset"));
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(ReadReplicaRoutingDataSource.isLastConnectionFromReplica());
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.stream.XMLStreamException;
+
+import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.xoai.solr.exceptions.DSpaceSolrIndexerException;
+
+/**
+ * Multi-threaded import of items into the OAI Solr index, used by {@link XOAI}.
+ * <P>
+ * The calling thread streams the identifiers of the items to import to a pool of workers. Each worker has its
+ * own read-only {@link Context}, in which it compiles the items into Solr documents by pages of up to
+ * {@value #PAGE_SIZE} items, so that the state needed for a whole page can be loaded at once. A single writer
+ * sends the documents to Solr in batches, each followed by a soft commit which makes them searchable, and a hard
+ * commit is done once all the items are imported.
+ * <P>
+ * Errors compiling one item are logged and the item skipped, as before. Errors writing to Solr stop the import.
+ */
+class ItemImportPipeline {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Marks the end of the identifiers, put back by each worker which reads it for the next one
+     */
+    private static final UUID END_OF_IDS = new UUID(0, 0);
+
+    /**
+     * Marks the end of the documents, sent to the writer once all workers are done
+     */
+    private static final SolrInputDocument END_OF_DOCUMENTS = new SolrInputDocument();
+
+    /**
+     * Maximum number of items compiled together by a worker
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * Prepares the compilation of a page of items.
+     */
+    interface ItemCompiler {
+        /**
+         * Load the state needed to compile a page of items.
+         *
+         * @param context the context of the calling worker
+         * @param ids     identifiers of the items, at most {@value ItemImportPipeline#PAGE_SIZE}
+         * @return the compiler of the items of the page
+         * @throws SQLException if database error
+         * @throws IOException  if the OAI index can't be read
+         */
+        PageCompiler prepare(Context context, List<UUID> ids) throws SQLException, IOException;
+    }
+
+    /**
+     * Compiles the Solr documents of the items of a page.
+     */
+    interface PageCompiler {
+        /**
+         * @param id identifier of an item of the page
+         * @return the Solr document of the item, null if the item must not be (re)indexed
+         */
+        SolrInputDocument compile(UUID id) throws SQLException, IOException, XMLStreamException, WritingXmlException;
+    }
+
+    /**
+     * Source of the identifiers to import.
+     */
+    private interface IdSource {
+        /**
+         * @return the next identifier, null once there are no more
+         */
+        UUID next() throws SQLException;
+    }
+
+    private final SolrClient server;
+    private final ItemCompiler compiler;
+    private final int threads;
+    private final int batchSize;
+
+    private final AtomicInteger compiled = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+    private Instant start;
+
+    /**
+     * Set when the import can't complete, to stop the producer and the workers waiting on a full queue
+     */
+    private volatile boolean aborted = false;
+
+    /**
+     * @param server    OAI Solr core
+     * @param compiler  compiles the items, called concurrently by the workers
+     * @param threads   number of workers
+     * @param batchSize number of documents sent to Solr at a time
+     */
+    ItemImportPipeline(SolrClient server, ItemCompiler compiler, int threads, int batchSize) {
+        this.server = server;
+        this.compiler = compiler;
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Import the given items. Each item is uncached from the context of the iterator once its identifier is
+     * handed to the workers.
+     *
+     * @param context context of the iterator
+     * @param items   items to import
+     * @return the number of items read from the iterator
+     * @throws DSpaceSolrIndexerException if the documents can't be written to Solr
+     */
+    int run(Context context, Iterator<Item> items) throws DSpaceSolrIndexerException {
+        return run(() -> {
+            if (!items.hasNext()) {
+                return null;
+            }
+            Item item = items.next();
+            context.uncacheEntity(item);
+            return item.getID();
+        });
+    }
+
+    /**
+     * Import the items with the given identifiers.
+     *
+     * @param ids identifiers of the items to import
+     * @return the number of identifiers read from the iterator
+     * @throws DSpaceSolrIndexerException if the documents can't be written to Solr
+     */
+    int run(Iterator<UUID> ids) throws DSpaceSolrIndexerException {
+        return run(() -> ids.hasNext() ? ids.next() : null);
+    }
+
+    private int run(IdSource source) throws DSpaceSolrIndexerException {
+        start = Instant.now();
+        BlockingQueue<UUID> ids = new ArrayBlockingQueue<>(threads * PAGE_SIZE);
+        BlockingQueue<SolrInputDocument> documents = new ArrayBlockingQueue<>(batchSize);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        int read = 0;
+        try {
+            List<Future<Void>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> compile(ids, documents)));
+            }
+            Future<Void> writer = executor.submit(() -> write(documents));
+
+            for (UUID id = source.next(); !aborted && id != null; id = source.next()) {
+                if (put(ids, id)) {
+                    read++;
+                }
+            }
+            put(ids, END_OF_IDS);
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+            put(documents, END_OF_DOCUMENTS);
+            writer.get();
+
+            System.out.println("Total: " + read + " items" + getProgress());
+            if (read > 0) {
+                server.commit(true, true);
+            }
+            return read;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DSpaceSolrIndexerException(cause.getMessage(), cause);
+        } catch (SQLException | SolrServerException | IOException ex) {
+            throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DSpaceSolrIndexerException("OAI import interrupted", ex);
+        } finally {
+            aborted = true;
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Worker loop: compile the items of the identifiers read from the queue, page by page, until the end marker.
+     */
+    private Void compile(BlockingQueue<UUID> ids, BlockingQueue<SolrInputDocument> documents)
+        throws SQLException, InterruptedException {
+        Context context = createContext();
+        try {
+            boolean end = false;
+            while (!end) {
+                UUID first = take(ids);
+                if (first == null) {
+                    return null;
+                }
+                List<UUID> page = new ArrayList<>(PAGE_SIZE);
+                page.add(first);
+                ids.drainTo(page, PAGE_SIZE - 1);
+                end = page.remove(END_OF_IDS);
+                if (end && !put(ids, END_OF_IDS)) {
+                    // the end marker is put back for the other workers, unless the import was aborted
+                    return null;
+                }
+                if (!page.isEmpty() && !compile(context, page, documents)) {
+                    return null;
+                }
+                // Keep the memory consumption of the worker low
+                context.uncacheEntities();
+            }
+            return null;
+        } catch (SQLException | RuntimeException ex) {
+            // Without this worker, the producer could wait forever for space in the queue
+            aborted = true;
+            throw ex;
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Compile a page of items and queue their documents.
+     *
+     * @return false if the import was aborted
+     */
+    private boolean compile(Context context, List<UUID> page, BlockingQueue<SolrInputDocument> documents)
+        throws InterruptedException {
+        PageCompiler pageCompiler;
+        try {
+            pageCompiler = compiler.prepare(context, page);
+        } catch (SQLException | IOException ex) {
+            failed.addAndGet(page.size());
+            log.error("Unable to compile items " + page + ": " + ex.getMessage(), ex);
+            return true;
+        }
+        for (UUID id : page) {
+            try {
+                SolrInputDocument document = pageCompiler.compile(id);
+                if (document == null) {
+                    skipped.incrementAndGet();
+                } else if (put(documents, document)) {
+                    compiled.incrementAndGet();
+                } else {
+                    return false;
+                }
+            } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+                failed.incrementAndGet();
+                log.error("Unable to compile item " + id + ": " + ex.getMessage(), ex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writer loop: send the documents read from the queue to Solr in batches until the end marker.
+     */
+    private Void write(BlockingQueue<SolrInputDocument> documents)
+        throws SolrServerException, IOException, InterruptedException {
+        List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        try {
+            for (SolrInputDocument document = take(documents); document != END_OF_DOCUMENTS;
+                 document = take(documents)) {
+                if (document == null) {
+                    return null;
+                }
+                batch.add(document);
+                if (batch.size() >= batchSize) {
+                    server.add(batch);
+                    // Soft commit: the documents become searchable without waiting for them to be flushed to disk
+                    server.commit(false, false, true);
+                    written.addAndGet(batch.size());
+                    batch.clear();
+                    System.out.println(written.get() + " items imported so far..." + getProgress());
+                }
+            }
+            if (!batch.isEmpty()) {
+                server.add(batch);
+                written.addAndGet(batch.size());
+            }
+            return null;
+        } catch (SolrServerException | IOException | RuntimeException ex) {
+            aborted = true;
+            throw ex;
+        }
+    }
+
+    /**
+     * Take an element from a queue, waiting for one unless the import is aborted.
+     *
+     * @return the element, null if the import was aborted before one was available
+     */
+    private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+        T element;
+        while ((element = queue.poll(1, TimeUnit.SECONDS)) == null) {
+            if (aborted) {
+                return null;
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Put an element into a bounded queue, waiting for space unless the import is aborted.
+     *
+     * @return false if the import was aborted before the element could be queued
+     */
+    private <T> boolean put(BlockingQueue<T> queue, T element) throws InterruptedException {
+        while (!queue.offer(element, 1, TimeUnit.SECONDS)) {
+            if (aborted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a new read-only context for a worker
+     */
+    Context createContext() {
+        return new Context(Context.Mode.READ_ONLY);
+    }
+
+    private String getProgress() {
+        long seconds = Math.max(1, Duration.between(start, Instant.now()).toSeconds());
+        return String.format(" (%d compiled, %d skipped, %d failed, %d written, %d items/s, %d threads)",
+                             compiled.get(), skipped.get(), failed.get(), written.get(),
+                             written.get() / seconds, threads);
+    }
+}
@@ -8,7 +8,6 @@
 package org.dspace.xoai.app;
 
 import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
-import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.solr.common.params.CursorMarkParams.CURSOR_MARK_PARAM;
 import static org.apache.solr.common.params.CursorMarkParams.CURSOR_MARK_START;
@@ -21,12 +20,16 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.xml.stream.XMLStreamException;
 
@@ -38,6 +41,7 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
@@ -51,6 +55,7 @@ import org.apache.solr.common.SolrInputDocument;
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
@@ -62,6 +67,7 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.eperson.Group;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.util.SolrUtils;
@@ -71,6 +77,7 @@ import org.dspace.xoai.services.api.CollectionsService;
 import org.dspace.xoai.services.api.cache.XOAICacheService;
 import org.dspace.xoai.services.api.cache.XOAIItemCacheService;
 import org.dspace.xoai.services.api.cache.XOAILastCompilationCacheService;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
 import org.dspace.xoai.services.api.solr.SolrServerResolver;
 import org.dspace.xoai.solr.DSpaceSolrSearch;
 import org.dspace.xoai.solr.exceptions.DSpaceSolrException;
@@ -89,6 +96,7 @@ public class XOAI {
     private final Context context;
     private final boolean verbose;
     private boolean clean;
+    private int threads = configurationService.getIntProperty("oai.import.threads", 4);
 
     @Autowired
     private SolrServerResolver solrServerResolver;
@@ -100,6 +108,7 @@ public class XOAI {
     private CollectionsService collectionsService;
 
     private final AuthorizeService authorizeService;
+    private final ResourcePolicyService resourcePolicyService;
     private final ItemService itemService;
 
     private final static ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
@@ -107,7 +116,13 @@ public class XOAI {
 
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
-    private List<String> getFileFormats(Item item) {
+    /**
+     * Visibility state of an item in the OAI index
+     */
+    private record IndexState(boolean isPublic, boolean deleted, boolean willChangeStatus, Instant lastModified) {
+    }
+
+    private List<String> getFileFormats(Context context, Item item) {
         List<String> formats = new ArrayList<>();
         try {
             for (Bundle b : itemService.getBundles(item, "ORIGINAL")) {
@@ -130,6 +145,7 @@ public class XOAI {
 
         // Load necessary DSpace services
         this.authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+        this.resourcePolicyService = AuthorizeServiceFactory.getInstance().getResourcePolicyService();
         this.itemService = ContentServiceFactory.getInstance().getItemService();
         this.extensionPlugins = new DSpace().getServiceManager()
                 .getServicesByType(XOAIExtensionItemCompilePlugin.class);
@@ -141,11 +157,19 @@ public class XOAI {
 
         // Load necessary DSpace services
         this.authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+        this.resourcePolicyService = AuthorizeServiceFactory.getInstance().getResourcePolicyService();
         this.itemService = ContentServiceFactory.getInstance().getItemService();
         this.extensionPlugins = new DSpace().getServiceManager()
                 .getServicesByType(XOAIExtensionItemCompilePlugin.class);
     }
 
+    /**
+     * @param threads number of threads compiling the items during an import, see {@link ItemImportPipeline}
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     private void println(String line) {
         System.out.println(line);
     }
@@ -167,7 +191,7 @@ public class XOAI {
                     System.out.println("There are no indexed documents, using full import.");
                     result = this.indexAll();
                 } else {
-                    result = this.index(((java.util.Date) results.get(0).getFieldValue("item.lastmodified"))
+                    result = this.index(((Date) results.get(0).getFieldValue("item.lastmodified"))
                                             .toInstant());
                 }
 
@@ -193,9 +217,9 @@ public class XOAI {
                     .findInArchiveOrWithdrawnDiscoverableModifiedSince(context, last);
             Iterator<Item> nonDiscoverableChangedItems = itemService
                     .findInArchiveOrWithdrawnNonDiscoverableModifiedSince(context, last);
-            Iterator<Item> possiblyChangedItems = getItemsWithPossibleChangesBefore(last);
+            Iterator<UUID> possiblyChangedItems = getItemsWithPossibleChanges();
             return this.index(discoverableChangedItems) + this.index(nonDiscoverableChangedItems)
-                    + this.index(possiblyChangedItems);
+                    + this.indexIfChanged(possiblyChangedItems, last);
         } catch (SQLException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
         }
@@ -203,22 +227,20 @@ public class XOAI {
 
     /**
      * Get all items already in the index which are viable to change visibility due
-     * to an embargo. Only consider those which haven't been modified anyways since
-     * the last update, so they aren't updated twice in one import run.
+     * to an embargo. The items modified since the last update, which are updated
+     * anyways, are left out when they are compiled, see {@link #indexIfChanged}.
      *
-     * @param last maximum date for an item to be considered for an update
-     * @return Iterator over list of items which might have changed their visibility
-     *         since the last update.
+     * @return Iterator over the identifiers of the items which might have changed
+     *         their visibility since the last update.
      * @throws DSpaceSolrIndexerException
      */
-    private Iterator<Item> getItemsWithPossibleChangesBefore(Instant last)
-        throws DSpaceSolrIndexerException, IOException {
+    private Iterator<UUID> getItemsWithPossibleChanges() throws DSpaceSolrIndexerException, IOException {
         try {
             SolrQuery params = new SolrQuery("item.willChangeStatus:true").addField("item.id").setRows(100)
                     .addSort("item.handle", SolrQuery.ORDER.asc);
             SolrClient solrClient = solrServerResolver.getServer();
 
-            List<Item> items = new LinkedList<>();
+            List<UUID> ids = new ArrayList<>();
             boolean done = false;
             /*
              * Using solr cursors to paginate and prevent the query from returning 10
@@ -233,16 +255,7 @@ public class XOAI {
                 nextCursorMark = response.getNextCursorMark();
 
                 for (SolrDocument document : response.getResults()) {
-                    Item item = itemService.find(context, UUID.fromString((String) document.getFieldValue("item.id")));
-                    if (nonNull(item)) {
-                        if (nonNull(item.getLastModified())) {
-                            if (item.getLastModified().isBefore(last)) {
-                                items.add(item);
-                            }
-                        } else {
-                            log.warn("Skipping item with id " + item.getID());
-                        }
-                    }
+                    ids.add(UUID.fromString((String) document.getFieldValue("item.id")));
                 }
 
                 if (cursorMark.equals(nextCursorMark)) {
@@ -250,8 +263,8 @@ public class XOAI {
                 }
                 cursorMark = nextCursorMark;
             }
-            return items.iterator();
-        } catch (SolrServerException | SQLException ex) {
+            return ids.iterator();
+        } catch (SolrServerException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
         }
     }
@@ -273,138 +286,151 @@ public class XOAI {
     }
 
     /**
-     * Check if an item is already indexed. Using this, it is possible to check if
-     * withdrawn or nondiscoverable items have to be indexed at all.
+     * Get the index state of a page of items, with a single query.
      *
-     * @param item Item that should be checked for its presence in the index.
-     * @return has it been indexed?
+     * @param ids identifiers of the items
+     * @return the index state of the items which are indexed, by identifier
      */
-    private boolean checkIfIndexed(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.id");
+    private Map<UUID, IndexState> getIndexStates(List<UUID> ids) throws IOException {
+        SolrQuery params = new SolrQuery("{!terms f=item.id}" + StringUtils.join(ids, ','))
+                .setFields("item.id", "item.public", "item.deleted", "item.willChangeStatus", "item.lastmodified")
+                .setRows(ids.size());
+        Map<UUID, IndexState> states = new HashMap<>();
         try {
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            return documents.getNumFound() == 1;
+            for (SolrDocument document : DSpaceSolrSearch.query(solrServerResolver.getServer(), params)) {
+                Date lastModified = (Date) document.getFieldValue("item.lastmodified");
+                states.put(UUID.fromString((String) document.getFieldValue("item.id")),
+                           new IndexState(Boolean.TRUE.equals(document.getFieldValue("item.public")),
+                                          Boolean.TRUE.equals(document.getFieldValue("item.deleted")),
+                                          Boolean.TRUE.equals(document.getFieldValue("item.willChangeStatus")),
+                                          lastModified != null ? lastModified.toInstant() : null));
+            }
         } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
+            // The items are considered as not indexed
+            log.warn("Unable to get the index state of items " + ids + ": " + e.getMessage());
         }
+        return states;
+    }
+
+    private int index(Iterator<Item> iterator) throws DSpaceSolrIndexerException {
+        return newPipeline(null).run(context, iterator);
     }
 
     /**
-     * Check if an item is flagged visible in the index.
+     * Index the given items again if their visibility changed since they were indexed, i.e.
+     * if an embargo started or ended. Items modified since the last update are left out,
+     * they are updated anyways.
      *
-     * @param item Item that should be checked for its presence in the index.
-     * @return has it been indexed?
+     * @param ids  identifiers of items already indexed
+     * @param last date of the last update
+     * @return the number of items considered
+     * @throws DSpaceSolrIndexerException
      */
-    private boolean checkIfVisibleInOAI(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.public");
-        try {
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            if (documents.getNumFound() == 1) {
-                return (boolean) documents.get(0).getFieldValue("item.public");
-            } else {
-                return false;
-            }
-        } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
-        }
+    private int indexIfChanged(Iterator<UUID> ids, Instant last) throws DSpaceSolrIndexerException {
+        return newPipeline(last).run(ids);
     }
 
-    private int index(Iterator<Item> iterator) throws DSpaceSolrIndexerException {
+    private ItemImportPipeline newPipeline(Instant last) throws DSpaceSolrIndexerException {
+        int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
         try {
-            int i = 0;
-            int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
-            SolrClient server = solrServerResolver.getServer();
-            ArrayList<SolrInputDocument> list = new ArrayList<>();
-            while (iterator.hasNext()) {
-                try {
-                    Item item = iterator.next();
-                    if (item.getHandle() == null) {
-                        log.warn("Skipped item without handle: " + item.getID());
-                    } else {
-                        list.add(this.index(item));
-                    }
-                    // Uncache the item to keep memory consumption low
-                    context.uncacheEntity(item);
-
-                } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
-                    log.error(ex.getMessage(), ex);
-                }
-                i++;
-                if (i % 1000 == 0 && batchSize != 1000) {
-                    System.out.println(i + " items imported so far...");
-                }
-                if (i % batchSize == 0) {
-                    System.out.println(i + " items imported so far...");
-                    server.add(list);
-                    server.commit();
-                    list.clear();
-                    try {
-                        context.uncacheEntities();
-                    } catch (SQLException ex) {
-                        log.error("Error uncaching entities", ex);
-                    }
-                }
-            }
-            System.out.println("Total: " + i + " items");
-            if (i > 0) {
-                if (!list.isEmpty()) {
-                    server.add(list);
-                }
-                server.commit(true, true);
-                list.clear();
-            }
-            return i;
-        } catch (SolrServerException | IOException ex) {
+            return new ItemImportPipeline(solrServerResolver.getServer(),
+                                          (workerContext, ids) -> preparePage(workerContext, ids, last),
+                                          threads, batchSize);
+        } catch (SolrServerException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
         }
     }
 
     /**
-     * Method to get the most recent date on which the item changed concerning the
-     * OAI deleted status (policy start and end dates for all anonymous READ
-     * policies and the standard last modification date)
+     * Load the state needed to compile a page of items, called concurrently by the import
+     * workers: the items, their index state, whether they are public and their anonymous
+     * READ policies.
      *
-     * @param item Item
-     * @return date
-     * @throws SQLException
+     * @param context context of the calling worker
+     * @param ids     identifiers of the items
+     * @param last    date of the last update if only the items whose visibility changed
+     *                must be indexed again, see {@link #indexIfChanged}, null otherwise
+     * @return the compiler of the items of the page
      */
-    private Instant getMostRecentModificationDate(Item item) throws SQLException {
-        List<Instant> dates = new LinkedList<>();
-        List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
-        for (ResourcePolicy policy : policies) {
-            if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
-                if (policy.getStartDate() != null) {
-                    dates.add(policy.getStartDate().atStartOfDay(ZoneOffset.UTC).toInstant());
-                }
-                if (policy.getEndDate() != null) {
-                    dates.add(policy.getEndDate().atStartOfDay(ZoneOffset.UTC).toInstant());
-                }
+    private ItemImportPipeline.PageCompiler preparePage(Context context, List<UUID> ids, Instant last)
+            throws SQLException, IOException {
+        Map<UUID, IndexState> indexStates = getIndexStates(ids);
+        Map<UUID, Item> items = new HashMap<>();
+        for (UUID id : ids) {
+            Item item = itemService.find(context, id);
+            if (item != null) {
+                items.put(id, item);
             }
-            context.uncacheEntity(policy);
         }
-        dates.add(item.getLastModified());
-        Collections.sort(dates);
-        Instant now = Instant.now();
-        Instant lastChange = null;
-        for (Instant d : dates) {
-            if (d.isBefore(now)) {
-                lastChange = d;
+        List<Item> pageItems = new ArrayList<>(items.values());
+        // The context of the workers is anonymous
+        Map<Item, Boolean> readable = authorizeService.bulkAuthorizeActionBoolean(context, pageItems, Constants.READ);
+        Map<UUID, List<ResourcePolicy>> anonymousReadPolicies = new HashMap<>();
+        for (ResourcePolicy policy : resourcePolicyService.findByDSOsAndAction(context, pageItems, Constants.READ)) {
+            if ((policy.getGroup() != null) && (policy.getGroup().getName().equals(Group.ANONYMOUS))) {
+                anonymousReadPolicies.computeIfAbsent(policy.getdSpaceObject().getID(), k -> new ArrayList<>())
+                                     .add(policy);
             }
         }
-        return lastChange;
+        return id -> {
+            Item item = items.get(id);
+            if (item == null) {
+                return null;
+            }
+            return compileItem(context, item, Boolean.TRUE.equals(readable.get(item)),
+                               anonymousReadPolicies.getOrDefault(id, List.of()), indexStates.get(id), last);
+        };
     }
 
-    private SolrInputDocument index(Item item)
+    /**
+     * Compile the Solr document of an item.
+     *
+     * @param context               context of the calling worker
+     * @param item                  the item
+     * @param readable              whether the item can be read anonymously
+     * @param anonymousReadPolicies the anonymous READ policies of the item
+     * @param indexed               the current index state of the item, null if not indexed
+     * @param last                  date of the last update if the item must only be indexed
+     *                              again if its visibility changed, null otherwise
+     * @return the Solr document, null if the item must not be (re)indexed
+     */
+    private SolrInputDocument compileItem(Context context, Item item, boolean readable,
+                                          List<ResourcePolicy> anonymousReadPolicies, IndexState indexed,
+                                          Instant last)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
-        SolrInputDocument doc = new SolrInputDocument();
-        doc.addField("item.id", item.getID().toString());
-
-        String handle = item.getHandle();
-        doc.addField("item.handle", handle);
+        if (item.getHandle() == null) {
+            log.warn("Skipped item without handle: " + item.getID());
+            return null;
+        }
+        if (last != null) {
+            if (item.getLastModified() == null) {
+                log.warn("Skipping item with id " + item.getID());
+                return null;
+            }
+            if (!item.getLastModified().isBefore(last)) {
+                // modified since the last update, so indexed with the modified items
+                return null;
+            }
+        }
+        IndexState state = getIndexState(item, readable, anonymousReadPolicies, indexed);
+        if (last != null && state.equals(indexed)) {
+            return null;
+        }
+        return this.index(context, item, state);
+    }
 
-        boolean isEmbargoed = !this.isPublic(item);
-        boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
-        boolean isIndexed = this.checkIfIndexed(item);
+    /**
+     * Compute the visibility state of an item in the index.
+     *
+     * @param item                  the item
+     * @param readable              whether the item can be read anonymously
+     * @param anonymousReadPolicies the anonymous READ policies of the item
+     * @param indexed               the current index state of the item, null if not indexed
+     * @return the state the item must have in the index
+     */
+    private IndexState getIndexState(Item item, boolean readable, List<ResourcePolicy> anonymousReadPolicies,
+                                     IndexState indexed) {
+        boolean isEmbargoed = !readable;
 
         /*
          * If the item is not under embargo, it should be visible. If it is, make it
@@ -419,13 +445,7 @@ public class XOAI {
          * future will be marked as such.
          */
 
-        boolean isPublic = isEmbargoed ? (isIndexed ? isCurrentlyVisible : false) : true;
-        doc.addField("item.public", isPublic);
-
-        // if the visibility of the item will change in the future due to an
-        // embargo, mark it as such.
-
-        doc.addField("item.willChangeStatus", willChangeStatus(item));
+        boolean isPublic = isEmbargoed ? (indexed != null ? indexed.isPublic() : false) : true;
 
         /*
          * Mark an item as deleted not only if it is withdrawn, but also if it is made
@@ -434,8 +454,7 @@ public class XOAI {
          * because this will override the item.public flag.
          */
 
-        doc.addField("item.deleted",
-                (item.isWithdrawn() || !item.isDiscoverable() || (isEmbargoed ? isPublic : false)));
+        boolean deleted = item.isWithdrawn() || !item.isDiscoverable() || (isEmbargoed ? isPublic : false);
 
         /*
          * An item that is embargoed will potentially not be harvested by incremental
@@ -445,8 +464,58 @@ public class XOAI {
          * Therefore, consider all relevant policy dates and the standard lastModified
          * date and take the most recent of those which have already passed.
          */
-        doc.addField("item.lastmodified",
-                SolrUtils.getDateFormatter().format(this.getMostRecentModificationDate(item)));
+        Instant lastModified = getMostRecentModificationDate(item, anonymousReadPolicies);
+
+        // if the visibility of the item will change in the future due to an
+        // embargo, mark it as such.
+        return new IndexState(isPublic, deleted, willChangeStatus(anonymousReadPolicies),
+                              lastModified != null ? lastModified.truncatedTo(ChronoUnit.MILLIS) : null);
+    }
+
+    /**
+     * Method to get the most recent date on which the item changed concerning the
+     * OAI deleted status (policy start and end dates for all anonymous READ
+     * policies and the standard last modification date)
+     *
+     * @param item Item
+     * @param anonymousReadPolicies the anonymous READ policies of the item
+     * @return date
+     */
+    private Instant getMostRecentModificationDate(Item item, List<ResourcePolicy> anonymousReadPolicies) {
+        List<Instant> dates = new LinkedList<>();
+        for (ResourcePolicy policy : anonymousReadPolicies) {
+            if (policy.getStartDate() != null) {
+                dates.add(policy.getStartDate().atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            if (policy.getEndDate() != null) {
+                dates.add(policy.getEndDate().atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+        }
+        dates.add(item.getLastModified());
+        Collections.sort(dates);
+        Instant now = Instant.now();
+        Instant lastChange = null;
+        for (Instant d : dates) {
+            if (d.isBefore(now)) {
+                lastChange = d;
+            }
+        }
+        return lastChange;
+    }
+
+    private SolrInputDocument index(Context context, Item item, IndexState state)
+            throws SQLException, IOException, XMLStreamException, WritingXmlException {
+        SolrInputDocument doc = new SolrInputDocument();
+        doc.addField("item.id", item.getID().toString());
+
+        String handle = item.getHandle();
+        doc.addField("item.handle", handle);
+
+        // see getIndexState
+        doc.addField("item.public", state.isPublic());
+        doc.addField("item.willChangeStatus", state.willChangeStatus());
+        doc.addField("item.deleted", state.deleted());
+        doc.addField("item.lastmodified", SolrUtils.getDateFormatter().format(state.lastModified()));
 
         if (item.getSubmitter() != null) {
             doc.addField("item.submitter", item.getSubmitter().getEmail());
@@ -483,7 +552,7 @@ public class XOAI {
             }
         }
 
-        for (String f : getFileFormats(item)) {
+        for (String f : getFileFormats(context, item)) {
             doc.addField("metadata.dc.format.mimetype", f);
         }
 
@@ -513,33 +582,18 @@ public class XOAI {
         return doc;
     }
 
-    private boolean willChangeStatus(Item item) throws SQLException {
-        List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
-        for (ResourcePolicy policy : policies) {
-            if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
-                if (policy.getStartDate() != null && policy.getStartDate().isAfter(LocalDate.now(ZoneOffset.UTC))) {
-                    return true;
-                }
-                if (policy.getEndDate() != null && policy.getEndDate().isAfter(LocalDate.now(ZoneOffset.UTC))) {
-                    return true;
-                }
+    private boolean willChangeStatus(List<ResourcePolicy> anonymousReadPolicies) {
+        for (ResourcePolicy policy : anonymousReadPolicies) {
+            if (policy.getStartDate() != null && policy.getStartDate().isAfter(LocalDate.now(ZoneOffset.UTC))) {
+                return true;
+            }
+            if (policy.getEndDate() != null && policy.getEndDate().isAfter(LocalDate.now(ZoneOffset.UTC))) {
+                return true;
             }
-            context.uncacheEntity(policy);
         }
         return false;
     }
 
-    private boolean isPublic(Item item) {
-        boolean pub = false;
-        try {
-            // Check if READ access allowed on this Item
-            pub = authorizeService.authorizeActionBoolean(context, item, Constants.READ);
-        } catch (SQLException ex) {
-            log.error(ex.getMessage());
-        }
-        return pub;
-    }
-
     private static boolean getKnownExplanation(Throwable t) {
         if (t instanceof ConnectException) {
             System.err.println(
@@ -578,6 +632,18 @@ public class XOAI {
         xoaiCacheService.deleteAll();
     }
 
+    private static void cleanRecordCache(XOAIRecordCacheService xoaiRecordCacheService) throws IOException {
+        System.out.println("Purging cached OAI records.");
+        xoaiRecordCacheService.deleteAll();
+    }
+
+    private static void trimRecordCache(XOAIRecordCacheService xoaiRecordCacheService) throws IOException {
+        if (xoaiRecordCacheService.isActive()) {
+            System.out.println("Removing the least recently used cached OAI records.");
+            xoaiRecordCacheService.trim();
+        }
+    }
+
     private static final String COMMAND_IMPORT = "import";
     private static final String COMMAND_CLEAN_CACHE = "clean-cache";
     private static final String COMMAND_COMPILE_ITEMS = "compile-items";
@@ -590,6 +656,7 @@ public class XOAI {
 
         XOAICacheService cacheService = applicationContext.getBean(XOAICacheService.class);
         XOAIItemCacheService itemCacheService = applicationContext.getBean(XOAIItemCacheService.class);
+        XOAIRecordCacheService recordCacheService = applicationContext.getBean(XOAIRecordCacheService.class);
 
         Context ctx = null;
 
@@ -598,6 +665,7 @@ public class XOAI {
             Options options = new Options();
             options.addOption("c", "clear", false, "Clear index before indexing");
             options.addOption("v", "verbose", false, "Verbose output");
+            options.addOption("t", "threads", true, "Number of threads compiling the items");
             options.addOption("h", "help", false, "Shows some help");
             options.addOption("n", "number", true, "FOR DEVELOPMENT MUST DELETE");
             CommandLine line = parser.parse(options, argv);
@@ -631,6 +699,9 @@ public class XOAI {
                 if (COMMAND_IMPORT.equals(command)) {
                     ctx = new Context(Context.Mode.READ_ONLY);
                     XOAI indexer = new XOAI(ctx, line.hasOption('c'), line.hasOption('v'));
+                    if (line.hasOption('t')) {
+                        indexer.setThreads(Integer.parseInt(line.getOptionValue('t')));
+                    }
 
                     applicationContext.getAutowireCapableBeanFactory().autowireBean(indexer);
 
@@ -638,8 +709,15 @@ public class XOAI {
                     if (imported > 0) {
                         cleanCache(itemCacheService, cacheService);
                     }
+                    if (line.hasOption('c')) {
+                        // The rendered records are keyed by their content, those of updated items are just unused
+                        cleanRecordCache(recordCacheService);
+                    } else if (imported > 0) {
+                        trimRecordCache(recordCacheService);
+                    }
                 } else if (COMMAND_CLEAN_CACHE.equals(command)) {
                     cleanCache(itemCacheService, cacheService);
+                    cleanRecordCache(recordCacheService);
                 } else if (COMMAND_COMPILE_ITEMS.equals(command)) {
 
                     ctx = new Context();
@@ -717,6 +795,7 @@ public class XOAI {
             System.out.println("     " + COMMAND_CLEAN_CACHE + " - Cleans the OAI cached responses");
             System.out.println("> Parameters:");
             System.out.println("     -c Clear index (" + COMMAND_IMPORT + " only)");
+            System.out.println("     -t Number of threads compiling the items (" + COMMAND_IMPORT + " only)");
             System.out.println("     -v Verbose output");
             System.out.println("     -h Shows this text");
         } else {
@@ -39,6 +39,7 @@ import org.dspace.xoai.services.api.xoai.IdentifyResolver;
 import org.dspace.xoai.services.api.xoai.ItemRepositoryResolver;
 import org.dspace.xoai.services.api.xoai.SetRepositoryResolver;
 import org.dspace.xoai.services.impl.xoai.DSpaceResumptionTokenFormatter;
+import org.dspace.xoai.services.impl.xoai.ResumptionCursorMarks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Controller;
@@ -158,6 +159,7 @@ public class DSpaceOAIDataProvider {
                                "Unexpected error while writing the output. For more information visit the log files.");
         } finally {
             closeContext(context);
+            ResumptionCursorMarks.clear();
         }
 
         return null; // response without content
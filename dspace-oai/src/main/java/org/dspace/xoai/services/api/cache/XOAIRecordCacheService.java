@@ -0,0 +1,44 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.api.cache;
+
+import java.io.IOException;
+
+/**
+ * Cache of the records rendered by the XSLT crosswalks of the OAI contexts and metadata formats, see
+ * {@link org.dspace.xoai.services.impl.resources.RecordCachingTemplates}. The records are identified by a key
+ * derived from the crosswalk and its input, so that the record of a recompiled item is never served from an entry
+ * of its previous version. Those entries are left unused, and removed by {@link #trim()} once the cache is full.
+ */
+public interface XOAIRecordCacheService {
+    boolean isActive();
+
+    /**
+     * @param key key of the record
+     * @return the rendered record, null if not cached
+     * @throws IOException if the cache can't be read
+     */
+    byte[] get(String key) throws IOException;
+
+    /**
+     * @param key    key of the record
+     * @param record the rendered record
+     * @throws IOException if the cache can't be written
+     */
+    void put(String key, byte[] record) throws IOException;
+
+    /**
+     * Remove the least recently used records until the cache fits in its configured size, dropping the entries of
+     * the previous versions of recompiled items, which are no longer read.
+     *
+     * @throws IOException if the cache can't be read or cleaned
+     */
+    void trim() throws IOException;
+
+    void deleteAll() throws IOException;
+}
@@ -0,0 +1,164 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+
+/**
+ * Stores the rendered records as gzip files in the {@code records} directory of {@code oai.cache.dir}, spread in
+ * sub directories by the first characters of their key. The modification date of a file is updated when it is
+ * read, so that {@link #trim()} (run after each import) removes the least recently used records once the cache
+ * exceeds {@code oai.cache.records.max-size} megabytes; entries of records which are no longer served (e.g. of
+ * the previous version of a recompiled item) go first. All entries are removed by {@code oai clean-cache} and
+ * full imports.
+ */
+public class DSpaceXOAIRecordCacheService implements XOAIRecordCacheService {
+    private static final Logger log = LogManager.getLogger(DSpaceXOAIRecordCacheService.class);
+
+    private static final String RECORD_DIR = File.separator + "records";
+
+    /**
+     * Minimum time between two updates of the modification date of a record when it is read
+     */
+    private static final long TOUCH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private final String baseDir;
+    private final boolean active;
+    private final long maxSize;
+
+    public DSpaceXOAIRecordCacheService() {
+        this(DSpaceServicesFactory.getInstance().getConfigurationService());
+    }
+
+    private DSpaceXOAIRecordCacheService(ConfigurationService configurationService) {
+        this(configurationService.getProperty("oai.cache.dir") + RECORD_DIR,
+             configurationService.getBooleanProperty("oai.cache.records.enabled",
+                                                     configurationService.getBooleanProperty("oai.cache.enabled",
+                                                                                             true)),
+             configurationService.getLongProperty("oai.cache.records.max-size", 1024) * 1024 * 1024);
+    }
+
+    /**
+     * @param baseDir directory of the records
+     * @param active  whether the records are cached
+     * @param maxSize maximum size of the records, in bytes, unlimited if not positive
+     */
+    public DSpaceXOAIRecordCacheService(String baseDir, boolean active, long maxSize) {
+        this.baseDir = baseDir;
+        this.active = active;
+        this.maxSize = maxSize;
+    }
+
+    private File getCacheFile(String key) {
+        return new File(baseDir + File.separator + key.substring(0, 2) + File.separator + key + ".gz");
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        File file = getCacheFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        byte[] record;
+        try (InputStream input = new GZIPInputStream(new FileInputStream(file))) {
+            record = input.readAllBytes();
+        }
+        long now = System.currentTimeMillis();
+        if (now - file.lastModified() > TOUCH_INTERVAL) {
+            file.setLastModified(now);
+        }
+        return record;
+    }
+
+    @Override
+    public void put(String key, byte[] record) throws IOException {
+        File file = getCacheFile(key);
+        File dir = file.getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        // Written aside and moved, so that concurrent requests never read a partial record
+        File tmp = File.createTempFile(key, ".tmp", dir);
+        try {
+            try (OutputStream output = new GZIPOutputStream(new FileOutputStream(tmp))) {
+                output.write(record);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    @Override
+    public void trim() throws IOException {
+        Path dir = new File(baseDir).toPath();
+        if (maxSize <= 0 || !Files.isDirectory(dir)) {
+            return;
+        }
+        List<File> files;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            files = paths.filter(path -> path.toString().endsWith(".gz"))
+                         .map(Path::toFile)
+                         .collect(Collectors.toList());
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(File::lastModified));
+        int removed = 0;
+        for (File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+                removed++;
+            }
+        }
+        log.info("Removed {} least recently used OAI records from the cache", removed);
+    }
+
+    @Override
+    public void deleteAll() throws IOException {
+        deleteDirectory(new File(baseDir));
+    }
+}
@@ -20,6 +20,8 @@ import javax.xml.transform.stream.StreamSource;
 import com.lyncode.xoai.dataprovider.services.api.ResourceResolver;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+import org.dspace.xoai.services.impl.cache.DSpaceXOAIRecordCacheService;
 
 public class DSpaceResourceResolver implements ResourceResolver {
     // Requires usage of Saxon as OAI-PMH uses some XSLT 2 functions
@@ -28,10 +30,20 @@ public class DSpaceResourceResolver implements ResourceResolver {
 
     private final String basePath;
 
+    private final XOAIRecordCacheService recordCacheService;
+
     public DSpaceResourceResolver() {
+        this(new DSpaceXOAIRecordCacheService());
+    }
+
+    /**
+     * @param recordCacheService cache of the records rendered by the crosswalks, see {@link RecordCachingTemplates}
+     */
+    public DSpaceResourceResolver(XOAIRecordCacheService recordCacheService) {
         ConfigurationService configurationService
                 = DSpaceServicesFactory.getInstance().getConfigurationService();
         basePath = configurationService.getProperty("oai.config.dir");
+        this.recordCacheService = recordCacheService;
     }
 
     @Override
@@ -48,6 +60,11 @@ public class DSpaceResourceResolver implements ResourceResolver {
         // XSLT-files (like <xsl:import href="utils.xsl"/>)
         String systemId = basePath + "/" + path;
         mySrc.setSystemId(systemId);
-        return transformerFactory.newTemplates(mySrc);
+        Templates templates = transformerFactory.newTemplates(mySrc);
+        if (recordCacheService.isActive()) {
+            return new RecordCachingTemplates(templates, path + "@" + new File(basePath, path).lastModified(),
+                                              recordCacheService);
+        }
+        return templates;
     }
 }
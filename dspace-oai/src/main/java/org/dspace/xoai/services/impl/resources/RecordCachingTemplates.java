@@ -0,0 +1,241 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.resources;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import javax.xml.transform.ErrorListener;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+
+/**
+ * Templates of an OAI crosswalk whose transformers serve the records already rendered from the same input from
+ * the {@link XOAIRecordCacheService}, instead of running the XSLT again.
+ * <P>
+ * XOAI renders the records of ListRecords and GetRecord responses by streaming the compiled metadata of the items
+ * through the XSLT of the context and the one of the requested metadata format. The key of a rendered record is a
+ * hash of the crosswalk (path and modification date) and of the whole input, so a recompiled item whose metadata
+ * changed gets new entries, as well as of the output properties set on the transformer. Transformations with
+ * parameters or with other sources and results than streams are not cached.
+ */
+public class RecordCachingTemplates implements Templates {
+    private static final Logger log = LogManager.getLogger(RecordCachingTemplates.class);
+
+    private final Templates templates;
+    private final String id;
+    private final XOAIRecordCacheService cacheService;
+
+    /**
+     * @param templates    templates of the crosswalk
+     * @param id           identifier of the crosswalk and its version
+     * @param cacheService cache of the rendered records
+     */
+    public RecordCachingTemplates(Templates templates, String id, XOAIRecordCacheService cacheService) {
+        this.templates = templates;
+        this.id = id;
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public Transformer newTransformer() throws TransformerConfigurationException {
+        return new RecordCachingTransformer(templates.newTransformer());
+    }
+
+    @Override
+    public Properties getOutputProperties() {
+        return templates.getOutputProperties();
+    }
+
+    private String getKey(boolean characters, Map<String, String> outputProperties, byte[] input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(id.getBytes(UTF_8));
+            digest.update((byte) (characters ? 'c' : 'b'));
+            digest.update(outputProperties.toString().getBytes(UTF_8));
+            return HexFormat.of().formatHex(digest.digest(input));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Transformer answering from the cache of the rendered records when possible.
+     */
+    private class RecordCachingTransformer extends Transformer {
+        private final Transformer transformer;
+        private boolean parameters = false;
+        private final Map<String, String> outputProperties = new TreeMap<>();
+
+        private RecordCachingTransformer(Transformer transformer) {
+            this.transformer = transformer;
+        }
+
+        @Override
+        public void transform(Source source, Result result) throws TransformerException {
+            if (parameters || !(source instanceof StreamSource) || !(result instanceof StreamResult)) {
+                transformer.transform(source, result);
+                return;
+            }
+            StreamSource streamSource = (StreamSource) source;
+            StreamResult streamResult = (StreamResult) result;
+            boolean characters = streamResult.getWriter() != null;
+            if ((streamSource.getInputStream() == null && streamSource.getReader() == null)
+                || (!characters && streamResult.getOutputStream() == null)) {
+                transformer.transform(source, result);
+                return;
+            }
+            try {
+                // read the input once, to compute the key and to transform it if needed
+                byte[] input;
+                Source inputSource;
+                if (streamSource.getInputStream() != null) {
+                    input = IOUtils.toByteArray(streamSource.getInputStream());
+                    inputSource = new StreamSource(new ByteArrayInputStream(input), streamSource.getSystemId());
+                } else {
+                    String text = IOUtils.toString(streamSource.getReader());
+                    input = text.getBytes(UTF_8);
+                    inputSource = new StreamSource(new StringReader(text), streamSource.getSystemId());
+                }
+                String key = getKey(characters, outputProperties, input);
+
+                byte[] record = get(key);
+                if (record == null) {
+                    if (characters) {
+                        StringWriter writer = new StringWriter();
+                        transformer.transform(inputSource, new StreamResult(writer));
+                        record = writer.toString().getBytes(UTF_8);
+                    } else {
+                        ByteArrayOutputStream output = new ByteArrayOutputStream();
+                        transformer.transform(inputSource, new StreamResult(output));
+                        record = output.toByteArray();
+                    }
+                    put(key, record);
+                }
+
+                if (characters) {
+                    streamResult.getWriter().write(new String(record, UTF_8));
+                } else {
+                    streamResult.getOutputStream().write(record);
+                }
+            } catch (IOException e) {
+                throw new TransformerException(e);
+            }
+        }
+
+        private byte[] get(String key) {
+            try {
+                return cacheService.get(key);
+            } catch (IOException e) {
+                log.warn("Unable to read the cached OAI record " + key + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        private void put(String key, byte[] record) {
+            try {
+                cacheService.put(key, record);
+            } catch (IOException e) {
+                log.warn("Unable to cache the OAI record " + key + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void setParameter(String name, Object value) {
+            parameters = true;
+            transformer.setParameter(name, value);
+        }
+
+        @Override
+        public Object getParameter(String name) {
+            return transformer.getParameter(name);
+        }
+
+        @Override
+        public void clearParameters() {
+            parameters = false;
+            transformer.clearParameters();
+        }
+
+        @Override
+        public void setURIResolver(URIResolver resolver) {
+            transformer.setURIResolver(resolver);
+        }
+
+        @Override
+        public URIResolver getURIResolver() {
+            return transformer.getURIResolver();
+        }
+
+        @Override
+        public void setOutputProperties(Properties oformat) {
+            outputProperties.clear();
+            if (oformat != null) {
+                for (String name : oformat.stringPropertyNames()) {
+                    outputProperties.put(name, oformat.getProperty(name));
+                }
+            }
+            transformer.setOutputProperties(oformat);
+        }
+
+        @Override
+        public Properties getOutputProperties() {
+            return transformer.getOutputProperties();
+        }
+
+        @Override
+        public void setOutputProperty(String name, String value) {
+            outputProperties.put(name, value);
+            transformer.setOutputProperty(name, value);
+        }
+
+        @Override
+        public String getOutputProperty(String name) {
+            return transformer.getOutputProperty(name);
+        }
+
+        @Override
+        public void setErrorListener(ErrorListener listener) {
+            transformer.setErrorListener(listener);
+        }
+
+        @Override
+        public ErrorListener getErrorListener() {
+            return transformer.getErrorListener();
+        }
+
+        @Override
+        public void reset() {
+            parameters = false;
+            outputProperties.clear();
+            transformer.reset();
+        }
+    }
+}
@@ -26,8 +26,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.dspace.xoai.data.DSpaceSolrItem;
 import org.dspace.xoai.services.api.CollectionsService;
 import org.dspace.xoai.services.api.HandleResolver;
@@ -104,9 +106,19 @@ public class DSpaceItemSolrRepository extends DSpaceItemRepository {
             throws DSpaceSolrException, IOException {
         List<Item> list = new ArrayList<>();
         SolrQuery params = new SolrQuery(solrQueryResolver.buildQuery(filters))
-            .setRows(length)
-            .setStart(offset);
-        SolrDocumentList solrDocuments = DSpaceSolrSearch.query(server, params);
+            .setRows(length);
+        String cursorMark = offset == 0 ? CursorMarkParams.CURSOR_MARK_START : ResumptionCursorMarks.get(offset);
+        SolrDocumentList solrDocuments;
+        if (cursorMark != null) {
+            QueryResponse response = DSpaceSolrSearch.query(server, params, cursorMark);
+            solrDocuments = response.getResults();
+            // for the resumption token of the next page
+            ResumptionCursorMarks.put(offset + length, response.getNextCursorMark());
+        } else {
+            // resumption token without cursor mark
+            params.setStart(offset);
+            solrDocuments = DSpaceSolrSearch.query(server, params);
+        }
         for (SolrDocument doc : solrDocuments) {
             list.add(new DSpaceSolrItem(doc));
         }
@@ -14,7 +14,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.xoai.util.DateUtils;
 
-
+/**
+ * Resumption tokens of the form {@code prefix/from/until/set/offset/cursor}, where the optional cursor is the
+ * Solr cursor mark of the page starting at the offset (URL safe Base64), see {@link ResumptionCursorMarks}.
+ * Tokens without cursor, as issued by older versions, are still accepted: their page is then retrieved by
+ * offset.
+ */
 public class DSpaceResumptionTokenFormatter implements ResumptionTokenFormatter {
     private static Logger log = LogManager
         .getLogger(DSpaceResumptionTokenFormatter.class);
@@ -29,11 +34,14 @@ public class DSpaceResumptionTokenFormatter implements ResumptionTokenFormatter
             return new ResumptionToken();
         }
         String[] res = resumptionToken.split("/", -1);
-        if (res.length != 5) {
+        if (res.length != 5 && res.length != 6) {
             throw new BadResumptionToken();
         } else {
             try {
                 int offset = Integer.parseInt(res[4]);
+                if (res.length == 6 && !res[5].equals("")) {
+                    ResumptionCursorMarks.put(offset, fromTokenValue(res[5]));
+                }
                 String prefix = (res[0].equals("")) ? null : res[0];
                 String set = (res[3].equals("")) ? null : res[3];
                 java.util.Date from = (res[1].equals("")) ? null : java.util.Date.from(DateUtils.parse(res[1]));
@@ -67,7 +75,22 @@ public class DSpaceResumptionTokenFormatter implements ResumptionTokenFormatter
         }
         result += "/";
         result += resumptionToken.getOffset();
+        String cursorMark = ResumptionCursorMarks.get(resumptionToken.getOffset());
+        if (cursorMark != null) {
+            result += "/" + toTokenValue(cursorMark);
+        }
         return result;
     }
 
+    /**
+     * Solr cursor marks are Base64 encoded, the characters which are special in tokens and URLs are replaced.
+     */
+    private static String toTokenValue(String cursorMark) {
+        return cursorMark.replace('+', '-').replace('/', '_');
+    }
+
+    private static String fromTokenValue(String value) {
+        return value.replace('-', '+').replace('_', '/');
+    }
+
 }
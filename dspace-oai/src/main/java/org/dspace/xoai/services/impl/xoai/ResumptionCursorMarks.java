@@ -0,0 +1,54 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.xoai;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Solr cursor marks of the OAI list request handled by the current thread, by offset in the list.
+ * <P>
+ * XOAI only hands the offset of a resumption token to the item repository, so the cursor mark carried by the
+ * token is passed along here: {@link DSpaceResumptionTokenFormatter#parse(String)} records the cursor mark of
+ * the requested offset, {@link DSpaceItemSolrRepository} uses it to query the page and records the cursor mark
+ * of the next page, which {@link DSpaceResumptionTokenFormatter#format} writes in the next resumption token.
+ * <P>
+ * The marks must be cleared once the request is handled, see {@link #clear()}.
+ */
+public final class ResumptionCursorMarks {
+
+    private static final ThreadLocal<Map<Integer, String>> cursorMarks = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Default constructor
+     */
+    private ResumptionCursorMarks() { }
+
+    /**
+     * @param offset     offset in the list
+     * @param cursorMark Solr cursor mark of the page starting at the offset
+     */
+    static void put(int offset, String cursorMark) {
+        cursorMarks.get().put(offset, cursorMark);
+    }
+
+    /**
+     * @param offset offset in the list
+     * @return the Solr cursor mark of the page starting at the offset, null if unknown
+     */
+    static String get(int offset) {
+        return cursorMarks.get().get(offset);
+    }
+
+    /**
+     * Forget the cursor marks of the request handled by the current thread.
+     */
+    public static void clear() {
+        cursorMarks.remove();
+    }
+}
@@ -17,6 +17,7 @@ import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.dspace.xoai.solr.exceptions.DSpaceSolrException;
 import org.dspace.xoai.solr.exceptions.SolrSearchEmptyException;
 
@@ -41,6 +42,30 @@ public class DSpaceSolrSearch {
         }
     }
 
+    /**
+     * Query a page of results with a Solr cursor, in the same order as {@link #query(SolrClient, SolrQuery)}.
+     * Unlike an offset, the cost of a cursor doesn't grow with the position of the page.
+     *
+     * @param server     Solr core
+     * @param solrParams query, with the number of rows of the page
+     * @param cursorMark cursor mark of the page, {@link CursorMarkParams#CURSOR_MARK_START} for the first one
+     * @return the response, with the cursor mark of the next page
+     * @throws DSpaceSolrException if the query fails
+     * @throws IOException         if Solr can't be reached
+     */
+    public static QueryResponse query(SolrClient server, SolrQuery solrParams, String cursorMark)
+        throws DSpaceSolrException, IOException {
+        try {
+            solrParams.addSort("item.id", ORDER.asc);
+            // Cursors require the unique key in the sort
+            solrParams.addSort("item.handle", ORDER.asc);
+            solrParams.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            return server.query(solrParams);
+        } catch (SolrServerException ex) {
+            throw new DSpaceSolrException(ex.getMessage(), ex);
+        }
+    }
+
     public static SolrDocument querySingle(SolrClient server, SolrQuery solrParams)
         throws SolrSearchEmptyException, IOException {
         try {
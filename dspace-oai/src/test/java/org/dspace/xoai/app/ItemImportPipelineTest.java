@@ -0,0 +1,202 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.xoai.solr.exceptions.DSpaceSolrIndexerException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ItemImportPipelineTest {
+
+    private SolrClient server;
+
+    /**
+     * Identifiers of the documents sent to Solr, in the order of the batches
+     */
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Sizes of the batches sent to Solr
+     */
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws Exception {
+        server = mock(SolrClient.class);
+        doAnswer(invocation -> {
+            // the writer reuses its batch, so copy it
+            Collection<SolrInputDocument> batch = invocation.getArgument(0);
+            batches.add(batch.size());
+            for (SolrInputDocument document : batch) {
+                written.add((String) document.getFieldValue("item.id"));
+            }
+            return null;
+        }).when(server).add(anyCollection());
+    }
+
+    private ItemImportPipeline newPipeline(ItemImportPipeline.ItemCompiler compiler, int threads, int batchSize) {
+        return new ItemImportPipeline(server, compiler, threads, batchSize) {
+            @Override
+            Context createContext() {
+                return mock(Context.class);
+            }
+        };
+    }
+
+    private static List<UUID> newIds(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+
+    private static SolrInputDocument newDocument(UUID id) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("item.id", id.toString());
+        return document;
+    }
+
+    @Test
+    public void allItemsAreCompiledByTheWorkersAndWrittenInBatches() throws Exception {
+        List<UUID> ids = newIds(1050);
+        Set<UUID> prepared = Collections.synchronizedSet(new HashSet<>());
+        ItemImportPipeline pipeline = newPipeline((context, page) -> {
+            assertThat(page.size() <= ItemImportPipeline.PAGE_SIZE, is(true));
+            prepared.addAll(page);
+            return ItemImportPipelineTest::newDocument;
+        }, 3, 100);
+
+        assertThat(pipeline.run(ids.iterator()), is(1050));
+
+        assertThat(prepared.size(), is(1050));
+        assertThat(new HashSet<>(written).size(), is(1050));
+        assertThat(batches.size(), is(11));
+        assertThat(batches.get(batches.size() - 1), is(50));
+        // a soft commit after each full batch, a single hard commit at the end
+        verify(server, times(10)).commit(false, false, true);
+        verify(server, times(1)).commit(true, true);
+    }
+
+    @Test
+    public void skippedAndFailingItemsDoNotStopTheImport() throws Exception {
+        List<UUID> ids = newIds(10);
+        UUID skippedId = ids.get(3);
+        UUID failingId = ids.get(7);
+        ItemImportPipeline pipeline = newPipeline((context, page) -> id -> {
+            if (id.equals(skippedId)) {
+                return null;
+            }
+            if (id.equals(failingId)) {
+                throw new IOException("Broken item");
+            }
+            return newDocument(id);
+        }, 2, 4);
+
+        assertThat(pipeline.run(ids.iterator()), is(10));
+
+        assertThat(written.size(), is(8));
+        assertThat(written.contains(skippedId.toString()), is(false));
+        assertThat(written.contains(failingId.toString()), is(false));
+    }
+
+    @Test
+    public void failingPagesAreSkipped() throws Exception {
+        List<UUID> ids = newIds(250);
+        ItemImportPipeline pipeline = newPipeline((context, page) -> {
+            if (page.contains(ids.get(0))) {
+                throw new SQLException("Broken page");
+            }
+            return ItemImportPipelineTest::newDocument;
+        }, 1, 1000);
+
+        assertThat(pipeline.run(ids.iterator()), is(250));
+
+        // the first page of the single worker failed, the others were written
+        assertThat(written.contains(ids.get(0).toString()), is(false));
+        assertThat(written.contains(ids.get(249).toString()), is(true));
+    }
+
+    @Test(timeout = 30000)
+    public void writerFailureAbortsTheImport() throws Exception {
+        doAnswer(invocation -> {
+            throw new SolrServerException("Solr is down");
+        }).when(server).add(anyCollection());
+        // more items than the queues can hold, so that the producer and the workers wait for the writer
+        List<UUID> ids = newIds(10000);
+        ItemImportPipeline pipeline = newPipeline((context, page) -> ItemImportPipelineTest::newDocument, 2, 10);
+
+        try {
+            pipeline.run(ids.iterator());
+            fail("The import should have failed");
+        } catch (DSpaceSolrIndexerException ex) {
+            assertThat(ex.getCause(), instanceOf(SolrServerException.class));
+        }
+        verify(server, never()).commit(true, true);
+    }
+
+    @Test(timeout = 30000)
+    public void workerFailureAbortsTheImport() throws Exception {
+        List<UUID> ids = newIds(10000);
+        ItemImportPipeline pipeline = newPipeline((context, page) -> {
+            throw new IllegalStateException("Broken worker");
+        }, 2, 10);
+
+        try {
+            pipeline.run(ids.iterator());
+            fail("The import should have failed");
+        } catch (IllegalStateException ex) {
+            assertThat(ex.getMessage(), is("Broken worker"));
+        }
+        assertThat(written.isEmpty(), is(true));
+        verify(server, never()).commit(true, true);
+    }
+
+    @Test(timeout = 30000)
+    public void sourceFailureStopsTheWorkers() throws Exception {
+        ItemImportPipeline pipeline = newPipeline((context, page) -> ItemImportPipelineTest::newDocument, 4, 10);
+        Context context = mock(Context.class);
+        Item item = mock(Item.class);
+        when(item.getID()).thenThrow(new IllegalStateException("Broken source"));
+
+        try {
+            pipeline.run(context, List.of(item).iterator());
+            fail("The import should have failed");
+        } catch (IllegalStateException ex) {
+            assertThat(ex.getMessage(), is("Broken source"));
+        }
+        verify(server, never()).commit(true, true);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.xoai.services.impl.cache.DSpaceXOAIRecordCacheService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DSpaceXOAIRecordCacheServiceTest {
+    private static final int RECORD_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File baseDir;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = folder.newFolder("records");
+    }
+
+    @Test
+    public void trimRemovesTheLeastRecentlyUsedRecords() throws Exception {
+        // Room for two records (which don't compress), not three
+        DSpaceXOAIRecordCacheService underTest =
+            new DSpaceXOAIRecordCacheService(baseDir.getPath(), true, (long) (RECORD_SIZE * 2.5));
+        long now = System.currentTimeMillis();
+        put(underTest, "aa01", now - TimeUnit.HOURS.toMillis(3));
+        put(underTest, "bb02", now - TimeUnit.HOURS.toMillis(2));
+        put(underTest, "cc03", now - TimeUnit.HOURS.toMillis(1));
+
+        // Reading the oldest record makes it the most recently used one
+        assertThat(underTest.get("aa01"), notNullValue());
+        underTest.trim();
+
+        assertThat(underTest.get("aa01"), notNullValue());
+        assertThat(underTest.get("bb02"), nullValue());
+        assertThat(underTest.get("cc03"), notNullValue());
+    }
+
+    @Test
+    public void trimKeepsTheRecordsWithoutMaximumSize() throws Exception {
+        DSpaceXOAIRecordCacheService underTest = new DSpaceXOAIRecordCacheService(baseDir.getPath(), true, 0);
+        put(underTest, "aa01", System.currentTimeMillis());
+        put(underTest, "bb02", System.currentTimeMillis());
+        underTest.trim();
+
+        assertThat(underTest.get("aa01").length, is(RECORD_SIZE));
+        assertThat(underTest.get("bb02").length, is(RECORD_SIZE));
+    }
+
+    private void put(DSpaceXOAIRecordCacheService cache, String key, long lastUsed) throws Exception {
+        byte[] record = new byte[RECORD_SIZE];
+        new Random(key.hashCode()).nextBytes(record);
+        cache.put(key, record);
+        File file = new File(baseDir, key.substring(0, 2) + File.separator + key + ".gz");
+        assertThat(file.setLastModified(lastUsed), is(true));
+    }
+}
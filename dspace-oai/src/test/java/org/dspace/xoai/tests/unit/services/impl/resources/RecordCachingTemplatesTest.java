@@ -0,0 +1,92 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.resources;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+import org.dspace.xoai.services.impl.resources.RecordCachingTemplates;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecordCachingTemplatesTest {
+    private static final String XSLT = "<xsl:stylesheet version=\"1.0\" "
+        + "xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+        + "<xsl:output omit-xml-declaration=\"yes\"/>"
+        + "<xsl:template match=\"/item\"><record><xsl:value-of select=\"title\"/></record></xsl:template>"
+        + "</xsl:stylesheet>";
+
+    private final Map<String, byte[]> records = new HashMap<>();
+
+    private Templates underTest;
+
+    @Before
+    public void setUp() throws Exception {
+        Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(new StringReader(XSLT)));
+        underTest = new RecordCachingTemplates(templates, "test.xsl@1", new XOAIRecordCacheService() {
+            @Override
+            public boolean isActive() {
+                return true;
+            }
+
+            @Override
+            public byte[] get(String key) {
+                return records.get(key);
+            }
+
+            @Override
+            public void put(String key, byte[] record) {
+                records.put(key, record);
+            }
+
+            @Override
+            public void trim() {
+            }
+
+            @Override
+            public void deleteAll() {
+                records.clear();
+            }
+        });
+    }
+
+    private String transform(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        underTest.newTransformer().transform(new StreamSource(new ByteArrayInputStream(input.getBytes(UTF_8))),
+                                             new StreamResult(output));
+        return output.toString(UTF_8);
+    }
+
+    @Test
+    public void renderedRecordsAreCachedByInput() throws Exception {
+        assertThat(transform("<item><title>First</title></item>"), containsString("<record>First</record>"));
+        assertThat(records.size(), is(1));
+
+        // The same input is served from the cache
+        String key = records.keySet().iterator().next();
+        records.put(key, "<record>Cached</record>".getBytes(UTF_8));
+        assertThat(transform("<item><title>First</title></item>"), is("<record>Cached</record>"));
+
+        // Another input (e.g. the item was recompiled) is transformed
+        assertThat(transform("<item><title>Second</title></item>"), containsString("<record>Second</record>"));
+        assertThat(records.size(), is(2));
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.xoai;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.lyncode.xoai.dataprovider.core.ResumptionToken;
+import com.lyncode.xoai.dataprovider.exceptions.BadResumptionToken;
+import org.dspace.xoai.services.impl.xoai.DSpaceResumptionTokenFormatter;
+import org.dspace.xoai.services.impl.xoai.ResumptionCursorMarks;
+import org.junit.After;
+import org.junit.Test;
+
+public class DSpaceResumptionTokenFormatterTest {
+
+    private final DSpaceResumptionTokenFormatter underTest = new DSpaceResumptionTokenFormatter();
+
+    @After
+    public void cleanup() {
+        ResumptionCursorMarks.clear();
+    }
+
+    @Test
+    public void offsetToken() throws Exception {
+        ResumptionToken token = underTest.parse("oai_dc///col_123456789_2/100");
+
+        assertThat(token.getOffset(), is(100));
+        assertThat(token.getMetadataPrefix(), is("oai_dc"));
+        assertThat(token.getSet(), is("col_123456789_2"));
+        assertThat(token.getFrom(), nullValue());
+        assertThat(underTest.format(token), is("oai_dc///col_123456789_2/100"));
+    }
+
+    @Test
+    public void cursorToken() throws Exception {
+        // Solr cursor mark "AoJ+w/8=" with the characters special in URLs replaced
+        ResumptionToken token = underTest.parse("oai_dc////100/AoJ-w_8=");
+
+        assertThat(token.getOffset(), is(100));
+        assertThat(token.getSet(), nullValue());
+        assertThat(underTest.format(new ResumptionToken(100, "oai_dc", null, null, null)),
+                   is("oai_dc////100/AoJ-w_8="));
+        // The cursor mark of another page isn't known
+        assertThat(underTest.format(new ResumptionToken(200, "oai_dc", null, null, null)), is("oai_dc////200"));
+    }
+
+    @Test(expected = BadResumptionToken.class)
+    public void malformedToken() throws Exception {
+        underTest.parse("oai_dc//100");
+    }
+}
@@ -51,6 +51,7 @@ import org.dspace.app.rest.model.hateoas.HALResource;
 import org.dspace.app.rest.model.patch.Patch;
 import org.dspace.app.rest.repository.DSpaceRestRepository;
 import org.dspace.app.rest.repository.LinkRestRepository;
+import org.dspace.app.rest.utils.ETagUtils;
 import org.dspace.app.rest.utils.RestRepositoryUtils;
 import org.dspace.app.rest.utils.Utils;
 import org.dspace.authorize.AuthorizeException;
@@ -82,6 +83,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -118,6 +120,9 @@ public class RestResourceController implements InitializingBean {
     @Autowired
     ConverterService converter;
 
+    @Autowired
+    ETagUtils eTagUtils;
+
     @Override
     public void afterPropertiesSet() {
         List<Link> links = new ArrayList<>();
@@ -195,14 +200,21 @@ public class RestResourceController implements InitializingBean {
      * identifier
      * and see {@link RestResourceController#findOne(String, String, String)} for string as identifier
      *
+     * Conditional requests are supported for items, collections, communities and bitstreams, see
+     * {@link ETagUtils}.
+     *
      * @param apiCategory category from request
      * @param model model from request
      * @param uuid Identifier from request
-     * @return single DSpaceResource
+     * @param webRequest current request
+     * @return single DSpaceResource, null if the response is a 304 Not Modified
      */
     @RequestMapping(method = RequestMethod.GET, value = REGEX_REQUESTMAPPING_IDENTIFIER_AS_UUID)
     public HALResource<RestAddressableModel> findOne(@PathVariable String apiCategory, @PathVariable String model,
-                                                        @PathVariable UUID uuid) {
+                                                        @PathVariable UUID uuid, ServletWebRequest webRequest) {
+        if (eTagUtils.checkNotModified(webRequest, apiCategory, model, uuid)) {
+            return null;
+        }
         return findOneInternal(apiCategory, model, uuid);
     }
 
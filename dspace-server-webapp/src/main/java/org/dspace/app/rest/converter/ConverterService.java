@@ -11,7 +11,10 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -25,14 +28,21 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.app.rest.link.HalLinkFactory;
 import org.dspace.app.rest.link.HalLinkService;
 import org.dspace.app.rest.model.BaseObjectRest;
+import org.dspace.app.rest.model.LinkRest;
 import org.dspace.app.rest.model.RestAddressableModel;
 import org.dspace.app.rest.model.RestModel;
 import org.dspace.app.rest.model.hateoas.HALResource;
 import org.dspace.app.rest.projection.DefaultProjection;
 import org.dspace.app.rest.projection.Projection;
 import org.dspace.app.rest.repository.DSpaceRestRepository;
+import org.dspace.app.rest.repository.LinkRestRepository;
 import org.dspace.app.rest.security.WebSecurityExpressionEvaluator;
+import org.dspace.app.rest.utils.ContextUtil;
 import org.dspace.app.rest.utils.Utils;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
 import org.dspace.services.RequestService;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -88,6 +98,9 @@ public class ConverterService {
     @Autowired
     private RequestService requestService;
 
+    @Autowired
+    private AuthorizeService authorizeService;
+
     /**
      * Converts the given model object to a rest object, using the appropriate {@link DSpaceConverter} and
      * the given projection.
@@ -206,13 +219,17 @@ public class ConverterService {
             pageable = utils.getPageable(pageable);
         }
         List<M> pageableObjects = utils.getPageObjectList(modelObjects, pageable);
+        prefetchReadAuthorizations(pageableObjects);
+        List<M> convertedObjects = new ArrayList<>();
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : pageableObjects) {
             R transformedObject = toRest(modelObject, projection);
             if (transformedObject != null) {
+                convertedObjects.add(modelObject);
                 transformedList.add(transformedObject);
             }
         }
+        prefetchEmbeds(convertedObjects, transformedList, projection);
         return new PageImpl(transformedList, pageable, modelObjects.size());
     }
 
@@ -230,13 +247,17 @@ public class ConverterService {
      * @return the page.
      */
     public <M, R> Page<R> toRestPage(List<M> modelObjects, Pageable pageable, long total, Projection projection) {
+        prefetchReadAuthorizations(modelObjects);
+        List<M> convertedObjects = new ArrayList<>();
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : modelObjects) {
             R transformedObject = toRest(modelObject, projection);
             if (transformedObject != null) {
+                convertedObjects.add(modelObject);
                 transformedList.add(transformedObject);
             }
         }
+        prefetchEmbeds(convertedObjects, transformedList, projection);
         if (pageable == null) {
             pageable = utils.getPageable(pageable);
         }
@@ -244,6 +265,87 @@ public class ConverterService {
     }
 
 
+    /**
+     * Checks the READ permission of the current user on all the {@link DSpaceObject}s of the given list at once,
+     * see {@link AuthorizeService#bulkAuthorizeActionBoolean(Context, List, int)}. The decisions are cached in the
+     * context of the request, so that the {@link PreAuthorize} check performed by {@link #toRest} for each object
+     * of a page doesn't need its own queries.
+     *
+     * @param modelObjects the model objects about to be converted, other objects than DSpaceObjects are ignored
+     */
+    public void prefetchReadAuthorizations(List<?> modelObjects) {
+        List<DSpaceObject> dsos = new ArrayList<>();
+        for (Object modelObject : modelObjects) {
+            if (modelObject instanceof DSpaceObject) {
+                dsos.add((DSpaceObject) modelObject);
+            }
+        }
+        if (dsos.size() < 2) {
+            return;
+        }
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        if (context == null) {
+            return;
+        }
+        try {
+            authorizeService.bulkAuthorizeActionBoolean(context, dsos, Constants.READ);
+        } catch (SQLException e) {
+            // not fatal, the objects will be checked one by one
+            log.warn("Unable to prefetch the READ authorizations of {} objects", dsos.size(), e);
+        }
+    }
+
+    /**
+     * Lets the link repositories load what they need to embed their links in all the resources of a page at once,
+     * see {@link LinkRestRepository#prefetch(Context, List)}. This is done for each class-level link of the rest
+     * objects that the projection may embed, before the resources are built (each resource embeds its links on its
+     * own).
+     *
+     * @param modelObjects the model objects of the page
+     * @param restObjects  the rest objects converted from these model objects, at the same positions, null for the
+     *                     objects which could not be converted
+     * @param projection   the projection used to build the resources
+     */
+    public void prefetchEmbeds(List<?> modelObjects, List<?> restObjects, Projection projection) {
+        if (modelObjects.size() < 2) {
+            return;
+        }
+        // the model objects by class of the rest object they were converted to, e.g. for mixed search results
+        Map<Class<? extends RestAddressableModel>, List<Object>> modelObjectsByRestClass = new LinkedHashMap<>();
+        Map<Class<? extends RestAddressableModel>, RestAddressableModel> restObjectByRestClass = new HashMap<>();
+        for (int i = 0; i < modelObjects.size(); i++) {
+            if (restObjects.get(i) instanceof RestAddressableModel) {
+                RestAddressableModel restObject = (RestAddressableModel) restObjects.get(i);
+                restObjectByRestClass.putIfAbsent(restObject.getClass(), restObject);
+                modelObjectsByRestClass.computeIfAbsent(restObject.getClass(), restClass -> new ArrayList<>())
+                                       .add(modelObjects.get(i));
+            }
+        }
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        if (context == null) {
+            return;
+        }
+        modelObjectsByRestClass.forEach((restClass, models) -> {
+            if (models.size() < 2) {
+                return;
+            }
+            RestAddressableModel restObject = restObjectByRestClass.get(restClass);
+            for (LinkRest linkRest : utils.getLinkRests(restClass)) {
+                if (!projection.mayEmbed(linkRest)) {
+                    continue;
+                }
+                try {
+                    utils.getLinkResourceRepository(restObject.getCategory(), restObject.getTypePlural(),
+                                                    linkRest.name())
+                         .prefetch(context, models);
+                } catch (SQLException e) {
+                    // not fatal, each resource will resolve the link on its own
+                    log.warn("Unable to prefetch the {} of {} objects", linkRest.name(), models.size(), e);
+                }
+            }
+        });
+    }
+
     /**
      * Gets the converter supporting the given class as input.
      *
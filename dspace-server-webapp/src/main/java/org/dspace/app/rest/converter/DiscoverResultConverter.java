@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.converter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -75,12 +76,21 @@ public class DiscoverResultConverter {
 
     private void addSearchResults(final DiscoverResult searchResult, final SearchResultsRest resultsRest,
                                   final Projection projection) {
+        List<Object> indexedObjects = new ArrayList<>();
+        for (IndexableObject indexableObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
+            indexedObjects.add(indexableObject.getIndexedObject());
+        }
+        converter.prefetchReadAuthorizations(indexedObjects);
+
+        List<Object> restObjects = new ArrayList<>();
         for (IndexableObject dspaceObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
             SearchResultEntryRest resultEntry = new SearchResultEntryRest();
             resultEntry.setProjection(projection);
 
             //Convert the DSpace Object to its REST model
-            resultEntry.setIndexableObject(convertDSpaceObject(dspaceObject, projection));
+            RestAddressableModel restObject = convertDSpaceObject(dspaceObject, projection);
+            resultEntry.setIndexableObject(restObject);
+            restObjects.add(restObject);
 
             //Add hit highlighting for this DSO if present
             DiscoverResult.IndexableObjectHighlightResult highlightedResults = searchResult
@@ -94,6 +104,7 @@ public class DiscoverResultConverter {
 
             resultsRest.addSearchResult(resultEntry);
         }
+        converter.prefetchEmbeds(indexedObjects, restObjects, projection);
     }
 
     private RestAddressableModel convertDSpaceObject(final IndexableObject indexableObject,
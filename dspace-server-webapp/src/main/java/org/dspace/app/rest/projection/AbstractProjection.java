@@ -42,6 +42,11 @@ public abstract class AbstractProjection implements Projection {
         return false;
     }
 
+    @Override
+    public boolean mayEmbed(LinkRest linkRest) {
+        return false;
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         return true;
@@ -72,6 +72,16 @@ public class CompositeProjection extends AbstractProjection {
         return false;
     }
 
+    @Override
+    public boolean mayEmbed(LinkRest linkRest) {
+        for (Projection projection : projections) {
+            if (projection.mayEmbed(linkRest)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         for (Projection projection : projections) {
@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.dspace.app.rest.model.LinkRest;
@@ -92,6 +93,18 @@ public class EmbedRelsProjection extends AbstractProjection {
         return false;
     }
 
+    @Override
+    public boolean mayEmbed(LinkRest linkRest) {
+        // The rel may be embedded at any level of the path of an allowed embed (e.g. owningCollection in
+        // mappedItems/owningCollection)
+        for (String embedRel : embedRels) {
+            if (ArrayUtils.contains(StringUtils.split(embedRel, '/'), linkRest.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public PageRequest getPagingOptions(String rel, HALResource<? extends RestAddressableModel> resource,
                                         Link... oldLinks) {
@@ -34,6 +34,11 @@ public class FullProjection extends AbstractProjection {
         return halResource.getContent().getEmbedLevel() < maxEmbed;
     }
 
+    @Override
+    public boolean mayEmbed(LinkRest linkRest) {
+        return maxEmbed > 0;
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         return true;
@@ -13,6 +13,7 @@ import org.dspace.app.rest.model.RestAddressableModel;
 import org.dspace.app.rest.model.RestModel;
 import org.dspace.app.rest.model.hateoas.HALResource;
 import org.dspace.app.rest.repository.DSpaceRestRepository;
+import org.dspace.app.rest.repository.LinkRestRepository;
 import org.dspace.app.rest.utils.Utils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.Link;
@@ -123,6 +124,18 @@ public interface Projection {
     boolean allowEmbedding(HALResource<? extends RestAddressableModel> halResource, LinkRest linkRest,
                            Link... oldLinks);
 
+    /**
+     * Tells whether this projection may permit the embedding of a particular embeddable subresource, at any level.
+     *
+     * This is asked before the resources of a page are built, to decide which subresources are worth loading for
+     * the whole page at once (see {@link LinkRestRepository#prefetch}). It may return {@code true} for an embed
+     * that {@link #allowEmbedding(HALResource, LinkRest, Link...)} finally refuses, which only costs the prefetch.
+     *
+     * @param linkRest the LinkRest annotation through which the related resource is discovered on the rest objects.
+     * @return true if the embed may be allowed, false if it is never allowed.
+     */
+    boolean mayEmbed(LinkRest linkRest);
+
     /**
      * Tells whether this projection permits the linking of a particular linkable subresource.
      *
@@ -8,6 +8,7 @@
 package org.dspace.app.rest.projection;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.dspace.app.rest.exception.MissingParameterException;
 import org.dspace.app.rest.model.LinkRest;
 import org.dspace.app.rest.model.RestAddressableModel;
@@ -62,6 +63,14 @@ public class SpecificLevelProjection extends AbstractProjection {
         return halResource.getContent().getEmbedLevel() < embedLevelDepth;
     }
 
+    @Override
+    public boolean mayEmbed(LinkRest linkRest) {
+        // a missing or invalid depth is reported by allowEmbedding
+        String embedLevelDepthString = requestService.getCurrentRequest().getHttpServletRequest()
+                                                .getParameter("embedLevelDepth");
+        return NumberUtils.toInt(embedLevelDepthString, 0) > 0;
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         return true;
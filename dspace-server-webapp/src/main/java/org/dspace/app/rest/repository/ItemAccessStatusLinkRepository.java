@@ -10,7 +10,9 @@ package org.dspace.app.rest.repository;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -67,4 +69,14 @@ public class ItemAccessStatusLinkRepository extends AbstractDSpaceRestRepository
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public void prefetch(Context context, List<?> modelObjects) throws SQLException {
+        // the access status is computed from the first bitstreams of the item
+        List<Item> items = modelObjects.stream()
+                                       .filter(Item.class::isInstance)
+                                       .map(Item.class::cast)
+                                       .collect(Collectors.toList());
+        itemService.prefetchBundles(context, items);
+    }
 }
@@ -8,7 +8,9 @@
 package org.dspace.app.rest.repository;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -51,4 +53,13 @@ public class ItemBundleLinkRepository extends AbstractDSpaceRestRepository
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public void prefetch(Context context, List<?> modelObjects) throws SQLException {
+        List<Item> items = modelObjects.stream()
+                                       .filter(Item.class::isInstance)
+                                       .map(Item.class::cast)
+                                       .collect(Collectors.toList());
+        itemService.prefetchBundles(context, items);
+    }
 }
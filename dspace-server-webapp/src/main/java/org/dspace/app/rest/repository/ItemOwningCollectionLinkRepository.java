@@ -8,7 +8,10 @@
 package org.dspace.app.rest.repository;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -53,4 +56,19 @@ public class ItemOwningCollectionLinkRepository extends AbstractDSpaceRestReposi
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public void prefetch(Context context, List<?> modelObjects) throws SQLException {
+        List<Item> items = modelObjects.stream()
+                                       .filter(Item.class::isInstance)
+                                       .map(Item.class::cast)
+                                       .collect(Collectors.toList());
+        itemService.prefetchOwningCollections(context, items);
+        // the items of a page often share their owning collection
+        converter.prefetchReadAuthorizations(items.stream()
+                                                  .map(Item::getOwningCollection)
+                                                  .filter(Objects::nonNull)
+                                                  .distinct()
+                                                  .collect(Collectors.toList()));
+    }
 }
@@ -9,7 +9,9 @@
 package org.dspace.app.rest.repository;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -54,4 +56,14 @@ public class ItemThumbnailLinkRepository extends AbstractDSpaceRestRepository im
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public void prefetch(Context context, List<?> modelObjects) throws SQLException {
+        // the thumbnail is looked up in the bundles and bitstreams of the item
+        List<Item> items = modelObjects.stream()
+                                       .filter(Item.class::isInstance)
+                                       .map(Item.class::cast)
+                                       .collect(Collectors.toList());
+        itemService.prefetchBundles(context, items);
+    }
 }
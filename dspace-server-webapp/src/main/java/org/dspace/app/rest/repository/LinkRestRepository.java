@@ -7,6 +7,11 @@
  */
 package org.dspace.app.rest.repository;
 
+import java.sql.SQLException;
+import java.util.List;
+
+import org.dspace.core.Context;
+
 /**
  * This is the interface for Link Repositories.
  *
@@ -16,4 +21,17 @@ public interface LinkRestRepository {
     default boolean isEmbeddableRelation(Object data, String name) {
         return true;
     }
+
+    /**
+     * Loads what the link methods of this repository need for all the given model objects at once, before their
+     * resources are built one by one. Called for the objects of a page when the projection may embed the link.
+     * The loaded data is expected to be kept where the link methods find it, e.g. in the session of the context,
+     * so nothing is returned.
+     *
+     * @param context      the current context
+     * @param modelObjects the model objects of the page, as converted to the rest model owning the link
+     * @throws SQLException if database error
+     */
+    default void prefetch(Context context, List<?> modelObjects) throws SQLException {
+    }
 }
@@ -8,13 +8,20 @@
 package org.dspace.app.rest.utils;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.ThreadContext;
+import org.dspace.core.Context;
+import org.dspace.core.DBStatistics;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.filter.AbstractRequestLoggingFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * This class setup the basic attributes in Mapped Diagnostic Context useful for
@@ -30,12 +37,21 @@ import org.springframework.web.filter.AbstractRequestLoggingFilter;
  * friendly client applications (such as our angular UI), if specified as
  * X-Correlation-ID (correlationID)
  *
+ * Unless logging.server.db-statistics.enabled is false, the database activity
+ * of each request (SQL statements and time, entities loaded, size of the
+ * Hibernate session cache) is collected, published as metrics per endpoint
+ * pattern and logged for requests slower than
+ * logging.server.slow-request.threshold milliseconds.
+ *
  * @author Andrea Bollini (andrea.bollini at 4science.it)
  */
 public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter {
     @Autowired
     private ConfigurationService configurationService;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Override
     protected boolean shouldLog(HttpServletRequest request) {
         return true;
@@ -74,6 +90,9 @@ public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter
             clientID = "unknown";
         }
         ThreadContext.put("correlationID", clientID);
+        if (isDBStatisticsEnabled()) {
+            DBStatistics.start();
+        }
         String referrer = request.getHeader("x-referrer");
         if (StringUtils.isBlank(referrer)) {
             referrer = request.getHeader("referer");
@@ -89,9 +108,69 @@ public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter
         if (isAfterRequestLoggingEnabled()) {
             logger.info(message);
         }
+        DBStatistics statistics = DBStatistics.getCurrent();
+        if (statistics != null) {
+            try {
+                reportDBStatistics(request, statistics);
+            } finally {
+                DBStatistics.stop();
+            }
+        }
         ThreadContext.clearAll();
     }
 
+    /**
+     * Publish the database activity of a request as metrics tagged with the endpoint pattern, and log it
+     * if the request was slow.
+     */
+    private void reportDBStatistics(HttpServletRequest request, DBStatistics statistics) {
+        // The request context is only completed by the DSpaceRequestContextFilter, after this filter
+        Object context = request.getAttribute(ContextUtil.DSPACE_CONTEXT);
+        if (context instanceof Context && ((Context) context).isValid()) {
+            ((Context) context).recordDBStatistics();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        if (meterRegistry != null) {
+            Timer.builder("dspace.request.sql.time")
+                 .description("Time spent executing SQL statements per request")
+                 .tags("uri", uri, "method", method)
+                 .register(meterRegistry)
+                 .record(statistics.getSqlNanos(), TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("dspace.request.sql.statements")
+                               .description("SQL statements executed per request")
+                               .tags("uri", uri, "method", method)
+                               .register(meterRegistry)
+                               .record(statistics.getStatementCount());
+            DistributionSummary.builder("dspace.request.entities.loaded")
+                               .description("Entities loaded from the database per request")
+                               .tags("uri", uri, "method", method)
+                               .register(meterRegistry)
+                               .record(statistics.getEntitiesLoaded());
+            DistributionSummary.builder("dspace.request.session.entities")
+                               .description("Largest size of the Hibernate session cache per request")
+                               .tags("uri", uri, "method", method)
+                               .register(meterRegistry)
+                               .record(statistics.getMaxSessionEntities());
+        }
+
+        long threshold = configurationService.getLongProperty("logging.server.slow-request.threshold", 0);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(statistics.getElapsedNanos());
+        if (threshold > 0 && elapsedMillis >= threshold) {
+            logger.warn("Slow request " + method + " " + request.getRequestURI() + " (" + uri + "): "
+                            + elapsedMillis + " ms, " + statistics.getStatementCount() + " SQL statements in "
+                            + TimeUnit.NANOSECONDS.toMillis(statistics.getSqlNanos()) + " ms, "
+                            + statistics.getEntitiesLoaded() + " entities loaded, "
+                            + statistics.getMaxSessionEntities() + " entities in session");
+        }
+    }
+
+    private boolean isDBStatisticsEnabled() {
+        return configurationService.getBooleanProperty("logging.server.db-statistics.enabled", true);
+    }
+
     private boolean isAfterRequestLoggingEnabled() {
         return configurationService.getBooleanProperty("logging.server.include-after-request");
     }
@@ -0,0 +1,194 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.utils;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.model.BitstreamRest;
+import org.dspace.app.rest.model.CollectionRest;
+import org.dspace.app.rest.model.CommunityRest;
+import org.dspace.app.rest.model.ItemRest;
+import org.dspace.app.rest.model.RestAddressableModel;
+import org.dspace.app.rest.projection.Projection;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.content.MetadataValue;
+import org.dspace.content.Relationship;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
+import org.dspace.content.service.ItemService;
+import org.dspace.content.service.RelationshipService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Computes the validators of the items, collections, communities and bitstreams served by the
+ * {@link org.dspace.app.rest.RestResourceController}, so that the conditional GET requests of clients which
+ * already have the current version of an object can be answered with 304 Not Modified before the object is
+ * converted.
+ * <P>
+ * The strong ETag is a hash of the state the default representation of the object is built from: the last
+ * modified date and status flags of items (the date is updated with their metadata) with their relationships and
+ * the last modified date of the related items (which the virtual metadata is built from), the metadata of the other
+ * objects, the archived items count of collections and communities, the file properties of bitstreams, and the
+ * current user with their admin and edit rights (which decide the hidden metadata shown). The READ permission is
+ * checked for each request, so a client losing it gets the usual error instead of a 304. Items also get a
+ * Last-Modified header, for information only: the ETag decides alone whether the object is unchanged.
+ * <P>
+ * Requests with another projection or with embeds are not handled, since the state of the embedded objects is
+ * not part of the ETag. Can be disabled with {@code rest.etag.enabled}.
+ */
+@Component
+public class ETagUtils {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * The DSpace object types handled, by model name
+     */
+    private static final Map<String, Integer> TYPES = Map.of(
+        ItemRest.PLURAL_NAME, Constants.ITEM,
+        CollectionRest.PLURAL_NAME, Constants.COLLECTION,
+        CommunityRest.PLURAL_NAME, Constants.COMMUNITY,
+        BitstreamRest.PLURAL_NAME, Constants.BITSTREAM
+    );
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private AuthorizeService authorizeService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private RelationshipService relationshipService;
+
+    @Autowired
+    private CollectionService collectionService;
+
+    @Autowired
+    private CommunityService communityService;
+
+    @Autowired
+    private Utils utils;
+
+    /**
+     * Sets the validators of the requested object on the response of a GET request for a single object, and tells
+     * whether the client already has its current version (If-None-Match header). In that case the response status
+     * is set to 304 Not Modified and nothing else needs to be written.
+     *
+     * @param webRequest  the current request
+     * @param apiCategory category from request
+     * @param model       model from request
+     * @param uuid        identifier from request
+     * @return true if the response is a 304 Not Modified, false if the object must be served as usual
+     */
+    public boolean checkNotModified(ServletWebRequest webRequest, String apiCategory, String model, UUID uuid) {
+        Integer type = TYPES.get(model);
+        if (type == null || !RestAddressableModel.CORE.equals(apiCategory)
+            || !configurationService.getBooleanProperty("rest.etag.enabled", true)
+            || utils.obtainProjection() != Projection.DEFAULT) {
+            return false;
+        }
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        try {
+            DSpaceObject dso = ContentServiceFactory.getInstance().getDSpaceObjectService(type).find(context, uuid);
+            if (dso == null || !authorizeService.authorizeActionBoolean(context, dso, Constants.READ)) {
+                // reported by the repository as usual
+                return false;
+            }
+            if (dso instanceof Item) {
+                webRequest.getResponse().setDateHeader(HttpHeaders.LAST_MODIFIED,
+                                                       ((Item) dso).getLastModified().toEpochMilli());
+            }
+            return webRequest.checkNotModified(getETag(context, dso));
+        } catch (SQLException e) {
+            // not fatal, the object is served without ETag
+            log.warn("Unable to compute the ETag of {} {}", model, uuid, e);
+            return false;
+        }
+    }
+
+    /**
+     * @param context the current context
+     * @param dso     an item, collection, community or bitstream
+     * @return the strong ETag of the default representation of the object for the current user
+     * @throws SQLException if database error
+     */
+    protected String getETag(Context context, DSpaceObject dso) throws SQLException {
+        StringBuilder state = new StringBuilder();
+        state.append(dso.getType()).append('|').append(dso.getID());
+        state.append("|user:").append(context.getCurrentUser() != null ? context.getCurrentUser().getID() : "")
+             .append('|').append(authorizeService.isAdmin(context, dso));
+
+        if (dso instanceof Item) {
+            Item item = (Item) dso;
+            state.append('|').append(itemService.canEdit(context, item))
+                 .append('|').append(item.getLastModified())
+                 .append('|').append(item.isArchived())
+                 .append('|').append(item.isWithdrawn())
+                 .append('|').append(item.isDiscoverable());
+            for (Relationship relationship : relationshipService.findByItem(context, item)) {
+                Item related = item.equals(relationship.getLeftItem())
+                    ? relationship.getRightItem() : relationship.getLeftItem();
+                state.append("|rel:").append(relationship.getID())
+                     .append(':').append(relationship.getRelationshipType().getID())
+                     .append(':').append(relationship.getLeftPlace())
+                     .append(':').append(relationship.getRightPlace())
+                     .append(':').append(relationship.getLeftwardValue())
+                     .append(':').append(relationship.getRightwardValue())
+                     .append(':').append(related.getID())
+                     .append(':').append(related.getLastModified());
+            }
+        } else {
+            for (MetadataValue value : dso.getMetadata()) {
+                state.append("|mv:").append(value.getID())
+                     .append(':').append(value.getPlace())
+                     .append(':').append(value.getLanguage())
+                     .append(':').append(value.getAuthority())
+                     .append(':').append(value.getConfidence())
+                     .append(':').append(value.getValue());
+            }
+        }
+
+        if (dso instanceof Collection) {
+            state.append("|count:").append(collectionService.countArchivedItems(context, (Collection) dso));
+        } else if (dso instanceof Community) {
+            state.append("|count:").append(communityService.countArchivedItems(context, (Community) dso));
+        } else if (dso instanceof Bitstream) {
+            Bitstream bitstream = (Bitstream) dso;
+            state.append('|').append(bitstream.getSequenceID())
+                 .append('|').append(bitstream.getSizeBytes())
+                 .append('|').append(bitstream.getChecksumAlgorithm())
+                 .append('|').append(bitstream.getChecksum())
+                 .append('|').append(bitstream.getFormat(context) != null ? bitstream.getFormat(context).getID() : "");
+            for (Bundle bundle : bitstream.getBundles()) {
+                state.append("|bundle:").append(bundle.getName());
+            }
+        }
+        return "\"" + DigestUtils.sha256Hex(state.toString()) + "\"";
+    }
+}
@@ -678,7 +678,11 @@ public class Utils {
         });
     }
 
-    private List<LinkRest> getLinkRests(Class<? extends RestAddressableModel> restClass) {
+    /**
+     * @param restClass the rest class
+     * @return the class-level LinkRest annotations of the rest class, empty if none.
+     */
+    public List<LinkRest> getLinkRests(Class<? extends RestAddressableModel> restClass) {
         List<LinkRest> list = new ArrayList<>();
         LinksRest linksAnnotation = restClass.getDeclaredAnnotation(LinksRest.class);
         if (linksAnnotation != null) {
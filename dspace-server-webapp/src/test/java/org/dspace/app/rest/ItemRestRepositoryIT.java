@@ -25,6 +25,7 @@ import static org.hamcrest.Matchers.emptyOrNullString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -32,6 +33,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -88,6 +90,7 @@ import org.dspace.content.Relationship;
 import org.dspace.content.RelationshipType;
 import org.dspace.content.WorkspaceItem;
 import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
@@ -113,6 +116,9 @@ public class ItemRestRepositoryIT extends AbstractControllerIntegrationTest {
     @Autowired
     private CollectionService collectionService;
 
+    @Autowired
+    private ItemService itemService;
+
     @Autowired
     private OrcidQueueService orcidQueueService;
 
@@ -356,6 +362,103 @@ public class ItemRestRepositoryIT extends AbstractControllerIntegrationTest {
         ;
     }
 
+    @Test
+    public void findOneConditionalTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context)
+                                          .withName("Parent Community")
+                                          .build();
+        Collection col1 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1").build();
+        Item publicItem1 = ItemBuilder.createItem(context, col1)
+                                      .withTitle("Public item 1")
+                                      .build();
+        context.restoreAuthSystemState();
+
+        MvcResult result = getClient().perform(get("/api/core/items/" + publicItem1.getID()))
+                                      .andExpect(status().isOk())
+                                      .andExpect(header().exists("ETag"))
+                                      .andExpect(header().exists("Last-Modified"))
+                                      .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+
+        // The client already has the current version
+        getClient().perform(get("/api/core/items/" + publicItem1.getID()).header("If-None-Match", etag))
+                   .andExpect(status().isNotModified())
+                   .andExpect(content().string(""));
+
+        // The representation differs for another user, and for another projection
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(get("/api/core/items/" + publicItem1.getID()).header("If-None-Match", etag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.uuid", is(publicItem1.getID().toString())));
+        getClient().perform(get("/api/core/items/" + publicItem1.getID()).param("embed", "owningCollection")
+                                                                          .header("If-None-Match", etag))
+                   .andExpect(status().isOk())
+                   .andExpect(header().doesNotExist("ETag"));
+
+        // The item is modified
+        context.turnOffAuthorisationSystem();
+        publicItem1 = context.reloadEntity(publicItem1);
+        itemService.addMetadata(context, publicItem1, "dc", "subject", null, null, "Modified");
+        itemService.update(context, publicItem1);
+        context.commit();
+        context.restoreAuthSystemState();
+
+        getClient().perform(get("/api/core/items/" + publicItem1.getID()).header("If-None-Match", etag))
+                   .andExpect(status().isOk())
+                   .andExpect(header().string("ETag", not(etag)))
+                   .andExpect(jsonPath("$.metadata['dc.subject'][0].value", is("Modified")));
+    }
+
+    @Test
+    public void findOneConditionalRelatedItemModifiedTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context)
+                                          .withName("Parent Community")
+                                          .build();
+        Collection col1 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1")
+                                           .withEntityType("Person").build();
+        Collection col2 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 2")
+                                           .withEntityType("Publication").build();
+        Item author = ItemBuilder.createItem(context, col1)
+                                 .withTitle("Author")
+                                 .withPersonIdentifierLastName("Smith")
+                                 .withPersonIdentifierFirstName("Donald")
+                                 .build();
+        Item publication = ItemBuilder.createItem(context, col2)
+                                      .withTitle("Publication")
+                                      .build();
+        EntityType publicationType = EntityTypeBuilder.createEntityTypeBuilder(context, "Publication").build();
+        EntityType personType = EntityTypeBuilder.createEntityTypeBuilder(context, "Person").build();
+        RelationshipType isAuthorOfPublication = RelationshipTypeBuilder
+            .createRelationshipTypeBuilder(context, publicationType, personType, "isAuthorOfPublication",
+                                           "isPublicationOfAuthor", 0, null, 0, null).build();
+        RelationshipBuilder.createRelationshipBuilder(context, publication, author, isAuthorOfPublication).build();
+        context.restoreAuthSystemState();
+
+        MvcResult result = getClient().perform(get("/api/core/items/" + publication.getID()))
+                                      .andExpect(status().isOk())
+                                      .andExpect(jsonPath("$.metadata['dc.contributor.author'][0].value",
+                                                          is("Smith, Donald")))
+                                      .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        getClient().perform(get("/api/core/items/" + publication.getID()).header("If-None-Match", etag))
+                   .andExpect(status().isNotModified());
+
+        // Only the related item is modified, the virtual metadata of the publication changes with it
+        context.turnOffAuthorisationSystem();
+        author = context.reloadEntity(author);
+        itemService.replaceMetadata(context, author, "person", "familyName", null, null, "Smyth", null, -1, 0);
+        itemService.update(context, author);
+        context.commit();
+        context.restoreAuthSystemState();
+
+        getClient().perform(get("/api/core/items/" + publication.getID()).header("If-None-Match", etag))
+                   .andExpect(status().isOk())
+                   .andExpect(header().string("ETag", not(etag)))
+                   .andExpect(jsonPath("$.metadata['dc.contributor.author'][0].value", is("Smyth, Donald")));
+    }
+
     @Test
     public void findOneTest() throws Exception {
         context.turnOffAuthorisationSystem();
@@ -21,16 +21,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration2.CombinedConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationConverter;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.builder.ConfigurationBuilderEvent;
+import org.apache.commons.configuration2.builder.ConfigurationBuilderResultCreatedEvent;
 import org.apache.commons.configuration2.builder.combined.ReloadingCombinedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.Event;
+import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.logging.log4j.LogManager;
@@ -42,6 +46,12 @@ import org.springframework.core.io.ClassPathResource;
 /**
  * The central DSpace configuration service. Uses Apache Commons Configuration
  * to provide the ability to reload Property files.
+ * <P>
+ * Property reads don't lock: the values are served from a {@link Snapshot}
+ * of the configuration, which is replaced as a whole whenever the
+ * configuration changes (set/cleared properties, forced or automatic reloads).
+ * Values resolved through lookups outside of the configuration (e.g. other
+ * system properties) are therefore only refreshed on the next change.
  *
  * @author Tim Donohue (rewrote to use Apache Commons Config
  * @author Aaron Zeckoski
@@ -80,6 +90,15 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     // Current Configuration Definition File
     private String configDefinition = null;
 
+    // Minimum interval (in milliseconds) between two checks for changes of the auto-reloadable configurations
+    private static final long RELOAD_CHECK_INTERVAL = 1000;
+
+    // Values read since the configuration last changed. Replaced (never cleared) on change, see invalidateSnapshot()
+    private volatile Snapshot snapshot = new Snapshot();
+
+    // Time of the next check for changes of the auto-reloadable configurations
+    private volatile long nextReloadCheck = 0;
+
     /**
      * Initializes a ConfigurationService based on default values. The DSpace
      * Home directory is determined based on system properties / searching.
@@ -200,7 +219,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name) {
+    public String getProperty(String name) {
         return getProperty(name, null);
     }
 
@@ -211,8 +230,9 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String, java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name, String defaultValue) {
-        return getPropertyAsType(name, defaultValue);
+    public String getProperty(String name, String defaultValue) {
+        Property property = getSnapshotProperty(name);
+        return property.exists ? property.value : defaultValue;
     }
 
     /**
@@ -362,11 +382,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @Override
     public boolean hasProperty(String name) {
-        if (getConfiguration().containsKey(name)) {
-            return true;
-        } else {
-            return false;
-        }
+        return getSnapshotProperty(name).exists;
     }
 
     @Override
@@ -386,6 +402,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
         Configuration configuration = getConfiguration();
         boolean isNew = !configuration.containsKey(name);
         configuration.addProperty(name, value);
+        invalidateSnapshot();
         return isNew;
     }
 
@@ -414,6 +431,9 @@ public final class DSpaceConfigurationService implements ConfigurationService {
                 getConfiguration().setProperty(name, value);
             }
         }
+        if (changed) {
+            invalidateSnapshot();
+        }
         return changed;
     }
 
@@ -474,6 +494,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
             // Either this config doesn't exist, or it is not the same value,
             // so we'll update it.
             getConfiguration().setProperty(key, value);
+            invalidateSnapshot();
             return true;
         }
     }
@@ -483,6 +504,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     public void clear() {
         getConfiguration().clear();
+        invalidateSnapshot();
         log.info("Cleared all configuration settings");
     }
 
@@ -493,6 +515,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     public void clearConfig(String key) {
         getConfiguration().clearProperty(key);
+        invalidateSnapshot();
     }
 
     // loading from files code
@@ -537,6 +560,22 @@ public final class DSpaceConfigurationService implements ConfigurationService {
                                  .setFile(new File(this.configDefinition))
                                  .setListDelimiterHandler(listDelimiterHandler));
 
+            // Drop the snapshot of the property values whenever the configuration is reset (e.g. reloaded) or
+            // changed, including changes made directly on the Configuration object returned by getConfiguration()
+            this.configurationBuilder.addEventListener(ConfigurationBuilderEvent.RESET,
+                (ConfigurationBuilderEvent e) -> invalidateSnapshot());
+            this.configurationBuilder.addEventListener(ConfigurationBuilderResultCreatedEvent.RESULT_CREATED,
+                (ConfigurationBuilderResultCreatedEvent e) -> {
+                    if (e.getConfiguration() instanceof EventSource eventSource) {
+                        eventSource.addEventListener(ConfigurationEvent.ANY, (ConfigurationEvent ce) -> {
+                            if (!ce.isBeforeUpdate()) {
+                                invalidateSnapshot();
+                            }
+                        });
+                    }
+                    invalidateSnapshot();
+                });
+
             // Parse our configuration definition and initialize resulting Configuration
             this.configurationBuilder.getConfiguration();
 
@@ -580,6 +619,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
 
             // Finally, (re)set any dynamic, default properties
             setDynamicProperties();
+            invalidateSnapshot();
         } catch (ConfigurationException ce) {
             log.error("Unable to reload configurations based on definition at {}",
                     this.configDefinition, ce);
@@ -724,6 +764,8 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * Convert the value of a given property to a specific object type.
      * <P>
      * Note: in most cases we can just use Configuration get*() methods.
+     * The converted values of immutable types are kept in the snapshot, so
+     * that each property is only converted once to a given type.
      *
      * @param name Key of the property to convert
      * @param <T>  object type
@@ -731,9 +773,10 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @SuppressWarnings("unchecked")
     private <T> T convert(String name, Class<T> type) {
+        Property property = getSnapshotProperty(name);
 
         // If this key doesn't exist, just return null
-        if (!getConfiguration().containsKey(name)) {
+        if (!property.exists) {
             // Special case. For booleans, return false if key doesn't exist
             if (Boolean.class.equals(type) || boolean.class.equals(type)) {
                 return (T) Boolean.FALSE;
@@ -742,36 +785,110 @@ public final class DSpaceConfigurationService implements ConfigurationService {
             }
         }
 
-        // Based on the type of class, call the appropriate
-        // method of the Configuration object
         if (type.isArray()) {
-            return (T) getConfiguration().getStringArray(name);
+            // Copied, as callers may modify the array
+            return (T) property.array.clone();
         } else if (String.class.equals(type) || type.isAssignableFrom(String.class)) {
-            return (T) getConfiguration().getString(name);
-        } else if (BigDecimal.class.equals(type)) {
-            return (T) getConfiguration().getBigDecimal(name);
+            return (T) property.value;
+        } else if (List.class.equals(type)) {
+            return (T) getConfiguration().getList(name);
+        } else if (property.typedValues.containsKey(type)) {
+            return (T) property.typedValues.get(type);
+        }
+
+        // Based on the type of class, call the appropriate
+        // method of the Configuration object
+        Object value;
+        if (BigDecimal.class.equals(type)) {
+            value = getConfiguration().getBigDecimal(name);
         } else if (BigInteger.class.equals(type)) {
-            return (T) getConfiguration().getBigInteger(name);
+            value = getConfiguration().getBigInteger(name);
         } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
-            return (T) Boolean.valueOf(getConfiguration().getBoolean(name));
+            value = Boolean.valueOf(getConfiguration().getBoolean(name));
         } else if (Byte.class.equals(type) || byte.class.equals(type)) {
-            return (T) Byte.valueOf(getConfiguration().getByte(name));
+            value = Byte.valueOf(getConfiguration().getByte(name));
         } else if (Double.class.equals(type) || double.class.equals(type)) {
-            return (T) Double.valueOf(getConfiguration().getDouble(name));
+            value = Double.valueOf(getConfiguration().getDouble(name));
         } else if (Float.class.equals(type) || float.class.equals(type)) {
-            return (T) Float.valueOf(getConfiguration().getFloat(name));
+            value = Float.valueOf(getConfiguration().getFloat(name));
         } else if (Integer.class.equals(type) || int.class.equals(type)) {
-            return (T) Integer.valueOf(getConfiguration().getInt(name));
-        } else if (List.class.equals(type)) {
-            return (T) getConfiguration().getList(name);
+            value = Integer.valueOf(getConfiguration().getInt(name));
         } else if (Long.class.equals(type) || long.class.equals(type)) {
-            return (T) Long.valueOf(getConfiguration().getLong(name));
+            value = Long.valueOf(getConfiguration().getLong(name));
         } else if (Short.class.equals(type) || short.class.equals(type)) {
-            return (T) Short.valueOf(getConfiguration().getShort(name));
+            value = Short.valueOf(getConfiguration().getShort(name));
         } else {
             // If none of the above works, try to convert the value to the required type
             SimpleTypeConverter converter = new SimpleTypeConverter();
             return (T) converter.convertIfNecessary(getConfiguration().getProperty(name), type);
         }
+        if (value != null) {
+            property.typedValues.putIfAbsent(type, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Get a property from the current snapshot, reading it from the configuration on first use.
+     *
+     * @param name Key of the property
+     * @return the property, never null
+     */
+    private Property getSnapshotProperty(String name) {
+        long now = System.currentTimeMillis();
+        if (now >= nextReloadCheck) {
+            nextReloadCheck = now + RELOAD_CHECK_INTERVAL;
+            // Requesting the configuration checks the auto-reloadable configurations, a reload drops the snapshot
+            getConfiguration();
+        }
+        Snapshot current = snapshot;
+        Property property = current.properties.get(name);
+        if (property == null) {
+            Configuration configuration = getConfiguration();
+            if (configuration.containsKey(name)) {
+                property = new Property(true, configuration.getString(name), configuration.getStringArray(name));
+            } else {
+                property = Property.MISSING;
+            }
+            // If the configuration changed in the meantime, this only fills the replaced snapshot
+            Property existing = current.properties.putIfAbsent(name, property);
+            if (existing != null) {
+                property = existing;
+            }
+        }
+        return property;
+    }
+
+    /**
+     * Drop the values read so far, after a change of the configuration.
+     */
+    private void invalidateSnapshot() {
+        snapshot = new Snapshot();
+    }
+
+    /**
+     * Values of the properties read from one state of the configuration.
+     * Never modified after a change: a new snapshot replaces it instead.
+     */
+    private static final class Snapshot {
+        private final Map<String, Property> properties = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A property of a snapshot, with its values as a String, an array and the other types it was read as.
+     */
+    private static final class Property {
+        private static final Property MISSING = new Property(false, null, new String[0]);
+
+        private final boolean exists;
+        private final String value;
+        private final String[] array;
+        private final Map<Class<?>, Object> typedValues = new ConcurrentHashMap<>();
+
+        private Property(boolean exists, String value, String[] array) {
+            this.exists = exists;
+            this.value = value;
+            this.array = array;
+        }
     }
 }
@@ -166,6 +166,27 @@ public class DSpaceConfigurationServiceTest {
         prop = null;
     }
 
+    /**
+     * Test that the values read before a change of the configuration are not served anymore afterwards, including
+     * changes made directly on the Configuration object.
+     */
+    @Test
+    public void testGetPropertyAfterChange() {
+        assertEquals("DSpace", configurationService.getProperty("service.name"));
+        assertEquals(0, configurationService.getIntProperty("changed.int"));
+        assertFalse(configurationService.hasProperty("changed.int"));
+
+        configurationService.setProperty("service.name", "Changed");
+        configurationService.getConfiguration().setProperty("changed.int", "42");
+        assertEquals("Changed", configurationService.getProperty("service.name"));
+        assertEquals(42, configurationService.getIntProperty("changed.int"));
+        assertTrue(configurationService.hasProperty("changed.int"));
+
+        configurationService.getConfiguration().clearProperty("changed.int");
+        assertEquals(0, configurationService.getIntProperty("changed.int"));
+        assertNull(configurationService.getProperty("changed.int"));
+    }
+
     /**
      * Test method for
      * {@link org.dspace.servicemanager.config.DSpaceConfigurationService#getArrayProperty(java.lang.String)}.
@@ -199,6 +220,11 @@ public class DSpaceConfigurationServiceTest {
         assertEquals("A,B,C", array[0]);
         configurationService.clearConfig("new.array");
 
+        // Returned arrays are copies, modifying them doesn't change the configuration
+        array = configurationService.getArrayProperty("sample.array");
+        array[0] = "modified";
+        assertEquals("itemA", configurationService.getArrayProperty("sample.array")[0]);
+
         // Test multiline arrays (requires loading configs from local.properties test config file)
         // Specifying the same property multiple times should create an array of values.
         DSpaceConfigurationService dscs = new DSpaceConfigurationService();